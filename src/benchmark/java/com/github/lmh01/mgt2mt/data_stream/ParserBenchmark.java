@@ -0,0 +1,153 @@
+package com.github.lmh01.mgt2mt.data_stream;
+
+import com.github.lmh01.mgt2mt.util.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the throughput of {@link DataFileParser} with the old parser.
+ * A synthetic data file that looks like the Genres.txt file is written to the temp folder and parsed by both parsers.
+ * Usage: ParserBenchmark [number of records] [iterations]
+ * Is not part of the tool, run it with the benchmarkParser gradle task.
+ */
+public class ParserBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParserBenchmark.class);
+    private static final String[] LANGUAGE_KEYS = {"AR", "CH", "CT", "CZ", "EN", "ES", "FR", "GE", "HU", "IT", "KO", "PB", "PL", "RO", "RU", "TU", "UA"};
+
+    public static void main(String[] args) throws IOException {
+        int numberOfRecords = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        File file = File.createTempFile("mgt2mt_parser_benchmark", ".txt");
+        file.deleteOnExit();
+        writeSyntheticDataFile(file, numberOfRecords);
+        double fileSizeInMB = file.length() / (1024d * 1024d);
+        LOGGER.info("Synthetic data file: " + numberOfRecords + " records, " + String.format("%.2f", fileSizeInMB) + " MB");
+
+        List<Map<String, String>> legacyResult = parseDataFileLegacy(file);
+        List<Map<String, String>> result = DataStreamHelper.parseDataFile(file);
+        if(!legacyResult.equals(result)){
+            LOGGER.error("The parsers returned different results!");
+            return;
+        }
+        LOGGER.info("Both parsers returned the same " + result.size() + " records");
+
+        //Warm up
+        for(int i=0; i<iterations; i++){
+            parseDataFileLegacy(file);
+            DataStreamHelper.parseDataFile(file);
+        }
+
+        long legacyTime = 0;
+        long time = 0;
+        for(int i=0; i<iterations; i++){
+            long start = System.nanoTime();
+            parseDataFileLegacy(file);
+            legacyTime += System.nanoTime() - start;
+            start = System.nanoTime();
+            DataStreamHelper.parseDataFile(file);
+            time += System.nanoTime() - start;
+        }
+        LOGGER.info("Old parser:       " + formatResult(legacyTime, iterations, fileSizeInMB));
+        LOGGER.info("Streaming parser: " + formatResult(time, iterations, fileSizeInMB));
+        LOGGER.info("Speedup: " + String.format("%.2f", (double)legacyTime/time) + "x");
+    }
+
+    /**
+     * The old char by char parser that has been replaced by {@link DataFileParser}.
+     * @param file The input file
+     * @return Returns a list containing map entries for every data package in the input text file.
+     */
+    private static List<Map<String,String>> parseDataFileLegacy(File file) throws IOException{
+        List<Map<String, String>> fileParts = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+        String currentLine;
+        boolean firstLine = true;
+        boolean firstList = true;
+        Map<String, String> mapCurrent = new HashMap<>();
+        while((currentLine = reader.readLine()) != null){
+            if(firstLine){
+                currentLine = Utils.removeUTF8BOM(currentLine);
+                if(currentLine.contains("EOF")){
+                    //This is being put into the list when the file is empty except for the [EOF]
+                    //A dummy id and name are inserted
+                    mapCurrent.put("ID", "-1");
+                    mapCurrent.put("NAME EN", "Dummy");
+                    mapCurrent.put("PIC", "0");
+                    fileParts.add(mapCurrent);
+                    reader.close();
+                    return fileParts;
+                }
+                firstLine = false;
+            }
+            if(currentLine.isEmpty()){
+                fileParts.add(mapCurrent);
+                mapCurrent = new HashMap<>();
+                firstList = false;
+            }else{
+                boolean keyComplete = false;
+                StringBuilder mapKey = new StringBuilder();
+                StringBuilder mapValue = new StringBuilder();
+                for(int i=1; i<currentLine.length(); i++){
+                    if(!keyComplete){
+                        if(String.valueOf(currentLine.charAt(i)).equals("]")){
+                            keyComplete = true;
+                            continue;
+                        }
+                    }
+                    if(keyComplete){
+                        mapValue.append(currentLine.charAt(i));
+                    }else{
+                        mapKey.append(currentLine.charAt(i));
+                    }
+                }
+                mapCurrent.put(mapKey.toString(), mapValue.toString());
+            }
+        }
+        if(firstList){
+            fileParts.add(mapCurrent);
+        }
+        reader.close();
+        return fileParts;
+    }
+
+    private static String formatResult(long nanoTime, int iterations, double fileSizeInMB){
+        double secondsPerIteration = nanoTime / 1_000_000_000d / iterations;
+        return String.format("%.2f", secondsPerIteration*1000) + " ms/file, " + String.format("%.2f", fileSizeInMB/secondsPerIteration) + " MB/s";
+    }
+
+    private static void writeSyntheticDataFile(File file, int numberOfRecords) throws IOException {
+        try(BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))){
+            bw.write("\ufeff");//Makes the file UTF8-BOM
+            for(int i=0; i<numberOfRecords; i++){
+                bw.write("[ID]" + i + System.getProperty("line.separator"));
+                for(String language : LANGUAGE_KEYS){
+                    bw.write("[NAME " + language + "]Genre " + i + System.getProperty("line.separator"));
+                    bw.write("[DESC " + language + "]This is the description of genre " + i + " in " + language + "." + System.getProperty("line.separator"));
+                }
+                bw.write("[DATE]JUN 1976" + System.getProperty("line.separator"));
+                bw.write("[RES POINTS]" + i*10 + System.getProperty("line.separator"));
+                bw.write("[PRICE]" + i*100 + System.getProperty("line.separator"));
+                bw.write("[DEV COSTS]" + i*20 + System.getProperty("line.separator"));
+                bw.write("[PIC]icon" + i + ".png" + System.getProperty("line.separator"));
+                bw.write("[TGROUP]<KID><TEEN><ADULT>" + System.getProperty("line.separator"));
+                bw.write("[GAMEPLAY]30" + System.getProperty("line.separator"));
+                bw.write("[GRAPHIC]25" + System.getProperty("line.separator"));
+                bw.write("[SOUND]25" + System.getProperty("line.separator"));
+                bw.write("[CONTROL]20" + System.getProperty("line.separator"));
+                bw.write("[GENRE COMB]<0><1><2><3>" + System.getProperty("line.separator"));
+                for(int n=1; n<=5; n++){
+                    bw.write("[DESIGN" + n + "]" + n*2 + System.getProperty("line.separator"));
+                }
+                bw.write(System.getProperty("line.separator"));
+            }
+            bw.write("[EOF]");
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package com.github.lmh01.mgt2mt;
 
-import com.github.lmh01.mgt2mt.data_stream.AnalyzeExistingGenres;
 import com.github.lmh01.mgt2mt.data_stream.DataStreamHelper;
 import com.github.lmh01.mgt2mt.data_stream.UpdateChecker;
-import com.github.lmh01.mgt2mt.util.Backup;
+import com.github.lmh01.mgt2mt.util.CommandLine;
 import com.github.lmh01.mgt2mt.util.Settings;
+import com.github.lmh01.mgt2mt.util.StartupTimer;
 import com.github.lmh01.mgt2mt.windows.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,23 +16,32 @@ public class MadGamesTycoon2ModTool {
     private static final Logger LOGGER = LoggerFactory.getLogger(MadGamesTycoon2ModTool.class);
     public static final String VERSION = "1.8.3";
     public static void main(String[] args) throws IOException {
+        if(args.length > 0){
+            System.exit(CommandLine.run(args));//Runs without gui, see CommandLine for the commands
+        }
+        StartupTimer.start();
         ToolTipManager.sharedInstance().setDismissDelay(30000);
         ToolTipManager.sharedInstance().setInitialDelay(500);
         UpdateChecker.checkForUpdates(false);
         Locale locale = new Locale("en","US");//Sets the language to english
         JOptionPane.setDefaultLocale(locale);
-        WindowMain.createFrame();
-        if(Settings.importSettings()){
+        StartupTimer.time("Creating the window", () -> {
+            WindowMain.createFrame();
+            return null;
+        });
+        if(StartupTimer.time("Importing the settings", Settings::importSettings)){
             LOGGER.info("Settings have been imported.");
             if(!DataStreamHelper.doesFolderContainFile(Settings.mgt2FilePath, "Mad Games Tycoon 2.exe")){
                 LOGGER.info("The MGT2 file path is invalid.");
-                Settings.setMgt2Folder(false);
+                WindowSettings.setMgt2Folder(false);//Shows a message when the folder could not be detected
             }
             Settings.madGamesTycoonFolderIsCorrect = true;
-            //If settings do not exist they will automatically be reset inside ImportSettings.import()
+        }else if(!DataStreamHelper.doesFolderContainFile(Settings.mgt2FilePath, "Mad Games Tycoon 2.exe")){
+            //The settings have been reset inside ImportSettings.import(), the folder has already been searched there
+            LOGGER.info("The MGT2 file path is invalid.");
+            WindowSettings.showMgt2FolderNotDetectedMessage();
         }
-        Backup.createInitialBackup();//Creates a initial backup when it does not already exist.
-        AnalyzeExistingGenres.analyzeGenreFile();
-        WindowMain.checkActionAvailability();
+        StartupTimer.logElapsed("The window is ready");
+        WindowMain.loadGameFiles();//The game files are loaded in the background
     }
 }
\ No newline at end of file
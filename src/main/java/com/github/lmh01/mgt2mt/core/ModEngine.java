@@ -0,0 +1,332 @@
+package com.github.lmh01.mgt2mt.core;
+
+import com.github.lmh01.mgt2mt.data_stream.*;
+import com.github.lmh01.mgt2mt.util.*;
+import com.github.lmh01.mgt2mt.util.interfaces.EngineListener;
+import com.github.lmh01.mgt2mt.util.interfaces.Exporter;
+import com.github.lmh01.mgt2mt.util.interfaces.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Loads, queries and changes the mods of one game folder without showing any window. The gui, the command line and benchmarks use the same functions.
+ * Progress is reported to the {@link EngineListener}, changes that can not be undone easily (eg. importing mods, restoring a backup) are only applied when the listener confirms them.
+ * The parsed game files are held in static fields (eg. {@link AnalyzeExistingGenres#genreList}), so every operation of every engine holds {@link #LOCK}: operations that are started on different threads run one after another.
+ * The lists that are returned are copies and can be used on any thread.
+ */
+public class ModEngine {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModEngine.class);
+    public static final ReentrantLock LOCK = new ReentrantLock();
+    public static final String BACKUP_FULL = "full";
+    public static final String BACKUP_GENRE = "genre";
+    public static final String BACKUP_THEME = "theme";
+    public static final String BACKUP_SAVE_GAME = "save_game";
+    private final String gameFolder;
+    private final EngineListener listener;
+
+    /**
+     * @param gameFolder The folder in which Mad Games Tycoon 2 is installed
+     * @param listener Receives the progress and confirms the changes
+     */
+    public ModEngine(String gameFolder, EngineListener listener){
+        this.gameFolder = gameFolder;
+        this.listener = listener;
+    }
+
+    /**
+     * @return Returns true when the folder contains Mad Games Tycoon 2.
+     */
+    public static boolean isGameFolder(String folder){
+        return DataStreamHelper.doesFolderContainFile(folder, "Mad Games Tycoon 2.exe");
+    }
+
+    public String getGameFolder(){
+        return gameFolder;
+    }
+
+    /**
+     * Completes or discards the changes that have been interrupted the last time the tool was running and creates the initial backup when it does not exist.
+     * Should be called before the game files are changed.
+     * @return Returns the files that have been recovered.
+     */
+    public List<File> recover() throws IOException {
+        return locked(() -> {
+            List<File> recoveredFiles = Journal.recover();
+            String initialBackupError = Backup.createInitialBackup();
+            if(!initialBackupError.isEmpty()){
+                throw new IOException("The initial backup could not be created: " + initialBackupError);
+            }
+            return recoveredFiles;
+        });
+    }
+
+    /**
+     * Reads every game file. Files that have not changed since they have been read the last time are not read again, see {@link GameDataRepository}.
+     */
+    public void load() throws IOException {
+        locked(() -> {
+            loadGameFiles();
+            return null;
+        });
+    }
+
+    /**
+     * Reads the game files in parallel. Each file is analyzed by its own thread, the analyzers do not depend on each other.
+     * Files that have not changed since the last launch are taken from the snapshot of the {@link GameDataRepository}, the snapshot is updated afterwards.
+     * The caller has to hold {@link #LOCK}.
+     */
+    public static void loadGameFiles() throws IOException {
+        GameDataRepository.INSTANCE.loadSnapshot();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        tasks.add(() -> {AnalyzeExistingGenres.analyzeGenreFile(); return null;});
+        tasks.add(() -> {AnalyzeExistingThemes.analyzeThemeFiles(); return null;});
+        tasks.add(() -> {AnalyzeExistingPublishers.analyzePublisherFile(); return null;});
+        tasks.add(() -> {AnalyzeExistingGameplayFeatures.analyzeGameplayFeatures(); return null;});
+        tasks.add(() -> {AnalyzeExistingEngineFeatures.analyzeEngineFeatures(); return null;});
+        try{
+            ParallelExecutor.runAll("reading game files", tasks);
+        }finally{
+            //The files that have been read are cached even when a different file could not be read
+            GameDataRepository.INSTANCE.saveSnapshot();
+        }
+    }
+
+    /**
+     * @param type The type of the entries. Eg. {@link ModPackage#TYPE_GENRE}
+     * @return Returns the english names of all entries of the type.
+     */
+    public List<String> getEntries(String type) throws IOException {
+        return locked(() -> {
+            List<String> entries = new ArrayList<>();
+            if(type.equals(ModPackage.TYPE_THEME)){
+                AnalyzeExistingThemes.analyzeThemeFiles();
+                entries.addAll(AnalyzeExistingThemes.MAP_ACTIVE_THEMES_EN.values());
+                return entries;
+            }
+            for(Map<String, String> record : getRecords(type)){
+                entries.add(record.get("NAME EN"));
+            }
+            return entries;
+        });
+    }
+
+    /**
+     * @param type The type of the entries. Eg. {@link ModPackage#TYPE_GENRE}
+     * @return Returns the english names of the entries of the type that have been added by mods. Only these entries can be exported and removed, unless the safety features are disabled.
+     */
+    public List<String> getCustomEntries(String type) throws IOException {
+        return locked(() -> {
+            load();
+            switch(type){
+                case ModPackage.TYPE_ENGINE_FEATURE: return new ArrayList<>(Arrays.asList(AnalyzeExistingEngineFeatures.getCustomEngineFeaturesString()));
+                case ModPackage.TYPE_GAMEPLAY_FEATURE: return new ArrayList<>(Arrays.asList(AnalyzeExistingGameplayFeatures.getCustomGameplayFeaturesString()));
+                case ModPackage.TYPE_GENRE: return new ArrayList<>(Arrays.asList(AnalyzeExistingGenres.getCustomGenresByAlphabetWithoutId()));
+                case ModPackage.TYPE_PUBLISHER: return new ArrayList<>(Arrays.asList(AnalyzeExistingPublishers.getCustomPublisherString()));
+                default: return new ArrayList<>(Arrays.asList(AnalyzeExistingThemes.getCustomThemesByAlphabet()));
+            }
+        });
+    }
+
+    /**
+     * Searches the folders for mods, reads them and checks which mods can be imported. Nothing is imported.
+     * @param folders The folders that should be searched
+     * @param failedFiles The files that could not be read are added to this list
+     * @return Returns the mods. Mods that can not be imported already have a return value, see {@link ImportPipeline#resolveConflicts(List, com.github.lmh01.mgt2mt.util.interfaces.ImportProgress)}.
+     */
+    public List<ImportCandidate> prepareImport(List<File> folders, List<File> failedFiles) throws IOException {
+        for(File folder : folders){
+            if(!folder.isDirectory()){
+                throw new FileNotFoundException("The folder does not exist: " + folder.getPath());
+            }
+        }
+        return locked(() -> {
+            List<ImportCandidate> candidates = ImportPipeline.parse(ImportPipeline.discover(folders, listener), listener, failedFiles);
+            ImportPipeline.resolveConflicts(candidates, listener);
+            return candidates;
+        });
+    }
+
+    /**
+     * @return Returns the changes that would be made by importing the mods.
+     */
+    public ImportPlan planImport(List<ImportCandidate> candidates) throws IOException {
+        return locked(() -> ImportPlan.create(candidates));
+    }
+
+    /**
+     * Imports the mods when the listener confirms the {@link ImportPlan}. Every game file is written once.
+     * @return Returns false when the listener has declined the changes. The return value of each mod tells whether it has been imported, it is null when the mod could not be imported because of an error.
+     */
+    public boolean importMods(List<ImportCandidate> candidates) throws IOException {
+        return locked(() -> {
+            if(!listener.confirm("Import preview", ImportPlan.create(candidates).getReport())){
+                LOGGER.info("The import has been declined");
+                return false;
+            }
+            ImportPipeline.commit(candidates, false, listener);
+            return true;
+        });
+    }
+
+    /**
+     * Exports the entry to the export folder.
+     * @return Returns false when the entry has already been exported.
+     */
+    public boolean export(String type, String name) throws IOException {
+        return locked(() -> getExporter(type).export(name));
+    }
+
+    /**
+     * Removes the entry from the game files. Call this function inside {@link #commit(Transactional)} to remove multiple entries at once.
+     * @return Returns false when the entry could not be removed.
+     * @throws IOException Is thrown when the entry has not been added by a mod and the safety features are enabled.
+     */
+    public boolean remove(String type, String name) throws IOException {
+        return locked(() -> {
+            if(!Settings.disableSafetyFeatures && !getCustomEntries(type).contains(name)){
+                throw new IOException(name + " is not a custom " + ImportPipeline.getImportName(type).toLowerCase(Locale.ROOT) + " and can not be removed");
+            }
+            return getRemover(type).export(name);
+        });
+    }
+
+    /**
+     * Runs the changes in one transaction: every game file is written once when all changes have been made, no file is written when a change fails.
+     */
+    public void commit(Transactional changes) throws IOException {
+        locked(() -> {
+            GameDataRepository.INSTANCE.runInTransaction(changes);
+            return null;
+        });
+    }
+
+    /**
+     * @param backupType One of {@link #BACKUP_FULL}, {@link #BACKUP_GENRE}, {@link #BACKUP_THEME} and {@link #BACKUP_SAVE_GAME}
+     * @return Returns the number of files that have been skipped because they have not changed since the last backup.
+     */
+    public int backup(String backupType) throws IOException {
+        return locked(() -> {
+            switch(backupType){
+                case BACKUP_GENRE: return Backup.createBackups(Arrays.asList(Utils.getGenreFile(), Utils.getNpcGamesFile()), false, "genre");
+                case BACKUP_THEME: return Backup.createThemeFilesBackup(false);
+                case BACKUP_SAVE_GAME: return Backup.backupSaveGames(false);
+                default: return Backup.createFullBackup("engine");
+            }
+        });
+    }
+
+    /**
+     * Restores the game files when the listener confirms it.
+     * The latest backup is the newest backed up content of each game file, see {@link Backup#restoreBackup(boolean, boolean)}.
+     * @param initialBackup True when the initial backup should be restored, false when the latest backup should be restored
+     * @return Returns the names of the files that have been restored. Returns null when the listener has declined the restore.
+     */
+    public List<String> restore(boolean initialBackup) throws IOException {
+        return locked(() -> {
+            if(!listener.confirm("Restore backup", "The game files will be restored from the " + (initialBackup ? "initial" : "latest") + " backup.")){
+                return null;
+            }
+            List<String> restoredFiles = Backup.restoreBackup(initialBackup, false);
+            GameDataRepository.INSTANCE.notifyChanged();
+            return restoredFiles;
+        });
+    }
+
+    /**
+     * Checks that the content of every backup can be restored. Content that is referenced by multiple backups is checked once.
+     * @return Returns the checked files of each backup (eg. latest/Genres.txt) and the error message, an empty string when the file can be restored.
+     */
+    public Map<String, String> verifyBackups() throws IOException {
+        return locked(() -> {
+            Map<String, String> results = new LinkedHashMap<>();
+            Map<String, String> verifiedHashes = new HashMap<>();
+            List<String> manifestNames = BackupStore.getManifestNames();
+            for(int i=0; i<manifestNames.size(); i++){
+                for(Map.Entry<String, String> entry : BackupStore.getManifest(manifestNames.get(i)).entrySet()){
+                    String error = verifiedHashes.get(entry.getValue());
+                    if(error == null){
+                        try{
+                            BackupStore.verifyContent(entry.getValue());
+                            error = "";
+                        }catch(IOException e){
+                            error = String.valueOf(e.getMessage());
+                        }
+                        verifiedHashes.put(entry.getValue(), error);
+                    }
+                    results.put(manifestNames.get(i) + "/" + entry.getKey(), error);
+                }
+                listener.progress("Checking backups", i+1, manifestNames.size());
+            }
+            return results;
+        });
+    }
+
+    /**
+     * @return Returns the parsed data packages of the type. Themes are not stored as data packages.
+     */
+    private static List<Map<String, String>> getRecords(String type) throws IOException {
+        List<Map<String, String>> records = new ArrayList<>();
+        switch(type){
+            case ModPackage.TYPE_ENGINE_FEATURE:
+                AnalyzeExistingEngineFeatures.analyzeEngineFeatures();
+                records.addAll(AnalyzeExistingEngineFeatures.engineFeatures);
+                break;
+            case ModPackage.TYPE_GAMEPLAY_FEATURE:
+                AnalyzeExistingGameplayFeatures.analyzeGameplayFeatures();
+                records.addAll(AnalyzeExistingGameplayFeatures.gameplayFeatures);
+                break;
+            case ModPackage.TYPE_GENRE:
+                AnalyzeExistingGenres.analyzeGenreFile();
+                records.addAll(AnalyzeExistingGenres.genreList);
+                break;
+            default:
+                AnalyzeExistingPublishers.analyzePublisherFile();
+                records.addAll(AnalyzeExistingPublishers.getListMap());
+        }
+        return records;
+    }
+
+    private static Exporter getExporter(String type){
+        switch(type){
+            case ModPackage.TYPE_ENGINE_FEATURE: return SharingHandler::exportEngineFeature;
+            case ModPackage.TYPE_GAMEPLAY_FEATURE: return SharingHandler::exportGameplayFeature;
+            case ModPackage.TYPE_GENRE: return SharingHandler::exportGenre;
+            case ModPackage.TYPE_PUBLISHER: return SharingHandler::exportPublisher;
+            default: return SharingHandler::exportTheme;
+        }
+    }
+
+    private static Exporter getRemover(String type){
+        switch(type){
+            case ModPackage.TYPE_ENGINE_FEATURE: return EditEngineFeaturesFile::removeEngineFeature;
+            case ModPackage.TYPE_GAMEPLAY_FEATURE: return EditGameplayFeaturesFile::removeGameplayFeature;
+            case ModPackage.TYPE_GENRE: return EditGenreFile::removeGenre;
+            case ModPackage.TYPE_PUBLISHER: return EditPublishersFile::removePublisher;
+            default: return EditThemeFiles::removeTheme;
+        }
+    }
+
+    /**
+     * Runs the operation while {@link #LOCK} is held and the game folder of this engine is selected.
+     */
+    private <T> T locked(Operation<T> operation) throws IOException {
+        LOCK.lock();
+        try{
+            Settings.mgt2FilePath = gameFolder;
+            return operation.run();
+        }finally{
+            LOCK.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operation<T> {
+        T run() throws IOException;
+    }
+}
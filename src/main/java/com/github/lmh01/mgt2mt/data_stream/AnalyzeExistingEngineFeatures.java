@@ -1,5 +1,6 @@
 package com.github.lmh01.mgt2mt.data_stream;
 
+import com.github.lmh01.mgt2mt.util.Settings;
 import com.github.lmh01.mgt2mt.util.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,13 +13,20 @@ import java.util.Map;
 public class AnalyzeExistingEngineFeatures {
     private static final Logger LOGGER = LoggerFactory.getLogger(AnalyzeExistingGameplayFeatures.class);
     public static List<Map<String, String>> engineFeatures;
+    public static RecordIndex engineFeatureIndex;
     public static int maxEngineFeatureId = 0;
 
     /**
      * Analyzes the file GameplayFeatures.txt and puts its values into the gameplayFeature list.
      */
     public static void analyzeEngineFeatures() throws IOException {
-        engineFeatures = DataStreamHelper.parseDataFile(Utils.getEngineFeaturesFile());
+        List<Map<String, String>> list = GameDataRepository.INSTANCE.getRecords(Utils.getEngineFeaturesFile());
+        if(list == engineFeatures){
+            //The file did not change since it has been analyzed the last time
+            return;
+        }
+        engineFeatures = list;
+        engineFeatureIndex = new RecordIndex(list);
         int currentMaxEngineFeatureId = 0;
         for (Map<String, String> map : engineFeatures) {
             for (Map.Entry<String, String> entry : map.entrySet()) {
@@ -65,15 +73,10 @@ public class AnalyzeExistingEngineFeatures {
      * @return Returns the engine feature id for the specified name.
      */
     public static int getEngineFeatureIdByName(String engineFeatureName){
-        int genreId = -1;
-        for(Map<String, String> map : engineFeatures){
-            if(map.get("NAME EN").equals(engineFeatureName)){
-                genreId = Integer.parseInt(map.get("ID"));
-            }
-        }
+        int genreId = engineFeatureIndex.getIdByName(engineFeatureName);
         if(genreId == -1){
             LOGGER.info("Engine feature [" + engineFeatureName + "] does not exist");
-        }else{
+        }else if(Settings.enableDebugLogging){
             LOGGER.info("Engine feature [" + engineFeatureName + "] has been found. Id: " + genreId);
         }
         return genreId;
@@ -100,14 +103,6 @@ public class AnalyzeExistingEngineFeatures {
      * @return Returns a map containing all values for the specified engine feature.
      */
     public static Map<String, String> getSingleEngineFeatureByNameMap(String engineFeatureNameEn){
-        List<Map<String, String>> list = engineFeatures;
-        Map<String, String> mapSingleEngineFeature = null;
-        int engineFeaturePosition = getEngineFeatureIdByName(engineFeatureNameEn);
-        for(int i=0; i<list.size(); i++){
-            if(i == engineFeaturePosition){
-                mapSingleEngineFeature = list.get(i);
-            }
-        }
-        return mapSingleEngineFeature;
+        return engineFeatureIndex.getRecordByName(engineFeatureNameEn);
     }
 }
@@ -1,5 +1,6 @@
 package com.github.lmh01.mgt2mt.data_stream;
 
+import com.github.lmh01.mgt2mt.util.Settings;
 import com.github.lmh01.mgt2mt.util.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,13 +14,40 @@ public class AnalyzeExistingGameplayFeatures {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AnalyzeExistingGameplayFeatures.class);
     public static List<Map<String, String>> gameplayFeatures;
+    public static RecordIndex gameplayFeatureIndex;
+    public static CompatibilityMatrix goodGenres;//Rows are the positions of the gameplay features in the list, columns are the genre ids
+    public static CompatibilityMatrix badGenres;
     public static int maxGameplayFeatureId = 0;
 
     /**
      * Analyzes the file GameplayFeatures.txt and puts its values into the gameplayFeature list.
      */
     public static void analyzeGameplayFeatures() throws IOException {
-        gameplayFeatures = DataStreamHelper.parseDataFile(Utils.getGameplayFeaturesFile());
+        List<Map<String, String>> list = GameDataRepository.INSTANCE.getRecords(Utils.getGameplayFeaturesFile());
+        if(list == gameplayFeatures){
+            //The file did not change since it has been analyzed the last time
+            return;
+        }
+        CompatibilityMatrix good = new CompatibilityMatrix();
+        CompatibilityMatrix bad = new CompatibilityMatrix();
+        for(int i=0; i<list.size(); i++){
+            good.setRow(i, list.get(i).getOrDefault("GOOD", ""));
+            bad.setRow(i, list.get(i).getOrDefault("BAD", ""));
+        }
+        setGameplayFeatures(list, good, bad);
+    }
+
+    /**
+     * Sets the gameplay features without analyzing the genre allocations again.
+     * @param list The gameplay features
+     * @param good The good genres of the gameplay features in the list
+     * @param bad The bad genres of the gameplay features in the list
+     */
+    static void setGameplayFeatures(List<Map<String, String>> list, CompatibilityMatrix good, CompatibilityMatrix bad){
+        gameplayFeatures = list;
+        gameplayFeatureIndex = new RecordIndex(list);
+        goodGenres = good;
+        badGenres = bad;
         int currentMaxGameplayFeatureId = 0;
         for (Map<String, String> map : gameplayFeatures) {
             for (Map.Entry<String, String> entry : map.entrySet()) {
@@ -66,15 +94,10 @@ public class AnalyzeExistingGameplayFeatures {
      * @return Returns the gameplay feature id for the specified name.
      */
     public static int getGameplayFeatureIdByName(String gameplayFeatureName){
-        int genreId = -1;
-        for(Map<String, String> map : gameplayFeatures){
-            if(map.get("NAME EN").equals(gameplayFeatureName)){
-                genreId = Integer.parseInt(map.get("ID"));
-            }
-        }
+        int genreId = gameplayFeatureIndex.getIdByName(gameplayFeatureName);
         if(genreId == -1){
             LOGGER.info("Gameplay feature [" + gameplayFeatureName + "] does not exist");
-        }else{
+        }else if(Settings.enableDebugLogging){
             LOGGER.info("Gameplay feature [" + gameplayFeatureName + "] has been found. Id: " + genreId);
         }
         return genreId;
@@ -101,14 +124,6 @@ public class AnalyzeExistingGameplayFeatures {
      * @return Returns a map containing all values for the specified gameplay feature.
      */
     public static Map<String, String> getSingleGameplayFeatureByNameMap(String gameplayFeatureNameEn){
-        List<Map<String, String>> list = gameplayFeatures;
-        Map<String, String> mapSingleGameplayFeature = null;
-        int gameplayFeaturePosition = getGameplayFeatureIdByName(gameplayFeatureNameEn);
-        for(int i=0; i<list.size(); i++){
-            if(i == gameplayFeaturePosition){
-                mapSingleGameplayFeature = list.get(i);
-            }
-        }
-        return mapSingleGameplayFeature;
+        return gameplayFeatureIndex.getRecordByName(gameplayFeatureNameEn);
     }
 }
@@ -11,11 +11,18 @@ import java.util.*;
 public class AnalyzeExistingGenres {
     public static final File FILE_GENRES_BY_ID_HELP = new File(Settings.MGT2_MOD_MANAGER_PATH + "\\CurrentGenreIDsByName.txt");
     public static List<Map<String, String>> genreList;
+    public static RecordIndex genreIndex;
     public static int maxGenreID = 0;
     private static final Logger LOGGER = LoggerFactory.getLogger(AnalyzeExistingGenres.class);
 
     public static void analyzeGenreFile() throws IOException {
-        genreList = DataStreamHelper.parseDataFile(Utils.getGenreFile());
+        List<Map<String, String>> list = GameDataRepository.INSTANCE.getRecords(Utils.getGenreFile());
+        if(list == genreList){
+            //The file did not change since it has been analyzed the last time
+            return;
+        }
+        genreList = list;
+        genreIndex = new RecordIndex(list);
         int currentMaxGenreId = 0;
         for (Map<String, String> map : genreList) {
             for (Map.Entry<String, String> entry : map.entrySet()) {
@@ -144,7 +151,11 @@ public class AnalyzeExistingGenres {
      * @throws ArrayIndexOutOfBoundsException Is thrown when the requested genre id does not exist in the map.
      */
     public static String getGenreNameById(int id) throws ArrayIndexOutOfBoundsException{
-        return getGenreNamesInUse().get(id);
+        Map<String, String> map = genreIndex.getRecordById(id);
+        if(map == null){
+            throw new ArrayIndexOutOfBoundsException(id);
+        }
+        return map.get("NAME EN");
     }
 
     /**
@@ -153,15 +164,10 @@ public class AnalyzeExistingGenres {
      * @return Returns the genre id for the specified name.
      */
     public static int getGenreIdByName(String genreName){
-        int genreId = -1;
-        for(Map<String, String> map : genreList){
-            if(map.get("NAME EN").equals(genreName)){
-                genreId = Integer.parseInt(map.get("ID"));
-            }
-        }
+        int genreId = genreIndex.getIdByName(genreName);
         if(genreId == -1){
             LOGGER.info("Genre [" + genreName + "] does not exist");
-        }else{
+        }else if(Settings.enableDebugLogging){
             LOGGER.info("Genre [" + genreName + "] has been found. Id: " + genreId);
         }
         return genreId;
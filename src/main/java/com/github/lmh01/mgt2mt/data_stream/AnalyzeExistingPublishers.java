@@ -7,11 +7,18 @@ import java.util.*;
 public class AnalyzeExistingPublishers {
 
     private static List<Map<String, String>> publisherList;
+    private static RecordIndex publisherIndex;
     public static final String[] ORIGINAL_PUBLISHERS = {"3D Reality", "Actvision", "Akklaim", "Akkoload", "Apache", "BMP Bros", "Blizzer Studios", "Blockstar", "Blue Ocean", "Brobound", "Code Kings", "Coey", "Comani", "Comgie", "Cupcoms", "Data West", "Disc Project", "Droid Games", "E-Mix", "Eastwood Studios", "Electric Arts", "Ellie", "Epix Ware", "Erik Games", "Form Studios", "Frog Studios", "Galaxis", "Green Byte", "Green Isle", "Group 18", "Hutbros", "Hutsin", "Infocorp", "Inter Games", "Katari", "Kencom", "Kramlin", "Lava Logic", "Lion Works", "Microarts", "Middle", "Minisoft", "Mintendu", "Mono Soft", "Nanko", "Naughty Bear", "Origo", "Panda", "Pigsys", "Pony", "Quantum Dream", "RainCode", "Romady", "Rore", "Siga", "Sir-Code", "Sunglasses Studios", "Sunwork", "Systech-4", "TLO", "Tech Soft", "Teitu", "Tripple House", "Unisoft", "User Gold", "Virtual", "ZZI Games", "Zensible Studio", "Ziera", "iGames", "it Studios"};
     public static int maxPublisherID = 0;
 
     public static void analyzePublisherFile() throws IOException {
-        publisherList = DataStreamHelper.parseDataFile(Utils.getPublisherFile());
+        List<Map<String, String>> list = GameDataRepository.INSTANCE.getRecords(Utils.getPublisherFile());
+        if(list == publisherList){
+            //The file did not change since it has been analyzed the last time
+            return;
+        }
+        publisherList = list;
+        publisherIndex = new RecordIndex(list);
         try{
             maxPublisherID = publisherList.stream()
                     .map(map -> Integer.parseInt(map.get("ID")))
@@ -28,6 +35,13 @@ public class AnalyzeExistingPublishers {
     public static List<Map<String, String>> getListMap(){
         return publisherList;
     }
+
+    /**
+     * @return Returns the index of the publishers by id and english name.
+     */
+    public static RecordIndex getIndex(){
+        return publisherIndex;
+    }
     public static String[] getPublisherString(){
         ArrayList<String> arrayListActivePublishers = new ArrayList<>();
         List<Map<String, String>> listPublishers = getListMap();
@@ -57,15 +71,7 @@ public class AnalyzeExistingPublishers {
     }
 
     public static Map<String, String> getSinglePublisherByNameMap(String publisherNameEN){
-        List<Map<String, String>> list = getListMap();
-        Map<String, String> mapSingleGenre = null;
-        int publisherPosition = EditPublishersFile.getPublisherPositionInList(publisherNameEN);
-        for(int i=0; i<list.size(); i++){
-            if(i == publisherPosition){
-                mapSingleGenre = list.get(i);
-            }
-        }
-        return mapSingleGenre;
+        return getListMap().get(EditPublishersFile.getPublisherPositionInList(publisherNameEN));
     }
 
     /**
@@ -6,6 +6,7 @@ import com.github.lmh01.mgt2mt.util.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.io.*;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 
@@ -13,56 +14,83 @@ public class AnalyzeExistingThemes {
 
     public static final HashMap<Integer,String> MAP_ACTIVE_THEMES_GE = new HashMap<>();
     public static final HashMap<Integer,String> MAP_ACTIVE_THEMES_EN = new HashMap<>();
+    private static final HashMap<String,Integer> MAP_THEME_IDS_BY_NAME_EN = new HashMap<>();
     public static final String[] DEFAULT_THEMES = {"Agents", "Agriculture", "Airplanes", "Aliens", "American Football", "Angel", "Animals", "Anime", "Art", "Assassins", "Barbarians", "Baseball", "Basketball", "Bicycle", "Birds", "Bounty Hunter", "Boxing", "Building blocks", "Bunker", "Cabs", "Candy", "Cars", "Casinos", "Castles", "Cats", "Chemistry", "Cinema", "Cities", "Colonization", "Comedy", "Companies", "Conquest", "Conspiracies", "Contract killer", "Cooking", "Cowboys", "Cricket", "Crime", "Crocodiles", "Cyberpunk", "Cyberspace", "Cyborgs", "Dancing", "Dating", "Demons", "Detectives", "Devils", "Digging", "Dinosaurs", "Diving", "Doctors", "Dogs", "Dragons", "Drawing", "Dreams", "Druids", "Dungeons", "Dwarfs", "Economy", "Education", "Elements", "Elves", "End Time", "Erotica", "Espionage", "Everyday life", "Evolution", "Extreme sports", "Fairies", "Fantasy", "Fashion", "Fire Department", "Fishes", "Fitness", "Food", "Frogs", "Fruits", "Gambling", "Game development", "Gangsters", "Ghosts", "Goats", "Gods", "Golf", "Hacking", "Helicopters", "Hell", "Historical", "Horror", "Horses", "Hospital", "Hunting", "Ice Age", "Ice Hockey", "Industrialization", "Insects", "Islands", "Karate", "Kids", "Knights", "Mafia", "Martial arts", "Mathematics", "Mecha", "Mercenary", "Middle Ages", "Military", "Monkeys", "Monster", "Motorcycles", "Motorsports", "Movies", "Mushrooms", "Music", "Ninjas", "Octopuses", "Orcs", "Paintball", "Parallel worlds", "Pets", "Physics", "Pirates", "Planets", "Plants", "Plumber", "Police", "Politics", "Portals", "Predators", "Prison", "Puzzles", "Quiz show", "Rabbits", "Radioactivity", "Religion", "Reporters", "Revolutions", "Robots", "Rockstars", "Romans", "Rugby", "Samurai", "Sandbox", "School", "Science", "Sheep", "Ships", "Singing", "Skeletons", "Soccer", "Space", "Space stations", "Spaceships", "Special Forces", "Sports", "Squirrels", "Steampunk", "Stone Age", "Stones", "Submarines", "Superheroes", "Survival", "Tanks", "Television", "Tennis", "Theme Parks", "Thieves", "Time Travel", "Toys", "Trains", "Transportation", "Treasure hunters", "Treasures", "Trolls", "Trucks", "UFOs", "Vacation", "Vampires", "Vikings", "Viruses", "Werewolves", "Wild West", "Witches", "Wizards", "World Wars", "Worms", "Wrestling", "Zombies", "Zoo", "Fishing", "Apocalypse", "Parlor games", "Swimming", "Civilizations", "Factories", "Saboteurs", "Renovate", "Noble houses", "Mining", "Healthcare", "Archaeology", "Chickens", "Expeditions"};
     public static final File FILE_THEMES_BY_ID_HELP = new File(Settings.MGT2_MOD_MANAGER_PATH + "\\CurrentThemesByID.txt");
     private static final Logger LOGGER = LoggerFactory.getLogger(AnalyzeExistingThemes.class);
+    private static final List<Integer> THEME_LINE_NUMBERS_GE = new ArrayList<>();
+    private static CompatibilityMatrix themeGenres = new CompatibilityMatrix();
+    private static List<String> themesGeLines;
+    private static List<String> themesEnLines;
 
     //The theme combinations are only changed in the Themes_GE.txt file
     public static void analyzeThemeFiles() throws IOException {
-        analyzeThemesFileGE();
-        analyzeThemesFileEN();
+        List<String> linesGe = GameDataRepository.INSTANCE.getLines(Utils.getThemesGeFile(), StandardCharsets.UTF_16LE);
+        List<String> linesEn = GameDataRepository.INSTANCE.getLines(Utils.getThemesEnFile(), StandardCharsets.UTF_16LE);
+        if(linesGe == themesGeLines && linesEn == themesEnLines){
+            //The files did not change since they have been analyzed the last time
+            return;
+        }
+        analyzeThemesFileGE(linesGe);
+        analyzeThemesFileEN(linesEn);
+        MAP_THEME_IDS_BY_NAME_EN.clear();
+        for(int i=0; i<MAP_ACTIVE_THEMES_EN.size(); i++){
+            MAP_THEME_IDS_BY_NAME_EN.putIfAbsent(MAP_ACTIVE_THEMES_EN.get(i), i);
+        }
         writeHelpFile();
+        themesGeLines = linesGe;
+        themesEnLines = linesEn;
     }
 
-    private static void analyzeThemesFileGE() throws IOException {
+    /**
+     * Replaces the analyzed Themes_GE.txt content with the lines that have just been written to the file.
+     * @param lines The lines as they are cached by the {@link GameDataRepository}
+     * @param genres The genre compatibility of the themes, matching the lines
+     */
+    static void setThemesGe(List<String> lines, CompatibilityMatrix genres){
         MAP_ACTIVE_THEMES_GE.clear();
-        File themesGeFile = Utils.getThemesGeFile();
-        LOGGER.info("Scanning for themes in file: " + themesGeFile);
-        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(themesGeFile), StandardCharsets.UTF_16LE));
-        String currentLine;
-        boolean firstLine = true;
-        int themeID = 0;//Theme id is added to make the sorting and selection of the compatible theme easier
-        while((currentLine = reader.readLine()) != null){
-            if(firstLine){
-                currentLine = Utils.removeUTF8BOM(currentLine);
-                firstLine = false;
+        THEME_LINE_NUMBERS_GE.clear();
+        int themeID = 0;
+        for(int i=0; i<lines.size(); i++){
+            if(!lines.get(i).equals("")){
+                MAP_ACTIVE_THEMES_GE.put(themeID, lines.get(i));
+                THEME_LINE_NUMBERS_GE.add(i+1);
+                themeID++;
             }
+        }
+        themeGenres = genres;
+        themesGeLines = lines;
+    }
+
+    private static void analyzeThemesFileGE(List<String> lines){
+        MAP_ACTIVE_THEMES_GE.clear();
+        THEME_LINE_NUMBERS_GE.clear();
+        CompatibilityMatrix genres = new CompatibilityMatrix();
+        LOGGER.info("Scanning for themes in file: " + Utils.getThemesGeFile());
+        int themeID = 0;//Theme id is added to make the sorting and selection of the compatible theme easier
+        int lineNumber = 1;
+        for(String currentLine : lines){
             if(!currentLine.equals("")){
                 MAP_ACTIVE_THEMES_GE.put(themeID, currentLine);
+                THEME_LINE_NUMBERS_GE.add(lineNumber);
+                genres.setRow(themeID, currentLine);
                 if(Settings.enableDebugLogging){
                     LOGGER.info("Added entry to array map MAP_ACTIVE_THEMES_GE: " + "[" + themeID + "] " + currentLine);
                     LOGGER.info("Entry in map: " + MAP_ACTIVE_THEMES_GE.get(themeID));
                 }
                 themeID++;
             }
+            lineNumber++;
         }
-        reader.close();
+        themeGenres = genres;
         LOGGER.info("Analyzing of themes(en) complete. Found: " + MAP_ACTIVE_THEMES_GE.size());
     }
 
-    private static void analyzeThemesFileEN() throws IOException {
+    private static void analyzeThemesFileEN(List<String> lines){
         MAP_ACTIVE_THEMES_EN.clear();
-        File themesEnFile = Utils.getThemesEnFile();
-        LOGGER.info("Scanning for themes in file: " + themesEnFile);
-        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(themesEnFile), StandardCharsets.UTF_16LE));
-        String currentLine;
-        boolean firstLine = true;
+        LOGGER.info("Scanning for themes in file: " + Utils.getThemesEnFile());
         int themeID = 0;//Theme id is added to make the sorting and selection of the compatible theme easier
-        while((currentLine = reader.readLine()) != null){
-            if(firstLine){
-                currentLine = Utils.removeUTF8BOM(currentLine);
-                firstLine = false;
-            }
+        for(String currentLine : lines){
             if(!currentLine.equals("")){
                 MAP_ACTIVE_THEMES_EN.put(themeID, currentLine);
                 if(Settings.enableDebugLogging){
@@ -72,28 +100,58 @@ public class AnalyzeExistingThemes {
                 themeID++;
             }
         }
-        reader.close();
         LOGGER.info("Analyzing of themes(en) complete. Found: " + MAP_ACTIVE_THEMES_EN.size());
     }
 
+    /**
+     * @return Returns a copy of the genre compatibility of the themes. The rows are the theme ids, the columns are the genre ids.
+     */
+    public static CompatibilityMatrix getThemeGenres(){
+        return new CompatibilityMatrix(themeGenres);
+    }
+
+    /**
+     * @param genreId The genre id
+     * @return Returns a bitset containing the ids of all themes that are compatible with the genre.
+     */
+    public static BitSet getThemeIdsForGenre(int genreId){
+        return themeGenres.getRows(genreId);
+    }
+
+    /**
+     * @param themeId The theme id
+     * @return Returns a bitset containing the ids of all genres that are compatible with the theme.
+     */
+    public static BitSet getGenreIdsForTheme(int themeId){
+        return themeGenres.getColumns(themeId);
+    }
+
+    /**
+     * @param themeId The theme id
+     * @return Returns the line number of the theme in the Themes_GE.txt file. Empty lines are counted too.
+     */
+    public static int getLineNumberOfThemeGe(int themeId){
+        return THEME_LINE_NUMBERS_GE.get(themeId);
+    }
+
     /**
      * @param themeNameEn The theme name that should be searched.
-     * @return Returns the position of the specified genre in the themesNamesEn file.
+     * @return Returns the position of the specified genre in the themesNamesEn file. Returns the position after the last theme when the theme does not exist.
      */
     public static int getPositionOfThemeInFile(String themeNameEn){
-        int position = 1;
-        LOGGER.info("01 - MAP_ACTIVE_THEMES_EN.size(): " + MAP_ACTIVE_THEMES_EN.size());
-        for(Map.Entry<Integer, String> entry: MAP_ACTIVE_THEMES_EN.entrySet()){
-            if(Settings.enableDebugLogging){
-                LOGGER.info("Value: " + entry.getValue());
-            }
-            if(entry.getValue().contains(themeNameEn)){
-                return position;
-            }else{
-                position++;
-            }
+        int themeId = getThemeIdByName(themeNameEn);
+        if(themeId == -1){
+            return MAP_ACTIVE_THEMES_EN.size()+1;
         }
-        return position;
+        return themeId+1;
+    }
+
+    /**
+     * @param themeNameEn The english theme name
+     * @return Returns the theme id for the specified name. Returns -1 when the theme does not exist.
+     */
+    public static int getThemeIdByName(String themeNameEn){
+        return MAP_THEME_IDS_BY_NAME_EN.getOrDefault(themeNameEn, -1);
     }
 
     /**
@@ -168,23 +226,12 @@ public class AnalyzeExistingThemes {
         int positionOfThemeInFiles = getPositionOfThemeInFile(themeNameEn);
         for(String string : TranslationManager.TRANSLATION_KEYS){
             LOGGER.info("Current Translation Key: " + string);
-            BufferedReader reader;
-            if(Arrays.asList(TranslationManager.LANGUAGE_KEYS_UTF_8_BOM).contains(string)){
-                reader = new BufferedReader(new InputStreamReader(new FileInputStream(Utils.getThemeFile(string)), StandardCharsets.UTF_8));
-            }else if(Arrays.asList(TranslationManager.LANGUAGE_KEYS_UTF_16_LE).contains(string)){
-
-                reader = new BufferedReader(new InputStreamReader(new FileInputStream(Utils.getThemeFile(string)), StandardCharsets.UTF_16LE));
-            }else{
+            Charset charset = Utils.getThemeFileCharset(string);
+            if(charset == null){
                 break;
             }
-            String currentLine;
             int currentLineNumber =1;
-            boolean firstLine = true;
-            while((currentLine = reader.readLine()) != null){
-                if(firstLine){
-                    currentLine = Utils.removeUTF8BOM(currentLine);
-                    firstLine = false;
-                }
+            for(String currentLine : GameDataRepository.INSTANCE.getLines(Utils.getThemeFile(string), charset)){
                 if(Settings.enableDebugLogging){
                     LOGGER.info("Reading file: " + string);
                 }
@@ -209,7 +256,6 @@ public class AnalyzeExistingThemes {
                 }
                 currentLineNumber++;
             }
-            reader.close();
         }
         return map;
     }
@@ -0,0 +1,108 @@
+package com.github.lmh01.mgt2mt.data_stream;
+
+import com.github.lmh01.mgt2mt.util.Settings;
+import com.github.lmh01.mgt2mt.util.TaskProgress;
+import com.github.lmh01.mgt2mt.util.interfaces.ContentWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.util.Arrays;
+
+/**
+ * Writes the game files without leaving a truncated file behind when something goes wrong.
+ * The content is written to a temp file next to the file ("file name".temp). The temp file is forced to disk and then moved over the file.
+ * When the move is not atomic on the file system the file is replaced by a regular move.
+ * When the file is written by a writer of the {@link Journal} only the temp file is written, it is moved when the journal is committed.
+ */
+public class AtomicFileWriter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AtomicFileWriter.class);
+    private static final int BUFFER_SIZE = 64*1024;
+
+    /**
+     * Writes the content to the file. The file is not written when it already contains the content.
+     * @param file The file that should be written
+     * @param charset The charset that is used to encode the content
+     * @param contentWriter Writes the content. The UTF8BOM has to be written by the content writer.
+     * @return Returns true when the file has been written. Returns false when the content did not change.
+     */
+    public static boolean writeFile(File file, Charset charset, ContentWriter contentWriter) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream(BUFFER_SIZE);
+        try(BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(content, charset), BUFFER_SIZE)){
+            contentWriter.write(bw);
+        }
+        return writeFile(file, content.toByteArray());
+    }
+
+    /**
+     * Writes the bytes to the file. The file is not written when it already contains the bytes.
+     * @return Returns true when the file has been written. Returns false when the content did not change.
+     */
+    public static boolean writeFile(File file, byte[] bytes) throws IOException {
+        if(file.exists() && file.length() == bytes.length && Arrays.equals(Files.readAllBytes(file.toPath()), bytes)){
+            if(Settings.enableDebugLogging){
+                LOGGER.info("File has not been written, the content did not change: " + file.getPath());
+            }
+            GameDataRepository.INSTANCE.fileWritten(file, bytes);
+            return false;
+        }
+        if(Journal.isJournaled()){
+            //The file is recorded before the temp file is written, so that the temp file is discarded when the tool crashes while writing it
+            Journal.add(file);
+            writeTempFile(file, bytes);
+            GameDataRepository.INSTANCE.fileWritten(file, bytes);
+            return true;
+        }
+        writeTempFile(file, bytes);
+        try{
+            moveTempFile(file);
+        }catch(IOException e){
+            Files.deleteIfExists(getTempFile(file).toPath());
+            throw e;
+        }
+        GameDataRepository.INSTANCE.fileWritten(file, bytes);
+        return true;
+    }
+
+    /**
+     * Writes the bytes to the temp file of the file and forces them to disk.
+     */
+    private static void writeTempFile(File file, byte[] bytes) throws IOException {
+        Path tempFile = getTempFile(file).toPath();
+        try(FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)){
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while(buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+            channel.force(true);
+            TaskProgress.addBytesWritten(bytes.length);
+        }catch(IOException e){
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Moves the temp file of the file over the file. The temp file is kept when it can not be moved.
+     */
+    static void moveTempFile(File file) throws IOException {
+        Path target = file.toPath();
+        Path tempFile = getTempFile(file).toPath();
+        try{
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }catch(AtomicMoveNotSupportedException e){
+            LOGGER.info("Atomic move is not supported, replacing file: " + file.getPath());
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @return Returns the temp file that is used to write the input file.
+     */
+    public static File getTempFile(File file){
+        return new File(file.getPath() + ".temp");
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.lmh01.mgt2mt.data_stream;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores which rows are compatible with which columns, eg. which gameplay features are good for which genres.
+ * The compatibility of a row is read from and written back to a string in which the column ids are listed as &lt;id&gt;. Eg. "&lt;1&gt;&lt;5&gt;&lt;12&gt;"
+ * The lookups in both directions are done with bitsets. The strings are changed the same way as they have been changed without this class, so that they are written back exactly the same.
+ */
+public class CompatibilityMatrix {
+    private final Map<Integer, String> rawValues = new HashMap<>();
+    private final Map<Integer, BitSet> columnsByRow = new HashMap<>();
+    private final Map<Integer, BitSet> rowsByColumn = new HashMap<>();
+
+    public CompatibilityMatrix(){
+
+    }
+
+    /**
+     * Creates a copy of the input matrix.
+     */
+    public CompatibilityMatrix(CompatibilityMatrix compatibilityMatrix){
+        rawValues.putAll(compatibilityMatrix.rawValues);
+        for(Map.Entry<Integer, BitSet> entry : compatibilityMatrix.columnsByRow.entrySet()){
+            columnsByRow.put(entry.getKey(), (BitSet) entry.getValue().clone());
+        }
+        for(Map.Entry<Integer, BitSet> entry : compatibilityMatrix.rowsByColumn.entrySet()){
+            rowsByColumn.put(entry.getKey(), (BitSet) entry.getValue().clone());
+        }
+    }
+
+    /**
+     * Sets the compatibility of the row.
+     * @param row The row id. Eg. the position of the gameplay feature
+     * @param rawValue The string containing the column ids. Eg. "&lt;1&gt;&lt;5&gt;"
+     */
+    public void setRow(int row, String rawValue){
+        BitSet oldColumns = columnsByRow.remove(row);
+        if(oldColumns != null){
+            for(int column = oldColumns.nextSetBit(0); column >= 0; column = oldColumns.nextSetBit(column+1)){
+                rowsByColumn.get(column).clear(row);
+            }
+        }
+        rawValues.put(row, rawValue);
+        BitSet columns = parseColumns(rawValue);
+        columnsByRow.put(row, columns);
+        for(int column = columns.nextSetBit(0); column >= 0; column = columns.nextSetBit(column+1)){
+            rowsByColumn.computeIfAbsent(column, key -> new BitSet()).set(row);
+        }
+    }
+
+    /**
+     * Adds the column to the row. The column id is appended to the string of the row.
+     */
+    public void add(int row, int column){
+        setRow(row, getRawValue(row) + "<" + column + ">");
+    }
+
+    /**
+     * Removes the column from the row. Every occurrence of the column id is removed from the string of the row.
+     */
+    public void remove(int row, int column){
+        if(contains(row, column)){
+            setRow(row, getRawValue(row).replace("<" + column + ">", ""));
+        }
+    }
+
+    /**
+     * Removes the column from all rows.
+     */
+    public void removeColumn(int column){
+        BitSet rows = getRows(column);
+        for(int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row+1)){
+            remove(row, column);
+        }
+    }
+
+    /**
+     * @return Returns true when the row is compatible with the column.
+     */
+    public boolean contains(int row, int column){
+        BitSet columns = columnsByRow.get(row);
+        return columns != null && column >= 0 && columns.get(column);
+    }
+
+    /**
+     * @return Returns a bitset containing the ids of all columns that are compatible with the row.
+     */
+    public BitSet getColumns(int row){
+        BitSet columns = columnsByRow.get(row);
+        return columns == null ? new BitSet() : (BitSet) columns.clone();
+    }
+
+    /**
+     * @return Returns a bitset containing the ids of all rows that are compatible with the column.
+     */
+    public BitSet getRows(int column){
+        BitSet rows = rowsByColumn.get(column);
+        return rows == null ? new BitSet() : (BitSet) rows.clone();
+    }
+
+    /**
+     * @return Returns the string of the row in the same format in which it has been set.
+     */
+    public String getRawValue(int row){
+        return rawValues.getOrDefault(row, "");
+    }
+
+    /**
+     * Only column ids that are written like {@link Integer#toString(int)} writes them are read, because only these are found when the string is searched for "&lt;id&gt;".
+     */
+    private static BitSet parseColumns(String rawValue){
+        BitSet columns = new BitSet();
+        int start = rawValue.indexOf('<');
+        while(start != -1){
+            int end = rawValue.indexOf('>', start+1);
+            if(end == -1){
+                break;
+            }
+            int column = parseColumn(rawValue, start+1, end);
+            if(column != -1){
+                columns.set(column);
+            }
+            start = rawValue.indexOf('<', start+1);
+        }
+        return columns;
+    }
+
+    private static int parseColumn(String rawValue, int start, int end){
+        if(start == end || end - start > 9 || (rawValue.charAt(start) == '0' && end - start > 1)){
+            return -1;
+        }
+        int column = 0;
+        for(int i=start; i<end; i++){
+            char c = rawValue.charAt(i);
+            if(c < '0' || c > '9'){
+                return -1;
+            }
+            column = column*10 + (c - '0');
+        }
+        return column;
+    }
+}
@@ -0,0 +1,229 @@
+package com.github.lmh01.mgt2mt.data_stream;
+
+import com.github.lmh01.mgt2mt.util.TranslationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Describes in which order the values of a data package are written to a data file. Eg. Genres.txt
+ * The values that are not part of the layout are not written.
+ */
+public class DataFileLayout {
+    public static final DataFileLayout GENRES = new DataFileLayout(new String[]{"ID"}, new String[]{"DATE", "RES POINTS", "PRICE", "DEV COSTS", "PIC", "TGROUP", "GAMEPLAY", "GRAPHIC", "SOUND", "CONTROL", "GENRE COMB", "DESIGN1", "DESIGN2", "DESIGN3", "DESIGN4", "DESIGN5"}, new String[]{});
+    public static final DataFileLayout PUBLISHERS = new DataFileLayout(new String[]{"ID"}, new String[]{"DATE", "PIC", "DEVELOPER", "PUBLISHER", "MARKET", "SHARE", "GENRE"}, new String[]{});
+    public static final DataFileLayout GAMEPLAY_FEATURES = new DataFileLayout(new String[]{"ID", "TYP"}, new String[]{"DATE", "RES POINTS", "PRICE", "DEV COSTS", "PIC", "GAMEPLAY", "GRAPHIC", "SOUND", "TECH", "GOOD", "BAD"}, new String[]{"GOOD", "BAD"});
+    public static final DataFileLayout ENGINE_FEATURES = new DataFileLayout(new String[]{"ID", "TYP"}, new String[]{"DATE", "RES POINTS", "PRICE", "DEV COSTS", "TECHLEVEL", "PIC", "GAMEPLAY", "GRAPHIC", "SOUND", "TECH"}, new String[]{});
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataFileLayout.class);
+    private static final byte[] UTF_8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final byte[] EOF_MARKER = "[EOF]".getBytes(StandardCharsets.US_ASCII);
+    private final String[] keysBeforeTranslations;
+    private final String[] keysAfterTranslations;
+    private final Set<String> keysDefaultingToEmpty;
+
+    /**
+     * @param keysBeforeTranslations The keys that are written before the name and description translations
+     * @param keysAfterTranslations The keys that are written after the name and description translations
+     * @param keysDefaultingToEmpty The keys that are written empty when they are missing. All other missing keys are written as "null".
+     */
+    private DataFileLayout(String[] keysBeforeTranslations, String[] keysAfterTranslations, String[] keysDefaultingToEmpty){
+        this.keysBeforeTranslations = keysBeforeTranslations;
+        this.keysAfterTranslations = keysAfterTranslations;
+        this.keysDefaultingToEmpty = new HashSet<>(Arrays.asList(keysDefaultingToEmpty));
+    }
+
+    /**
+     * @param map The data package
+     * @return Returns a map containing the values of the data package the same way as they are read from the file after they have been written.
+     */
+    public Map<String, String> normalize(Map<String, String> map){
+        return normalize(map, map);
+    }
+
+    /**
+     * @param map The map containing the values of the data package
+     * @param translations The map containing the name and description translations of the data package
+     * @return Returns a map containing the values of the data package the same way as they are read from the file after they have been written.
+     */
+    public Map<String, String> normalize(Map<String, String> map, Map<String, String> translations){
+        Map<String, String> normalizedMap = new HashMap<>();
+        for(String key : keysBeforeTranslations){
+            normalizedMap.put(key, getValue(map, key));
+        }
+        for(String translationKey : TranslationManager.TRANSLATION_KEYS){
+            for(String prefix : new String[]{"NAME ", "DESC "}){
+                String key = prefix + translationKey;
+                if(translations.containsKey(key)){
+                    normalizedMap.put(key, String.valueOf(translations.get(key)));
+                }
+            }
+        }
+        for(String key : keysAfterTranslations){
+            normalizedMap.put(key, getValue(map, key));
+        }
+        return normalizedMap;
+    }
+
+    /**
+     * Writes the data packages to the file and updates the {@link GameDataRepository}.
+     * While a transaction is running the data packages are staged and written when the transaction is committed.
+     * @param file The file that should be written
+     * @param records The data packages that should be written. Should have been normalized with {@link #normalize(Map)}.
+     * @return Returns the data packages as they are cached by the {@link GameDataRepository}. See {@link GameDataRepository#updateRecords(File, List)}.
+     */
+    public List<Map<String, String>> writeFile(File file, List<Map<String, String>> records) throws IOException {
+        List<Map<String, String>> stagedRecords = GameDataRepository.INSTANCE.stageRecords(file, records, () -> writeRecords(file, records));
+        if(stagedRecords != null){
+            return stagedRecords;
+        }
+        writeRecords(file, records);
+        return GameDataRepository.INSTANCE.updateRecords(file, records);
+    }
+
+    /**
+     * Adds the data package to the end of the file. When possible only the data package and the [EOF] marker are written, the existing data packages are not written again.
+     * The data package is written with the line separator that is used in the file. The file is written completely when a transaction is running or when the file does not end as expected.
+     * @param file The file that should be extended
+     * @param records The current data packages of the file as they are returned by {@link GameDataRepository#getRecords(File)}
+     * @param record The data package that should be added. Should have been normalized with {@link #normalize(Map)}.
+     * @return Returns the data packages as they are cached by the {@link GameDataRepository}. See {@link GameDataRepository#updateRecords(File, List)}.
+     */
+    public List<Map<String, String>> appendToFile(File file, List<Map<String, String>> records, Map<String, String> record) throws IOException {
+        if(GameDataRepository.INSTANCE.canAppendRecord(file, records, record) && appendRecord(file, record)){
+            LOGGER.info("The data package has been appended to file: " + file.getPath());
+            return GameDataRepository.INSTANCE.updateAppendedRecord(file, records, record);
+        }
+        List<Map<String, String>> allRecords = new ArrayList<>(records.size()+1);
+        for(Map<String, String> map : records){
+            allRecords.add(normalize(map));
+        }
+        allRecords.add(record);
+        return writeFile(file, allRecords);
+    }
+
+    /**
+     * Overwrites the [EOF] marker at the end of the file with the data package and a new [EOF] marker.
+     * @return Returns false when the file is not a UTF8-BOM file that ends with the [EOF] marker. The file has not been changed then.
+     */
+    private boolean appendRecord(File file, Map<String, String> record) throws IOException {
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)){
+            long size = channel.size();
+            if(size < UTF_8_BOM.length + EOF_MARKER.length){
+                return false;
+            }
+            ByteBuffer bom = ByteBuffer.allocate(UTF_8_BOM.length);
+            readFully(channel, bom, 0);
+            if(!Arrays.equals(bom.array(), UTF_8_BOM)){
+                return false;
+            }
+            int tailLength = (int) Math.min(size - UTF_8_BOM.length, 64);
+            ByteBuffer tail = ByteBuffer.allocate(tailLength);
+            readFully(channel, tail, size - tailLength);
+            byte[] tailBytes = tail.array();
+            int eofIndex = lastIndexOf(tailBytes, EOF_MARKER);
+            if(eofIndex == -1){
+                return false;
+            }
+            for(int i=eofIndex+EOF_MARKER.length; i<tailBytes.length; i++){
+                if(tailBytes[i] != '\r' && tailBytes[i] != '\n' && tailBytes[i] != ' '){
+                    return false;
+                }
+            }
+            String lineSeparator;
+            if(eofIndex >= 2 && tailBytes[eofIndex-2] == '\r' && tailBytes[eofIndex-1] == '\n'){
+                lineSeparator = "\r\n";
+            }else if(eofIndex >= 1 && tailBytes[eofIndex-1] == '\n'){
+                lineSeparator = "\n";
+            }else{
+                lineSeparator = System.getProperty("line.separator");
+            }
+            StringWriter stringWriter = new StringWriter();
+            try(BufferedWriter bw = new BufferedWriter(stringWriter)){
+                write(bw, record);
+                bw.write(System.getProperty("line.separator"));
+            }
+            String recordString = stringWriter.toString().replace(System.getProperty("line.separator"), lineSeparator) + "[EOF]";
+            long position = size - tailLength + eofIndex;
+            Journal.beginAppend(file, position, Arrays.copyOfRange(tailBytes, eofIndex, tailBytes.length));
+            boolean committed = false;
+            try{
+                ByteBuffer buffer = ByteBuffer.wrap(recordString.getBytes(StandardCharsets.UTF_8));
+                long newSize = position + buffer.remaining();
+                while(buffer.hasRemaining()){
+                    channel.write(buffer, position + buffer.position());
+                }
+                channel.truncate(newSize);
+                channel.force(true);
+                Journal.commitAppend();
+                committed = true;
+            }finally{
+                if(!committed){
+                    //Restores the [EOF] marker
+                    Journal.rollbackAppend();
+                }
+            }
+            return true;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while(buffer.hasRemaining()){
+            if(channel.read(buffer, position + buffer.position()) == -1){
+                throw new EOFException();
+            }
+        }
+    }
+
+    private static int lastIndexOf(byte[] bytes, byte[] bytesToFind){
+        for(int i=bytes.length-bytesToFind.length; i>=0; i--){
+            boolean found = true;
+            for(int n=0; n<bytesToFind.length; n++){
+                if(bytes[i+n] != bytesToFind[n]){
+                    found = false;
+                    break;
+                }
+            }
+            if(found){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void writeRecords(File file, List<Map<String, String>> records) throws IOException {
+        AtomicFileWriter.writeFile(file, StandardCharsets.UTF_8, bw -> {
+            bw.write("\ufeff");//Makes the file UTF8-BOM
+            for(Map<String, String> map : records){
+                write(bw, map);
+                bw.write(System.getProperty("line.separator"));
+            }
+            bw.write("[EOF]");
+        });
+    }
+
+    /**
+     * Writes a single data package without the blank line that separates the data packages.
+     */
+    public void write(BufferedWriter bw, Map<String, String> map) throws IOException {
+        for(String key : keysBeforeTranslations){
+            bw.write("[" + key + "]" + getValue(map, key));bw.write(System.getProperty("line.separator"));
+        }
+        TranslationManager.printLanguages(bw, map);
+        for(String key : keysAfterTranslations){
+            bw.write("[" + key + "]" + getValue(map, key));bw.write(System.getProperty("line.separator"));
+        }
+    }
+
+    private String getValue(Map<String, String> map, String key){
+        String value = map.get(key);
+        if(value == null && keysDefaultingToEmpty.contains(key)){
+            return "";
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,161 @@
+package com.github.lmh01.mgt2mt.data_stream;
+
+import com.github.lmh01.mgt2mt.util.interfaces.RecordConsumer;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming parser for the data files (Genres.txt, Publisher.txt, GameplayFeatures.txt, ...) and for import files.
+ * The input is read in one pass into a reused line buffer, every line is split on the first "]" and each record is handed to a {@link RecordConsumer} as soon as it is complete.
+ * Keys are deduplicated so that all records share the same key strings.
+ * The records that are produced are identical to the ones of the old char by char parser, including the dummy record for files that only contain [EOF].
+ */
+class DataFileParser {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int KEY_CACHE_SIZE = 256;//Has to be a power of two
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int bufferPosition = 0;
+    private int bufferLimit = 0;
+    private boolean skipLineFeed = false;
+    private char[] line = new char[256];
+    private int lineLength = 0;
+    private final String[] keyCache = new String[KEY_CACHE_SIZE];
+
+    DataFileParser(Reader reader){
+        this.reader = reader;
+    }
+
+    /**
+     * Parses the complete input and hands every record to the consumer.
+     * @param consumer The consumer that receives the records in the order they are found in the file.
+     */
+    void parse(RecordConsumer consumer) throws IOException {
+        boolean firstLine = true;
+        boolean firstList = true;
+        Map<String, String> mapCurrent = new HashMap<>();
+        while(readLine()){
+            int lineStart = 0;
+            if(firstLine){
+                if(lineLength > 0 && line[0] == '\ufeff'){
+                    lineStart = 1;
+                }
+                if(new String(line, lineStart, lineLength - lineStart).contains("EOF")){
+                    //This is being put into the list when the file is empty except for the [EOF]
+                    //A dummy id and name are inserted
+                    mapCurrent.put("ID", "-1");
+                    mapCurrent.put("NAME EN", "Dummy");
+                    mapCurrent.put("PIC", "0");
+                    consumer.accept(mapCurrent);
+                    return;
+                }
+                firstLine = false;
+            }
+            if(lineLength == lineStart){
+                consumer.accept(mapCurrent);
+                mapCurrent = new HashMap<>(mapCurrent.size() * 4 / 3 + 1);
+                firstList = false;
+            }else{
+                int keyStart = lineStart + 1;
+                int keyEnd = indexOf(']', keyStart);
+                if(keyEnd == -1){
+                    mapCurrent.put(getKey(keyStart, lineLength), "");
+                }else if(keyEnd == lineLength - 1){
+                    mapCurrent.put(getKey(keyStart, keyEnd), "");
+                }else{
+                    mapCurrent.put(getKey(keyStart, keyEnd), new String(line, keyEnd + 1, lineLength - keyEnd - 1));
+                }
+            }
+        }
+        if(firstList){
+            consumer.accept(mapCurrent);
+        }
+    }
+
+    /**
+     * Reads the next line into the line buffer. Line terminators are handled like {@link java.io.BufferedReader#readLine()} does.
+     * @return Returns false when the end of the input has been reached.
+     */
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        boolean lineStarted = false;
+        while(true){
+            if(bufferPosition >= bufferLimit){
+                bufferLimit = reader.read(buffer, 0, buffer.length);
+                bufferPosition = 0;
+                if(bufferLimit <= 0){
+                    bufferLimit = 0;
+                    return lineStarted;
+                }
+            }
+            if(skipLineFeed){
+                skipLineFeed = false;
+                if(buffer[bufferPosition] == '\n'){
+                    bufferPosition++;
+                    continue;
+                }
+            }
+            lineStarted = true;
+            int start = bufferPosition;
+            while(bufferPosition < bufferLimit){
+                char c = buffer[bufferPosition];
+                if(c == '\n' || c == '\r'){
+                    appendToLine(start, bufferPosition - start);
+                    bufferPosition++;
+                    skipLineFeed = c == '\r';
+                    return true;
+                }
+                bufferPosition++;
+            }
+            appendToLine(start, bufferPosition - start);
+        }
+    }
+
+    private void appendToLine(int start, int length){
+        if(lineLength + length > line.length){
+            char[] newLine = new char[Math.max(line.length * 2, lineLength + length)];
+            System.arraycopy(line, 0, newLine, 0, lineLength);
+            line = newLine;
+        }
+        System.arraycopy(buffer, start, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private int indexOf(char c, int fromIndex){
+        for(int i=fromIndex; i<lineLength; i++){
+            if(line[i] == c){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return Returns the key between start and end. The same string instance is returned for keys that have already been found.
+     */
+    private String getKey(int start, int end){
+        int hash = 0;
+        for(int i=start; i<end; i++){
+            hash = 31 * hash + line[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (KEY_CACHE_SIZE - 1);
+        String cachedKey = keyCache[slot];
+        if(cachedKey != null && cachedKey.length() == end - start){
+            boolean matches = true;
+            for(int i=start; i<end; i++){
+                if(cachedKey.charAt(i - start) != line[i]){
+                    matches = false;
+                    break;
+                }
+            }
+            if(matches){
+                return cachedKey;
+            }
+        }
+        String key = new String(line, start, end - start);
+        keyCache[slot] = key;
+        return key;
+    }
+}
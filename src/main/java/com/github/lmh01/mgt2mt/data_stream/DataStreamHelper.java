@@ -2,6 +2,7 @@ package com.github.lmh01.mgt2mt.data_stream;
 
 import com.github.lmh01.mgt2mt.util.Settings;
 import com.github.lmh01.mgt2mt.util.Utils;
+import com.github.lmh01.mgt2mt.util.interfaces.RecordConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.io.*;
@@ -52,57 +53,31 @@ public class DataStreamHelper {
      */
     public static List<Map<String,String>> parseDataFile(File file) throws IOException{
         List<Map<String, String>> fileParts = new ArrayList<>();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
-        String currentLine;
-        boolean firstLine = true;
-        boolean firstList = true;
-        Map<String, String> mapCurrent = new HashMap<>();
-        while((currentLine = reader.readLine()) != null){
-            if(firstLine){
-                currentLine = Utils.removeUTF8BOM(currentLine);
-                if(currentLine.contains("EOF")){
-                    //This is being put into the list when the file is empty except for the [EOF]
-                    //A dummy id and name are inserted
-                    mapCurrent.put("ID", "-1");
-                    mapCurrent.put("NAME EN", "Dummy");
-                    mapCurrent.put("PIC", "0");
-                    fileParts.add(mapCurrent);
-                    reader.close();
-                    return fileParts;
-                }
-                firstLine = false;
-            }
-            if(currentLine.isEmpty()){
-                fileParts.add(mapCurrent);
-                mapCurrent = new HashMap<>();
-                firstList = false;
-            }else{
-                boolean keyComplete = false;
-                StringBuilder mapKey = new StringBuilder();
-                StringBuilder mapValue = new StringBuilder();
-                for(int i=1; i<currentLine.length(); i++){
-                    if(!keyComplete){
-                        if(String.valueOf(currentLine.charAt(i)).equals("]")){
-                            keyComplete = true;
-                            continue;
-                        }
-                    }
-                    if(keyComplete){
-                        mapValue.append(currentLine.charAt(i));
-                    }else{
-                        mapKey.append(currentLine.charAt(i));
-                    }
-                }
-                mapCurrent.put(mapKey.toString(), mapValue.toString());
-            }
-        }
-        if(firstList){
-            fileParts.add(mapCurrent);
-        }
-        reader.close();
+        parseDataFile(file, fileParts::add);
         return fileParts;
     }
 
+    /**
+     * Parses the input file and hands every data package to the consumer as soon as it has been read.
+     * Use this instead of {@link #parseDataFile(File)} when the data packages do not have to be kept in memory.
+     * @param file The input file
+     * @param consumer The consumer that receives the data packages in the order they are found in the file
+     */
+    public static void parseDataFile(File file, RecordConsumer consumer) throws IOException{
+        try(Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)){
+            parseDataFile(reader, consumer);
+        }
+    }
+
+    /**
+     * Parses the data packages from the reader and hands them to the consumer. The reader is not closed.
+     * @param reader The reader from which the data packages should be read
+     * @param consumer The consumer that receives the data packages in the order they are found
+     */
+    public static void parseDataFile(Reader reader, RecordConsumer consumer) throws IOException{
+        new DataFileParser(reader).parse(consumer);
+    }
+
     /**
      * @param folder The folder that should be tested if contains the file.
      * @param content The content that should be found.
@@ -110,6 +85,10 @@ public class DataStreamHelper {
      */
     public static boolean doesFolderContainFile(String folder, String content){
         File file = new File(folder);
+        if(new File(file, content).exists()){
+            //The folder is only listed when the file is missing, so that the content can be logged
+            return true;
+        }
         if(file.exists()){
             File[] filesInFolder = file.listFiles();
             for (int i = 0; i < Objects.requireNonNull(filesInFolder).length; i++) {
@@ -1,14 +1,13 @@
 package com.github.lmh01.mgt2mt.data_stream;
 
 import com.github.lmh01.mgt2mt.util.Settings;
-import com.github.lmh01.mgt2mt.util.TranslationManager;
 import com.github.lmh01.mgt2mt.util.Utils;
-import com.github.lmh01.mgt2mt.windows.WindowMain;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -22,49 +21,7 @@ public class EditGameplayFeaturesFile {
     public static void addGameplayFeature(Map<String, String> map) throws IOException {
         AnalyzeExistingGameplayFeatures.analyzeGameplayFeatures();
         LOGGER.info("Adding new gameplay feature...");
-        File gameplayFeatureFile = Utils.getGameplayFeaturesFile();
-        if(gameplayFeatureFile.exists()){
-            gameplayFeatureFile.delete();
-        }
-        gameplayFeatureFile.createNewFile();
-        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(gameplayFeatureFile), StandardCharsets.UTF_8));
-        bw.write("\ufeff");
-        for(Map<String, String> existingGameplayFeatures : AnalyzeExistingGameplayFeatures.gameplayFeatures){
-            bw.write("[ID]" + existingGameplayFeatures.get("ID"));bw.write(System.getProperty("line.separator"));
-            bw.write("[TYP]" + existingGameplayFeatures.get("TYP"));bw.write(System.getProperty("line.separator"));
-            TranslationManager.printLanguages(bw, existingGameplayFeatures);
-            bw.write("[DATE]" + existingGameplayFeatures.get("DATE"));bw.write(System.getProperty("line.separator"));
-            bw.write("[RES POINTS]" + existingGameplayFeatures.get("RES POINTS"));bw.write(System.getProperty("line.separator"));
-            bw.write("[PRICE]" + existingGameplayFeatures.get("PRICE"));bw.write(System.getProperty("line.separator"));
-            bw.write("[DEV COSTS]" + existingGameplayFeatures.get("DEV COSTS"));bw.write(System.getProperty("line.separator"));
-            bw.write("[PIC]" + existingGameplayFeatures.get("PIC"));bw.write(System.getProperty("line.separator"));
-            bw.write("[GAMEPLAY]" + existingGameplayFeatures.get("GAMEPLAY"));bw.write(System.getProperty("line.separator"));
-            bw.write("[GRAPHIC]" + existingGameplayFeatures.get("GRAPHIC"));bw.write(System.getProperty("line.separator"));
-            bw.write("[SOUND]" + existingGameplayFeatures.get("SOUND"));bw.write(System.getProperty("line.separator"));
-            bw.write("[TECH]" + existingGameplayFeatures.get("TECH"));bw.write(System.getProperty("line.separator"));
-            existingGameplayFeatures.putIfAbsent("GOOD", "");
-            existingGameplayFeatures.putIfAbsent("BAD", "");
-            bw.write("[GOOD]" + existingGameplayFeatures.get("GOOD"));bw.write(System.getProperty("line.separator"));
-            bw.write("[BAD]" + existingGameplayFeatures.get("BAD"));bw.write(System.getProperty("line.separator"));
-            bw.write(System.getProperty("line.separator"));
-        }
-        bw.write("[ID]" + map.get("ID"));bw.write(System.getProperty("line.separator"));
-        bw.write("[TYP]" + map.get("TYP"));bw.write(System.getProperty("line.separator"));
-        TranslationManager.printLanguages(bw, map);
-        bw.write("[DATE]" + map.get("DATE"));bw.write(System.getProperty("line.separator"));
-        bw.write("[RES POINTS]" + map.get("RES POINTS"));bw.write(System.getProperty("line.separator"));
-        bw.write("[PRICE]" + map.get("PRICE"));bw.write(System.getProperty("line.separator"));
-        bw.write("[DEV COSTS]" + map.get("DEV COSTS"));bw.write(System.getProperty("line.separator"));
-        bw.write("[PIC]" + map.get("PIC"));bw.write(System.getProperty("line.separator"));
-        bw.write("[GAMEPLAY]" + map.get("GAMEPLAY"));bw.write(System.getProperty("line.separator"));
-        bw.write("[GRAPHIC]" + map.get("GRAPHIC"));bw.write(System.getProperty("line.separator"));
-        bw.write("[SOUND]" + map.get("SOUND"));bw.write(System.getProperty("line.separator"));
-        bw.write("[TECH]" + map.get("TECH"));bw.write(System.getProperty("line.separator"));
-        bw.write("[GOOD]" + map.get("GOOD"));bw.write(System.getProperty("line.separator"));
-        bw.write("[BAD]" + map.get("BAD"));bw.write(System.getProperty("line.separator"));
-        bw.write(System.getProperty("line.separator"));
-        bw.write("[EOF]");
-        bw.close();
+        DataFileLayout.GAMEPLAY_FEATURES.appendToFile(Utils.getGameplayFeaturesFile(), AnalyzeExistingGameplayFeatures.gameplayFeatures, DataFileLayout.GAMEPLAY_FEATURES.normalize(map));
     }
 
     /**
@@ -75,37 +32,14 @@ public class EditGameplayFeaturesFile {
         int gameplayFeatureId = AnalyzeExistingGameplayFeatures.getGameplayFeatureIdByName(gameplayFeatureName);
         AnalyzeExistingGameplayFeatures.analyzeGameplayFeatures();
         LOGGER.info("Removing gameplay feature...");
-        File gameplayFeatureFile = Utils.getGameplayFeaturesFile();
-        if(gameplayFeatureFile.exists()){
-            gameplayFeatureFile.delete();
-        }
-        gameplayFeatureFile.createNewFile();
-        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(gameplayFeatureFile), StandardCharsets.UTF_8));
-        bw.write("\ufeff");
+        List<Map<String, String>> gameplayFeatures = new ArrayList<>();
         for(Map<String, String> existingGameplayFeatures : AnalyzeExistingGameplayFeatures.gameplayFeatures){
             if(Integer.parseInt(existingGameplayFeatures.get("ID")) != gameplayFeatureId){
-                bw.write("[ID]" + existingGameplayFeatures.get("ID"));bw.write(System.getProperty("line.separator"));
-                bw.write("[TYP]" + existingGameplayFeatures.get("TYP"));bw.write(System.getProperty("line.separator"));
-                TranslationManager.printLanguages(bw, existingGameplayFeatures);
-                bw.write("[DATE]" + existingGameplayFeatures.get("DATE"));bw.write(System.getProperty("line.separator"));
-                bw.write("[RES POINTS]" + existingGameplayFeatures.get("RES POINTS"));bw.write(System.getProperty("line.separator"));
-                bw.write("[PRICE]" + existingGameplayFeatures.get("PRICE"));bw.write(System.getProperty("line.separator"));
-                bw.write("[DEV COSTS]" + existingGameplayFeatures.get("DEV COSTS"));bw.write(System.getProperty("line.separator"));
-                bw.write("[PIC]" + existingGameplayFeatures.get("PIC"));bw.write(System.getProperty("line.separator"));
-                bw.write("[GAMEPLAY]" + existingGameplayFeatures.get("GAMEPLAY"));bw.write(System.getProperty("line.separator"));
-                bw.write("[GRAPHIC]" + existingGameplayFeatures.get("GRAPHIC"));bw.write(System.getProperty("line.separator"));
-                bw.write("[SOUND]" + existingGameplayFeatures.get("SOUND"));bw.write(System.getProperty("line.separator"));
-                bw.write("[TECH]" + existingGameplayFeatures.get("TECH"));bw.write(System.getProperty("line.separator"));
-                existingGameplayFeatures.putIfAbsent("GOOD", "");
-                existingGameplayFeatures.putIfAbsent("BAD", "");
-                bw.write("[GOOD]" + existingGameplayFeatures.get("GOOD"));bw.write(System.getProperty("line.separator"));
-                bw.write("[BAD]" + existingGameplayFeatures.get("BAD"));bw.write(System.getProperty("line.separator"));
-                bw.write(System.getProperty("line.separator"));
+                gameplayFeatures.add(DataFileLayout.GAMEPLAY_FEATURES.normalize(existingGameplayFeatures));
             }
         }
-        bw.write("[EOF]");
-        bw.close();
-        WindowMain.checkActionAvailability();
+        DataFileLayout.GAMEPLAY_FEATURES.writeFile(Utils.getGameplayFeaturesFile(), gameplayFeatures);
+        GameDataRepository.INSTANCE.notifyChanged();
         return true;
     }
 
@@ -136,62 +70,40 @@ public class EditGameplayFeaturesFile {
      * @param goodFeature True when the id should be added as good to the feature. False when it should be added as bad.
      */
     private static void editGenreIdAllocation(Set<Integer> gameplayFeaturesIdsToEdit, int genreId, boolean addGenreId, boolean goodFeature) throws IOException {
+        AnalyzeExistingGameplayFeatures.analyzeGameplayFeatures();
         LOGGER.info("Editing GameplayFeatures.txt file");
-        File gameplayFeaturesFile = Utils.getGameplayFeaturesFile();
-        if(gameplayFeaturesFile.exists()){
-            gameplayFeaturesFile.delete();
-        }
-        gameplayFeaturesFile.createNewFile();
-        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(gameplayFeaturesFile), StandardCharsets.UTF_8));
-        bw.write("\ufeff");
-        for(Map<String, String> map : AnalyzeExistingGameplayFeatures.gameplayFeatures) {
-            boolean activeGameplayFeature = false;
+        List<Map<String, String>> existingGameplayFeatures = AnalyzeExistingGameplayFeatures.gameplayFeatures;
+        CompatibilityMatrix goodGenres = new CompatibilityMatrix(AnalyzeExistingGameplayFeatures.goodGenres);
+        CompatibilityMatrix badGenres = new CompatibilityMatrix(AnalyzeExistingGameplayFeatures.badGenres);
+        if(addGenreId){
+            Set<String> idsToEdit = new HashSet<>();
             for(Integer integer : gameplayFeaturesIdsToEdit){
-                if(map.get("ID").equals(Integer.toString(integer))){
-                    activeGameplayFeature = true;
-                }
-            }
-            bw.write("[ID]" + map.get("ID"));bw.write(System.getProperty("line.separator"));
-            bw.write("[TYP]" + map.get("TYP"));bw.write(System.getProperty("line.separator"));
-            TranslationManager.printLanguages(bw, map);
-            bw.write("[DATE]" + map.get("DATE"));bw.write(System.getProperty("line.separator"));
-            bw.write("[RES POINTS]" + map.get("RES POINTS"));bw.write(System.getProperty("line.separator"));
-            bw.write("[PRICE]" + map.get("PRICE"));bw.write(System.getProperty("line.separator"));
-            bw.write("[DEV COSTS]" + map.get("DEV COSTS"));bw.write(System.getProperty("line.separator"));
-            bw.write("[PIC]" + map.get("PIC"));bw.write(System.getProperty("line.separator"));
-            bw.write("[GAMEPLAY]" + map.get("GAMEPLAY"));bw.write(System.getProperty("line.separator"));
-            bw.write("[GRAPHIC]" + map.get("GRAPHIC"));bw.write(System.getProperty("line.separator"));
-            bw.write("[SOUND]" + map.get("SOUND"));bw.write(System.getProperty("line.separator"));
-            bw.write("[TECH]" + map.get("TECH"));bw.write(System.getProperty("line.separator"));
-            String mapValueBad = "";
-            String mapValueGood = "";
-            if(map.get("BAD") != null){
-                mapValueBad = map.get("BAD");
-            }
-            if(map.get("GOOD") != null){
-                mapValueGood = map.get("GOOD");
+                idsToEdit.add(Integer.toString(integer));
             }
-            if(activeGameplayFeature || !addGenreId){
-                if(addGenreId){
+            for(int i=0; i<existingGameplayFeatures.size(); i++){
+                if(idsToEdit.contains(existingGameplayFeatures.get(i).get("ID"))){
                     if(goodFeature){
-                        bw.write("[GOOD]" + mapValueGood);bw.write("<" + genreId + ">");bw.write(System.getProperty("line.separator"));
-                        bw.write("[BAD]" + mapValueBad);bw.write(System.getProperty("line.separator"));
+                        goodGenres.add(i, genreId);
                     }else{
-                        bw.write("[GOOD]" + mapValueGood);bw.write(System.getProperty("line.separator"));
-                        bw.write("[BAD]" + mapValueBad);bw.write("<" + genreId + ">");bw.write(System.getProperty("line.separator"));
+                        badGenres.add(i, genreId);
                     }
-                }else{
-                    bw.write("[GOOD]" + mapValueGood.replace("<" + genreId + ">", ""));bw.write(System.getProperty("line.separator"));
-                    bw.write("[BAD]" + mapValueBad.replace("<" + genreId + ">", ""));bw.write(System.getProperty("line.separator"));
                 }
-            }else{
-                bw.write("[GOOD]" + mapValueGood);bw.write(System.getProperty("line.separator"));
-                bw.write("[BAD]" + mapValueBad);bw.write(System.getProperty("line.separator"));
             }
-            bw.write(System.getProperty("line.separator"));
+        }else{
+            goodGenres.removeColumn(genreId);
+            badGenres.removeColumn(genreId);
+        }
+        List<Map<String, String>> gameplayFeatures = new ArrayList<>();
+        for(int i=0; i<existingGameplayFeatures.size(); i++){
+            Map<String, String> map = DataFileLayout.GAMEPLAY_FEATURES.normalize(existingGameplayFeatures.get(i));
+            map.put("GOOD", goodGenres.getRawValue(i));
+            map.put("BAD", badGenres.getRawValue(i));
+            gameplayFeatures.add(map);
+        }
+        List<Map<String, String>> writtenGameplayFeatures = DataFileLayout.GAMEPLAY_FEATURES.writeFile(Utils.getGameplayFeaturesFile(), gameplayFeatures);
+        if(writtenGameplayFeatures != null){
+            AnalyzeExistingGameplayFeatures.setGameplayFeatures(writtenGameplayFeatures, goodGenres, badGenres);
         }
-        bw.write("[EOF]");
-        bw.close();
     }
 
 }
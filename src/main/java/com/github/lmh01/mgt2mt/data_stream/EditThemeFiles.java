@@ -1,14 +1,16 @@
 package com.github.lmh01.mgt2mt.data_stream;
 
+import com.github.lmh01.mgt2mt.util.ParallelExecutor;
 import com.github.lmh01.mgt2mt.util.Settings;
 import com.github.lmh01.mgt2mt.util.TranslationManager;
 import com.github.lmh01.mgt2mt.util.Utils;
-import com.github.lmh01.mgt2mt.windows.WindowMain;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.io.*;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 public class EditThemeFiles {
     private static final Logger LOGGER = LoggerFactory.getLogger(EditThemeFiles.class);
@@ -38,73 +40,71 @@ public class EditThemeFiles {
      * @param removeThemePosition The position where the theme is positioned that should be removed.
      */
     public static boolean editThemeFiles(Map<String, String> map, ArrayList<Integer> arrayListCompatibleGenres, boolean addTheme, int removeThemePosition) throws IOException {
+        List<String> languageKeys = new ArrayList<>();
+        List<Callable<List<String>>> tasks = new ArrayList<>();
         for(String string : TranslationManager.TRANSLATION_KEYS){
-            File themeFile = Utils.getThemeFile(string);
-            Map<Integer, String> currentThemeFileContent;
-            if(Arrays.asList(TranslationManager.LANGUAGE_KEYS_UTF_8_BOM).contains(string)){
-                currentThemeFileContent = DataStreamHelper.getContentFromFile(themeFile, "UTF_8BOM");
-            }else if(Arrays.asList(TranslationManager.LANGUAGE_KEYS_UTF_16_LE).contains(string)){
-                currentThemeFileContent = DataStreamHelper.getContentFromFile(themeFile, "UTF_16LE");
-            }else{
+            if(Utils.getThemeFileCharset(string) == null){
                 break;
             }
-            if(themeFile.exists()){
-                themeFile.delete();
+            languageKeys.add(string);
+            tasks.add(() -> getEditedThemeFileLines(string, map, arrayListCompatibleGenres, addTheme, removeThemePosition));
+        }
+        //The files are edited in parallel. When a single file can not be edited no file is written.
+        List<List<String>> editedThemeFiles = ParallelExecutor.runAll("editing theme files", tasks);
+        GameDataRepository.INSTANCE.runInTransaction(() -> {
+            for(int i=0; i<languageKeys.size(); i++){
+                writeThemeFile(Utils.getThemeFile(languageKeys.get(i)), Utils.getThemeFileCharset(languageKeys.get(i)), editedThemeFiles.get(i));
             }
-            themeFile.createNewFile();
-            BufferedWriter bw;
-            if(Arrays.asList(TranslationManager.LANGUAGE_KEYS_UTF_8_BOM).contains(string)){
-                bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(themeFile), StandardCharsets.UTF_8));
-                bw.write("\ufeff");//Makes the file UTF8 BOM
-            }else if(Arrays.asList(TranslationManager.LANGUAGE_KEYS_UTF_16_LE).contains(string)){
-                bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(themeFile), StandardCharsets.UTF_16LE));
-            }else{
-                break;
+        });
+        GameDataRepository.INSTANCE.notifyChanged();
+        return true;
+    }
+
+    /**
+     * @param string The language key of the theme file
+     * @return Returns the lines of the theme file after the theme has been added/removed. See {@link #editThemeFiles(Map, ArrayList, boolean, int)}.
+     */
+    private static List<String> getEditedThemeFileLines(String string, Map<String, String> map, ArrayList<Integer> arrayListCompatibleGenres, boolean addTheme, int removeThemePosition) throws IOException {
+        File themeFile = Utils.getThemeFile(string);
+        Charset charset = Utils.getThemeFileCharset(string);
+        List<String> currentThemeFileContent = GameDataRepository.INSTANCE.getLines(themeFile, charset);
+        List<String> lines = new ArrayList<>();
+        for(int i=0; i<currentThemeFileContent.size(); i++){
+            int currentLine = i+1;
+            if(addTheme || currentLine != removeThemePosition){
+                lines.add(currentThemeFileContent.get(i));
+            }else if(i == 0){
+                //The line separator after the first line is still written when the first line is removed
+                lines.add("");
             }
-            int currentLine = 1;
-            boolean firstLine = true;
-            for(int i = 0; i< Objects.requireNonNull(currentThemeFileContent).size(); i++){
-                if(!firstLine){
-                    if(!addTheme){
-                        if(currentLine != removeThemePosition) {
-                            bw.write(System.getProperty("line.separator"));
-                        }
-                    }else{
-                        bw.write(System.getProperty("line.separator"));
-                    }
-                }else{
-                    firstLine = false;
-                }
-                if(addTheme || currentLine != removeThemePosition) {
-                    bw.write(currentThemeFileContent.get(currentLine));
-                }
-                currentLine++;
+        }
+        if(addTheme){
+            if(lines.isEmpty()){
+                //The line separator before the new theme is always written
+                lines.add("");
             }
+            StringBuilder newLine = new StringBuilder();
             try{
-                if(addTheme){
-                    bw.write(System.getProperty("line.separator"));
-                    if(string.equals("GE")){
-                        StringBuilder genreIdsToPrint = new StringBuilder();
-                        genreIdsToPrint.append(" ");
-                        bw.write(map.get("NAME GE"));
-                        for(Integer genreId : arrayListCompatibleGenres){
-                            genreIdsToPrint.append("<").append(genreId).append(">");
-                        }
-                        bw.write(genreIdsToPrint.toString());
-                    }else{
-                        if(Settings.enableDebugLogging){
-                            LOGGER.info("current string: " + string);
-                        }
-                        bw.write(map.get("NAME " + string));
+                if(string.equals("GE")){
+                    StringBuilder genreIdsToPrint = new StringBuilder();
+                    genreIdsToPrint.append(" ");
+                    newLine.append(Objects.requireNonNull(map.get("NAME GE")));
+                    for(Integer genreId : arrayListCompatibleGenres){
+                        genreIdsToPrint.append("<").append(genreId).append(">");
                     }
+                    newLine.append(genreIdsToPrint.toString());
+                }else{
+                    if(Settings.enableDebugLogging){
+                        LOGGER.info("current string: " + string);
+                    }
+                    newLine.append(Objects.requireNonNull(map.get("NAME " + string)));
                 }
             }catch(NullPointerException ignored){
 
             }
-            bw.close();
+            lines.add(newLine.toString());
         }
-        WindowMain.checkActionAvailability();
-        return true;
+        return lines;
     }
 
     /**
@@ -115,46 +115,67 @@ public class EditThemeFiles {
      */
     public static void editGenreAllocation(int genreID, boolean addGenreID, Set<Integer> compatibleThemeIds) throws IOException {
         AnalyzeExistingThemes.analyzeThemeFiles();
-        File fileTopicsGe = Utils.getThemesGeFile();
-        if(fileTopicsGe.exists()){
-            fileTopicsGe.delete();
-        }
-        fileTopicsGe.createNewFile();
-        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileTopicsGe), StandardCharsets.UTF_16LE));
-        Map<Integer, String> map = AnalyzeExistingThemes.MAP_ACTIVE_THEMES_GE;
-        boolean firstLine = true;
-        for(int i=0; i<map.size(); i++){
-            if(addGenreID){
+        int numberOfThemes = AnalyzeExistingThemes.MAP_ACTIVE_THEMES_GE.size();
+        CompatibilityMatrix themeGenres = AnalyzeExistingThemes.getThemeGenres();
+        if(addGenreID){
+            for(int i=0; i<numberOfThemes; i++){
                 if(compatibleThemeIds.contains(i)){
+                    themeGenres.add(i, genreID);
                     if (Settings.enableDebugLogging) {
-                        LOGGER.info(i + " - Y: " + map.get(i));
+                        LOGGER.info(i + " - Y: " + themeGenres.getRawValue(i));
                     }
-                    if(!firstLine){
-                        bw.write(System.getProperty("line.separator"));
-                    }
-                    bw.write(map.get(i) + "<" + genreID + ">");
-                }else{
-                    if (!firstLine) {
-                        bw.write(System.getProperty("line.separator"));
-                    }
-                    if (Settings.enableDebugLogging) {
-                        LOGGER.info(i + " - N: " + map.get(i));
-                    }
-                    bw.write(map.get(i));
+                }else if(Settings.enableDebugLogging){
+                    LOGGER.info(i + " - N: " + themeGenres.getRawValue(i));
                 }
-            }else{
-                if (!firstLine) {
-                    bw.write(System.getProperty("line.separator"));
-                }
-                bw.write(map.get(i).replace("<" + genreID + ">", ""));
             }
-            firstLine = false;
+        }else{
+            themeGenres.removeColumn(genreID);
+        }
+        List<String> lines = new ArrayList<>();
+        for(int i=0; i<numberOfThemes; i++){
+            lines.add(themeGenres.getRawValue(i));
+        }
+        List<String> writtenLines = writeThemeFile(Utils.getThemesGeFile(), StandardCharsets.UTF_16LE, lines);
+        if(writtenLines != null){
+            AnalyzeExistingThemes.setThemesGe(writtenLines, themeGenres);
         }
-        bw.close();
         if (addGenreID) {
             ChangeLog.addLogEntry(2, Integer.toString(genreID));
         } else {
             ChangeLog.addLogEntry(3, Integer.toString(genreID));
         }
     }
+
+    /**
+     * Writes the lines to the theme file and updates the {@link GameDataRepository}.
+     * While a transaction is running the lines are staged and written when the transaction is committed.
+     * @param themeFile The theme file that should be written
+     * @param charset The charset of the theme file. UTF-8 files are written with UTF8BOM.
+     * @param lines The lines that should be written
+     * @return Returns the lines as they are cached by the {@link GameDataRepository}. See {@link GameDataRepository#updateLines(File, Charset, List)}.
+     */
+    private static List<String> writeThemeFile(File themeFile, Charset charset, List<String> lines) throws IOException {
+        List<String> stagedLines = GameDataRepository.INSTANCE.stageLines(themeFile, charset, lines, () -> writeLines(themeFile, charset, lines));
+        if(stagedLines != null){
+            return stagedLines;
+        }
+        writeLines(themeFile, charset, lines);
+        return GameDataRepository.INSTANCE.updateLines(themeFile, charset, lines);
+    }
+
+    private static void writeLines(File themeFile, Charset charset, List<String> lines) throws IOException {
+        AtomicFileWriter.writeFile(themeFile, charset, bw -> {
+            if(charset.equals(StandardCharsets.UTF_8)){
+                bw.write("\ufeff");//Makes the file UTF8 BOM
+            }
+            boolean firstLine = true;
+            for(String line : lines){
+                if(!firstLine){
+                    bw.write(System.getProperty("line.separator"));
+                }
+                bw.write(line);
+                firstLine = false;
+            }
+        });
+    }
 }
@@ -35,7 +35,10 @@ public class ExportSettings {
                     Settings.steamLibraryFolder + "\n" +
                     Settings.enableCustomFolder + "\n" +
                     Settings.enableGenreNameTranslationInfo + "\n" +
-                    Settings.enableGenreDescriptionTranslationInfo);
+                    Settings.enableGenreDescriptionTranslationInfo + "\n" +
+                    Settings.enableBackupArchives + "\n" +
+                    Settings.backupRetentionCount + "\n" +
+                    Settings.backupRetentionKeepDaily);
             pw.close();
             if(Settings.enableDebugLogging){
                 LOGGER.info(Settings.mgt2FilePath);
@@ -0,0 +1,529 @@
+package com.github.lmh01.mgt2mt.data_stream;
+
+import com.github.lmh01.mgt2mt.util.ParallelExecutor;
+import com.github.lmh01.mgt2mt.util.Settings;
+import com.github.lmh01.mgt2mt.util.Utils;
+import com.github.lmh01.mgt2mt.util.interfaces.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Owns the parsed content of the game data files.
+ * A file is only read and parsed again when its modification time, its size and its content hash have changed since it has been read the last time.
+ * Code that writes a game data file should hand the written content to {@link #updateRecords(File, List)} or {@link #updateLines(File, Charset, List)}, so that the file does not have to be read again.
+ * The lists and data packages that are returned are unmodifiable and the same list instance is returned for as long as the file does not change.
+ * While a transaction is running the files are not written. The written content is staged and returned instead of the file content, and every staged file is written once when the transaction is committed. See {@link #runInTransaction(Transactional)}.
+ * The cached content is kept in a snapshot between launches, so that files that have not changed do not have to be decoded and parsed again. See {@link #loadSnapshot()}.
+ */
+public class GameDataRepository {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GameDataRepository.class);
+    public static final GameDataRepository INSTANCE = new GameDataRepository();
+    public static final File FILE_SNAPSHOT = new File(Settings.MGT2_MOD_MANAGER_PATH + "game_data.snapshot");
+    private final Map<Path, Entry> entries = new HashMap<>();
+    private final Map<Path, Entry> snapshotEntries = new HashMap<>();
+    private boolean snapshotLoaded = false;
+    private boolean snapshotChanged = false;
+    private final Map<Path, StagedFile> stagedFiles = new LinkedHashMap<>();
+    /**
+     * The thread that runs the current transaction. Null when no transaction is running.
+     */
+    private Thread transactionOwner = null;
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Contains the hashes of the bytes that have been written by the {@link AtomicFileWriter}, so that the files do not have to be read again when the cache is updated.
+     * Is not guarded by the lock, because the files are written in parallel while the transaction is committed.
+     */
+    private final Map<Path, byte[]> writtenHashes = new ConcurrentHashMap<>();
+
+    private GameDataRepository(){
+
+    }
+
+    /**
+     * @param file The data file. Eg. Genres.txt
+     * @return Returns a list containing map entries for every data package in the input file. See {@link DataStreamHelper#parseDataFile(File)}.
+     */
+    public List<Map<String, String>> getRecords(File file) throws IOException {
+        return getContent(file, null);
+    }
+
+    /**
+     * @param file The text file. Eg. Themes_GE.txt
+     * @param charset The charset of the file
+     * @return Returns a list containing every line of the input file. The UTF8BOM is removed from the first line.
+     */
+    public List<String> getLines(File file, Charset charset) throws IOException {
+        return getContent(file, charset);
+    }
+
+    /**
+     * Replaces the cached data packages of the input file with the data packages that have just been written to the file.
+     * @param file The file that has been written
+     * @param records The data packages in the form in which they have been written
+     * @return Returns the list that is returned by {@link #getRecords(File)} for as long as the file does not change. Returns null when the file has to be read again, because the data packages are not read the same way as they have been written.
+     */
+    public synchronized List<Map<String, String>> updateRecords(File file, List<Map<String, String>> records){
+        List<Map<String, String>> content = getRecordContent(records);
+        if(content == null){
+            invalidate(file);
+            return null;
+        }
+        put(file, null, content);
+        return content;
+    }
+
+    /**
+     * @param file The data file
+     * @param records The data packages that should be extended
+     * @param record The data package that should be appended
+     * @return Returns true when the data package can be appended to the file in place. This is the case when no transaction is running, the data packages are the current content of the file and the data package is read the same way as it is written.
+     */
+    public synchronized boolean canAppendRecord(File file, List<Map<String, String>> records, Map<String, String> record){
+        if(transactionOwner != null){
+            return false;
+        }
+        Entry entry = entries.get(getKey(file));
+        if(entry == null || entry.content != records || entry.charset != null || entry.lastModified != file.lastModified() || entry.length != file.length()){
+            return false;
+        }
+        return getRecordContent(Collections.singletonList(record)) != null;
+    }
+
+    /**
+     * Adds the data package that has just been appended to the file to the cached data packages. The file is not read again to compute its hash.
+     * @param file The file that has been appended
+     * @param records The data packages that have been extended. See {@link #canAppendRecord(File, List, Map)}.
+     * @param record The data package that has been appended
+     * @return Returns the list that is returned by {@link #getRecords(File)} for as long as the file does not change.
+     */
+    public synchronized List<Map<String, String>> updateAppendedRecord(File file, List<Map<String, String>> records, Map<String, String> record){
+        List<Map<String, String>> content = new ArrayList<>(records.size()+1);
+        content.addAll(records);
+        content.add(Collections.unmodifiableMap(new HashMap<>(record)));
+        List<Map<String, String>> unmodifiableContent = Collections.unmodifiableList(content);
+        entries.put(getKey(file), new Entry(file.lastModified(), file.length(), null, null, unmodifiableContent));
+        snapshotChanged = true;
+        return unmodifiableContent;
+    }
+
+    /**
+     * Replaces the cached lines of the input file with the lines that have just been written to the file.
+     * @param file The file that has been written
+     * @param charset The charset of the file
+     * @param lines The lines in the order in which they have been written. The lines have been separated by line separators.
+     * @return Returns the list that is returned by {@link #getLines(File, Charset)} for as long as the file does not change. Returns null when the file has to be read again.
+     */
+    public synchronized List<String> updateLines(File file, Charset charset, List<String> lines){
+        List<String> content = getLineContent(lines);
+        if(content == null){
+            invalidate(file);
+            return null;
+        }
+        put(file, charset, content);
+        return content;
+    }
+
+    /**
+     * Stages the data packages that should be written to the file while a transaction is running.
+     * @param file The file that should be written
+     * @param records The data packages in the form in which they should be written
+     * @param writer Writes the data packages to the file when the transaction is committed
+     * @return Returns the list that is returned by {@link #getRecords(File)} until the transaction ends. Returns null when the calling thread does not run a transaction or when the data packages can not be staged. The file should then be written immediately.
+     */
+    public synchronized List<Map<String, String>> stageRecords(File file, List<Map<String, String>> records, Transactional writer){
+        if(transactionOwner != Thread.currentThread()){
+            return null;
+        }
+        return stage(file, null, getRecordContent(records), writer);
+    }
+
+    /**
+     * Stages the lines that should be written to the file while a transaction is running.
+     * @param file The file that should be written
+     * @param charset The charset of the file
+     * @param lines The lines in the order in which they should be written
+     * @param writer Writes the lines to the file when the transaction is committed
+     * @return Returns the list that is returned by {@link #getLines(File, Charset)} until the transaction ends. Returns null when the calling thread does not run a transaction or when the lines can not be staged. The file should then be written immediately.
+     */
+    public synchronized List<String> stageLines(File file, Charset charset, List<String> lines, Transactional writer){
+        if(transactionOwner != Thread.currentThread()){
+            return null;
+        }
+        return stage(file, charset, getLineContent(lines), writer);
+    }
+
+    /**
+     * Runs the transactional in a transaction. All game data files that are edited by the transactional are written once when it has finished.
+     * The staged files are discarded when the transactional throws an exception. Files that are not game data files (eg. images) are not part of the transaction.
+     * When the calling thread is already running a transaction the transactional is run as part of that transaction.
+     * When a different thread is running a transaction the calling thread waits until that transaction has ended, so that it can not commit or roll back the changes of the calling thread.
+     */
+    public void runInTransaction(Transactional transactional) throws IOException {
+        boolean joined;
+        synchronized(this){
+            joined = transactionOwner == Thread.currentThread();
+            while(!joined && transactionOwner != null){
+                try{
+                    wait();
+                }catch(InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the running transaction");
+                }
+            }
+            if(!joined){
+                transactionOwner = Thread.currentThread();
+            }
+        }
+        if(joined){
+            transactional.run();
+            return;
+        }
+        boolean committed = false;
+        try{
+            transactional.run();
+            commit();
+            committed = true;
+        }finally{
+            if(!committed){
+                rollback();
+            }
+        }
+    }
+
+    /**
+     * @return Returns true when a transaction is running.
+     */
+    public synchronized boolean isTransactionActive(){
+        return transactionOwner != null;
+    }
+
+    /**
+     * Adds a listener that is called when mods have been added or removed. Eg. the gui updates which actions are available.
+     */
+    public void addChangeListener(Runnable listener){
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(Runnable listener){
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Calls the change listeners. Is called by the functions that add or remove mods.
+     */
+    public void notifyChanged(){
+        for(Runnable listener : changeListeners){
+            listener.run();
+        }
+    }
+
+    /**
+     * Removes the cached content of the input file. The file is read again the next time it is requested.
+     */
+    public synchronized void invalidate(File file){
+        entries.remove(getKey(file));
+        snapshotEntries.remove(getKey(file));
+        stagedFiles.remove(getKey(file));
+        snapshotChanged = true;
+    }
+
+    /**
+     * Removes the cached content of all files. Should be called when the game files have been replaced, eg. when a backup has been restored.
+     */
+    public synchronized void invalidateAll(){
+        entries.clear();
+        snapshotEntries.clear();
+        stagedFiles.clear();
+        snapshotChanged = true;
+    }
+
+    /**
+     * Loads the snapshot that has been written by {@link #saveSnapshot()} the last time the tool was running. Does nothing when the snapshot has already been loaded.
+     * The content of a file is only taken from the snapshot when the hash of the file matches, the file is then not decoded and parsed again. Changed files are read as usual.
+     */
+    public synchronized void loadSnapshot(){
+        if(snapshotLoaded){
+            return;
+        }
+        snapshotLoaded = true;
+        snapshotEntries.putAll(GameDataSnapshot.read(FILE_SNAPSHOT));
+    }
+
+    /**
+     * Writes the cached content to the snapshot when it has changed since the snapshot has been loaded or written. Is skipped while a transaction is running.
+     * The snapshot is only a cache: when it can not be written the error is logged and the files are read again on the next launch.
+     */
+    public void saveSnapshot(){
+        Map<Path, Entry> entriesToWrite;
+        synchronized(this){
+            if(transactionOwner != null || !snapshotChanged){
+                return;
+            }
+            entriesToWrite = new HashMap<>(entries);
+            snapshotChanged = false;
+        }
+        try{
+            if(!FILE_SNAPSHOT.getParentFile().exists()){
+                return;
+            }
+            GameDataSnapshot.write(FILE_SNAPSHOT, entriesToWrite);
+        }catch(IOException e){
+            LOGGER.info("Unable to write the game data snapshot: " + e.getMessage());
+            synchronized(this){
+                snapshotChanged = true;
+            }
+        }
+    }
+
+    /**
+     * Writes the staged files. The files are written with the {@link Journal}, so that either all or none of the files are replaced, even when the tool crashes while writing them.
+     */
+    private synchronized void commit() throws IOException {
+        LOGGER.info("Committing transaction: Writing " + stagedFiles.size() + " file(s)");
+        try{
+            Journal.begin();
+            try{
+                //The files are encoded and written to the temp files in parallel, the journal replaces all of them or none
+                List<Callable<Void>> writers = new ArrayList<>();
+                for(StagedFile stagedFile : stagedFiles.values()){
+                    writers.add(() -> {
+                        Journal.write(stagedFile.writer);
+                        return null;
+                    });
+                }
+                ParallelExecutor.runAll("writing game files", writers);
+                Journal.commit();
+            }finally{
+                Journal.rollback();
+            }
+            for(Map.Entry<Path, StagedFile> entry : stagedFiles.entrySet()){
+                StagedFile stagedFile = entry.getValue();
+                put(entry.getKey().toFile(), stagedFile.charset, stagedFile.content);
+            }
+        }finally{
+            stagedFiles.clear();
+            endTransaction();
+        }
+    }
+
+    private synchronized void rollback(){
+        if(!stagedFiles.isEmpty()){
+            LOGGER.info("Rolling back transaction: " + stagedFiles.size() + " staged file(s) are discarded");
+        }
+        stagedFiles.clear();
+        endTransaction();
+    }
+
+    private synchronized void endTransaction(){
+        transactionOwner = null;
+        //Wakes up the threads that wait for the transaction, see runInTransaction
+        notifyAll();
+    }
+
+    private <T> List<T> stage(File file, Charset charset, List<T> content, Transactional writer){
+        Path key = getKey(file);
+        if(content == null){
+            //The content would not be read the same way as it is written
+            stagedFiles.remove(key);
+            return null;
+        }
+        stagedFiles.put(key, new StagedFile(charset, content, writer));
+        return content;
+    }
+
+    /**
+     * @return Returns the data packages in the form in which they are read from the file after they have been written. Returns null when they are read differently.
+     */
+    private static List<Map<String, String>> getRecordContent(List<Map<String, String>> records){
+        if(records.isEmpty()){
+            //An empty file is parsed as dummy entry
+            return null;
+        }
+        for(Map<String, String> map : records){
+            for(Map.Entry<String, String> entry : map.entrySet()){
+                if(containsLineBreak(entry.getKey()) || containsLineBreak(entry.getValue())){
+                    return null;
+                }
+            }
+        }
+        List<Map<String, String>> content = new ArrayList<>(records.size());
+        for(Map<String, String> map : records){
+            content.add(Collections.unmodifiableMap(new HashMap<>(map)));
+        }
+        return Collections.unmodifiableList(content);
+    }
+
+    /**
+     * @return Returns the lines in the form in which they are read from the file after they have been written. Returns null when they are read differently.
+     */
+    private static List<String> getLineContent(List<String> lines){
+        List<String> content = new ArrayList<>(lines);
+        //A trailing line separator is not read as additional line
+        if(!content.isEmpty() && content.get(content.size()-1).isEmpty()){
+            content.remove(content.size()-1);
+        }
+        for(String line : content){
+            if(containsLineBreak(line)){
+                return null;
+            }
+        }
+        if(!content.isEmpty() && content.get(0).startsWith("\ufeff")){
+            return null;
+        }
+        return Collections.unmodifiableList(content);
+    }
+
+    /**
+     * The file is read and parsed without holding the lock, so that different files can be read in parallel.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> getContent(File file, Charset charset) throws IOException {
+        Path key = getKey(file);
+        Entry entry;
+        long lastModified;
+        synchronized(this){
+            StagedFile stagedFile = stagedFiles.get(key);
+            if(stagedFile != null && Objects.equals(stagedFile.charset, charset)){
+                return (List<T>) stagedFile.content;
+            }
+            entry = entries.get(key);
+            lastModified = file.lastModified();
+            long length = file.length();
+            if(entry != null && Objects.equals(entry.charset, charset)){
+                if(entry.lastModified == lastModified && entry.length == length){
+                    return (List<T>) entry.content;
+                }
+            }
+            if(entry == null){
+                //The modification time and the size are not enough to use the content of the snapshot, eg. a restored backup can have the same modification time. The hash is compared below.
+                entry = snapshotEntries.remove(key);
+            }
+        }
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        byte[] hash = getHash(bytes);
+        if(entry != null && Objects.equals(entry.charset, charset) && Arrays.equals(entry.hash, hash)){
+            if(Settings.enableDebugLogging){
+                LOGGER.info("File did not change since it has been read the last time: " + file.getPath());
+            }
+            return (List<T>) putIfNotStaged(key, new Entry(lastModified, bytes.length, hash, charset, entry.content));
+        }
+        LOGGER.info("Reading file: " + file.getPath());
+        List<?> content;
+        if(charset == null){
+            List<Map<String, String>> records = new ArrayList<>();
+            try(Reader reader = new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)){
+                DataStreamHelper.parseDataFile(reader, record -> records.add(Collections.unmodifiableMap(record)));
+            }
+            content = Collections.unmodifiableList(records);
+        }else{
+            content = Collections.unmodifiableList(readLines(bytes, charset));
+        }
+        return (List<T>) putIfNotStaged(key, new Entry(lastModified, bytes.length, hash, charset, content));
+    }
+
+    /**
+     * Caches the content that has been read. When the file has been staged while it has been read the staged content is returned instead.
+     */
+    private synchronized List<?> putIfNotStaged(Path key, Entry entry){
+        StagedFile stagedFile = stagedFiles.get(key);
+        if(stagedFile != null && Objects.equals(stagedFile.charset, entry.charset)){
+            return stagedFile.content;
+        }
+        entries.put(key, entry);
+        snapshotChanged = true;
+        return entry.content;
+    }
+
+    /**
+     * Is called by the {@link AtomicFileWriter} when the file has been written or already contained the bytes.
+     */
+    void fileWritten(File file, byte[] bytes){
+        writtenHashes.put(getKey(file), getHash(bytes));
+    }
+
+    /**
+     * Caches the content that has just been written to the file. The hash is taken from the bytes that have been written, the file is not read again.
+     */
+    private void put(File file, Charset charset, List<?> content){
+        Path key = getKey(file);
+        entries.put(key, new Entry(file.lastModified(), file.length(), writtenHashes.remove(key), charset, content));
+        snapshotChanged = true;
+    }
+
+    private static List<String> readLines(byte[] bytes, Charset charset) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try(BufferedReader br = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(bytes), charset))){
+            String currentLine;
+            boolean firstLine = true;
+            while((currentLine = br.readLine()) != null){
+                if(firstLine){
+                    currentLine = Utils.removeUTF8BOM(currentLine);
+                    firstLine = false;
+                }
+                lines.add(currentLine);
+            }
+        }
+        return lines;
+    }
+
+    private static byte[] getHash(byte[] bytes){
+        try{
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        }catch(NoSuchAlgorithmException e){
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static boolean containsLineBreak(String string){
+        return string != null && (string.indexOf('\n') != -1 || string.indexOf('\r') != -1);
+    }
+
+    /**
+     * The game files are accessed with different separators. Eg. Themes_GE.txt is accessed with "\\GE\\Themes_GE.txt" and "//GE//Themes_GE.txt".
+     */
+    private static Path getKey(File file){
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    private static class StagedFile{
+        final Charset charset;
+        final List<?> content;
+        final Transactional writer;
+
+        StagedFile(Charset charset, List<?> content, Transactional writer){
+            this.charset = charset;
+            this.content = content;
+            this.writer = writer;
+        }
+    }
+
+    static class Entry{
+        final long lastModified;
+        final long length;
+        /**
+         * Null when the hash has not been computed. The file is then read again as soon as it has been touched.
+         */
+        final byte[] hash;
+        final Charset charset;
+        final List<?> content;
+
+        Entry(long lastModified, long length, byte[] hash, Charset charset, List<?> content){
+            this.lastModified = lastModified;
+            this.length = length;
+            this.hash = hash;
+            this.charset = charset;
+            this.content = content;
+        }
+    }
+}
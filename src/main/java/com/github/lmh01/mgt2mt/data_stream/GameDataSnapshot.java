@@ -0,0 +1,182 @@
+package com.github.lmh01.mgt2mt.data_stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes the binary snapshot of the content that is cached by the {@link GameDataRepository}.
+ * The snapshot contains the path, the modification time, the size, the hash and the parsed content of every file.
+ * A snapshot that has been written by a different schema version or that is corrupt is ignored, the files are then read again.
+ */
+class GameDataSnapshot {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GameDataSnapshot.class);
+    private static final int MAGIC = 0x4D47544D;
+    /**
+     * Has to be increased when the format of the snapshot or the way in which the game files are parsed changes.
+     */
+    static final int SCHEMA_VERSION = 1;
+
+    /**
+     * @return Returns the entries of the snapshot. Returns an empty map when the snapshot does not exist, has been written by a different schema version or is corrupt.
+     */
+    static Map<Path, GameDataRepository.Entry> read(File file){
+        Map<Path, GameDataRepository.Entry> entries = new HashMap<>();
+        if(!file.exists()){
+            return entries;
+        }
+        try{
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            if(bytes.length < 16 || getChecksum(bytes, bytes.length-8) != readChecksum(bytes)){
+                LOGGER.info("The game data snapshot is corrupt and will be rebuilt: " + file.getPath());
+                return entries;
+            }
+            DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length-8));
+            if(dis.readInt() != MAGIC){
+                LOGGER.info("The game data snapshot is corrupt and will be rebuilt: " + file.getPath());
+                return entries;
+            }
+            int schemaVersion = dis.readInt();
+            if(schemaVersion != SCHEMA_VERSION){
+                LOGGER.info("The game data snapshot has been written by schema version " + schemaVersion + " and will be rebuilt");
+                return entries;
+            }
+            int numberOfEntries = dis.readInt();
+            for(int i=0; i<numberOfEntries; i++){
+                Path key = Paths.get(readString(dis));
+                long lastModified = dis.readLong();
+                long length = dis.readLong();
+                byte[] hash = new byte[dis.readInt()];
+                dis.readFully(hash);
+                String charsetName = readString(dis);
+                Charset charset = charsetName == null ? null : Charset.forName(charsetName);
+                List<?> content = charset == null ? readRecords(dis) : readLines(dis);
+                entries.put(key, new GameDataRepository.Entry(lastModified, length, hash, charset, content));
+            }
+            LOGGER.info("Game data snapshot has been loaded: " + entries.size() + " file(s)");
+            return entries;
+        }catch(IOException | RuntimeException e){
+            LOGGER.info("Unable to read the game data snapshot, it will be rebuilt: " + e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Writes the entries to the snapshot. Entries without hash are not written.
+     */
+    @SuppressWarnings("unchecked")
+    static void write(File file, Map<Path, GameDataRepository.Entry> entries) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(content);
+        List<Map.Entry<Path, GameDataRepository.Entry>> writtenEntries = new ArrayList<>();
+        for(Map.Entry<Path, GameDataRepository.Entry> entry : entries.entrySet()){
+            if(entry.getValue().hash != null){
+                writtenEntries.add(entry);
+            }
+        }
+        dos.writeInt(MAGIC);
+        dos.writeInt(SCHEMA_VERSION);
+        dos.writeInt(writtenEntries.size());
+        for(Map.Entry<Path, GameDataRepository.Entry> mapEntry : writtenEntries){
+            GameDataRepository.Entry entry = mapEntry.getValue();
+            writeString(dos, mapEntry.getKey().toString());
+            dos.writeLong(entry.lastModified);
+            dos.writeLong(entry.length);
+            dos.writeInt(entry.hash.length);
+            dos.write(entry.hash);
+            writeString(dos, entry.charset == null ? null : entry.charset.name());
+            if(entry.charset == null){
+                writeRecords(dos, (List<Map<String, String>>) entry.content);
+            }else{
+                writeLines(dos, (List<String>) entry.content);
+            }
+        }
+        dos.flush();
+        byte[] bytes = content.toByteArray();
+        dos.writeLong(getChecksum(bytes, bytes.length));
+        dos.flush();
+        AtomicFileWriter.writeFile(file, content.toByteArray());
+        LOGGER.info("Game data snapshot has been written: " + writtenEntries.size() + " file(s)");
+    }
+
+    private static List<Map<String, String>> readRecords(DataInputStream dis) throws IOException {
+        int numberOfRecords = dis.readInt();
+        List<Map<String, String>> records = new ArrayList<>(numberOfRecords);
+        for(int i=0; i<numberOfRecords; i++){
+            int size = dis.readInt();
+            Map<String, String> record = new HashMap<>(size * 4 / 3 + 1);
+            for(int j=0; j<size; j++){
+                record.put(readString(dis), readString(dis));
+            }
+            records.add(Collections.unmodifiableMap(record));
+        }
+        return Collections.unmodifiableList(records);
+    }
+
+    private static void writeRecords(DataOutputStream dos, List<Map<String, String>> records) throws IOException {
+        dos.writeInt(records.size());
+        for(Map<String, String> record : records){
+            dos.writeInt(record.size());
+            for(Map.Entry<String, String> entry : record.entrySet()){
+                writeString(dos, entry.getKey());
+                writeString(dos, entry.getValue());
+            }
+        }
+    }
+
+    private static List<String> readLines(DataInputStream dis) throws IOException {
+        int numberOfLines = dis.readInt();
+        List<String> lines = new ArrayList<>(numberOfLines);
+        for(int i=0; i<numberOfLines; i++){
+            lines.add(readString(dis));
+        }
+        return Collections.unmodifiableList(lines);
+    }
+
+    private static void writeLines(DataOutputStream dos, List<String> lines) throws IOException {
+        dos.writeInt(lines.size());
+        for(String line : lines){
+            writeString(dos, line);
+        }
+    }
+
+    /**
+     * Strings are written with their length, so that strings that are longer than 64 KB can be written. Null is written with the length -1.
+     */
+    private static void writeString(DataOutputStream dos, String string) throws IOException {
+        if(string == null){
+            dos.writeInt(-1);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        dos.writeInt(bytes.length);
+        dos.write(bytes);
+    }
+
+    private static String readString(DataInputStream dis) throws IOException {
+        int length = dis.readInt();
+        if(length == -1){
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        dis.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long getChecksum(byte[] bytes, int length){
+        CRC32 crc32 = new CRC32();
+        crc32.update(bytes, 0, length);
+        return crc32.getValue();
+    }
+
+    private static long readChecksum(byte[] bytes) throws IOException {
+        return new DataInputStream(new ByteArrayInputStream(bytes, bytes.length-8, 8)).readLong();
+    }
+}
@@ -9,7 +9,12 @@ import java.nio.charset.StandardCharsets;
 public class ImportSettings{
     private static final Logger LOGGER = LoggerFactory.getLogger(ImportSettings.class);
 
-    public static boolean Import(String fileLocation) {
+    /**
+     * Imports the settings from the file.
+     * @param resetWhenMissing True when the settings should be reset and written when the file does not exist, see {@link Settings#resetSettings()}. Otherwise the current settings are kept.
+     * @return Returns true if settings have been imported successfully.
+     */
+    public static boolean Import(String fileLocation, boolean resetWhenMissing) {
         LOGGER.info("Starting settings import process...");
         try {
             LOGGER.info("Scanning for File '" + fileLocation + "'...");
@@ -61,6 +66,24 @@ public class ImportSettings{
                         }else if(currentLine.equals("false")){
                             Settings.enableGenreDescriptionTranslationInfo = false;
                         } break;
+                    case 9:
+                        if(currentLine.equals("true")){
+                            Settings.enableBackupArchives = true;
+                        }else if(currentLine.equals("false")){
+                            Settings.enableBackupArchives = false;
+                        } break;
+                    case 10:
+                        try{
+                            Settings.backupRetentionCount = Integer.parseInt(currentLine);
+                        }catch(NumberFormatException e){
+                            LOGGER.info("Invalid backup retention count: " + currentLine);
+                        } break;
+                    case 11:
+                        if(currentLine.equals("true")){
+                            Settings.backupRetentionKeepDaily = true;
+                        }else if(currentLine.equals("false")){
+                            Settings.backupRetentionKeepDaily = false;
+                        } break;
                 }
                 if(Settings.enableDebugLogging){
                     LOGGER.info("Imported Setting (" + setting + "): " + currentLine);
@@ -75,7 +98,9 @@ public class ImportSettings{
         } catch (FileNotFoundException | UnsupportedEncodingException var6) {
             var6.printStackTrace();
             LOGGER.info("Unable to import settings: File not found! Using default settings!");
-            Settings.resetSettings();
+            if(resetWhenMissing){
+                Settings.resetSettings();
+            }
             return false;
         } catch (IOException e) {
             e.printStackTrace();
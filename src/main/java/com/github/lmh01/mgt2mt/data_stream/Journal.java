@@ -0,0 +1,318 @@
+package com.github.lmh01.mgt2mt.data_stream;
+
+import com.github.lmh01.mgt2mt.util.Settings;
+import com.github.lmh01.mgt2mt.util.TranslationManager;
+import com.github.lmh01.mgt2mt.util.Utils;
+import com.github.lmh01.mgt2mt.util.interfaces.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Write ahead journal for operations that write multiple game files.
+ * While the journal is active the files that are written by {@link #write(Transactional)} are only written to the temp files, every temp file is recorded in the journal file.
+ * Files that are written by other code at the same time (eg. backups) are not part of the journal and are written immediately.
+ * When the operation is committed the [COMMIT] marker is written and the temp files are moved over the game files.
+ * When the tool is started {@link #recover()} completes the operation when the marker has been written and discards the temp files otherwise.
+ * Data packages that are appended to a file in place are journaled with the position and the bytes that are overwritten, so that the append can be undone.
+ * The journal file belongs to the append until it has finished, a journal that is started or recovered in the meantime waits.
+ */
+public class Journal {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Journal.class);
+    public static final File FILE_JOURNAL = new File(Settings.MGT2_MOD_MANAGER_PATH + "journal.txt");
+    private static final String FILE_KEY = "[FILE]";
+    private static final String COMMIT_KEY = "[COMMIT]";
+    private static final String APPEND_KEY = "[APPEND]";
+    private static final String POSITION_KEY = "[POSITION]";
+    private static final String TAIL_KEY = "[TAIL]";
+    private static final List<File> FILES = new ArrayList<>();
+    private static boolean active = false;
+    private static boolean committed = false;
+    /**
+     * True while a data package is appended in place, see {@link #beginAppend(File, long, byte[])}. The journal file belongs to the append until it is committed or rolled back.
+     */
+    private static boolean appending = false;
+    private static final ThreadLocal<Boolean> JOURNALED_WRITER = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Starts a new journal. The game files are not replaced until {@link #commit()} is called.
+     * Waits until a running append has finished.
+     */
+    public static synchronized void begin() throws IOException {
+        awaitAppend();
+        if(active){
+            throw new IllegalStateException("The journal is already active");
+        }
+        if(FILE_JOURNAL.exists()){
+            //A journal that has not been recovered is completed first, it would be overwritten otherwise
+            recoverJournal();
+        }
+        FILE_JOURNAL.getParentFile().mkdirs();
+        Files.write(FILE_JOURNAL.toPath(), new byte[0]);
+        FILES.clear();
+        active = true;
+        committed = false;
+    }
+
+    /**
+     * Runs the writer so that the files it writes with the {@link AtomicFileWriter} are part of the journal. Can be called from several threads at the same time.
+     */
+    public static void write(Transactional writer) throws IOException {
+        synchronized(Journal.class){
+            if(!active){
+                throw new IllegalStateException("The journal is not active");
+            }
+        }
+        JOURNALED_WRITER.set(true);
+        try{
+            writer.run();
+        }finally{
+            JOURNALED_WRITER.remove();
+        }
+    }
+
+    /**
+     * @return Returns true when the calling thread is running a writer of the active journal and the file should only be written to the temp file. See {@link #write(Transactional)}.
+     */
+    public static synchronized boolean isJournaled(){
+        return active && JOURNALED_WRITER.get();
+    }
+
+    /**
+     * Records that the temp file of the file has been written. The file is replaced with the temp file when the journal is committed.
+     * @param file The game file
+     */
+    public static synchronized void add(File file) throws IOException {
+        if(!active){
+            throw new IllegalStateException("The journal is not active");
+        }
+        if(!FILES.contains(file)){
+            append(FILE_KEY + file.getAbsolutePath());
+            FILES.add(file);
+        }
+    }
+
+    /**
+     * Writes the commit marker and replaces the game files with the temp files.
+     * When a temp file can not be moved the journal is kept and the operation is completed the next time the tool is started.
+     */
+    public static synchronized void commit() throws IOException {
+        if(!active){
+            return;
+        }
+        try{
+            append(COMMIT_KEY);
+            committed = true;
+            for(File file : FILES){
+                AtomicFileWriter.moveTempFile(file);
+            }
+            Files.delete(FILE_JOURNAL.toPath());
+            LOGGER.info("Journal committed: " + FILES.size() + " file(s) have been replaced");
+        }finally{
+            FILES.clear();
+            active = false;
+        }
+    }
+
+    /**
+     * Discards the temp files of the journal. Does nothing when the journal has already been committed.
+     */
+    public static synchronized void rollback(){
+        if(!active || committed){
+            return;
+        }
+        for(File file : FILES){
+            AtomicFileWriter.getTempFile(file).delete();
+        }
+        FILE_JOURNAL.delete();
+        LOGGER.info("Journal rolled back: " + FILES.size() + " temp file(s) have been discarded");
+        FILES.clear();
+        active = false;
+    }
+
+    /**
+     * Records that the file is about to be changed in place from the position on.
+     * The journal belongs to the append until {@link #commitAppend()} or {@link #rollbackAppend()} is called, a journal that is started by another thread in the meantime waits until then.
+     * @param file The file that is changed
+     * @param position The position from which on the file is overwritten
+     * @param tail The bytes of the file from the position to the end of the file
+     */
+    static synchronized void beginAppend(File file, long position, byte[] tail) throws IOException {
+        awaitAppend();
+        if(active){
+            throw new IllegalStateException("The journal is already active");
+        }
+        if(FILE_JOURNAL.exists()){
+            recoverJournal();
+        }
+        appending = true;
+        try{
+            FILE_JOURNAL.getParentFile().mkdirs();
+            Files.write(FILE_JOURNAL.toPath(), new byte[0]);
+            append(APPEND_KEY + file.getAbsolutePath());
+            append(POSITION_KEY + position);
+            append(TAIL_KEY + Base64.getEncoder().encodeToString(tail));
+        }catch(IOException e){
+            //Nothing has been appended yet
+            FILE_JOURNAL.delete();
+            endAppend();
+            throw e;
+        }
+    }
+
+    /**
+     * Records that the file has been changed completely and removes the journal.
+     */
+    static synchronized void commitAppend() throws IOException {
+        append(COMMIT_KEY);
+        Files.delete(FILE_JOURNAL.toPath());
+        endAppend();
+    }
+
+    /**
+     * Undoes the append that has been started with {@link #beginAppend(File, long, byte[])}. Does nothing when the append has already been committed.
+     */
+    static synchronized void rollbackAppend() throws IOException {
+        if(!appending){
+            return;
+        }
+        try{
+            recoverJournal();
+        }finally{
+            endAppend();
+        }
+    }
+
+    private static void endAppend(){
+        appending = false;
+        //Wakes up the threads that wait for the append, see awaitAppend
+        Journal.class.notifyAll();
+    }
+
+    /**
+     * Waits until the running append has been committed or rolled back. Has to be called while holding the lock of the journal.
+     */
+    private static void awaitAppend() throws IOException {
+        while(appending){
+            try{
+                Journal.class.wait();
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the running append");
+            }
+        }
+    }
+
+    /**
+     * Completes or discards the operation that was running when the tool was closed the last time.
+     * When the journal contains the commit marker the remaining temp files are moved over the game files, otherwise the temp files are deleted.
+     * Temp files of the game files that are not listed in a journal are handled the same way: They are moved to the game file when the game file is missing and deleted otherwise.
+     * Waits until a running append has finished.
+     * @return Returns a list containing the game files that have been recovered.
+     */
+    public static synchronized List<File> recover() throws IOException {
+        awaitAppend();
+        return recoverJournal();
+    }
+
+    private static List<File> recoverJournal() throws IOException {
+        List<File> recoveredFiles = new ArrayList<>();
+        if(FILE_JOURNAL.exists()){
+            List<File> files = new ArrayList<>();
+            boolean journalCommitted = false;
+            File appendedFile = null;
+            long appendPosition = -1;
+            byte[] appendTail = null;
+            for(String line : Files.readAllLines(FILE_JOURNAL.toPath(), StandardCharsets.UTF_8)){
+                if(line.startsWith(FILE_KEY)){
+                    files.add(new File(line.substring(FILE_KEY.length())));
+                }else if(line.startsWith(APPEND_KEY)){
+                    appendedFile = new File(line.substring(APPEND_KEY.length()));
+                }else if(line.startsWith(POSITION_KEY)){
+                    appendPosition = Long.parseLong(line.substring(POSITION_KEY.length()));
+                }else if(line.startsWith(TAIL_KEY)){
+                    appendTail = Base64.getDecoder().decode(line.substring(TAIL_KEY.length()));
+                }else if(line.equals(COMMIT_KEY)){
+                    journalCommitted = true;
+                }
+            }
+            if(appendedFile != null && appendPosition != -1 && appendTail != null && !journalCommitted && appendedFile.exists()){
+                LOGGER.info("Undoing interrupted append: " + appendedFile.getPath());
+                try(FileChannel channel = FileChannel.open(appendedFile.toPath(), StandardOpenOption.WRITE)){
+                    channel.truncate(appendPosition);
+                    ByteBuffer buffer = ByteBuffer.wrap(appendTail);
+                    while(buffer.hasRemaining()){
+                        channel.write(buffer, appendPosition + buffer.position());
+                    }
+                    channel.force(true);
+                }
+                recoveredFiles.add(appendedFile);
+            }
+            for(File file : files){
+                File tempFile = AtomicFileWriter.getTempFile(file);
+                if(tempFile.exists()){
+                    if(journalCommitted){
+                        LOGGER.info("Completing interrupted write: " + file.getPath());
+                        AtomicFileWriter.moveTempFile(file);
+                    }else{
+                        LOGGER.info("Discarding interrupted write: " + file.getPath());
+                        Files.delete(tempFile.toPath());
+                    }
+                    recoveredFiles.add(file);
+                }
+            }
+            Files.delete(FILE_JOURNAL.toPath());
+        }
+        for(File file : getGameFiles()){
+            File tempFile = AtomicFileWriter.getTempFile(file);
+            if(tempFile.exists()){
+                if(file.exists()){
+                    LOGGER.info("Deleting leftover temp file: " + tempFile.getPath());
+                    Files.delete(tempFile.toPath());
+                }else{
+                    LOGGER.info("Restoring missing file from temp file: " + file.getPath());
+                    AtomicFileWriter.moveTempFile(file);
+                }
+                recoveredFiles.add(file);
+            }
+        }
+        if(!recoveredFiles.isEmpty()){
+            GameDataRepository.INSTANCE.invalidateAll();
+        }
+        return recoveredFiles;
+    }
+
+    /**
+     * @return Returns the game files that are written by the mod tool.
+     */
+    private static List<File> getGameFiles(){
+        List<File> files = new ArrayList<>();
+        files.add(Utils.getGenreFile());
+        files.add(Utils.getPublisherFile());
+        files.add(Utils.getNpcGamesFile());
+        files.add(Utils.getGameplayFeaturesFile());
+        files.add(Utils.getEngineFeaturesFile());
+        for(String translationKey : TranslationManager.TRANSLATION_KEYS){
+            files.add(Utils.getThemeFile(translationKey));
+        }
+        return files;
+    }
+
+    private static void append(String line) throws IOException {
+        try(FileChannel channel = FileChannel.open(FILE_JOURNAL.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)){
+            ByteBuffer buffer = ByteBuffer.wrap((line + System.getProperty("line.separator")).getBytes(StandardCharsets.UTF_8));
+            while(buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+}
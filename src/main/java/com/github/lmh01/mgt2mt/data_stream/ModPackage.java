@@ -0,0 +1,310 @@
+package com.github.lmh01.mgt2mt.data_stream;
+
+import com.github.lmh01.mgt2mt.MadGamesTycoon2ModTool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * A single file that contains an exported mod: the data file (eg. genre.txt) and the assets (eg. the icon and the screenshots).
+ * The assets are written one after another, the manifest at the end of the package contains the type of the mod, the mod tool version, and the position, length and hash of each asset.
+ * Only the manifest is read when the package is opened, each asset can be read on its own.
+ */
+public class ModPackage {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModPackage.class);
+    public static final String FILE_ENDING = ".mgt2mod";
+    public static final String TYPE_GENRE = "genre";
+    public static final String TYPE_PUBLISHER = "publisher";
+    public static final String TYPE_THEME = "theme";
+    public static final String TYPE_ENGINE_FEATURE = "engineFeature";
+    public static final String TYPE_GAMEPLAY_FEATURE = "gameplayFeature";
+    public static final String ASSET_ICON = "DATA/icon.png";
+    public static final String ASSET_SCREENSHOTS_FOLDER = "DATA/screenshots/";
+    private static final int MAGIC = 0x4D47544D;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64*1024;
+    private final File packageFile;
+    private final String type;
+    private final String modToolVersion;
+    private final String name;
+    private final Map<String, Asset> assets;
+
+    private ModPackage(File packageFile, String type, String modToolVersion, String name, Map<String, Asset> assets){
+        this.packageFile = packageFile;
+        this.type = type;
+        this.modToolVersion = modToolVersion;
+        this.name = name;
+        this.assets = assets;
+    }
+
+    /**
+     * Writes a new package. The asset files are copied into the package directly.
+     * @param packageFile The package file that should be written
+     * @param type The type of the mod. Eg. {@link #TYPE_GENRE}
+     * @param name The english name of the mod
+     * @param data The content of the data file. Is stored as asset {@link #getDataFileName(String)}.
+     * @param assetFiles The files that should be added to the package by their asset names. Eg. DATA/icon.png
+     */
+    public static void write(File packageFile, String type, String name, byte[] data, Map<String, File> assetFiles) throws IOException {
+        packageFile.getParentFile().mkdirs();
+        File tempFile = new File(packageFile.getPath() + ".temp");
+        Map<String, Asset> assets = new LinkedHashMap<>();
+        try(FileOutputStream fos = new FileOutputStream(tempFile); DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos, BUFFER_SIZE))){
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            long position = 8;
+            MessageDigest messageDigest = getMessageDigest();
+            dos.write(data);
+            assets.put(getDataFileName(type), new Asset(position, data.length, toHex(messageDigest.digest(data))));
+            position += data.length;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for(Map.Entry<String, File> assetFile : assetFiles.entrySet()){
+                long length = 0;
+                try(InputStream inputStream = new FileInputStream(assetFile.getValue())){
+                    int read;
+                    while((read = inputStream.read(buffer)) != -1){
+                        dos.write(buffer, 0, read);
+                        messageDigest.update(buffer, 0, read);
+                        length += read;
+                    }
+                }
+                assets.put(assetFile.getKey(), new Asset(position, length, toHex(messageDigest.digest())));
+                position += length;
+            }
+            dos.writeUTF(type);
+            dos.writeUTF(MadGamesTycoon2ModTool.VERSION);
+            dos.writeUTF(name);
+            dos.writeInt(assets.size());
+            for(Map.Entry<String, Asset> asset : assets.entrySet()){
+                dos.writeUTF(asset.getKey());
+                dos.writeLong(asset.getValue().position);
+                dos.writeLong(asset.getValue().length);
+                dos.writeUTF(asset.getValue().hash);
+            }
+            dos.writeLong(position);
+            dos.flush();
+            fos.getFD().sync();
+        }catch(IOException e){
+            tempFile.delete();
+            throw e;
+        }
+        try{
+            Files.move(tempFile.toPath(), packageFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }catch(AtomicMoveNotSupportedException e){
+            Files.move(tempFile.toPath(), packageFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        LOGGER.info("Mod package has been written: " + packageFile.getPath() + "; " + assets.size() + " asset(s)");
+    }
+
+    /**
+     * Opens the package. Only the manifest is read.
+     * The manifest is checked against the file: every asset has to lie between the header and the manifest and the asset names may not point outside of their folder.
+     * @throws IOException Is thrown when the file is not a valid package.
+     */
+    public static ModPackage open(File packageFile) throws IOException {
+        try(RandomAccessFile randomAccessFile = new RandomAccessFile(packageFile, "r")){
+            long fileLength = randomAccessFile.length();
+            if(fileLength < 16 || randomAccessFile.readInt() != MAGIC || randomAccessFile.readInt() != VERSION){
+                throw new IOException("The file is not a supported mod package: " + packageFile.getPath());
+            }
+            randomAccessFile.seek(fileLength - 8);
+            long manifestPosition = randomAccessFile.readLong();
+            if(manifestPosition < 8 || manifestPosition > fileLength - 8){
+                throw new IOException("The file is not a supported mod package, the manifest is out of bounds: " + packageFile.getPath());
+            }
+            randomAccessFile.seek(manifestPosition);
+            String type = randomAccessFile.readUTF();
+            String modToolVersion = randomAccessFile.readUTF();
+            String name = randomAccessFile.readUTF();
+            int numberOfAssets = randomAccessFile.readInt();
+            //Each asset takes at least 20 bytes of the manifest
+            if(numberOfAssets < 0 || numberOfAssets > (fileLength - 8 - randomAccessFile.getFilePointer()) / 20){
+                throw new IOException("The file is not a supported mod package, the number of assets is invalid: " + packageFile.getPath());
+            }
+            Map<String, Asset> assets = new LinkedHashMap<>();
+            for(int i=0; i<numberOfAssets; i++){
+                String assetName = randomAccessFile.readUTF();
+                long position = randomAccessFile.readLong();
+                long length = randomAccessFile.readLong();
+                if(!isValidAssetName(type, assetName)){
+                    throw new IOException("The file is not a supported mod package, the asset name is invalid: " + assetName + "; " + packageFile.getPath());
+                }
+                if(position < 8 || length < 0 || length > manifestPosition - position){
+                    throw new IOException("The file is not a supported mod package, the asset " + assetName + " is out of bounds: " + packageFile.getPath());
+                }
+                assets.put(assetName, new Asset(position, length, randomAccessFile.readUTF()));
+            }
+            if(randomAccessFile.getFilePointer() != fileLength - 8){
+                throw new IOException("The file is not a supported mod package, the manifest is damaged: " + packageFile.getPath());
+            }
+            return new ModPackage(packageFile, type, modToolVersion, name, assets);
+        }catch(EOFException | UTFDataFormatException e){
+            throw new IOException("The file is not a supported mod package, the manifest is incomplete: " + packageFile.getPath(), e);
+        }
+    }
+
+    /**
+     * @return Returns true when the asset name is the data file, the icon or a file directly in the screenshots folder.
+     */
+    private static boolean isValidAssetName(String type, String assetName){
+        if(assetName.equals(getDataFileName(type)) || assetName.equals(ASSET_ICON)){
+            return true;
+        }
+        if(!assetName.startsWith(ASSET_SCREENSHOTS_FOLDER)){
+            return false;
+        }
+        String fileName = assetName.substring(ASSET_SCREENSHOTS_FOLDER.length());
+        return !fileName.isEmpty() && !fileName.contains("/") && !fileName.contains("\\") && !fileName.contains("..") && !fileName.contains(":");
+    }
+
+    /**
+     * @return Returns true when the file is a mod package. Only the file ending is checked.
+     */
+    public static boolean isPackage(File file){
+        return file.getName().endsWith(FILE_ENDING);
+    }
+
+    /**
+     * @return Returns the name of the data file for the type. Eg. genre.txt
+     */
+    public static String getDataFileName(String type){
+        return type + ".txt";
+    }
+
+    public File getPackageFile(){
+        return packageFile;
+    }
+
+    public String getType(){
+        return type;
+    }
+
+    public String getModToolVersion(){
+        return modToolVersion;
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    /**
+     * @param prefix The prefix of the asset names. Eg. DATA/screenshots/
+     * @return Returns the names of the assets that start with the prefix.
+     */
+    public List<String> getAssetNames(String prefix){
+        List<String> assetNames = new ArrayList<>();
+        for(String assetName : assets.keySet()){
+            if(assetName.startsWith(prefix)){
+                assetNames.add(assetName);
+            }
+        }
+        return assetNames;
+    }
+
+    public boolean containsAsset(String assetName){
+        return assets.containsKey(assetName);
+    }
+
+    /**
+     * Parses the data file of the package.
+     * @return Returns the first data package of the data file.
+     */
+    public Map<String, String> readData() throws IOException {
+        List<Map<String, String>> data = new ArrayList<>();
+        try(Reader reader = new InputStreamReader(new ByteArrayInputStream(readAsset(getDataFileName(type))), StandardCharsets.UTF_8)){
+            DataStreamHelper.parseDataFile(reader, data::add);
+        }
+        if(data.isEmpty()){
+            throw new IOException("The mod package does not contain data: " + packageFile.getPath());
+        }
+        return data.get(0);
+    }
+
+    /**
+     * Reads the asset from the package and verifies its hash.
+     */
+    public byte[] readAsset(String assetName) throws IOException {
+        Asset asset = getAsset(assetName);
+        if(asset.length > Integer.MAX_VALUE - 8){
+            throw new IOException("The asset " + assetName + " of mod package " + packageFile.getPath() + " is too large to be read into memory");
+        }
+        byte[] content = new byte[(int)asset.length];
+        try(RandomAccessFile randomAccessFile = new RandomAccessFile(packageFile, "r")){
+            randomAccessFile.seek(asset.position);
+            randomAccessFile.readFully(content);
+        }
+        if(!toHex(getMessageDigest().digest(content)).equals(asset.hash)){
+            throw new IOException("The asset " + assetName + " of mod package " + packageFile.getPath() + " is damaged");
+        }
+        return content;
+    }
+
+    /**
+     * Writes the asset to the target file and verifies its hash. The target is deleted when the asset is damaged.
+     */
+    public void extractAsset(String assetName, File target) throws IOException {
+        Asset asset = getAsset(assetName);
+        MessageDigest messageDigest = getMessageDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try(RandomAccessFile randomAccessFile = new RandomAccessFile(packageFile, "r"); OutputStream outputStream = new FileOutputStream(target)){
+            randomAccessFile.seek(asset.position);
+            long remaining = asset.length;
+            while(remaining > 0){
+                int read = randomAccessFile.read(buffer, 0, (int)Math.min(buffer.length, remaining));
+                if(read == -1){
+                    throw new EOFException("The mod package ends before asset " + assetName + ": " + packageFile.getPath());
+                }
+                outputStream.write(buffer, 0, read);
+                messageDigest.update(buffer, 0, read);
+                remaining -= read;
+            }
+        }catch(IOException e){
+            target.delete();
+            throw e;
+        }
+        if(!toHex(messageDigest.digest()).equals(asset.hash)){
+            target.delete();
+            throw new IOException("The asset " + assetName + " of mod package " + packageFile.getPath() + " is damaged");
+        }
+    }
+
+    private Asset getAsset(String assetName) throws FileNotFoundException {
+        Asset asset = assets.get(assetName);
+        if(asset == null){
+            throw new FileNotFoundException("The mod package does not contain asset " + assetName + ": " + packageFile.getPath());
+        }
+        return asset;
+    }
+
+    private static MessageDigest getMessageDigest() throws IOException {
+        try{
+            return MessageDigest.getInstance("SHA-256");
+        }catch(NoSuchAlgorithmException e){
+            throw new IOException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes){
+        return String.format("%0" + bytes.length*2 + "x", new BigInteger(1, bytes));
+    }
+
+    private static class Asset {
+        private final long position;
+        private final long length;
+        private final String hash;
+
+        private Asset(long position, long length, String hash){
+            this.position = position;
+            this.length = length;
+            this.hash = hash;
+        }
+    }
+}
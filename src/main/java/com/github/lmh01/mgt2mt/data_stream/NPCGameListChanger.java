@@ -6,6 +6,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
 @SuppressWarnings("ResultOfMethodCallIgnored")
@@ -19,33 +21,45 @@ public class NPCGameListChanger {
      * @param chance The chance with which the genre should be added to the npc game list 100 = 100%
      */
     public static void editNPCGames(int genreID, boolean addGenreID, int chance) throws IOException {
-        File fileNpcGamesTemp = new File(Utils.getMGT2DataPath() + "\\NpcGames.txt.temp");
-        fileNpcGamesTemp.createNewFile();
-        Backup.createBackup(Utils.getNpcGamesFile());
-        LOGGER.info("NpcGames.txt.temp has been created");
-        BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(Utils.getNpcGamesFile()), StandardCharsets.UTF_16LE));
-        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileNpcGamesTemp), StandardCharsets.UTF_16LE));
-        String currentLine;
-        while((currentLine = br.readLine()) != null){
+        File npcGamesFile = Utils.getNpcGamesFile();
+        Backup.createBackup(npcGamesFile);
+        List<String> lines = new ArrayList<>();
+        for(String currentLine : GameDataRepository.INSTANCE.getLines(npcGamesFile, StandardCharsets.UTF_16LE)){
             if(addGenreID){
                 int randomNum = ThreadLocalRandom.current().nextInt(1, 100);
                 if(randomNum>(100-chance)){
-                    bw.write(currentLine + "<" + genreID + ">" + System.getProperty("line.separator"));
+                    lines.add(currentLine + "<" + genreID + ">");
                 }else{
-                    bw.write(currentLine + System.getProperty("line.separator"));
+                    lines.add(currentLine);
                 }
             }else{
-                bw.write(currentLine.replace("<" + genreID + ">", "") + System.getProperty("line.separator"));
+                lines.add(currentLine.replace("<" + genreID + ">", ""));
             }
         }
-        br.close();
-        bw.close();
-        Utils.getNpcGamesFile().delete();
-        fileNpcGamesTemp.renameTo(Utils.getNpcGamesFile());
+        lines.add("");//Every line is followed by a line separator
+        //While a transaction is running (eg. a genre is imported) the file is written when the transaction is committed
+        if(GameDataRepository.INSTANCE.stageLines(npcGamesFile, StandardCharsets.UTF_16LE, lines, () -> writeLines(npcGamesFile, lines)) == null){
+            writeLines(npcGamesFile, lines);
+            GameDataRepository.INSTANCE.updateLines(npcGamesFile, StandardCharsets.UTF_16LE, lines);
+        }
+        LOGGER.info("NpcGames.txt has been written");
         if(addGenreID){
             ChangeLog.addLogEntry(2, Integer.toString(genreID));
         }else{
             ChangeLog.addLogEntry(3, Integer.toString(genreID));
         }
     }
+
+    private static void writeLines(File npcGamesFile, List<String> lines) throws IOException {
+        AtomicFileWriter.writeFile(npcGamesFile, StandardCharsets.UTF_16LE, bw -> {
+            boolean firstLine = true;
+            for(String line : lines){
+                if(!firstLine){
+                    bw.write(System.getProperty("line.separator"));
+                }
+                bw.write(line);
+                firstLine = false;
+            }
+        });
+    }
 }
@@ -0,0 +1,73 @@
+package com.github.lmh01.mgt2mt.data_stream;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exact match indexes for the data packages of a data file, keyed by id and by english name.
+ * Should be rebuilt whenever the data packages have been reloaded.
+ * When multiple data packages use the same id or name the last one wins, the same way as it did when the lists have been searched.
+ */
+public class RecordIndex {
+    private final List<Map<String, String>> records;
+    private final Map<Integer, Map<String, String>> recordsById;
+    private final Map<String, Integer> positionsByName;
+
+    public RecordIndex(List<Map<String, String>> records){
+        this.records = records;
+        this.recordsById = new HashMap<>(records.size()*2);
+        this.positionsByName = new HashMap<>(records.size()*2);
+        for(int i=0; i<records.size(); i++){
+            Map<String, String> map = records.get(i);
+            String id = map.get("ID");
+            if(id != null){
+                try{
+                    recordsById.put(Integer.parseInt(id), map);
+                }catch(NumberFormatException ignored){
+
+                }
+            }
+            String name = map.get("NAME EN");
+            if(name != null){
+                positionsByName.put(name, i);
+            }
+        }
+    }
+
+    /**
+     * @return Returns the data package with the specified id. Returns null when the id does not exist.
+     */
+    public Map<String, String> getRecordById(int id){
+        return recordsById.get(id);
+    }
+
+    /**
+     * @return Returns the data package with the specified english name. Returns null when the name does not exist.
+     */
+    public Map<String, String> getRecordByName(String nameEn){
+        int position = getPositionByName(nameEn);
+        if(position == -1){
+            return null;
+        }
+        return records.get(position);
+    }
+
+    /**
+     * @return Returns the position of the data package with the specified english name in the list. Returns -1 when the name does not exist.
+     */
+    public int getPositionByName(String nameEn){
+        return positionsByName.getOrDefault(nameEn, -1);
+    }
+
+    /**
+     * @return Returns the id of the data package with the specified english name. Returns -1 when the name does not exist.
+     */
+    public int getIdByName(String nameEn){
+        Map<String, String> map = getRecordByName(nameEn);
+        if(map == null){
+            return -1;
+        }
+        return Integer.parseInt(map.get("ID"));
+    }
+}
@@ -2,14 +2,12 @@ package com.github.lmh01.mgt2mt.data_stream;
 
 import com.github.lmh01.mgt2mt.MadGamesTycoon2ModTool;
 import com.github.lmh01.mgt2mt.util.*;
-import com.github.lmh01.mgt2mt.windows.WindowMain;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import javax.swing.*;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.*;
 import java.util.List;
 
@@ -26,26 +24,19 @@ public class SharingHandler {
      */
     public static boolean exportGenre(String genreName) throws IOException {
         int genreId = AnalyzeExistingGenres.getGenreIdByName(genreName);
-        final String EXPORTED_GENRE_MAIN_FOLDER_PATH = Settings.MGT2_MOD_MANAGER_PATH + "//Export//Genres//" + genreName;
-        final String EXPORTED_GENRE_DATA_FOLDER_PATH = EXPORTED_GENRE_MAIN_FOLDER_PATH + "//DATA//";
-        File fileDataFolder = new File(EXPORTED_GENRE_DATA_FOLDER_PATH);
-        File fileExportedGenre = new File(EXPORTED_GENRE_MAIN_FOLDER_PATH + "//genre.txt");
-        File fileExportedGenreIcon = new File(EXPORTED_GENRE_DATA_FOLDER_PATH + "//icon.png");
+        File fileExportedGenre = new File(Utils.getMGT2ModToolExportFolder() + "//Genres//" + genreName + ModPackage.FILE_ENDING);
         File fileGenreIconToExport = new File(Utils.getMGT2GenreIconsPath() + "icon" + AnalyzeExistingGenres.genreList.get(genreId).get("NAME EN").replaceAll(" ", "") + ".png");
         File fileGenreScreenshotsToExport = new File(Utils.getMGT2ScreenshotsPath() + genreId);
-        if(!fileExportedGenreIcon.exists()){
-            fileDataFolder.mkdirs();
-        }
-        if(fileExportedGenreIcon.exists()){
+        if(fileExportedGenre.exists()){
             return false;
         }
-        if(Settings.enableDebugLogging){
-            LOGGER.info("Copying image files to export folder...");
+        Map<String, File> assetFiles = new LinkedHashMap<>();
+        assetFiles.put(ModPackage.ASSET_ICON, fileGenreIconToExport);
+        for(File screenshot : DataStreamHelper.getFilesInFolder(fileGenreScreenshotsToExport.getPath())){
+            assetFiles.put(ModPackage.ASSET_SCREENSHOTS_FOLDER + screenshot.getName(), screenshot);
         }
-        Files.copy(Paths.get(fileGenreIconToExport.getPath()),Paths.get(fileExportedGenreIcon.getPath()));
-        DataStreamHelper.copyDirectory(fileGenreScreenshotsToExport.toPath().toString(), EXPORTED_GENRE_DATA_FOLDER_PATH + "//screenshots//");
-        fileExportedGenre.createNewFile();
-        PrintWriter bw = new PrintWriter(new OutputStreamWriter(new FileOutputStream(fileExportedGenre), StandardCharsets.UTF_8));
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        PrintWriter bw = new PrintWriter(new OutputStreamWriter(data, StandardCharsets.UTF_8));
         bw.write("\ufeff");//Makes the file UTF8-BOM
         bw.print("[MGT2MT VERSION]" + MadGamesTycoon2ModTool.VERSION + System.getProperty("line.separator"));
         bw.print("[GENRE START]" + System.getProperty("line.separator"));
@@ -73,6 +64,7 @@ public class SharingHandler {
         bw.print("[GAMEPLAYFEATURE BAD]" + Utils.getCompatibleGameplayFeatureIdsForGenre(genreId, false) + System.getProperty("line.separator"));
         bw.print("[GENRE END]");
         bw.close();
+        ModPackage.write(fileExportedGenre, ModPackage.TYPE_GENRE, AnalyzeExistingGenres.genreList.get(genreId).get("NAME EN"), data.toByteArray(), assetFiles);
         ChangeLog.addLogEntry(17, AnalyzeExistingGenres.genreList.get(genreId).get("NAME EN"));
         return true;
     }
@@ -83,15 +75,23 @@ public class SharingHandler {
      * @return Returns "true" when the genre has been imported successfully. Returns "false" when the genre already exists. Returns mod tool version of import genre when genre is not compatible with current mod tool version.
      */
     public static String importGenre(String importFolderPath, boolean showMessages) throws IOException, NullPointerException{
+        File fileGenreToImport = new File(importFolderPath + "\\genre.txt");
+        return importData(ModPackage.TYPE_GENRE, new File(importFolderPath), DataStreamHelper.parseDataFile(fileGenreToImport).get(0), showMessages);
+    }
+
+    /**
+     * Imports the genre from the import data.
+     * @param importData The content of the genre.txt file
+     * @param genreIcon The icon of the genre
+     * @param genreScreenshots The screenshots of the genre
+     */
+    private static String importGenre(Map<String, String> importData, File genreIcon, ArrayList<File> genreScreenshots, boolean showMessages) throws IOException, NullPointerException{
         AnalyzeExistingGenres.analyzeGenreFile();
         int newGenreId = AnalyzeExistingGenres.getFreeGenreID();
-        File fileGenreToImport = new File(importFolderPath + "\\genre.txt");
         File fileScreenshotFolder = new File(Utils.getMGT2ScreenshotsPath() + "//" + newGenreId);
-        File fileScreenshotsToImport = new File(importFolderPath + "//DATA//screenshots//");
         Map<String, String> map = new HashMap<>();
-        List<Map<String, String>> list = DataStreamHelper.parseDataFile(fileGenreToImport);
         map.put("ID", Integer.toString(AnalyzeExistingGenres.getFreeGenreID()));
-        for(Map.Entry<String, String> entry : list.get(0).entrySet()){
+        for(Map.Entry<String, String> entry : importData.entrySet()){
             if(entry.getKey().equals("GENRE COMB")){
                 map.put("GENRE COMB", Utils.convertGenreNamesToId(entry.getValue()));
             }else if(entry.getKey().equals("THEME COMB")){
@@ -141,8 +141,6 @@ public class SharingHandler {
         for(String string : Utils.getEntriesFromString(map.get("GAMEPLAYFEATURE GOOD"))){
             gameplayFeaturesGoodIds.add(AnalyzeExistingGameplayFeatures.getGameplayFeatureIdByName(string));
         }
-        ArrayList<File> genreScreenshots = DataStreamHelper.getFilesInFolderBlackList(fileScreenshotsToImport.getPath(), ".meta");
-        File genreIcon = new File(importFolderPath + "//DATA//icon.png");
         GenreManager.addGenre(map, map,compatibleThemeIds, gameplayFeaturesBadIds, gameplayFeaturesGoodIds, genreScreenshots,true, genreIcon, showMessages);
         return "true";
     }
@@ -154,24 +152,13 @@ public class SharingHandler {
      */
     public static boolean exportPublisher(String publisherNameEN) throws IOException {
         Map<String, String> singlePublisherMap = AnalyzeExistingPublishers.getSinglePublisherByNameMap(publisherNameEN);
-        final String EXPORTED_PUBLISHER_MAIN_FOLDER_PATH = Utils.getMGT2ModToolExportFolder() + "//Publishers//" + publisherNameEN;
-        final String EXPORTED_PUBLISHER_DATA_FOLDER_PATH = EXPORTED_PUBLISHER_MAIN_FOLDER_PATH + "//DATA//";
-        File fileDataFolder = new File(EXPORTED_PUBLISHER_DATA_FOLDER_PATH);
-        File fileExportedPublisher = new File(EXPORTED_PUBLISHER_MAIN_FOLDER_PATH + "//publisher.txt");
-        File fileExportedPublisherIcon = new File(EXPORTED_PUBLISHER_DATA_FOLDER_PATH + "//icon.png");
+        File fileExportedPublisher = new File(Utils.getMGT2ModToolExportFolder() + "//Publishers//" + publisherNameEN + ModPackage.FILE_ENDING);
         File fileGenreIconToExport = new File(Utils.getMGT2CompanyLogosPath() + singlePublisherMap.get("PIC") + ".png");
-        if(!fileExportedPublisherIcon.exists()){
-            fileDataFolder.mkdirs();
-        }
-        if(fileExportedPublisherIcon.exists()){
+        if(fileExportedPublisher.exists()){
             return false;
         }
-        if(Settings.enableDebugLogging){
-            LOGGER.info("Copying image files to export folder...");
-        }
-        Files.copy(Paths.get(fileGenreIconToExport.getPath()),Paths.get(fileExportedPublisherIcon.getPath()));
-        fileExportedPublisher.createNewFile();
-        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileExportedPublisher), StandardCharsets.UTF_8));
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(data, StandardCharsets.UTF_8));
         bw.write("\ufeff");//Makes the file UTF8-BOM
         bw.write("[MGT2MT VERSION]" + MadGamesTycoon2ModTool.VERSION + System.getProperty("line.separator"));
         bw.write("[PUBLISHER START]" + System.getProperty("line.separator"));
@@ -186,6 +173,7 @@ public class SharingHandler {
         bw.write("[GENRE]" + AnalyzeExistingGenres.getGenreNameById(Integer.parseInt(singlePublisherMap.get("GENRE"))) + System.getProperty("line.separator"));
         bw.write("[PUBLISHER END]");
         bw.close();
+        ModPackage.write(fileExportedPublisher, ModPackage.TYPE_PUBLISHER, singlePublisherMap.get("NAME EN"), data.toByteArray(), Collections.singletonMap(ModPackage.ASSET_ICON, fileGenreIconToExport));
         ChangeLog.addLogEntry(21, singlePublisherMap.get("NAME EN"));
         return true;
     }
@@ -196,13 +184,21 @@ public class SharingHandler {
      * @return Returns "true" when the publisher has been imported successfully. Returns "false" when the publisher already exists. Returns mod tool version of import publisher when publisher is not compatible with current mod tool version.
      */
     public static String importPublisher(String importFolderPath, boolean showMessages) throws IOException {
+        File fileGenreToImport = new File(importFolderPath + "\\publisher.txt");
+        return importData(ModPackage.TYPE_PUBLISHER, new File(importFolderPath), DataStreamHelper.parseDataFile(fileGenreToImport).get(0), showMessages);
+    }
+
+    /**
+     * Imports the publisher from the import data.
+     * @param importData The content of the publisher.txt file
+     * @param publisherImageFilePath The icon of the publisher
+     */
+    private static String importPublisher(Map<String, String> importData, File publisherImageFilePath, boolean showMessages) throws IOException {
         AnalyzeExistingPublishers.analyzePublisherFile();
         int newPublisherId = AnalyzeExistingPublishers.getFreePublisherId();
-        File fileGenreToImport = new File(importFolderPath + "\\publisher.txt");
         HashMap<String, String> map = new HashMap<>();
-        List<Map<String, String>> list = DataStreamHelper.parseDataFile(fileGenreToImport);
         map.put("ID", Integer.toString(newPublisherId));
-        for(Map.Entry<String, String> entry : list.get(0).entrySet()){
+        for(Map.Entry<String, String> entry : importData.entrySet()){
             if(entry.getKey().equals("GENRE")){
                 map.put("GENRE", Integer.toString(AnalyzeExistingGenres.getGenreIdByName(entry.getValue())));
             }else{
@@ -228,10 +224,9 @@ public class SharingHandler {
         }
         int logoId = AnalyzeCompanyLogos.getLogoNumber();
         map.put("PIC", Integer.toString(logoId));
-        File publisherImageFilePath = new File(importFolderPath + "//DATA//icon.png");
-        ImageIcon resizedImageIcon = Utils.getSmallerImageIcon(new ImageIcon(new File(publisherImageFilePath.toString()).getPath()));
         try {
             if(showMessages){
+                ImageIcon resizedImageIcon = Utils.getSmallerImageIcon(new ImageIcon(new File(publisherImageFilePath.toString()).getPath()));
                 if (JOptionPane.showConfirmDialog(null, "Add this publisher?\n" +
                         "\nName: " + map.get("NAME EN") +
                         "\nDate: " + map.get("DATE") +
@@ -244,14 +239,14 @@ public class SharingHandler {
                     EditPublishersFile.addPublisher(map, publisherImageFilePath.getPath());
                     ChangeLog.addLogEntry(22, map.get("NAME EN"));
                     JOptionPane.showMessageDialog(null, "Publisher " + map.get("NAME EN") + " has been added successfully");
-                    WindowMain.checkActionAvailability();
+                    GameDataRepository.INSTANCE.notifyChanged();
                 }
             }else{
                 EditPublishersFile.addPublisher(map, publisherImageFilePath.getPath());
                 ChangeLog.addLogEntry(22, map.get("NAME EN"));
             }
         } catch (ArrayIndexOutOfBoundsException e) {
-            JOptionPane.showMessageDialog(null, "Unable to add publisher:\n\nThe special genre for for the requested publisher does not exist!", "Unable to add publisher", JOptionPane.ERROR_MESSAGE);
+            return "Publisher [" + map.get("NAME EN") + "] could not be imported:\nThe special genre for the requested publisher does not exist!";
         }
         return "true";
     }
@@ -263,21 +258,18 @@ public class SharingHandler {
      */
     public static boolean exportTheme(String themeNameEn) throws IOException {
         Map<String, String> map = AnalyzeExistingThemes.getSingleThemeByNameMap(themeNameEn);
-        final String EXPORTED_PUBLISHER_MAIN_FOLDER_PATH = Utils.getMGT2ModToolExportFolder() + "//Themes//" + map.get("NAME EN");
-        File fileExportFolderPath = new File(EXPORTED_PUBLISHER_MAIN_FOLDER_PATH);
-        File fileExportedTheme = new File(EXPORTED_PUBLISHER_MAIN_FOLDER_PATH + "//theme.txt");
+        File fileExportedTheme = new File(Utils.getMGT2ModToolExportFolder() + "//Themes//" + map.get("NAME EN") + ModPackage.FILE_ENDING);
         if(fileExportedTheme.exists()){
            return false;
-        }else{
-            fileExportFolderPath.mkdirs();
         }
-        fileExportedTheme.createNewFile();
-        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileExportedTheme), StandardCharsets.UTF_8));
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(data, StandardCharsets.UTF_8));
         bw.write("[MGT2MT VERSION]" + MadGamesTycoon2ModTool.VERSION + System.getProperty("line.separator"));
         bw.write("[THEME START]" + System.getProperty("line.separator"));
         TranslationManager.printLanguages(bw, map);
         bw.write("[GENRE COMB]" + getGenreNames(map.get("GENRE COMB")) + System.getProperty("line.separator"));
         bw.close();
+        ModPackage.write(fileExportedTheme, ModPackage.TYPE_THEME, map.get("NAME EN"), data.toByteArray(), Collections.emptyMap());
         ChangeLog.addLogEntry(23, map.get("NAME EN"));
         return true;
     }
@@ -288,12 +280,19 @@ public class SharingHandler {
      * @return Returns "true" when the theme has been imported successfully. Returns "false" when the publisher already exists. Returns mod tool version of import theme when theme is not compatible with current mod tool version.
      */
     public static String importTheme(String importFolderPath, boolean showMessages) throws IOException{
-        AnalyzeExistingThemes.analyzeThemeFiles();
         File fileThemeToImport = new File(importFolderPath + "\\theme.txt");
+        return importData(ModPackage.TYPE_THEME, new File(importFolderPath), DataStreamHelper.parseDataFile(fileThemeToImport).get(0), showMessages);
+    }
+
+    /**
+     * Imports the theme from the import data.
+     * @param importData The content of the theme.txt file
+     */
+    private static String importTheme(Map<String, String> importData, boolean showMessages) throws IOException{
+        AnalyzeExistingThemes.analyzeThemeFiles();
         ArrayList<Integer> compatibleGenreIds = new ArrayList<>();
         HashMap<String, String> map = new HashMap<>();
-        List<Map<String, String>> list = DataStreamHelper.parseDataFile(fileThemeToImport);
-        for(Map.Entry<String, String> entry : list.get(0).entrySet()){
+        for(Map.Entry<String, String> entry : importData.entrySet()){
             if(entry.getKey().equals("GENRE COMB")){
                 ArrayList<String> compatibleGenreNames = Utils.getEntriesFromString(entry.getValue());
                 for(String string : compatibleGenreNames){
@@ -324,56 +323,49 @@ public class SharingHandler {
                     EditThemeFiles.addTheme(map, compatibleGenreIds);
                     ChangeLog.addLogEntry(24, map.get("NAME EN"));
                     JOptionPane.showMessageDialog(null, "Theme " + map.get("NAME EN") + " has been added successfully");
-                    WindowMain.checkActionAvailability();
+                    GameDataRepository.INSTANCE.notifyChanged();
                 }
             }else{
                 EditThemeFiles.addTheme(map, compatibleGenreIds);
                 ChangeLog.addLogEntry(24, map.get("NAME EN"));
             }
         } catch (ArrayIndexOutOfBoundsException e) {
-            JOptionPane.showMessageDialog(null, "Unable to add publisher:\n\nThe special genre for for the requested publisher does not exist!", "Unable to add publisher", JOptionPane.ERROR_MESSAGE);
+            return "Theme [" + map.get("NAME EN") + "] could not be imported:\nA compatible genre of the theme does not exist!";
         }
         return "true";
     }
 
     /**
-     * Opens a GUI where the user can select what engine features should be exported. Exports these engine features.
+     * Exports the engine feature
+     * @param engineFeatureName The english name of the engine feature that should be exported
+     * @return Returns true when the engine feature has been exported successfully. Returns false when the engine feature has already been exported.
      */
-    public static boolean exportEngineFeature(String engineFeatureName){
-        try{
-            Map<String, String> map = AnalyzeExistingEngineFeatures.getSingleEngineFeatureByNameMap(engineFeatureName);
-            final String EXPORTED_ENGINE_FEATURE_MAIN_FOLDER_PATH = Utils.getMGT2ModToolExportFolder() + "//Engine features//" + map.get("NAME EN");
-            File fileExportFolderPath = new File(EXPORTED_ENGINE_FEATURE_MAIN_FOLDER_PATH);
-            File fileExportedEngineFeature = new File(EXPORTED_ENGINE_FEATURE_MAIN_FOLDER_PATH + "//engineFeature.txt");
-            if(fileExportedEngineFeature.exists()){
-                return false;
-            }else{
-                fileExportFolderPath.mkdirs();
-            }
-            fileExportedEngineFeature.createNewFile();
-            BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileExportedEngineFeature), StandardCharsets.UTF_8));
-            bw.write("[MGT2MT VERSION]" + MadGamesTycoon2ModTool.VERSION + System.getProperty("line.separator"));
-            bw.write("[GAMEPLAY FEATURE START]" + System.getProperty("line.separator"));
-            bw.write("[TYP]" + map.get("TYP") + System.getProperty("line.separator"));
-            TranslationManager.printLanguages(bw, map);
-            bw.write("[DATE]" + map.get("DATE") + System.getProperty("line.separator"));
-            bw.write("[RES POINTS]" + map.get("RES POINTS") + System.getProperty("line.separator"));
-            bw.write("[PRICE]" + map.get("PRICE") + System.getProperty("line.separator"));
-            bw.write("[DEV COSTS]" + map.get("DEV COSTS") + System.getProperty("line.separator"));
-            bw.write("[TECHLEVEL]" + map.get("TECHLEVEL") + System.getProperty("line.separator"));
-            bw.write("[PIC]" + map.get("PIC") + System.getProperty("line.separator"));
-            bw.write("[GAMEPLAY]" + map.get("GAMEPLAY") + System.getProperty("line.separator"));
-            bw.write("[GRAPHIC]" + map.get("GRAPHIC") + System.getProperty("line.separator"));
-            bw.write("[SOUND]" + map.get("SOUND") + System.getProperty("line.separator"));
-            bw.write("[TECH]" + map.get("TECH") + System.getProperty("line.separator"));
-            bw.close();
-            ChangeLog.addLogEntry(31, map.get("NAME EN"));
-            return true;
-        }catch(IOException e){
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(null, "Error while exporting engine feature: An Error has occurred:\n\n" + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    public static boolean exportEngineFeature(String engineFeatureName) throws IOException {
+        Map<String, String> map = AnalyzeExistingEngineFeatures.getSingleEngineFeatureByNameMap(engineFeatureName);
+        File fileExportedEngineFeature = new File(Utils.getMGT2ModToolExportFolder() + "//Engine features//" + map.get("NAME EN") + ModPackage.FILE_ENDING);
+        if(fileExportedEngineFeature.exists()){
+            return false;
         }
-        return false;
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(data, StandardCharsets.UTF_8));
+        bw.write("[MGT2MT VERSION]" + MadGamesTycoon2ModTool.VERSION + System.getProperty("line.separator"));
+        bw.write("[GAMEPLAY FEATURE START]" + System.getProperty("line.separator"));
+        bw.write("[TYP]" + map.get("TYP") + System.getProperty("line.separator"));
+        TranslationManager.printLanguages(bw, map);
+        bw.write("[DATE]" + map.get("DATE") + System.getProperty("line.separator"));
+        bw.write("[RES POINTS]" + map.get("RES POINTS") + System.getProperty("line.separator"));
+        bw.write("[PRICE]" + map.get("PRICE") + System.getProperty("line.separator"));
+        bw.write("[DEV COSTS]" + map.get("DEV COSTS") + System.getProperty("line.separator"));
+        bw.write("[TECHLEVEL]" + map.get("TECHLEVEL") + System.getProperty("line.separator"));
+        bw.write("[PIC]" + map.get("PIC") + System.getProperty("line.separator"));
+        bw.write("[GAMEPLAY]" + map.get("GAMEPLAY") + System.getProperty("line.separator"));
+        bw.write("[GRAPHIC]" + map.get("GRAPHIC") + System.getProperty("line.separator"));
+        bw.write("[SOUND]" + map.get("SOUND") + System.getProperty("line.separator"));
+        bw.write("[TECH]" + map.get("TECH") + System.getProperty("line.separator"));
+        bw.close();
+        ModPackage.write(fileExportedEngineFeature, ModPackage.TYPE_ENGINE_FEATURE, map.get("NAME EN"), data.toByteArray(), Collections.emptyMap());
+        ChangeLog.addLogEntry(31, map.get("NAME EN"));
+        return true;
     }
 
     /**
@@ -382,10 +374,13 @@ public class SharingHandler {
      * @param showMessages True when message about adding engine feature should be shown. False if not.
      */
     public static String importEngineFeature(String importFolderPath, boolean showMessages) throws IOException {
+        return importData(ModPackage.TYPE_ENGINE_FEATURE, new File(importFolderPath), DataStreamHelper.parseDataFile(new File(importFolderPath + "\\engineFeature.txt")).get(0), showMessages);
+    }
+
+    private static String importEngineFeature(Map<String, String> importData, boolean showMessages) throws IOException {
         AnalyzeExistingEngineFeatures.analyzeEngineFeatures();
-        String returnValue = SharingManager.importGeneral("engineFeature.txt",
+        String returnValue = SharingManager.importGeneral(importData,
                 "Engine feature",
-                importFolderPath,
                 AnalyzeExistingEngineFeatures.engineFeatures,
                 SharingManager.ENGINE_FEATURE_IMPORT_COMPATIBLE_MOD_TOOL_VERSIONS,
                 EditEngineFeaturesFile::addEngineFeature,
@@ -397,44 +392,37 @@ public class SharingHandler {
     }
 
     /**
-     * Opens a GUI where the user can select what gameplay features should be exported. Exports these gameplay features.
+     * Exports the gameplay feature
+     * @param gameplayFeatureName The english name of the gameplay feature that should be exported
+     * @return Returns true when the gameplay feature has been exported successfully. Returns false when the gameplay feature has already been exported.
      */
-    public static boolean exportGameplayFeature(String gameplayFeatureName){
-        try{
-            Map<String, String> map = AnalyzeExistingGameplayFeatures.getSingleGameplayFeatureByNameMap(gameplayFeatureName);
-            final String EXPORTED_GAMEPLAY_FEATURE_MAIN_FOLDER_PATH = Utils.getMGT2ModToolExportFolder() + "//Gameplay features//" + map.get("NAME EN");
-            File fileExportFolderPath = new File(EXPORTED_GAMEPLAY_FEATURE_MAIN_FOLDER_PATH);
-            File fileExportedGameplayFeature = new File(EXPORTED_GAMEPLAY_FEATURE_MAIN_FOLDER_PATH + "//gameplayFeature.txt");
-            if(fileExportedGameplayFeature.exists()){
-                return false;
-            }else{
-                fileExportFolderPath.mkdirs();
-            }
-            fileExportedGameplayFeature.createNewFile();
-            BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileExportedGameplayFeature), StandardCharsets.UTF_8));
-            bw.write("[MGT2MT VERSION]" + MadGamesTycoon2ModTool.VERSION + System.getProperty("line.separator"));
-            bw.write("[GAMEPLAY FEATURE START]" + System.getProperty("line.separator"));
-            bw.write("[TYP]" + map.get("TYP") + System.getProperty("line.separator"));
-            TranslationManager.printLanguages(bw, map);
-            bw.write("[DATE]" + map.get("DATE") + System.getProperty("line.separator"));
-            bw.write("[RES POINTS]" + map.get("RES POINTS") + System.getProperty("line.separator"));
-            bw.write("[PRICE]" + map.get("PRICE") + System.getProperty("line.separator"));
-            bw.write("[DEV COSTS]" + map.get("DEV COSTS") + System.getProperty("line.separator"));
-            bw.write("[PIC]" + map.get("PIC") + System.getProperty("line.separator"));
-            bw.write("[GAMEPLAY]" + map.get("GAMEPLAY") + System.getProperty("line.separator"));
-            bw.write("[GRAPHIC]" + map.get("GRAPHIC") + System.getProperty("line.separator"));
-            bw.write("[SOUND]" + map.get("SOUND") + System.getProperty("line.separator"));
-            bw.write("[TECH]" + map.get("TECH") + System.getProperty("line.separator"));
-            bw.write("[BAD]" + getGenreNames(Utils.convertGenreNamesToId(map.get("BAD"))) + System.getProperty("line.separator"));
-            bw.write("[GOOD]" + getGenreNames(Utils.convertGenreNamesToId(map.get("GOOD"))) + System.getProperty("line.separator"));
-            bw.close();
-            ChangeLog.addLogEntry(29, map.get("NAME EN"));
-            return true;
-        }catch(IOException e){
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(null, "Error while exporting gameplay feature: An Error has occurred:\n\n" + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    public static boolean exportGameplayFeature(String gameplayFeatureName) throws IOException {
+        Map<String, String> map = AnalyzeExistingGameplayFeatures.getSingleGameplayFeatureByNameMap(gameplayFeatureName);
+        File fileExportedGameplayFeature = new File(Utils.getMGT2ModToolExportFolder() + "//Gameplay features//" + map.get("NAME EN") + ModPackage.FILE_ENDING);
+        if(fileExportedGameplayFeature.exists()){
+            return false;
         }
-        return false;
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(data, StandardCharsets.UTF_8));
+        bw.write("[MGT2MT VERSION]" + MadGamesTycoon2ModTool.VERSION + System.getProperty("line.separator"));
+        bw.write("[GAMEPLAY FEATURE START]" + System.getProperty("line.separator"));
+        bw.write("[TYP]" + map.get("TYP") + System.getProperty("line.separator"));
+        TranslationManager.printLanguages(bw, map);
+        bw.write("[DATE]" + map.get("DATE") + System.getProperty("line.separator"));
+        bw.write("[RES POINTS]" + map.get("RES POINTS") + System.getProperty("line.separator"));
+        bw.write("[PRICE]" + map.get("PRICE") + System.getProperty("line.separator"));
+        bw.write("[DEV COSTS]" + map.get("DEV COSTS") + System.getProperty("line.separator"));
+        bw.write("[PIC]" + map.get("PIC") + System.getProperty("line.separator"));
+        bw.write("[GAMEPLAY]" + map.get("GAMEPLAY") + System.getProperty("line.separator"));
+        bw.write("[GRAPHIC]" + map.get("GRAPHIC") + System.getProperty("line.separator"));
+        bw.write("[SOUND]" + map.get("SOUND") + System.getProperty("line.separator"));
+        bw.write("[TECH]" + map.get("TECH") + System.getProperty("line.separator"));
+        bw.write("[BAD]" + getGenreNames(Utils.convertGenreNamesToId(map.get("BAD"))) + System.getProperty("line.separator"));
+        bw.write("[GOOD]" + getGenreNames(Utils.convertGenreNamesToId(map.get("GOOD"))) + System.getProperty("line.separator"));
+        bw.close();
+        ModPackage.write(fileExportedGameplayFeature, ModPackage.TYPE_GAMEPLAY_FEATURE, map.get("NAME EN"), data.toByteArray(), Collections.emptyMap());
+        ChangeLog.addLogEntry(29, map.get("NAME EN"));
+        return true;
     }
 
     /**
@@ -443,10 +431,13 @@ public class SharingHandler {
      * @param showMessages True when message about adding gameplay feature should be shown. False if not.
      */
     public static String importGameplayFeature(String importFolderPath, boolean showMessages) throws IOException {
+        return importData(ModPackage.TYPE_GAMEPLAY_FEATURE, new File(importFolderPath), DataStreamHelper.parseDataFile(new File(importFolderPath + "\\gameplayFeature.txt")).get(0), showMessages);
+    }
+
+    private static String importGameplayFeature(Map<String, String> importData, boolean showMessages) throws IOException {
         AnalyzeExistingGameplayFeatures.analyzeGameplayFeatures();
-        return SharingManager.importGeneral("gameplayFeature.txt",
+        return SharingManager.importGeneral(importData,
                 "Gameplay feature",
-                importFolderPath,
                 AnalyzeExistingGameplayFeatures.gameplayFeatures,
                 SharingManager.GAMEPLAY_FEATURE_IMPORT_COMPATIBLE_MOD_TOOL_VERSIONS,
                 EditGameplayFeaturesFile::addGameplayFeature,
@@ -456,6 +447,74 @@ public class SharingHandler {
                 showMessages);
     }
 
+    /**
+     * Imports the mod package.
+     * @param packageFile The mod package
+     * @param showMessages True when message about adding the mod should be shown. False if not.
+     * @return Returns the return value of the import function of the type of the package.
+     * @throws IOException Is thrown when the package is damaged or the type of the package is not supported.
+     */
+    public static String importPackage(File packageFile, boolean showMessages) throws IOException {
+        ModPackage modPackage = ModPackage.open(packageFile);
+        return importData(modPackage.getType(), packageFile, modPackage.readData(), showMessages);
+    }
+
+    /**
+     * Imports the mod from the data file that has already been parsed.
+     * When the mod is imported from a mod package the images are extracted to a temporary folder because they are copied into the game folder by the import functions.
+     * @param type The type of the mod. Eg. {@link ModPackage#TYPE_GENRE}
+     * @param importFile The mod package or the folder that contains the data file and the DATA folder
+     * @param importData The content of the data file. Eg. genre.txt
+     * @param showMessages True when message about adding the mod should be shown. False if not.
+     * @return Returns the return value of the import function of the type.
+     * @throws IOException Is thrown when the mod can not be imported or the type is not supported.
+     */
+    public static String importData(String type, File importFile, Map<String, String> importData, boolean showMessages) throws IOException {
+        switch(type){
+            case ModPackage.TYPE_GENRE:
+            case ModPackage.TYPE_PUBLISHER:
+                if(!ModPackage.isPackage(importFile)){
+                    File icon = new File(importFile.getPath() + "//DATA//icon.png");
+                    if(type.equals(ModPackage.TYPE_PUBLISHER)){
+                        return importPublisher(importData, icon, showMessages);
+                    }
+                    return importGenre(importData, icon, DataStreamHelper.getFilesInFolderBlackList(importFile.getPath() + "//DATA//screenshots//", ".meta"), showMessages);
+                }
+                ModPackage modPackage = ModPackage.open(importFile);
+                File tempFolder = Files.createTempDirectory("mgt2mod").toFile();
+                try{
+                    File icon = new File(tempFolder, "icon.png");
+                    modPackage.extractAsset(ModPackage.ASSET_ICON, icon);
+                    if(type.equals(ModPackage.TYPE_PUBLISHER)){
+                        return importPublisher(importData, icon, showMessages);
+                    }
+                    ArrayList<File> screenshots = new ArrayList<>();
+                    for(String assetName : modPackage.getAssetNames(ModPackage.ASSET_SCREENSHOTS_FOLDER)){
+                        if(!assetName.contains(".meta")){
+                            File screenshot = new File(tempFolder, assetName.substring(ModPackage.ASSET_SCREENSHOTS_FOLDER.length()));
+                            //The asset names are checked when the package is opened, this makes sure that nothing is written outside of the temp folder
+                            if(!tempFolder.getCanonicalFile().equals(screenshot.getCanonicalFile().getParentFile())){
+                                throw new IOException("The mod package contains an invalid screenshot name: " + assetName);
+                            }
+                            modPackage.extractAsset(assetName, screenshot);
+                            screenshots.add(screenshot);
+                        }
+                    }
+                    return importGenre(importData, icon, screenshots, showMessages);
+                }finally{
+                    DataStreamHelper.deleteDirectory(tempFolder);
+                }
+            case ModPackage.TYPE_THEME:
+                return importTheme(importData, showMessages);
+            case ModPackage.TYPE_ENGINE_FEATURE:
+                return importEngineFeature(importData, showMessages);
+            case ModPackage.TYPE_GAMEPLAY_FEATURE:
+                return importGameplayFeature(importData, showMessages);
+            default:
+                throw new IOException("The mod type of " + importFile.getPath() + " is not supported: " + type);
+        }
+    }
+
     /**
      * @param genreId The genre id from which the genre comb names should be transformed
      * @return Returns a list of genre names
@@ -1,18 +1,22 @@
 package com.github.lmh01.mgt2mt.util;
 
+import com.github.lmh01.mgt2mt.data_stream.AtomicFileWriter;
 import com.github.lmh01.mgt2mt.data_stream.ChangeLog;
 import com.github.lmh01.mgt2mt.data_stream.DataStreamHelper;
+import com.github.lmh01.mgt2mt.data_stream.GameDataRepository;
 import com.github.lmh01.mgt2mt.data_stream.ImageFileHandler;
+import com.github.lmh01.mgt2mt.data_stream.Journal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import javax.swing.*;
-import java.awt.*;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @SuppressWarnings("ResultOfMethodCallIgnored")
 public class Backup {
@@ -20,6 +24,11 @@ public class Backup {
     private static String latestBackupFolderName = "";
     public static final String BACKUP_FOLDER_PATH = System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//";
     public static final File FILE_SAVE_GAME_FOLDER = new File(System.getenv("USERPROFILE") + "\\appdata\\locallow\\Eggcode\\Mad Games Tycoon 2\\");
+    private static final ExecutorService PRUNING_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mgt2mt-backup-pruning");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
      * Creates a backup of a given file.
@@ -36,254 +45,412 @@ public class Backup {
      * @throws IOException Throws IOException when backup was not successful.
      */
     public static void createBackup(File fileToBackup, boolean initialBackup) throws IOException {
-        String currentTimeAndDay = Utils.getCurrentDateTime();
-        boolean initialBackupAlreadyExists = false;
+        createBackups(Collections.singletonList(fileToBackup), initialBackup, initialBackup ? "initial" : "file");
+    }
+
+    /**
+     * Creates a backup of the given files.
+     * The content of the files is stored in the {@link BackupStore}. The backup that is replaced by the new latest backup is recorded in the manifest of the current time.
+     * When backup archives are enabled the content of all files is stored in one compressed archive.
+     * Files that have not been changed since their latest backup are not read again, see {@link BackupIndex}.
+     * The backup is added to the {@link BackupCatalog} and the old backups are pruned in the background afterwards.
+     * @param filesToBackup The files from which a backup should be created.
+     * @param initialBackup Set true when this is the initial backup.
+     * @param trigger The operation that has triggered the backup. Is written to the backup catalog.
+     * @return Returns the number of files that have been skipped because they have not been changed since their latest backup.
+     * @throws IOException Throws IOException when backup was not successful.
+     */
+    public static synchronized int createBackups(List<File> filesToBackup, boolean initialBackup, String trigger) throws IOException {
+        String currentTimeAndDay = BackupCatalog.createBackupPointName();
         latestBackupFolderName = currentTimeAndDay;
-        File backupFileFolder = new File(BACKUP_FOLDER_PATH + currentTimeAndDay + "//");
-        File directoryBackup = new File(BACKUP_FOLDER_PATH);
-        if(!directoryBackup.exists()){
-            directoryBackup.mkdirs();
+        Map<String, BackupPoint.BackedUpFile> backedUpFiles = new LinkedHashMap<>();
+        List<File> files = new ArrayList<>();
+        Map<String, String> latestHashes = new HashMap<>();
+        Map<String, String> replacedEntries = new HashMap<>();
+        int skippedFiles = 0;
+        long skippedBytes = 0;
+        for(File file : filesToBackup){
+            String fileName = file.getName();
+            if(initialBackup){
+                if(BackupStore.getHash(BackupStore.MANIFEST_INITIAL, fileName) != null || getLegacyBackupFile(fileName + ".initialBackup").exists()){
+                    if(Settings.enableDebugLogging){
+                        LOGGER.info("Initial backup of file already exists: " + fileName);
+                    }
+                    continue;
+                }
+            }else{
+                String latestHash = BackupStore.getHash(BackupStore.MANIFEST_LATEST, fileName);
+                File legacyLatestBackup = getLegacyBackupFile(fileName + ".latestBackup");
+                if(latestHash == null && legacyLatestBackup.exists()){
+                    //Backups that have been created before the backup store was used are moved into the store
+                    latestHash = BackupStore.storeFile(legacyLatestBackup);
+                    legacyLatestBackup.delete();
+                }
+                if(latestHash != null && latestHash.equals(BackupIndex.getUnchangedHash(file))){
+                    if(Settings.enableDebugLogging){
+                        LOGGER.info("File has not been changed since the latest backup: " + fileName);
+                    }
+                    replacedEntries.put(fileName, latestHash);
+                    backedUpFiles.put(fileName, new BackupPoint.BackedUpFile(file.length(), latestHash));
+                    skippedFiles++;
+                    skippedBytes += file.length();
+                    continue;
+                }
+                latestHashes.put(fileName, latestHash);
+            }
+            files.add(file);
         }
-        File fileLatestBackupOfInputFile;
-        if(initialBackup){
-            fileLatestBackupOfInputFile = new File(System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//" + fileToBackup.getName()+ ".initialBackup");
-            if(fileLatestBackupOfInputFile.exists()){
-                if(Settings.enableDebugLogging){
-                    LOGGER.info("Initial backup of file already exists: " + fileLatestBackupOfInputFile.getPath());
+        Map<String, Long> sizes = new HashMap<>();
+        Map<String, Long> lastModifiedTimes = new HashMap<>();
+        for(File file : files){
+            sizes.put(file.getName(), file.length());
+            lastModifiedTimes.put(file.getName(), file.lastModified());
+        }
+        Map<String, String> hashes = new HashMap<>();
+        if(Settings.enableBackupArchives && !files.isEmpty()){
+            hashes = BackupStore.storeFilesInArchive(initialBackup ? BackupStore.MANIFEST_INITIAL : currentTimeAndDay, files);
+        }else{
+            for(File file : files){
+                String latestHash = latestHashes.get(file.getName());
+                if(!initialBackup && file.getName().contains("savegame")){
+                    //Save games are large, only the changes to the latest backup are stored
+                    hashes.put(file.getName(), BackupStore.storeFile(file, latestHash));
+                }else{
+                    hashes.put(file.getName(), BackupStore.storeFile(file));
                 }
-                initialBackupAlreadyExists = true;
             }
+        }
+        for(File file : files){
+            String fileName = file.getName();
+            String latestHash = latestHashes.get(fileName);
+            if(latestHash != null){
+                LOGGER.info(fileName +  " backup already exists. Recording old backup in backup " + currentTimeAndDay);
+                replacedEntries.put(fileName, latestHash);
+            }
+            BackupIndex.put(file, sizes.get(fileName), lastModifiedTimes.get(fileName), hashes.get(fileName));
+            backedUpFiles.put(fileName, new BackupPoint.BackedUpFile(sizes.get(fileName), hashes.get(fileName)));
+        }
+        if(initialBackup){
+            BackupStore.putEntries(BackupStore.MANIFEST_INITIAL, hashes);
         }else{
-            fileLatestBackupOfInputFile = new File(System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//" + fileToBackup.getName()+ ".latestBackup");
+            BackupStore.putEntries(currentTimeAndDay, replacedEntries);
+            BackupStore.putEntries(BackupStore.MANIFEST_LATEST, hashes);
         }
-        if(!initialBackupAlreadyExists){
-            if(fileLatestBackupOfInputFile.exists()){
-                if(!backupFileFolder.exists()){//Creates directory if backup directory for specified time does not exist
-                    backupFileFolder.mkdirs();
-                }
-                LOGGER.info(fileToBackup.getName() +  " backup already exists. Moving old backup into storage folder");
-                File fileBackupSaved = new File(backupFileFolder.getPath() + "\\" + fileToBackup.getName());
-                if(fileBackupSaved.exists()){//If the backup file already exists it will be deleted. (The backup file in the backup folder with timestamp) Maybe change the formatting of currentTimeAndDay to a format where seconds are also used to prevent this deletion.
-                    LOGGER.info("The file inside the storage folder does already exist. deleting...");
-                    fileBackupSaved.delete();
+        BackupIndex.save();
+        if(!backedUpFiles.isEmpty()){
+            BackupCatalog.addBackupPoint(new BackupPoint(currentTimeAndDay, trigger, System.currentTimeMillis(), backedUpFiles));
+            PRUNING_EXECUTOR.execute(() -> {
+                try{
+                    pruneBackups();
+                }catch(IOException e){
+                    LOGGER.error("Unable to prune backups: " + e.getMessage());
+                    e.printStackTrace();
                 }
-                fileLatestBackupOfInputFile.renameTo(fileBackupSaved);
-            }
-            File fileBackupFile = new File(fileToBackup.getPath());
-            Files.copy(Paths.get(fileBackupFile.getPath()), Paths.get(fileLatestBackupOfInputFile.getPath()));
-            ChangeLog.addLogEntry(5, fileToBackup.getName());
+            });
+        }
+        for(File file : files){
+            ChangeLog.addLogEntry(5, file.getName());
+        }
+        if(skippedFiles > 0){
+            LOGGER.info(skippedFiles + " file(s) with " + skippedBytes + " bytes have not been changed since their latest backup and have been skipped");
         }
+        return skippedFiles;
     }
 
     /**
-     * Creates a specified backup.
-     * @param type The backup type
+     * Removes the backup points that should not be kept according to {@link Settings#backupRetentionCount} and {@link Settings#backupRetentionKeepDaily} from the {@link BackupCatalog}.
+     * Deletes the backup content that is no longer referenced afterwards.
      */
-    public static void createBackup(String type){
-        switch (type) {
-            case "full":
-                try {
-                    Backup.createFullBackup();
-                    JOptionPane.showMessageDialog(new Frame(), "The full backup has been created successfully.", "Backup created.", JOptionPane.INFORMATION_MESSAGE);
-                } catch (IOException e) {
-                    e.printStackTrace();
-                    JOptionPane.showMessageDialog(new Frame(), "Unable to create backup.\nFile not found: Please check if your mgt2 folder is set correctly.\n\nException:\n" + e.getMessage(), "Backup failed", JOptionPane.ERROR_MESSAGE);
-                }
-                break;
-            case "genre":
-                try {
-                    Backup.createBackup(Utils.getGenreFile());
-                    Backup.createBackup(Utils.getNpcGamesFile());
-                    JOptionPane.showMessageDialog(new Frame(), "Backup of genre files has been created successfully.", "Backup created.", JOptionPane.INFORMATION_MESSAGE);
-                } catch (IOException e) {
-                    e.printStackTrace();
-                    JOptionPane.showMessageDialog(new Frame(), "Unable to create backup.\n\nException:\n" + e.getMessage(), "Backup failed", JOptionPane.ERROR_MESSAGE);
-                }
-                break;
-            case "theme":
-                try {
-                    Backup.createThemeFilesBackup(false);
-                    JOptionPane.showMessageDialog(new Frame(), "Backup of theme files has been created successfully.", "Backup created.", JOptionPane.INFORMATION_MESSAGE);
-                } catch (IOException e) {
-                    e.printStackTrace();
-                    JOptionPane.showMessageDialog(new Frame(), "Unable to create backup.\n\nException:\n" + e.getMessage(), "Backup failed", JOptionPane.ERROR_MESSAGE);
-                }
-                break;
-            case "save_game":
-                try {
-                    Backup.backupSaveGames(false);
-                    JOptionPane.showMessageDialog(new Frame(), "Backup of save games has been created successfully.", "Backup created.", JOptionPane.INFORMATION_MESSAGE);
-                } catch (IOException e) {
-                    e.printStackTrace();
-                    JOptionPane.showMessageDialog(new Frame(), "Unable to create backup.\n\nException:\n" + e.getMessage(), "Backup failed", JOptionPane.ERROR_MESSAGE);
-                }
-                break;
+    public static synchronized void pruneBackups() throws IOException {
+        List<BackupPoint> removedBackupPoints = BackupCatalog.prune(Settings.backupRetentionCount, Settings.backupRetentionKeepDaily);
+        if(removedBackupPoints.isEmpty()){
+            return;
+        }
+        for(BackupPoint backupPoint : removedBackupPoints){
+            if(!backupPoint.getName().equals(latestBackupFolderName)){
+                BackupStore.deleteManifest(backupPoint.getName());
+            }
+        }
+        Set<String> referencedHashes = BackupStore.getReferencedHashes();
+        for(BackupPoint backupPoint : BackupCatalog.getBackupPoints()){
+            for(BackupPoint.BackedUpFile backedUpFile : backupPoint.getFiles().values()){
+                referencedHashes.add(backedUpFile.getHash());
+            }
         }
+        BackupStore.deleteUnreferencedContent(referencedHashes);
     }
 
     /**
-     * Restores either a complete initial backup or a complete latest backup
+     * Restores the complete initial backup or the complete latest backup and writes the change log. No message is shown.
+     * The latest backup is the newest backed up content of each game file ({@link BackupStore#MANIFEST_LATEST}) at the time the restore is started, the gui and the command line restore the same content.
      * @param initialBackup If true the initial backup will be restored. If false the latest backup will be restored.
-     * @param showMessages Set true when messages should be displayed to the user
+     * @param afterFullBackup True when a full backup of the current files has just been created with {@link #createFullBackup(String)}. That backup has replaced the latest backup, so the latest backup that existed before it is restored.
+     * @return Returns the names of the files that have been rewritten.
      */
-    public static void restoreBackup(boolean initialBackup, boolean showMessages){
-        try {
-            LOGGER.info("Restoring backup.");
-            File fileGenresBackup;
-            File fileNpcGamesBackup;
-            File filePublisherBackup;
-            File fileGameplayFeaturesBackup;
-            File fileEngineFeaturesBackup;
-            if(initialBackup){
-                fileGenresBackup = new File(System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//Genres.txt.initialBackup");
-                fileNpcGamesBackup = new File(System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//NpcGames.txt.initialBackup");
-                filePublisherBackup = new File(System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//Publisher.txt.initialBackup");
-                fileGameplayFeaturesBackup = new File(System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//GameplayFeatures.txt.initialBackup");
-                fileEngineFeaturesBackup = new File(System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//EngineFeatures.txt.initialBackup");
-            }else{
-                fileGenresBackup = new File(System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//" + latestBackupFolderName + "//Genres.txt");
-                fileNpcGamesBackup = new File(System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//" + latestBackupFolderName + "//NpcGames.txt");
-                filePublisherBackup = new File(System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//" + latestBackupFolderName + "//Publisher.txt");
-                fileGameplayFeaturesBackup = new File(System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//" + latestBackupFolderName + "//GameplayFeatures.txt");
-                fileEngineFeaturesBackup = new File(System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//" + latestBackupFolderName + "//EngineFeatures.txt");
-            }
-            Files.copy(Paths.get(fileGenresBackup.getPath()), Paths.get(Utils.getGenreFile().getPath()), StandardCopyOption.REPLACE_EXISTING);
-            Files.copy(Paths.get(fileNpcGamesBackup.getPath()), Paths.get(Utils.getNpcGamesFile().getPath()), StandardCopyOption.REPLACE_EXISTING);
-            Files.copy(Paths.get(filePublisherBackup.getPath()), Paths.get(Utils.getPublisherFile().getPath()), StandardCopyOption.REPLACE_EXISTING);
-            Files.copy(Paths.get(fileGameplayFeaturesBackup.getPath()), Paths.get(Utils.getGameplayFeaturesFile().getPath()), StandardCopyOption.REPLACE_EXISTING);
-            Files.copy(Paths.get(fileEngineFeaturesBackup.getPath()), Paths.get(Utils.getEngineFeaturesFile().getPath()), StandardCopyOption.REPLACE_EXISTING);
-            restoreThemeFileBackups(initialBackup);
-            if(initialBackup){
-                ImageFileHandler.removePublisherIcons();
-                ChangeLog.addLogEntry(8);
-                if(showMessages){
-                    JOptionPane.showMessageDialog(null, "The initial backup has been restored.", "Backup restored", JOptionPane.INFORMATION_MESSAGE);
-                }
-            }else{
-                ChangeLog.addLogEntry(9);
-                if(showMessages){
-                    JOptionPane.showMessageDialog(null, "The latest backup has been restored.", "Backup restored", JOptionPane.INFORMATION_MESSAGE);
-                }
-            }
-        } catch (IOException exception) {
-            exception.printStackTrace();
-            if(initialBackup){
-                ChangeLog.addLogEntry(10, exception.getMessage());
-                if(showMessages){
-                    JOptionPane.showMessageDialog(null, "The initial backup could not be restored.\nThe initial backup file(s) are missing.\n\nException:\n" + exception.getMessage(), "Restoring failed", JOptionPane.ERROR_MESSAGE);
-                }
-            }else{
-                ChangeLog.addLogEntry(11, exception.getMessage());
-                if(showMessages){
-                    JOptionPane.showMessageDialog(null, "The latest backup could not be restored.\nThe latest backup file(s) are missing.\n\nException:\n" + exception.getMessage(), "Restoring failed", JOptionPane.ERROR_MESSAGE);
-                }
-            }
+    public static List<String> restoreBackup(boolean initialBackup, boolean afterFullBackup) throws IOException {
+        LOGGER.info("Restoring backup.");
+        String manifestName = BackupStore.MANIFEST_INITIAL;
+        if(!initialBackup){
+            //The content that has been replaced by a backup is recorded in the manifest of the backup, see createBackups
+            manifestName = afterFullBackup ? latestBackupFolderName : BackupStore.MANIFEST_LATEST;
+        }
+        try{
+            List<String> restoredFiles = restoreGameFiles(manifestName);
+            ChangeLog.addLogEntry(initialBackup ? 8 : 9);
+            return restoredFiles;
+        }catch(IOException e){
+            ChangeLog.addLogEntry(initialBackup ? 10 : 11, e.getMessage());
+            throw e;
         }
     }
 
     /**
-     * Opens a gui where the user can select which save game backup should be restored
+     * Restores the game files from the manifest. Files that did not change are not rewritten. No message is shown.
+     * The publisher icons are removed when the initial backup is restored.
+     * @param manifestName The manifest from which the files should be restored. Eg. {@link BackupStore#MANIFEST_INITIAL}
+     * @return Returns the names of the files that have been rewritten.
      */
-    public static void restoreSaveGameBackup(){
-        try {
-            ArrayList<File> files = DataStreamHelper.getFilesInFolderWhiteList(Backup.BACKUP_FOLDER_PATH, "savegame");
-            Set<String> saveGameSlots = new HashSet<>();
-            for(File file : files){
-                saveGameSlots.add(file.getName().replaceAll("[^0-9]", ""));
-            }
-            JLabel label = new JLabel("<html>Select the save game slot where the save game is saved,<br>for which the backup should be restored:<br>0 = Auto save");
-            String[] array = saveGameSlots.toArray(new String[0]);
-            JList<String> listAvailableThemes = new JList<>(array);
-            listAvailableThemes.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-            listAvailableThemes.setLayoutOrientation(JList.VERTICAL);
-            listAvailableThemes.setVisibleRowCount(-1);
-            JScrollPane scrollPaneAvailableSaveGames = new JScrollPane(listAvailableThemes);
-            scrollPaneAvailableSaveGames.setPreferredSize(new Dimension(30,60));
+    public static List<String> restoreGameFiles(String manifestName) throws IOException {
+        boolean initialBackup = manifestName.equals(BackupStore.MANIFEST_INITIAL);
+        List<String> restoredFiles = restoreFiles(manifestName, getGameFiles(), initialBackup);
+        if(initialBackup){
+            ImageFileHandler.removePublisherIcons();
+        }
+        return restoredFiles;
+    }
 
-            Object[] params = {label, scrollPaneAvailableSaveGames};
-            if(JOptionPane.showConfirmDialog(null, params, "Restore save game", JOptionPane.YES_NO_OPTION) == JOptionPane.OK_OPTION){
-                int saveGameSlotToRestore = Integer.parseInt(listAvailableThemes.getSelectedValue());
-                if(JOptionPane.showConfirmDialog(null, "Are you sure that you would like to restore the backup for save game " + saveGameSlotToRestore + " ?\n\nThis can not be undone!\nI will not take any responsibility if your save game is getting corrupted!\n\nRestore save game backup?", "Restore save game", JOptionPane.YES_NO_OPTION) == JOptionPane.OK_OPTION){
-                    Backup.backupSaveGames(false);
-                    Backup.restoreSaveGameBackup(saveGameSlotToRestore);
-                    JOptionPane.showMessageDialog(null, "Save game backup has been restored", "Backup restored", JOptionPane.INFORMATION_MESSAGE);
-                }
+    /**
+     * @return Returns the game files that are restored by {@link #restoreGameFiles(String)}.
+     */
+    public static List<File> getGameFiles(){
+        List<File> files = new ArrayList<>();
+        files.add(Utils.getGenreFile());
+        files.add(Utils.getNpcGamesFile());
+        files.add(Utils.getPublisherFile());
+        files.add(Utils.getGameplayFeaturesFile());
+        files.add(Utils.getEngineFeaturesFile());
+        files.addAll(getThemeFiles());
+        return files;
+    }
+
+    /**
+     * @return Returns the save game slots for which the {@link BackupCatalog} contains a backup, sorted by slot.
+     */
+    public static Set<String> getSaveGameSlots() throws IOException {
+        Set<String> saveGameSlots = new TreeSet<>(Comparator.comparingInt(Integer::parseInt));
+        for(String fileName : BackupCatalog.getBackedUpFileNames()){
+            String saveGameSlot = fileName.replaceAll("[^0-9]", "");
+            if(fileName.contains("savegame") && !saveGameSlot.isEmpty()){
+                saveGameSlots.add(saveGameSlot);
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
+        return saveGameSlots;
     }
 
     /**
-     * Restores the save game backup for the input save game slot
+     * Restores the latest backup of the save game in the input save game slot. The latest backup is looked up in the {@link BackupCatalog}.
+     * A backup of the current save games is created before the save game is restored, so that the restore can be undone.
+     * The initial backup is restored when the catalog does not contain the save game.
      * @param saveGameSlot The slot where the save game is saved that should be restored
+     * @return Returns true when the save game has been rewritten. Returns false when it already matched the backup.
      */
-    public static void restoreSaveGameBackup(int saveGameSlot) throws IOException {
-        File saveGameBackup = new File(System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//" + latestBackupFolderName + "//savegame" + saveGameSlot + ".txt");
-        if (!saveGameBackup.exists()) {
-            saveGameBackup = new File(System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//savegame" + saveGameSlot + ".txt.initialBackup");
+    public static boolean restoreSaveGameBackup(int saveGameSlot) throws IOException {
+        File saveGameFile = Utils.getSaveGameFile(saveGameSlot);
+        //The backup point is looked up before the current save game is backed up, the new backup point would contain the current save game
+        BackupPoint backupPoint = BackupCatalog.getLatestBackupPoint(saveGameFile.getName());
+        backupSaveGames(false);
+        if(backupPoint == null){
+            return !restoreFiles(BackupStore.MANIFEST_INITIAL, Collections.singletonList(saveGameFile), true).isEmpty();
+        }
+        String hash = backupPoint.getFiles().get(saveGameFile.getName()).getHash();
+        String currentHash = saveGameFile.exists() ? BackupIndex.getUnchangedHash(saveGameFile) : null;
+        if(saveGameFile.exists() && currentHash == null){
+            currentHash = BackupStore.getHash(saveGameFile);
         }
-        Files.copy(Paths.get(saveGameBackup.getPath()), Paths.get(Utils.getSaveGameFile(saveGameSlot).getPath()), StandardCopyOption.REPLACE_EXISTING);
+        if(hash.equals(currentHash)){
+            LOGGER.info("Save game " + saveGameFile.getName() + " already matches backup " + backupPoint.getName() + " and has not been restored.");
+            return false;
+        }
+        BackupStore.restoreFile(hash, saveGameFile);
+        GameDataRepository.INSTANCE.invalidate(saveGameFile);
+        LOGGER.info("Save game " + saveGameFile.getName() + " has been restored from backup " + backupPoint.getName());
+        return true;
     }
 
     /**
-     * Restores all theme file backups
+     * Restores the backups of the files from the manifest. Files that already match their backup are not rewritten.
+     * The backups are written to the temp files of the files and verified in parallel first. Only when every backup is available and intact the files are replaced with the temp files through the {@link Journal}, so either all or none of the files are replaced.
+     * @param manifestName The name of the manifest
+     * @param files The files that should be restored
+     * @param initialBackup True when the initial backup is restored
+     * @return Returns a list containing the names of the files that have been rewritten.
+     * @throws IOException Is thrown when a backup is missing or damaged or the files can not be replaced. The message says whether files have been rewritten.
      */
-    private static void restoreThemeFileBackups(boolean initialBackup) throws IOException {
-        for(int i=0; i<TranslationManager.TRANSLATION_KEYS.length; i++){
-            File currentBackupFile;
+    private static List<String> restoreFiles(String manifestName, List<File> files, boolean initialBackup) throws IOException {
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for(File file : files){
+            tasks.add(() -> prepareRestore(manifestName, file, initialBackup));
+        }
+        List<Boolean> results;
+        try{
+            results = ParallelExecutor.runAll("restoring backup", tasks);
+        }catch(IOException e){
+            for(File file : files){
+                AtomicFileWriter.getTempFile(file).delete();
+            }
+            throw new IOException("The backup " + manifestName + " has not been restored, no file has been changed: " + e.getMessage(), e);
+        }
+        List<File> filesToRestore = new ArrayList<>();
+        for(int i=0; i<files.size(); i++){
+            if(results.get(i)){
+                filesToRestore.add(files.get(i));
+            }
+        }
+        List<String> restoredFiles = new ArrayList<>();
+        if(!filesToRestore.isEmpty()){
+            try{
+                Journal.begin();
+                for(File file : filesToRestore){
+                    Journal.add(file);
+                }
+                Journal.commit();
+            }catch(IOException e){
+                //Discards the temp files when the commit marker has not been written
+                Journal.rollback();
+                for(File file : filesToRestore){
+                    if(!AtomicFileWriter.getTempFile(file).exists()){
+                        restoredFiles.add(file.getName());
+                    }
+                    GameDataRepository.INSTANCE.invalidate(file);
+                }
+                if(Journal.FILE_JOURNAL.exists()){
+                    throw new IOException("The backup " + manifestName + " has only been restored partially, the restore is completed the next time the tool is started. Rewritten files: " + restoredFiles + "; " + e.getMessage(), e);
+                }
+                throw new IOException("The backup " + manifestName + " has not been restored, no file has been changed: " + e.getMessage(), e);
+            }finally{
+                Journal.rollback();
+            }
+        }
+        for(File file : filesToRestore){
+            restoredFiles.add(file.getName());
+            GameDataRepository.INSTANCE.invalidate(file);
+        }
+        LOGGER.info("Backup " + manifestName + " has been restored: " + restoredFiles.size() + " of " + files.size() + " file(s) have been rewritten");
+        return restoredFiles;
+    }
+
+    /**
+     * Writes the backup of the file from the manifest to the temp file of the file when the content of the file differs from the backup. When the manifest does not contain the file the backup file that has been created before the {@link BackupStore} was used is taken.
+     * The temp file is verified against the hash of the backup, the file itself is not changed.
+     * @param manifestName The name of the manifest
+     * @param file The file that should be restored
+     * @param initialBackup True when the initial backup is restored
+     * @return Returns true when the temp file has been written and the file should be replaced with it.
+     */
+    private static boolean prepareRestore(String manifestName, File file, boolean initialBackup) throws IOException {
+        String hash = BackupStore.getHash(manifestName, file.getName());
+        File backupFile = null;
+        if(hash == null){
             if(initialBackup){
-                currentBackupFile = new File(System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//Themes_" + TranslationManager.TRANSLATION_KEYS[i] + ".txt.initialBackup");
+                backupFile = getLegacyBackupFile(file.getName() + ".initialBackup");
+            }else if(manifestName.equals(BackupStore.MANIFEST_LATEST)){
+                backupFile = getLegacyBackupFile(file.getName() + ".latestBackup");
             }else{
-                currentBackupFile = new File(System.getenv("APPDATA") + "//LMH01//MGT2_Mod_Manager//Backup//" + latestBackupFolderName + "//Themes_" + TranslationManager.TRANSLATION_KEYS[i] + ".txt");
+                backupFile = getLegacyBackupFile(manifestName + "//" + file.getName());
             }
-            Files.copy(Paths.get(currentBackupFile.getPath()), Paths.get(Utils.getThemeFile(i).getPath()), StandardCopyOption.REPLACE_EXISTING);
-            LOGGER.info("File " + currentBackupFile.getPath() + " has been restored.");
+            if(!backupFile.exists()){
+                throw new FileNotFoundException("The backup of file " + file.getName() + " is missing: " + backupFile.getPath());
+            }
+            hash = BackupStore.getHash(backupFile);
+        }
+        if(file.exists()){
+            String currentHash = BackupIndex.getUnchangedHash(file);
+            if(currentHash == null){
+                currentHash = BackupStore.getHash(file);
+            }
+            if(currentHash.equals(hash)){
+                LOGGER.info("File " + file.getName() + " is up to date and has not been restored.");
+                return false;
+            }
+        }
+        File tempFile = AtomicFileWriter.getTempFile(file);
+        if(backupFile == null){
+            BackupStore.extractContent(hash, tempFile);
+        }else{
+            Files.copy(Paths.get(backupFile.getPath()), tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            if(!BackupStore.getHash(tempFile).equals(hash)){
+                tempFile.delete();
+                throw new IOException("The restored file " + file.getName() + " does not match the backup " + backupFile.getPath());
+            }
+        }
+        if(Settings.enableDebugLogging){
+            LOGGER.info("Backup of file " + file.getName() + " has been prepared: " + hash);
         }
+        return true;
     }
 
     /**
-     * Deletes all backups after confirmed by the user
+     * @param path The path of the backup file relative to the backup folder
+     * @return Returns the backup file as it has been written before the {@link BackupStore} was used.
      */
-    public static void deleteAllBackups(){
-        if(JOptionPane.showConfirmDialog(null, "Are you sure that you wan't to delete all backups?", "Delete backup?", JOptionPane.YES_NO_OPTION) == 0){
-            try {
-                File backupFolder = new File(BACKUP_FOLDER_PATH);
-                if(backupFolder.exists()){
-                    Files.walk(Paths.get(backupFolder.getPath()))
-                            .sorted(Comparator.reverseOrder())
-                            .map(Path::toFile)
-                            .forEach(File::delete);
-                }
-                ChangeLog.addLogEntry(12);
-                if(JOptionPane.showConfirmDialog(null, "All backups have been deleted.\nDo you wan't to create a new initial backup?", "Backups deleted", JOptionPane.YES_NO_OPTION) == 0){
-                    String returnValue = Backup.createInitialBackup();
-                    if(returnValue.equals("")) {
-                        JOptionPane.showMessageDialog(null, "The initial backup has been created successfully.", "Initial backup", JOptionPane.INFORMATION_MESSAGE);
-                    }else {
-                        JOptionPane.showMessageDialog(null, "The initial backup was not created:\nFile not found: Please check if your mgt2 folder is set correctly.\n\nException:\n" + returnValue, "Unable to backup file", JOptionPane.ERROR_MESSAGE);
-                        ChangeLog.addLogEntry(7, returnValue);
-                    }
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-                JOptionPane.showMessageDialog(null, "Unable to delete all backups. \n\nException:\n" + e.getMessage(), "Unable to delete backups", JOptionPane.ERROR_MESSAGE);
-            }
+    private static File getLegacyBackupFile(String path){
+        return new File(BACKUP_FOLDER_PATH + path);
+    }
+
+    /**
+     * Deletes all backups. No message is shown.
+     */
+    public static void deleteAllBackups() throws IOException {
+        File backupFolder = new File(BACKUP_FOLDER_PATH);
+        if(backupFolder.exists()){
+            Files.walk(Paths.get(backupFolder.getPath()))
+                    .sorted(Comparator.reverseOrder())
+                    .map(Path::toFile)
+                    .forEach(File::delete);
+        }
+        BackupStore.clearCache();
+        ChangeLog.addLogEntry(12);
+    }
+
+    /**
+     * Creates a specified backup. No message is shown.
+     * @param type The backup type: full, genre, theme or save_game
+     * @return Returns the number of files that have been skipped because they have not been changed since their latest backup.
+     */
+    public static int createBackup(String type) throws IOException {
+        switch (type) {
+            case "full": return Backup.createFullBackup();
+            case "genre": return Backup.createBackups(Arrays.asList(Utils.getGenreFile(), Utils.getNpcGamesFile()), false, "genre");
+            case "theme": return Backup.createThemeFilesBackup(false);
+            default: return Backup.backupSaveGames(false);
         }
     }
 
     /**
      * Creates a backup of each file that can be edited with this tool.
+     * @return Returns the number of files that have been skipped because they have not been changed since their latest backup.
      * @throws IOException Throws IOException when backup was not successful.
      */
-    public static void createFullBackup() throws IOException {
-       Backup.createBackup(Utils.getGenreFile());
-       Backup.createBackup(Utils.getNpcGamesFile());
-       Backup.createBackup(Utils.getPublisherFile());
-       Backup.createBackup(Utils.getGameplayFeaturesFile());
-       Backup.createBackup(Utils.getEngineFeaturesFile());
-       backupSaveGames(false);
-       createThemeFilesBackup(false);
+    public static int createFullBackup() throws IOException {
+        return createFullBackup("full");
+    }
+
+    /**
+     * Creates a backup of each file that can be edited with this tool.
+     * @param trigger The operation that has triggered the backup. Is written to the backup catalog.
+     * @return Returns the number of files that have been skipped because they have not been changed since their latest backup.
+     * @throws IOException Throws IOException when backup was not successful.
+     */
+    public static int createFullBackup(String trigger) throws IOException {
+        List<File> files = new ArrayList<>();
+        files.add(Utils.getGenreFile());
+        files.add(Utils.getNpcGamesFile());
+        files.add(Utils.getPublisherFile());
+        files.add(Utils.getGameplayFeaturesFile());
+        files.add(Utils.getEngineFeaturesFile());
+        files.addAll(getSaveGameFiles());
+        files.addAll(getThemeFiles());
+        return createBackups(files, false, trigger);
     }
 
     /**
@@ -292,14 +459,15 @@ public class Backup {
      */
     public static String createInitialBackup(){
         try{
-            Backup.createBackup(Utils.getGenreFile(), true);
-            Backup.createBackup(Utils.getNpcGamesFile(), true);
-            Backup.createBackup(Utils.getThemesGeFile(), true);
-            Backup.createBackup(Utils.getPublisherFile(), true);
-            Backup.createBackup(Utils.getGameplayFeaturesFile(), true);
-            Backup.createBackup(Utils.getEngineFeaturesFile(), true);
-            backupSaveGames(true);
-            createThemeFilesBackup(true);
+            List<File> files = new ArrayList<>();
+            files.add(Utils.getGenreFile());
+            files.add(Utils.getNpcGamesFile());
+            files.add(Utils.getPublisherFile());
+            files.add(Utils.getGameplayFeaturesFile());
+            files.add(Utils.getEngineFeaturesFile());
+            files.addAll(getSaveGameFiles());
+            files.addAll(getThemeFiles());//Contains Themes_GE.txt
+            createBackups(files, true, "initial");
             ChangeLog.addLogEntry(6);
             return "";
         }catch(IOException e) {
@@ -312,8 +480,26 @@ public class Backup {
 
     /**
      * Create a backup of each save game.
+     * @return Returns the number of files that have been skipped because they have not been changed since their latest backup.
+     */
+    public static int backupSaveGames(boolean initialBackup) throws IOException {
+        return createBackups(getSaveGameFiles(), initialBackup, initialBackup ? "initial" : "save_game");
+    }
+
+    /**
+     * Creates a backup of each Theme file.
+     * @param initialBackup True if this is the initial backup.
+     * @return Returns the number of files that have been skipped because they have not been changed since their latest backup.
+     */
+    public static int createThemeFilesBackup(boolean initialBackup) throws IOException {
+        return createBackups(getThemeFiles(), initialBackup, initialBackup ? "initial" : "theme");
+    }
+
+    /**
+     * @return Returns a list containing each save game.
      */
-    public static void backupSaveGames(boolean initialBackup) throws IOException {
+    private static List<File> getSaveGameFiles(){
+        List<File> files = new ArrayList<>();
         if(Backup.FILE_SAVE_GAME_FOLDER.exists()){
             File[] filesInFolder = Backup.FILE_SAVE_GAME_FOLDER.listFiles();
             for (int i = 0; i < Objects.requireNonNull(filesInFolder).length; i++) {
@@ -322,26 +508,24 @@ public class Backup {
                     if(Settings.enableDebugLogging){
                         LOGGER.info("Savefile to backup found: " + backupFile);
                     }
-                    if(initialBackup){
-                        createBackup(backupFile, true);
-                    }else{
-                        createBackup(backupFile);
-                    }
+                    files.add(backupFile);
                 }
                 if(Settings.enableDebugLogging){
                     LOGGER.info("File [" + i + "] in folder: " + filesInFolder[i].getName());
                 }
             }
         }
+        return files;
     }
 
     /**
-     * Creates a backup of each Theme file.
-     * @param initialBackup True if this is the initial backup.
+     * @return Returns a list containing each Theme file.
      */
-    public static void createThemeFilesBackup(boolean initialBackup) throws IOException {
+    private static List<File> getThemeFiles(){
+        List<File> files = new ArrayList<>();
         for(int i=0; i<TranslationManager.TRANSLATION_KEYS.length; i++){
-            Backup.createBackup(Utils.getThemeFile(i), initialBackup);
+            files.add(Utils.getThemeFile(i));
         }
+        return files;
     }
 }
@@ -0,0 +1,225 @@
+package com.github.lmh01.mgt2mt.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Stores the content of multiple backed up files in one compressed archive. The content of each file is compressed separately, so that the files can be compressed in parallel.
+ * The index at the end of the archive contains the position of each content, so that a single file can be extracted without reading the other content.
+ * The content is identified by its hash, see {@link BackupStore}.
+ */
+public class BackupArchive {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackupArchive.class);
+    public static final String ARCHIVES_FOLDER_PATH = Backup.BACKUP_FOLDER_PATH + "archives//";
+    private static final String ARCHIVE_FILE_ENDING = ".archive";
+    private static final int MAGIC = 0x4D475432;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64*1024;
+    private static final Map<String, ArchiveEntry> ENTRIES = new HashMap<>();
+    private static boolean indexLoaded = false;
+
+    /**
+     * Compresses the content so that it can be written to an archive. Can be called from multiple threads at once.
+     */
+    public static CompressedContent compress(byte[] content) throws IOException {
+        ByteArrayOutputStream compressedContent = new ByteArrayOutputStream(content.length/4 + 64);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try(DeflaterOutputStream dos = new DeflaterOutputStream(compressedContent, deflater, BUFFER_SIZE)){
+            dos.write(content);
+        }finally{
+            deflater.end();
+        }
+        return new CompressedContent(compressedContent.toByteArray(), content.length);
+    }
+
+    /**
+     * Writes a new archive containing the compressed contents.
+     * @param archiveName The name of the archive. A number is appended when an archive with the name already exists.
+     * @param contents The compressed contents by their hash
+     * @return Returns the archive file.
+     */
+    public static synchronized File writeArchive(String archiveName, Map<String, CompressedContent> contents) throws IOException {
+        loadIndex();
+        File archivesFolder = new File(ARCHIVES_FOLDER_PATH);
+        archivesFolder.mkdirs();
+        File archiveFile = new File(ARCHIVES_FOLDER_PATH + archiveName + ARCHIVE_FILE_ENDING);
+        for(int i=1; archiveFile.exists(); i++){
+            archiveFile = new File(ARCHIVES_FOLDER_PATH + archiveName + "-" + i + ARCHIVE_FILE_ENDING);
+        }
+        File tempFile = new File(archiveFile.getPath() + ".temp");
+        Map<String, ArchiveEntry> entries = new LinkedHashMap<>();
+        try(FileOutputStream fos = new FileOutputStream(tempFile); DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos, BUFFER_SIZE))){
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            long position = 8;
+            for(Map.Entry<String, CompressedContent> content : contents.entrySet()){
+                dos.write(content.getValue().compressedContent);
+                entries.put(content.getKey(), new ArchiveEntry(archiveFile, position, content.getValue().compressedContent.length, content.getValue().length));
+                position += content.getValue().compressedContent.length;
+            }
+            dos.writeInt(entries.size());
+            for(Map.Entry<String, ArchiveEntry> entry : entries.entrySet()){
+                dos.writeUTF(entry.getKey());
+                dos.writeLong(entry.getValue().position);
+                dos.writeInt(entry.getValue().compressedLength);
+                dos.writeLong(entry.getValue().length);
+            }
+            dos.writeLong(position);
+            dos.flush();
+            fos.getFD().sync();
+        }catch(IOException e){
+            tempFile.delete();
+            throw e;
+        }
+        try{
+            Files.move(tempFile.toPath(), archiveFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        }catch(AtomicMoveNotSupportedException e){
+            Files.move(tempFile.toPath(), archiveFile.toPath());
+        }
+        ENTRIES.putAll(entries);
+        LOGGER.info("Backup archive has been written: " + archiveFile.getPath() + "; " + entries.size() + " file(s)");
+        return archiveFile;
+    }
+
+    /**
+     * @return Returns true when the content with the hash is stored in an archive.
+     */
+    public static synchronized boolean contains(String hash){
+        loadIndex();
+        return ENTRIES.containsKey(hash);
+    }
+
+    /**
+     * Extracts the content with the hash from the archive. Only the compressed content of this file is read.
+     * @param hash The hash of the content
+     * @param target The file the content is written to
+     * @throws FileNotFoundException Is thrown when no archive contains the content.
+     */
+    public static void extract(String hash, File target) throws IOException {
+        ArchiveEntry entry;
+        synchronized(BackupArchive.class){
+            loadIndex();
+            entry = ENTRIES.get(hash);
+        }
+        if(entry == null){
+            throw new FileNotFoundException("The backup content is not stored in an archive: " + hash);
+        }
+        byte[] compressedContent = new byte[entry.compressedLength];
+        try(RandomAccessFile randomAccessFile = new RandomAccessFile(entry.archiveFile, "r")){
+            randomAccessFile.seek(entry.position);
+            randomAccessFile.readFully(compressedContent);
+        }
+        try(InputStream inputStream = new InflaterInputStream(new ByteArrayInputStream(compressedContent), new Inflater(), BUFFER_SIZE)){
+            long length = Files.copy(inputStream, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            if(length != entry.length){
+                throw new IOException("The extracted content has the wrong length: " + length + " instead of " + entry.length);
+            }
+        }
+    }
+
+    /**
+     * @return Returns the hashes of the contents of each archive by the archive file.
+     */
+    public static synchronized Map<File, Set<String>> getArchives(){
+        loadIndex();
+        Map<File, Set<String>> archives = new HashMap<>();
+        for(Map.Entry<String, ArchiveEntry> entry : ENTRIES.entrySet()){
+            archives.computeIfAbsent(entry.getValue().archiveFile, key -> new HashSet<>()).add(entry.getKey());
+        }
+        return archives;
+    }
+
+    /**
+     * Deletes the archive. The contents of the archive are no longer available.
+     */
+    public static synchronized void deleteArchive(File archiveFile) throws IOException {
+        loadIndex();
+        ENTRIES.values().removeIf(entry -> entry.archiveFile.equals(archiveFile));
+        Files.deleteIfExists(archiveFile.toPath());
+        LOGGER.info("Backup archive has been deleted: " + archiveFile.getPath());
+    }
+
+    /**
+     * Clears the cached index. Should be called when the backup folder has been deleted.
+     */
+    public static synchronized void clearCache(){
+        ENTRIES.clear();
+        indexLoaded = false;
+    }
+
+    /**
+     * Reads the index of each archive in the archives folder.
+     */
+    private static void loadIndex(){
+        if(indexLoaded){
+            return;
+        }
+        File[] files = new File(ARCHIVES_FOLDER_PATH).listFiles();
+        if(files != null){
+            for(File file : files){
+                if(file.getName().endsWith(ARCHIVE_FILE_ENDING)){
+                    try{
+                        readIndex(file);
+                    }catch(IOException e){
+                        LOGGER.error("The index of backup archive " + file.getPath() + " could not be read: " + e.getMessage());
+                    }
+                }
+            }
+        }
+        indexLoaded = true;
+    }
+
+    private static void readIndex(File archiveFile) throws IOException {
+        try(RandomAccessFile randomAccessFile = new RandomAccessFile(archiveFile, "r")){
+            if(randomAccessFile.readInt() != MAGIC || randomAccessFile.readInt() != VERSION){
+                throw new IOException("The file is not a supported backup archive");
+            }
+            randomAccessFile.seek(randomAccessFile.length() - 8);
+            randomAccessFile.seek(randomAccessFile.readLong());
+            int numberOfEntries = randomAccessFile.readInt();
+            for(int i=0; i<numberOfEntries; i++){
+                String hash = randomAccessFile.readUTF();
+                long position = randomAccessFile.readLong();
+                int compressedLength = randomAccessFile.readInt();
+                long length = randomAccessFile.readLong();
+                ENTRIES.put(hash, new ArchiveEntry(archiveFile, position, compressedLength, length));
+            }
+        }
+    }
+
+    /**
+     * The compressed content of a file as returned by {@link #compress(byte[])}.
+     */
+    public static class CompressedContent {
+        private final byte[] compressedContent;
+        private final long length;
+
+        private CompressedContent(byte[] compressedContent, long length){
+            this.compressedContent = compressedContent;
+            this.length = length;
+        }
+    }
+
+    private static class ArchiveEntry {
+        private final File archiveFile;
+        private final long position;
+        private final int compressedLength;
+        private final long length;
+
+        private ArchiveEntry(File archiveFile, long position, int compressedLength, long length){
+            this.archiveFile = archiveFile;
+            this.position = position;
+            this.compressedLength = compressedLength;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.github.lmh01.mgt2mt.util;
+
+import com.github.lmh01.mgt2mt.data_stream.AtomicFileWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Lists every backup point with the files that have been backed up, their sizes and hashes and the operation that triggered the backup.
+ * New backup points are appended to the catalog file, the file is only rewritten when backup points are pruned.
+ * The latest backup of each file is kept in a map, so that it can be looked up without going through the backup points.
+ */
+public class BackupCatalog {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackupCatalog.class);
+    public static final File FILE_BACKUP_CATALOG = new File(Backup.BACKUP_FOLDER_PATH + "catalog.txt");
+    private static final DateTimeFormatter BACKUP_POINT_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss");
+    private static final String POINT_KEY = "[POINT]";
+    private static final String TRIGGER_KEY = "[TRIGGER]";
+    private static final String TIME_KEY = "[TIME]";
+    private static final String FILE_KEY = "[FILE]";
+    private static final String SIZE_KEY = "[SIZE]";
+    private static final String HASH_KEY = "[SHA256]";
+    private static final List<BackupPoint> BACKUP_POINTS = new ArrayList<>();
+    private static final Map<String, BackupPoint> BACKUP_POINTS_BY_NAME = new HashMap<>();
+    private static final Map<String, BackupPoint> LATEST_BACKUP_POINTS_BY_FILE = new HashMap<>();
+    private static boolean loaded = false;
+
+    /**
+     * @return Returns a new name for a backup point. The name contains the current time in seconds, a number is appended when a backup point with the name already exists.
+     */
+    public static synchronized String createBackupPointName() throws IOException {
+        load();
+        String baseName = LocalDateTime.now().format(BACKUP_POINT_NAME_FORMAT);
+        String name = baseName;
+        for(int i=1; BACKUP_POINTS_BY_NAME.containsKey(name) || BackupStore.getManifestNames().contains(name); i++){
+            name = baseName + "-" + i;
+        }
+        return name;
+    }
+
+    /**
+     * Adds the backup point to the catalog. The backup point is appended to the catalog file.
+     */
+    public static synchronized void addBackupPoint(BackupPoint backupPoint) throws IOException {
+        load();
+        FILE_BACKUP_CATALOG.getParentFile().mkdirs();
+        try(BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FILE_BACKUP_CATALOG, true), StandardCharsets.UTF_8))){
+            write(bw, backupPoint);
+        }
+        add(backupPoint);
+        LOGGER.info("Backup point " + backupPoint.getName() + " has been added to the catalog: " + backupPoint.getFiles().size() + " file(s)");
+    }
+
+    /**
+     * @return Returns a list containing all backup points, the oldest first.
+     */
+    public static synchronized List<BackupPoint> getBackupPoints() throws IOException {
+        load();
+        return new ArrayList<>(BACKUP_POINTS);
+    }
+
+    /**
+     * @return Returns the backup point with the name. Returns null when the backup point does not exist.
+     */
+    public static synchronized BackupPoint getBackupPoint(String name) throws IOException {
+        load();
+        return BACKUP_POINTS_BY_NAME.get(name);
+    }
+
+    /**
+     * @param fileName The name of the backed up file
+     * @return Returns the latest backup point that contains the file. Returns null when the file has not been backed up.
+     */
+    public static synchronized BackupPoint getLatestBackupPoint(String fileName) throws IOException {
+        load();
+        return LATEST_BACKUP_POINTS_BY_FILE.get(fileName);
+    }
+
+    /**
+     * @return Returns the names of all files that have been backed up.
+     */
+    public static synchronized Set<String> getBackedUpFileNames() throws IOException {
+        load();
+        return new TreeSet<>(LATEST_BACKUP_POINTS_BY_FILE.keySet());
+    }
+
+    /**
+     * Removes the backup points that should not be kept from the catalog.
+     * @param numberOfBackupPointsToKeep The number of latest backup points that are kept. At least one backup point is kept.
+     * @param keepOneBackupPointPerDay True when the latest backup point of each day should be kept additionally.
+     * @return Returns a list containing the backup points that have been removed.
+     */
+    public static synchronized List<BackupPoint> prune(int numberOfBackupPointsToKeep, boolean keepOneBackupPointPerDay) throws IOException {
+        load();
+        Set<BackupPoint> backupPointsToKeep = new HashSet<>();
+        for(int i=Math.max(0, BACKUP_POINTS.size() - Math.max(1, numberOfBackupPointsToKeep)); i<BACKUP_POINTS.size(); i++){
+            backupPointsToKeep.add(BACKUP_POINTS.get(i));
+        }
+        if(keepOneBackupPointPerDay){
+            Map<LocalDate, BackupPoint> latestBackupPointsByDay = new HashMap<>();
+            for(BackupPoint backupPoint : BACKUP_POINTS){
+                latestBackupPointsByDay.put(Instant.ofEpochMilli(backupPoint.getTime()).atZone(ZoneId.systemDefault()).toLocalDate(), backupPoint);
+            }
+            backupPointsToKeep.addAll(latestBackupPointsByDay.values());
+        }
+        List<BackupPoint> removedBackupPoints = new ArrayList<>();
+        List<BackupPoint> remainingBackupPoints = new ArrayList<>();
+        for(BackupPoint backupPoint : BACKUP_POINTS){
+            if(backupPointsToKeep.contains(backupPoint)){
+                remainingBackupPoints.add(backupPoint);
+            }else{
+                removedBackupPoints.add(backupPoint);
+            }
+        }
+        if(removedBackupPoints.isEmpty()){
+            return removedBackupPoints;
+        }
+        AtomicFileWriter.writeFile(FILE_BACKUP_CATALOG, StandardCharsets.UTF_8, bw -> {
+            for(BackupPoint backupPoint : remainingBackupPoints){
+                write(bw, backupPoint);
+            }
+        });
+        clear();
+        for(BackupPoint backupPoint : remainingBackupPoints){
+            add(backupPoint);
+        }
+        LOGGER.info(removedBackupPoints.size() + " backup point(s) have been removed from the catalog");
+        return removedBackupPoints;
+    }
+
+    /**
+     * Clears the cached catalog. Should be called when the backup folder has been deleted.
+     */
+    public static synchronized void clearCache(){
+        clear();
+        loaded = false;
+    }
+
+    private static void clear(){
+        BACKUP_POINTS.clear();
+        BACKUP_POINTS_BY_NAME.clear();
+        LATEST_BACKUP_POINTS_BY_FILE.clear();
+    }
+
+    private static void add(BackupPoint backupPoint){
+        BACKUP_POINTS.add(backupPoint);
+        BACKUP_POINTS_BY_NAME.put(backupPoint.getName(), backupPoint);
+        for(String fileName : backupPoint.getFiles().keySet()){
+            LATEST_BACKUP_POINTS_BY_FILE.put(fileName, backupPoint);
+        }
+    }
+
+    /**
+     * Writes the backup point followed by a blank line. Backup points without the blank line have not been written completely and are ignored when the catalog is read.
+     */
+    private static void write(BufferedWriter bw, BackupPoint backupPoint) throws IOException {
+        bw.write(POINT_KEY + backupPoint.getName());bw.write(System.getProperty("line.separator"));
+        bw.write(TRIGGER_KEY + backupPoint.getTrigger());bw.write(System.getProperty("line.separator"));
+        bw.write(TIME_KEY + backupPoint.getTime());bw.write(System.getProperty("line.separator"));
+        for(Map.Entry<String, BackupPoint.BackedUpFile> entry : backupPoint.getFiles().entrySet()){
+            bw.write(FILE_KEY + entry.getKey());bw.write(System.getProperty("line.separator"));
+            bw.write(SIZE_KEY + entry.getValue().getSize());bw.write(System.getProperty("line.separator"));
+            bw.write(HASH_KEY + entry.getValue().getHash());bw.write(System.getProperty("line.separator"));
+        }
+        bw.write(System.getProperty("line.separator"));
+    }
+
+    private static void load() throws IOException {
+        if(loaded){
+            return;
+        }
+        clear();
+        if(FILE_BACKUP_CATALOG.exists()){
+            String name = null;
+            String trigger = "";
+            long time = 0;
+            Map<String, BackupPoint.BackedUpFile> files = new LinkedHashMap<>();
+            String fileName = null;
+            long size = -1;
+            for(String line : Files.readAllLines(FILE_BACKUP_CATALOG.toPath(), StandardCharsets.UTF_8)){
+                try{
+                    if(line.startsWith(POINT_KEY)){
+                        name = line.substring(POINT_KEY.length());
+                        trigger = "";
+                        time = 0;
+                        files = new LinkedHashMap<>();
+                    }else if(line.startsWith(TRIGGER_KEY)){
+                        trigger = line.substring(TRIGGER_KEY.length());
+                    }else if(line.startsWith(TIME_KEY)){
+                        time = Long.parseLong(line.substring(TIME_KEY.length()));
+                    }else if(line.startsWith(FILE_KEY)){
+                        fileName = line.substring(FILE_KEY.length());
+                    }else if(line.startsWith(SIZE_KEY)){
+                        size = Long.parseLong(line.substring(SIZE_KEY.length()));
+                    }else if(line.startsWith(HASH_KEY) && fileName != null){
+                        files.put(fileName, new BackupPoint.BackedUpFile(size, line.substring(HASH_KEY.length())));
+                        fileName = null;
+                    }else if(line.isEmpty() && name != null){
+                        add(new BackupPoint(name, trigger, time, files));
+                        name = null;
+                    }
+                }catch(NumberFormatException e){
+                    LOGGER.info("Invalid line in backup catalog: " + line);
+                }
+            }
+            if(name != null){
+                LOGGER.info("The backup point " + name + " has not been written completely and is ignored");
+            }
+        }
+        loaded = true;
+    }
+}
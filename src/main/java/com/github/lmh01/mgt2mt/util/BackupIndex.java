@@ -0,0 +1,132 @@
+package com.github.lmh01.mgt2mt.util;
+
+import com.github.lmh01.mgt2mt.data_stream.AtomicFileWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers the size, the last modified time and the hash of each file when it has been backed up.
+ * A file with the same size and last modified time is considered unchanged, so that it does not have to be read again to find out that the latest backup is still up to date.
+ */
+public class BackupIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackupIndex.class);
+    public static final File FILE_BACKUP_INDEX = new File(Backup.BACKUP_FOLDER_PATH + "index.txt");
+    private static final String FILE_KEY = "[FILE]";
+    private static final String SIZE_KEY = "[SIZE]";
+    private static final String MODIFIED_KEY = "[MODIFIED]";
+    private static final String HASH_KEY = "[SHA256]";
+    /**
+     * Files that have been modified less than this time before they are backed up are not recorded, because a change in the same time could go unnoticed.
+     */
+    private static final long MODIFIED_TIME_TOLERANCE = 2000;
+    private static final Map<String, IndexEntry> ENTRIES = new HashMap<>();
+    private static boolean loaded = false;
+    private static boolean changed = false;
+
+    /**
+     * @return Returns the hash of the file when it has not been changed since it has been recorded. Returns null otherwise.
+     */
+    public static synchronized String getUnchangedHash(File file) throws IOException {
+        load();
+        IndexEntry entry = ENTRIES.get(file.getAbsolutePath());
+        if(entry != null && file.exists() && entry.size == file.length() && entry.lastModified == file.lastModified()){
+            return entry.hash;
+        }
+        return null;
+    }
+
+    /**
+     * Records the hash of the file. The changes are written when {@link #save()} is called.
+     * @param file The file that has been backed up
+     * @param size The size of the file before it has been read
+     * @param lastModified The last modified time of the file before it has been read
+     * @param hash The hash of the content
+     */
+    public static synchronized void put(File file, long size, long lastModified, String hash) throws IOException {
+        load();
+        if(System.currentTimeMillis() - lastModified < MODIFIED_TIME_TOLERANCE){
+            if(ENTRIES.remove(file.getAbsolutePath()) != null){
+                changed = true;
+            }
+            return;
+        }
+        ENTRIES.put(file.getAbsolutePath(), new IndexEntry(size, lastModified, hash));
+        changed = true;
+    }
+
+    /**
+     * Writes the index file when it has been changed.
+     */
+    public static synchronized void save() throws IOException {
+        if(!changed){
+            return;
+        }
+        FILE_BACKUP_INDEX.getParentFile().mkdirs();
+        AtomicFileWriter.writeFile(FILE_BACKUP_INDEX, StandardCharsets.UTF_8, bw -> {
+            for(Map.Entry<String, IndexEntry> entry : ENTRIES.entrySet()){
+                bw.write(FILE_KEY + entry.getKey());bw.write(System.getProperty("line.separator"));
+                bw.write(SIZE_KEY + entry.getValue().size);bw.write(System.getProperty("line.separator"));
+                bw.write(MODIFIED_KEY + entry.getValue().lastModified);bw.write(System.getProperty("line.separator"));
+                bw.write(HASH_KEY + entry.getValue().hash);bw.write(System.getProperty("line.separator"));
+            }
+        });
+        changed = false;
+    }
+
+    /**
+     * Clears the cached index. Should be called when the backup folder has been deleted.
+     */
+    public static synchronized void clearCache(){
+        ENTRIES.clear();
+        loaded = false;
+        changed = false;
+    }
+
+    private static void load() throws IOException {
+        if(loaded){
+            return;
+        }
+        ENTRIES.clear();
+        if(FILE_BACKUP_INDEX.exists()){
+            String path = null;
+            long size = -1;
+            long lastModified = -1;
+            for(String line : Files.readAllLines(FILE_BACKUP_INDEX.toPath(), StandardCharsets.UTF_8)){
+                try{
+                    if(line.startsWith(FILE_KEY)){
+                        path = line.substring(FILE_KEY.length());
+                    }else if(line.startsWith(SIZE_KEY)){
+                        size = Long.parseLong(line.substring(SIZE_KEY.length()));
+                    }else if(line.startsWith(MODIFIED_KEY)){
+                        lastModified = Long.parseLong(line.substring(MODIFIED_KEY.length()));
+                    }else if(line.startsWith(HASH_KEY) && path != null){
+                        ENTRIES.put(path, new IndexEntry(size, lastModified, line.substring(HASH_KEY.length())));
+                        path = null;
+                    }
+                }catch(NumberFormatException e){
+                    LOGGER.info("Invalid line in backup index: " + line);
+                    path = null;
+                }
+            }
+        }
+        loaded = true;
+    }
+
+    private static class IndexEntry {
+        private final long size;
+        private final long lastModified;
+        private final String hash;
+
+        private IndexEntry(long size, long lastModified, String hash){
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.lmh01.mgt2mt.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A backup that has been created at one time. See {@link BackupCatalog}.
+ */
+public class BackupPoint {
+    private final String name;
+    private final String trigger;
+    private final long time;
+    private final Map<String, BackedUpFile> files;
+
+    /**
+     * @param name The name of the backup point. Is also the name of the manifest that contains the backups that have been replaced by this backup point.
+     * @param trigger The operation that has triggered the backup. Eg. "full"
+     * @param time The time the backup has been created in milliseconds
+     * @param files The backed up files by their names
+     */
+    public BackupPoint(String name, String trigger, long time, Map<String, BackedUpFile> files){
+        this.name = name;
+        this.trigger = trigger;
+        this.time = time;
+        this.files = Collections.unmodifiableMap(new LinkedHashMap<>(files));
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    public String getTrigger(){
+        return trigger;
+    }
+
+    public long getTime(){
+        return time;
+    }
+
+    public Map<String, BackedUpFile> getFiles(){
+        return files;
+    }
+
+    public static class BackedUpFile {
+        private final long size;
+        private final String hash;
+
+        public BackedUpFile(long size, String hash){
+            this.size = size;
+            this.hash = hash;
+        }
+
+        public long getSize(){
+            return size;
+        }
+
+        public String getHash(){
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,536 @@
+package com.github.lmh01.mgt2mt.util;
+
+import com.github.lmh01.mgt2mt.data_stream.AtomicFileWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.Callable;
+
+/**
+ * Stores the backed up files by the SHA-256 hash of their content. A file that is backed up multiple times with the same content is only stored once.
+ * Each backup is recorded in a manifest that maps the names of the backed up files to the hashes of their content.
+ * The manifest "latest" contains the latest backup of each file and the manifest "initial" contains the initial backup.
+ * The other manifests are named after the time they have been created and contain the backups that have been replaced in the manifest "latest" at that time.
+ * Content can be stored as a {@link BlockDelta} to the previous version of the file. After {@link #MAX_DELTA_CHAIN_LENGTH} deltas the content is stored completely again.
+ * Content can also be stored compressed in a {@link BackupArchive}, see {@link #storeFilesInArchive(String, List)}.
+ */
+public class BackupStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackupStore.class);
+    public static final String OBJECTS_FOLDER_PATH = Backup.BACKUP_FOLDER_PATH + "objects//";
+    public static final String MANIFESTS_FOLDER_PATH = Backup.BACKUP_FOLDER_PATH + "manifests//";
+    /**
+     * Contains the newest backed up content of each file. This is the backup that is restored as latest backup, see {@link Backup#restoreBackup(boolean, boolean)}.
+     */
+    public static final String MANIFEST_LATEST = "latest";
+    public static final String MANIFEST_INITIAL = "initial";
+    public static final int MAX_DELTA_CHAIN_LENGTH = 10;
+    private static final String MANIFEST_FILE_ENDING = ".manifest";
+    private static final String DELTA_FILE_ENDING = ".delta";
+    private static final String FILE_KEY = "[FILE]";
+    private static final String HASH_KEY = "[SHA256]";
+    private static final int BUFFER_SIZE = 64*1024;
+    private static final Map<String, Map<String, String>> MANIFESTS = new HashMap<>();
+
+    /**
+     * Stores the content of the file. Nothing is written when the content has already been stored.
+     * @return Returns the hash of the content.
+     */
+    public static synchronized String storeFile(File file) throws IOException {
+        String hash = getHash(file);
+        File objectFile = getObjectFile(hash);
+        if(isStored(hash)){
+            if(Settings.enableDebugLogging){
+                LOGGER.info("The content of file " + file.getName() + " is already stored: " + hash);
+            }
+            return hash;
+        }
+        objectFile.getParentFile().mkdirs();
+        File tempFile = new File(OBJECTS_FOLDER_PATH + "object.temp");
+        MessageDigest messageDigest = getMessageDigest();
+        try(InputStream inputStream = new DigestInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE), messageDigest)){
+            Files.copy(inputStream, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        String copiedHash = toHex(messageDigest.digest());
+        if(!copiedHash.equals(hash)){
+            //The file has been changed while it was stored
+            hash = copiedHash;
+            objectFile = getObjectFile(hash);
+            objectFile.getParentFile().mkdirs();
+        }
+        moveFile(tempFile, objectFile);
+        LOGGER.info("The content of file " + file.getName() + " has been stored: " + hash);
+        return hash;
+    }
+
+    /**
+     * Stores the content of the file as delta to the base content. Nothing is written when the content has already been stored.
+     * The content is stored completely when the base is not stored, when the delta chain of the base is too long or when the delta would not be smaller than half of the content.
+     * @param file The file that should be stored
+     * @param baseHash The hash of the previous version of the file. Can be null.
+     * @return Returns the hash of the content.
+     */
+    public static synchronized String storeFile(File file, String baseHash) throws IOException {
+        if(baseHash == null || !isStored(baseHash)){
+            return storeFile(file);
+        }
+        int baseChainLength = getChainLength(baseHash);
+        if(baseChainLength >= MAX_DELTA_CHAIN_LENGTH){
+            LOGGER.info("The delta chain of file " + file.getName() + " is complete, the content is stored completely");
+            return storeFile(file);
+        }
+        byte[] content = Files.readAllBytes(file.toPath());
+        MessageDigest messageDigest = getMessageDigest();
+        String hash = toHex(messageDigest.digest(content));
+        if(isStored(hash)){
+            if(Settings.enableDebugLogging){
+                LOGGER.info("The content of file " + file.getName() + " is already stored: " + hash);
+            }
+            return hash;
+        }
+        new File(OBJECTS_FOLDER_PATH).mkdirs();
+        byte[] base;
+        File baseFile = getObjectFile(baseHash);
+        if(baseFile.exists()){
+            base = Files.readAllBytes(baseFile.toPath());
+        }else{
+            File tempFile = File.createTempFile("base", ".temp", new File(OBJECTS_FOLDER_PATH));
+            try{
+                restoreContent(baseHash, tempFile);
+                base = Files.readAllBytes(tempFile.toPath());
+            }finally{
+                tempFile.delete();
+            }
+        }
+        File tempFile = new File(OBJECTS_FOLDER_PATH + "object.temp");
+        long insertedBytes = BlockDelta.writeDelta(base, content, baseHash, baseChainLength+1, tempFile);
+        if(insertedBytes > content.length/2){
+            LOGGER.info("The delta of file " + file.getName() + " is too large, the content is stored completely");
+            Files.write(tempFile.toPath(), content);
+            File objectFile = getObjectFile(hash);
+            objectFile.getParentFile().mkdirs();
+            moveFile(tempFile, objectFile);
+        }else{
+            File deltaFile = getDeltaFile(hash);
+            deltaFile.getParentFile().mkdirs();
+            moveFile(tempFile, deltaFile);
+            LOGGER.info("The content of file " + file.getName() + " has been stored as delta: " + hash + "; " + insertedBytes + " of " + content.length + " bytes have been written");
+        }
+        return hash;
+    }
+
+    /**
+     * Stores the content of the files that is not already stored in a new compressed archive. The files are read and compressed in parallel.
+     * @param archiveName The name of the archive
+     * @param files The files that should be stored
+     * @return Returns a map containing the hash of the content of each file by the file name.
+     */
+    public static synchronized Map<String, String> storeFilesInArchive(String archiveName, List<File> files) throws IOException {
+        List<Callable<Map.Entry<String, BackupArchive.CompressedContent>>> tasks = new ArrayList<>();
+        for(File file : files){
+            tasks.add(() -> {
+                byte[] content = Files.readAllBytes(file.toPath());
+                String hash = toHex(getMessageDigest().digest(content));
+                if(isStored(hash)){
+                    return new AbstractMap.SimpleEntry<>(hash, null);
+                }
+                return new AbstractMap.SimpleEntry<>(hash, BackupArchive.compress(content));
+            });
+        }
+        List<Map.Entry<String, BackupArchive.CompressedContent>> results = ParallelExecutor.runAll("compressing backups", tasks);
+        Map<String, String> hashes = new HashMap<>();
+        Map<String, BackupArchive.CompressedContent> contents = new LinkedHashMap<>();
+        for(int i=0; i<files.size(); i++){
+            Map.Entry<String, BackupArchive.CompressedContent> result = results.get(i);
+            hashes.put(files.get(i).getName(), result.getKey());
+            if(result.getValue() != null){
+                contents.put(result.getKey(), result.getValue());
+            }
+        }
+        if(contents.isEmpty()){
+            LOGGER.info("The content of all files is already stored, no backup archive has been written");
+        }else{
+            BackupArchive.writeArchive(archiveName, contents);
+        }
+        return hashes;
+    }
+
+    /**
+     * Stores the content of the file and adds it to the manifest.
+     * @param manifestName The name of the manifest
+     * @param file The file that should be added
+     * @return Returns the hash of the content.
+     */
+    public static synchronized String addFile(String manifestName, File file) throws IOException {
+        String hash = storeFile(file);
+        putEntry(manifestName, file.getName(), hash);
+        return hash;
+    }
+
+    /**
+     * Adds the entry to the manifest. An existing entry for the file name is replaced. The manifest is created when it does not exist.
+     * @param manifestName The name of the manifest
+     * @param fileName The name of the backed up file
+     * @param hash The hash of the content as returned by {@link #storeFile(File)}
+     */
+    public static synchronized void putEntry(String manifestName, String fileName, String hash) throws IOException {
+        Map<String, String> manifest = loadManifest(manifestName);
+        if(hash.equals(manifest.get(fileName))){
+            return;
+        }
+        manifest.put(fileName, hash);
+        writeManifest(manifestName, manifest);
+    }
+
+    /**
+     * Adds the entries to the manifest. The manifest is written once.
+     * @param manifestName The name of the manifest
+     * @param entries The hashes of the content by the names of the backed up files
+     */
+    public static synchronized void putEntries(String manifestName, Map<String, String> entries) throws IOException {
+        Map<String, String> manifest = loadManifest(manifestName);
+        boolean changed = false;
+        for(Map.Entry<String, String> entry : entries.entrySet()){
+            if(!entry.getValue().equals(manifest.put(entry.getKey(), entry.getValue()))){
+                changed = true;
+            }
+        }
+        if(changed){
+            writeManifest(manifestName, manifest);
+        }
+    }
+
+    /**
+     * @param manifestName The name of the manifest
+     * @param fileName The name of the backed up file
+     * @return Returns the hash of the backed up file in the manifest. Returns null when the manifest does not contain the file.
+     */
+    public static synchronized String getHash(String manifestName, String fileName) throws IOException {
+        return loadManifest(manifestName).get(fileName);
+    }
+
+    /**
+     * @return Returns a copy of the manifest. The map is empty when the manifest does not exist.
+     */
+    public static synchronized Map<String, String> getManifest(String manifestName) throws IOException {
+        return new TreeMap<>(loadManifest(manifestName));
+    }
+
+    /**
+     * @return Returns the names of all manifests.
+     */
+    public static List<String> getManifestNames(){
+        List<String> manifestNames = new ArrayList<>();
+        File[] files = new File(MANIFESTS_FOLDER_PATH).listFiles();
+        if(files != null){
+            for(File file : files){
+                if(file.getName().endsWith(MANIFEST_FILE_ENDING)){
+                    manifestNames.add(file.getName().substring(0, file.getName().length() - MANIFEST_FILE_ENDING.length()));
+                }
+            }
+        }
+        Collections.sort(manifestNames);
+        return manifestNames;
+    }
+
+    /**
+     * Deletes the manifest. The content that is only referenced by this manifest is deleted by {@link #deleteUnreferencedContent(Set)}.
+     */
+    public static synchronized void deleteManifest(String manifestName) throws IOException {
+        MANIFESTS.remove(manifestName);
+        Files.deleteIfExists(getManifestFile(manifestName).toPath());
+    }
+
+    /**
+     * @return Returns the hashes of all contents that are referenced by a manifest.
+     */
+    public static synchronized Set<String> getReferencedHashes() throws IOException {
+        Set<String> hashes = new HashSet<>();
+        for(String manifestName : getManifestNames()){
+            hashes.addAll(loadManifest(manifestName).values());
+        }
+        return hashes;
+    }
+
+    /**
+     * Deletes the stored content that is not referenced. The content that is needed to restore a referenced delta is kept.
+     * An archive is only deleted when none of its contents is referenced.
+     * @param referencedHashes The hashes of the content that should be kept
+     * @return Returns the number of bytes that have been freed.
+     */
+    public static synchronized long deleteUnreferencedContent(Set<String> referencedHashes) throws IOException {
+        Set<String> hashesToKeep = new HashSet<>();
+        Deque<String> hashesToCheck = new ArrayDeque<>(referencedHashes);
+        while(!hashesToCheck.isEmpty()){
+            String hash = hashesToCheck.pop();
+            if(hashesToKeep.add(hash) && !isStoredCompletely(hash) && getDeltaFile(hash).exists()){
+                hashesToCheck.push(BlockDelta.getBaseHash(getDeltaFile(hash)));
+            }
+        }
+        long freedBytes = 0;
+        File[] folders = new File(OBJECTS_FOLDER_PATH).listFiles();
+        if(folders != null){
+            for(File folder : folders){
+                File[] files = folder.listFiles();
+                if(files == null){
+                    continue;
+                }
+                for(File file : files){
+                    String hash = file.getName().endsWith(DELTA_FILE_ENDING) ? file.getName().substring(0, file.getName().length() - DELTA_FILE_ENDING.length()) : file.getName();
+                    if(hash.length() == 64 && !hashesToKeep.contains(hash)){
+                        freedBytes += file.length();
+                        Files.delete(file.toPath());
+                    }
+                }
+            }
+        }
+        for(Map.Entry<File, Set<String>> archive : BackupArchive.getArchives().entrySet()){
+            if(Collections.disjoint(archive.getValue(), hashesToKeep)){
+                freedBytes += archive.getKey().length();
+                BackupArchive.deleteArchive(archive.getKey());
+            }
+        }
+        LOGGER.info("Unreferenced backup content has been deleted: " + freedBytes + " bytes have been freed");
+        return freedBytes;
+    }
+
+    /**
+     * Restores the content with the hash to the target. The content is verified before the target is replaced, so the target is not changed when the backup is damaged.
+     * Can be called from multiple threads at once for different targets.
+     * @param hash The hash of the backed up content. Eg. from the {@link BackupCatalog}.
+     * @param target The file that should be replaced with the backup
+     * @throws IOException Is thrown when the stored content is missing, damaged or can not be copied.
+     */
+    public static void restoreFile(String hash, File target) throws IOException {
+        File tempFile = AtomicFileWriter.getTempFile(target);
+        try{
+            extractContent(hash, tempFile);
+            moveFile(tempFile, target);
+        }finally{
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * Writes the content with the hash to the file and verifies it. The file is deleted when the content is missing or damaged.
+     * Can be called from multiple threads at once for different files.
+     * @param hash The hash of the backed up content
+     * @param file The file to which the content should be written. Is replaced when it exists.
+     * @throws IOException Is thrown when the stored content is missing, damaged or can not be copied.
+     */
+    public static void extractContent(String hash, File file) throws IOException {
+        try{
+            File objectFile = getObjectFile(hash);
+            if(objectFile.exists()){
+                Files.copy(objectFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }else{
+                new File(OBJECTS_FOLDER_PATH).mkdirs();
+                restoreContent(hash, file);
+            }
+            if(!getHash(file).equals(hash)){
+                throw new IOException("The restored content of file " + file.getName() + " does not match the backup " + hash);
+            }
+        }catch(IOException e){
+            file.delete();
+            throw e;
+        }
+    }
+
+    /**
+     * Restores the content with the hash to a temp file and compares the hash of the restored content. The deltas and archives are verified on the way.
+     * @throws IOException Is thrown when the content is missing or damaged.
+     */
+    public static void verifyContent(String hash) throws IOException {
+        File tempFile = File.createTempFile("verify", ".temp");
+        try{
+            restoreContent(hash, tempFile);
+            if(!getHash(tempFile).equals(hash)){
+                throw new IOException("The backup content is damaged: " + hash);
+            }
+        }finally{
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * @return Returns the file in which the content with the hash is stored.
+     */
+    public static File getObjectFile(String hash){
+        return new File(OBJECTS_FOLDER_PATH + hash.substring(0, 2) + "//" + hash);
+    }
+
+    /**
+     * @return Returns the file in which the content with the hash is stored as delta.
+     */
+    public static File getDeltaFile(String hash){
+        return new File(OBJECTS_FOLDER_PATH + hash.substring(0, 2) + "//" + hash + DELTA_FILE_ENDING);
+    }
+
+    /**
+     * @return Returns true when the content with the hash is stored completely, as delta or in an archive.
+     */
+    public static boolean isStored(String hash){
+        return isStoredCompletely(hash) || getDeltaFile(hash).exists();
+    }
+
+    /**
+     * @return Returns true when the content with the hash is stored completely or in an archive.
+     */
+    private static boolean isStoredCompletely(String hash){
+        return getObjectFile(hash).exists() || BackupArchive.contains(hash);
+    }
+
+    /**
+     * Clears the cached manifests. Should be called when the backup folder has been deleted.
+     */
+    public static synchronized void clearCache(){
+        MANIFESTS.clear();
+        BackupArchive.clearCache();
+        BackupIndex.clearCache();
+        BackupCatalog.clearCache();
+    }
+
+    /**
+     * @return Returns the number of deltas that have to be applied to restore the content. Returns 0 when the content is stored completely.
+     */
+    private static int getChainLength(String hash) throws IOException {
+        if(isStoredCompletely(hash)){
+            return 0;
+        }
+        return BlockDelta.getChainLength(getDeltaFile(hash));
+    }
+
+    /**
+     * Writes the content with the hash to the target. The deltas are applied one after another, starting with the last complete content.
+     */
+    private static void restoreContent(String hash, File target) throws IOException {
+        List<File> deltaFiles = new ArrayList<>();
+        String currentHash = hash;
+        while(!isStoredCompletely(currentHash)){
+            File deltaFile = getDeltaFile(currentHash);
+            if(!deltaFile.exists() || deltaFiles.size() > MAX_DELTA_CHAIN_LENGTH){
+                throw new FileNotFoundException("The backup content is missing: " + currentHash);
+            }
+            deltaFiles.add(deltaFile);
+            currentHash = BlockDelta.getBaseHash(deltaFile);
+        }
+        if(deltaFiles.isEmpty()){
+            restoreCompleteContent(currentHash, target);
+            return;
+        }
+        File baseFile = getObjectFile(currentHash);
+        File tempFile = null;
+        new File(OBJECTS_FOLDER_PATH).mkdirs();
+        try{
+            if(!baseFile.exists()){
+                tempFile = File.createTempFile("restore", ".temp", new File(OBJECTS_FOLDER_PATH));
+                BackupArchive.extract(currentHash, tempFile);
+                baseFile = tempFile;
+            }
+            for(int i=deltaFiles.size()-1; i>=0; i--){
+                File outputFile = i == 0 ? target : File.createTempFile("restore", ".temp", new File(OBJECTS_FOLDER_PATH));
+                BlockDelta.applyDelta(deltaFiles.get(i), baseFile, outputFile);
+                if(tempFile != null){
+                    tempFile.delete();
+                }
+                tempFile = i == 0 ? null : outputFile;
+                baseFile = outputFile;
+            }
+        }finally{
+            if(tempFile != null){
+                tempFile.delete();
+            }
+        }
+    }
+
+    private static void restoreCompleteContent(String hash, File target) throws IOException {
+        File objectFile = getObjectFile(hash);
+        if(objectFile.exists()){
+            Files.copy(objectFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }else{
+            BackupArchive.extract(hash, target);
+        }
+    }
+
+    private static Map<String, String> loadManifest(String manifestName) throws IOException {
+        Map<String, String> manifest = MANIFESTS.get(manifestName);
+        if(manifest != null){
+            return manifest;
+        }
+        manifest = new TreeMap<>();
+        File manifestFile = getManifestFile(manifestName);
+        if(!manifestName.isEmpty() && manifestFile.exists()){
+            String fileName = null;
+            for(String line : Files.readAllLines(manifestFile.toPath(), StandardCharsets.UTF_8)){
+                if(line.startsWith(FILE_KEY)){
+                    fileName = line.substring(FILE_KEY.length());
+                }else if(line.startsWith(HASH_KEY) && fileName != null){
+                    manifest.put(fileName, line.substring(HASH_KEY.length()));
+                    fileName = null;
+                }
+            }
+        }
+        MANIFESTS.put(manifestName, manifest);
+        return manifest;
+    }
+
+    private static void writeManifest(String manifestName, Map<String, String> manifest) throws IOException {
+        File manifestFile = getManifestFile(manifestName);
+        manifestFile.getParentFile().mkdirs();
+        AtomicFileWriter.writeFile(manifestFile, StandardCharsets.UTF_8, bw -> {
+            for(Map.Entry<String, String> entry : manifest.entrySet()){
+                bw.write(FILE_KEY + entry.getKey());bw.write(System.getProperty("line.separator"));
+                bw.write(HASH_KEY + entry.getValue());bw.write(System.getProperty("line.separator"));
+            }
+        });
+    }
+
+    private static File getManifestFile(String manifestName){
+        return new File(MANIFESTS_FOLDER_PATH + manifestName + MANIFEST_FILE_ENDING);
+    }
+
+    /**
+     * @return Returns the SHA-256 hash of the content of the file.
+     */
+    public static String getHash(File file) throws IOException {
+        MessageDigest messageDigest = getMessageDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try(InputStream inputStream = new FileInputStream(file)){
+            int length;
+            while((length = inputStream.read(buffer)) != -1){
+                messageDigest.update(buffer, 0, length);
+            }
+        }
+        return toHex(messageDigest.digest());
+    }
+
+    private static void moveFile(File source, File target) throws IOException {
+        TaskProgress.addBytesWritten(source.length());
+        try{
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }catch(AtomicMoveNotSupportedException e){
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest getMessageDigest(){
+        try{
+            return MessageDigest.getInstance("SHA-256");
+        }catch(NoSuchAlgorithmException e){
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes){
+        StringBuilder stringBuilder = new StringBuilder(bytes.length*2);
+        for(byte b : bytes){
+            stringBuilder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,237 @@
+package com.github.lmh01.mgt2mt.util;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describes the content of a file as the difference to a base file.
+ * The base file is split into blocks. The blocks are searched in the content with a rolling checksum, the found blocks are copied from the base file and the remaining bytes are written to the delta.
+ * A delta file contains a header with the hash of the base content and the length of the delta chain followed by the copy and insert operations.
+ */
+public class BlockDelta {
+    public static final int BLOCK_SIZE = 2048;
+    private static final int VERSION = 1;
+    private static final int OPERATION_END = 0;
+    private static final int OPERATION_COPY = 1;
+    private static final int OPERATION_INSERT = 2;
+    private static final int BUFFER_SIZE = 64*1024;
+
+    /**
+     * Writes the delta between the base and the content to the delta file.
+     * @param base The content of the base file
+     * @param content The content that should be described
+     * @param baseHash The hash of the base content
+     * @param chainLength The number of deltas that have to be applied to restore the content. Is 1 when the base is a full file.
+     * @param deltaFile The file the delta is written to
+     * @return Returns the number of bytes that have been written to the delta file as inserts.
+     */
+    public static long writeDelta(byte[] base, byte[] content, String baseHash, int chainLength, File deltaFile) throws IOException {
+        Map<Integer, List<Integer>> blocksByChecksum = new HashMap<>();
+        for(int block=0; (block+1)*BLOCK_SIZE <= base.length; block++){
+            blocksByChecksum.computeIfAbsent(getChecksum(base, block*BLOCK_SIZE), key -> new ArrayList<>()).add(block);
+        }
+        long insertedBytes = 0;
+        try(DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(deltaFile), BUFFER_SIZE))){
+            dos.writeInt(VERSION);
+            dos.writeUTF(baseHash);
+            dos.writeInt(chainLength);
+            dos.writeLong(content.length);
+            int position = 0;
+            int literalStart = 0;
+            long copyOffset = -1;
+            int copyLength = 0;
+            int a = 0;
+            int b = 0;
+            boolean checksumValid = false;
+            while(position + BLOCK_SIZE <= content.length){
+                if(!checksumValid){
+                    a = 0;
+                    b = 0;
+                    for(int i=0; i<BLOCK_SIZE; i++){
+                        a += content[position+i] & 0xFF;
+                        b += (BLOCK_SIZE-i) * (content[position+i] & 0xFF);
+                    }
+                    checksumValid = true;
+                }
+                int block = findBlock(blocksByChecksum.get(((b & 0xFFFF) << 16) | (a & 0xFFFF)), base, content, position);
+                if(block != -1){
+                    if(literalStart < position){
+                        if(copyLength > 0){
+                            writeCopy(dos, copyOffset, copyLength);
+                            copyLength = 0;
+                        }
+                        writeInsert(dos, content, literalStart, position - literalStart);
+                        insertedBytes += position - literalStart;
+                    }
+                    long offset = (long) block * BLOCK_SIZE;
+                    if(copyLength > 0 && copyOffset + copyLength == offset && copyLength <= Integer.MAX_VALUE - BLOCK_SIZE){
+                        copyLength += BLOCK_SIZE;
+                    }else{
+                        if(copyLength > 0){
+                            writeCopy(dos, copyOffset, copyLength);
+                        }
+                        copyOffset = offset;
+                        copyLength = BLOCK_SIZE;
+                    }
+                    position += BLOCK_SIZE;
+                    literalStart = position;
+                    checksumValid = false;
+                }else{
+                    if(position + BLOCK_SIZE < content.length){
+                        int removed = content[position] & 0xFF;
+                        int added = content[position+BLOCK_SIZE] & 0xFF;
+                        a += added - removed;
+                        b += a - BLOCK_SIZE*removed;
+                    }
+                    position++;
+                }
+            }
+            if(copyLength > 0){
+                writeCopy(dos, copyOffset, copyLength);
+            }
+            if(literalStart < content.length){
+                writeInsert(dos, content, literalStart, content.length - literalStart);
+                insertedBytes += content.length - literalStart;
+            }
+            dos.writeByte(OPERATION_END);
+        }
+        return insertedBytes;
+    }
+
+    /**
+     * @return Returns the hash of the base content of the delta file.
+     */
+    public static String getBaseHash(File deltaFile) throws IOException {
+        try(DataInputStream dis = openDelta(deltaFile)){
+            return dis.readUTF();
+        }
+    }
+
+    /**
+     * @return Returns the number of deltas that have to be applied to restore the content of the delta file.
+     */
+    public static int getChainLength(File deltaFile) throws IOException {
+        try(DataInputStream dis = openDelta(deltaFile)){
+            dis.readUTF();
+            return dis.readInt();
+        }
+    }
+
+    /**
+     * Restores the content by applying the delta file to the base file.
+     * @param deltaFile The delta file
+     * @param baseFile The file that contains the base content
+     * @param target The file the content is written to
+     */
+    public static void applyDelta(File deltaFile, File baseFile, File target) throws IOException {
+        try(DataInputStream dis = openDelta(deltaFile);
+            RandomAccessFile baseAccess = new RandomAccessFile(baseFile, "r");
+            OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(target), BUFFER_SIZE)){
+            dis.readUTF();
+            dis.readInt();
+            long length = dis.readLong();
+            long writtenBytes = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int operation;
+            while((operation = dis.readByte()) != OPERATION_END){
+                if(operation == OPERATION_COPY){
+                    long offset = dis.readLong();
+                    int copyLength = dis.readInt();
+                    baseAccess.seek(offset);
+                    int remaining = copyLength;
+                    while(remaining > 0){
+                        int read = baseAccess.read(buffer, 0, Math.min(buffer.length, remaining));
+                        if(read == -1){
+                            throw new EOFException("The base file is shorter than expected: " + baseFile.getPath());
+                        }
+                        outputStream.write(buffer, 0, read);
+                        remaining -= read;
+                    }
+                    writtenBytes += copyLength;
+                }else if(operation == OPERATION_INSERT){
+                    int insertLength = dis.readInt();
+                    int remaining = insertLength;
+                    while(remaining > 0){
+                        int read = dis.read(buffer, 0, Math.min(buffer.length, remaining));
+                        if(read == -1){
+                            throw new EOFException("The delta file is truncated: " + deltaFile.getPath());
+                        }
+                        outputStream.write(buffer, 0, read);
+                        remaining -= read;
+                    }
+                    writtenBytes += insertLength;
+                }else{
+                    throw new IOException("The delta file is corrupted: " + deltaFile.getPath());
+                }
+            }
+            if(writtenBytes != length){
+                throw new IOException("The restored content has the wrong length: " + writtenBytes + " instead of " + length);
+            }
+        }
+    }
+
+    private static DataInputStream openDelta(File deltaFile) throws IOException {
+        DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(deltaFile), BUFFER_SIZE));
+        try{
+            int version = dis.readInt();
+            if(version != VERSION){
+                throw new IOException("Unsupported delta file version " + version + ": " + deltaFile.getPath());
+            }
+        }catch(IOException e){
+            dis.close();
+            throw e;
+        }
+        return dis;
+    }
+
+    private static void writeCopy(DataOutputStream dos, long offset, int length) throws IOException {
+        dos.writeByte(OPERATION_COPY);
+        dos.writeLong(offset);
+        dos.writeInt(length);
+    }
+
+    private static void writeInsert(DataOutputStream dos, byte[] content, int offset, int length) throws IOException {
+        dos.writeByte(OPERATION_INSERT);
+        dos.writeInt(length);
+        dos.write(content, offset, length);
+    }
+
+    /**
+     * @return Returns the first block of the base that contains the same bytes as the content at the position. Returns -1 when no block matches.
+     */
+    private static int findBlock(List<Integer> blocks, byte[] base, byte[] content, int position){
+        if(blocks == null){
+            return -1;
+        }
+        for(int block : blocks){
+            int offset = block*BLOCK_SIZE;
+            boolean equal = true;
+            for(int i=0; i<BLOCK_SIZE; i++){
+                if(base[offset+i] != content[position+i]){
+                    equal = false;
+                    break;
+                }
+            }
+            if(equal){
+                return block;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return Returns the rolling checksum of the block that starts at the offset.
+     */
+    private static int getChecksum(byte[] bytes, int offset){
+        int a = 0;
+        int b = 0;
+        for(int i=0; i<BLOCK_SIZE; i++){
+            a += bytes[offset+i] & 0xFF;
+            b += (BLOCK_SIZE-i) * (bytes[offset+i] & 0xFF);
+        }
+        return ((b & 0xFFFF) << 16) | (a & 0xFFFF);
+    }
+}
@@ -0,0 +1,374 @@
+package com.github.lmh01.mgt2mt.util;
+
+import com.github.lmh01.mgt2mt.MadGamesTycoon2ModTool;
+import com.github.lmh01.mgt2mt.core.ModEngine;
+import com.github.lmh01.mgt2mt.util.interfaces.EngineListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.*;
+
+/**
+ * Runs the tool without gui when it is started with arguments, so that modded setups can be provisioned by scripts.
+ * Every result is written as one line to the standard output: the status, the type and the name separated by tabs, optionally followed by a message. The last line is the summary.
+ * The log is written to the error output. No dialog is shown: the tool runs headless, so that a dialog that is still shown somewhere fails the entry instead of waiting for input.
+ */
+public class CommandLine {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CommandLine.class);
+    public static final int EXIT_SUCCESS = 0;
+    public static final int EXIT_FAILED_ENTRIES = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_ERROR = 3;
+    public static final String STATUS_OK = "ok";
+    public static final String STATUS_PLANNED = "planned";
+    public static final String STATUS_SKIPPED = "skipped";
+    public static final String STATUS_WARNING = "warning";
+    public static final String STATUS_FAILED = "failed";
+    private static final String USAGE = "Usage: MGT2_Mod_Tool [--game <folder>] [--no-backup] [--dry-run] <command> [arguments]" + System.getProperty("line.separator") +
+            "Commands:" + System.getProperty("line.separator") +
+            "  import-all <folder>...        Imports all mods in the folders and their subfolders" + System.getProperty("line.separator") +
+            "  export-all                    Exports all custom entries" + System.getProperty("line.separator") +
+            "  backup [full|genre|theme|save_game]" + System.getProperty("line.separator") +
+            "  restore [initial|latest]      Restores the game files" + System.getProperty("line.separator") +
+            "  remove <type> <name>...       Removes custom entries. Types: " + String.join(", ", ImportPipeline.TYPES) + System.getProperty("line.separator") +
+            "  verify                        Checks that the game files can be read and that the backups are complete" + System.getProperty("line.separator") +
+            "Exit codes: " + EXIT_SUCCESS + " success, " + EXIT_FAILED_ENTRIES + " some entries failed, " + EXIT_USAGE + " invalid arguments, " + EXIT_ERROR + " the command could not be run";
+
+    /**
+     * Runs the command and writes the results to the standard output.
+     * @param args The arguments the tool has been started with
+     * @return Returns the exit code.
+     */
+    public static int run(String[] args){
+        System.setProperty("java.awt.headless", "true");
+        return run(args, System.out);
+    }
+
+    /**
+     * Runs the command.
+     * @param args The arguments. Eg. --game "C:\Games\Mad Games Tycoon 2" import-all mods
+     * @param out The stream the results are written to
+     * @return Returns the exit code.
+     */
+    public static int run(String[] args, PrintStream out){
+        String gameFolder = null;
+        boolean createBackup = true;
+        boolean dryRun = false;
+        List<String> arguments = new ArrayList<>();
+        for(int i=0; i<args.length; i++){
+            switch(args[i]){
+                case "--game":
+                    if(i+1 == args.length){
+                        return usage(out, "--game requires a folder");
+                    }
+                    gameFolder = args[++i];
+                    break;
+                case "--no-backup":
+                    createBackup = false;
+                    break;
+                case "--dry-run":
+                    dryRun = true;
+                    break;
+                case "--help":
+                    out.println(USAGE);
+                    return EXIT_SUCCESS;
+                default:
+                    arguments.add(args[i]);
+            }
+        }
+        if(arguments.isEmpty()){
+            return usage(out, "No command has been specified");
+        }
+        String command = arguments.remove(0);
+        Results results = new Results(out);
+        try{
+            //Missing settings are not reset: the reset searches the game folder with dialogs and writes settings.txt
+            boolean settingsImported = Settings.importSettingsWithoutReset();
+            if(gameFolder != null){
+                Settings.mgt2FilePath = gameFolder;
+                Settings.enableCustomFolder = true;
+            }else if(!settingsImported && !Settings.detectMgt2Folder()){
+                return usage(out, "The Mad Games Tycoon 2 folder could not be detected, use --game to set it");
+            }
+        }catch(IOException | RuntimeException e){
+            e.printStackTrace();
+            results.add(STATUS_FAILED, "settings", "-", e.getMessage());
+            results.printSummary();
+            return EXIT_ERROR;
+        }
+        if(!ModEngine.isGameFolder(Settings.mgt2FilePath)){
+            return usage(out, "The folder does not contain Mad Games Tycoon 2: " + Settings.mgt2FilePath);
+        }
+        Settings.madGamesTycoonFolderIsCorrect = true;
+        LOGGER.info("Running command " + command + " for " + Settings.mgt2FilePath);
+        //Nothing is asked on the command line, --dry-run is used to see the changes before they are made
+        ModEngine engine = new ModEngine(Settings.mgt2FilePath, new EngineListener() {
+            @Override
+            public void progress(String stage, int current, int total){
+                ImportPipeline.LOG_PROGRESS.progress(stage, current, total);
+            }
+
+            @Override
+            public boolean confirm(String title, String message){
+                return true;
+            }
+        });
+        try{
+            switch(command){
+                case "import-all":
+                    if(arguments.isEmpty()){
+                        return usage(out, "import-all requires at least one folder");
+                    }
+                    if(!dryRun && !prepareChanges(engine, results, createBackup)){
+                        return EXIT_ERROR;
+                    }
+                    importAll(engine, results, arguments, dryRun);
+                    break;
+                case "export-all":
+                    exportAll(engine, results);
+                    break;
+                case "backup":
+                    String backupType = arguments.isEmpty() ? "full" : arguments.get(0);
+                    if(!Arrays.asList(ModEngine.BACKUP_FULL, ModEngine.BACKUP_GENRE, ModEngine.BACKUP_THEME, ModEngine.BACKUP_SAVE_GAME).contains(backupType)){
+                        return usage(out, "Unknown backup type: " + backupType);
+                    }
+                    if(!prepareChanges(engine, results, false)){
+                        return EXIT_ERROR;
+                    }
+                    backup(engine, results, backupType);
+                    break;
+                case "restore":
+                    String backupName = arguments.isEmpty() ? "latest" : arguments.get(0);
+                    if(!backupName.equals("initial") && !backupName.equals("latest")){
+                        return usage(out, "Unknown backup: " + backupName);
+                    }
+                    if(!prepareChanges(engine, results, false)){
+                        return EXIT_ERROR;
+                    }
+                    restore(engine, results, backupName);
+                    break;
+                case "remove":
+                    if(arguments.size() < 2 || !Arrays.asList(ImportPipeline.TYPES).contains(arguments.get(0))){
+                        return usage(out, "remove requires a type and at least one name");
+                    }
+                    if(!prepareChanges(engine, results, createBackup)){
+                        return EXIT_ERROR;
+                    }
+                    remove(engine, results, arguments.get(0), arguments.subList(1, arguments.size()));
+                    break;
+                case "verify":
+                    verify(engine, results);
+                    break;
+                default:
+                    return usage(out, "Unknown command: " + command);
+            }
+        }catch(IOException | RuntimeException e){
+            e.printStackTrace();
+            results.add(STATUS_FAILED, "command", command, e.getMessage());
+            results.printSummary();
+            return EXIT_ERROR;
+        }
+        results.printSummary();
+        return results.failed > 0 ? EXIT_FAILED_ENTRIES : EXIT_SUCCESS;
+    }
+
+    /**
+     * Completes the changes that have been interrupted and creates the backups that are created by the gui before the game files are changed.
+     * @param createBackup True when a full backup should be created
+     * @return Returns false when a backup could not be created.
+     */
+    private static boolean prepareChanges(ModEngine engine, Results results, boolean createBackup){
+        String backupName = "initial";
+        try{
+            for(File file : engine.recover()){
+                results.add(STATUS_WARNING, "file", file.getName(), "The interrupted changes to the file have been recovered");
+            }
+            if(createBackup){
+                backupName = ModEngine.BACKUP_FULL;
+                engine.backup(ModEngine.BACKUP_FULL);
+            }
+        }catch(IOException e){
+            e.printStackTrace();
+            results.add(STATUS_FAILED, "backup", backupName, e.getMessage());
+            results.printSummary();
+            return false;
+        }
+        return true;
+    }
+
+    private static void importAll(ModEngine engine, Results results, List<String> folders, boolean dryRun) throws IOException {
+        List<File> directories = new ArrayList<>();
+        for(String folder : folders){
+            directories.add(new File(folder));
+        }
+        List<File> failedFiles = new ArrayList<>();
+        List<ImportCandidate> candidates = engine.prepareImport(directories, failedFiles);
+        for(File file : failedFiles){
+            results.add(STATUS_FAILED, "file", file.getPath(), "The mod could not be read");
+        }
+        if(dryRun){
+            ImportPlan importPlan = engine.planImport(candidates);
+            for(ImportCandidate candidate : candidates){
+                addImportResult(results, candidate, STATUS_PLANNED);
+            }
+            for(Map.Entry<String, List<String>> file : importPlan.getAddedRecords().entrySet()){
+                for(String record : file.getValue()){
+                    results.add("added", "file", file.getKey(), record);
+                }
+            }
+            for(Map.Entry<String, List<String>> file : importPlan.getChangedRecords().entrySet()){
+                for(String record : file.getValue()){
+                    results.add("changed", "file", file.getKey(), record);
+                }
+            }
+            for(String themeLineChange : importPlan.getThemeLineChanges()){
+                results.add("changed", "theme", "-", themeLineChange);
+            }
+            for(String copiedImage : importPlan.getCopiedImages()){
+                results.add("copied", "image", "-", copiedImage);
+            }
+            return;
+        }
+        engine.importMods(candidates);
+        for(ImportCandidate candidate : candidates){
+            addImportResult(results, candidate, STATUS_OK);
+        }
+    }
+
+    /**
+     * @param successStatus The status of a mod that has been imported or would be imported
+     */
+    private static void addImportResult(Results results, ImportCandidate candidate, String successStatus){
+        String returnValue = candidate.getReturnValue();
+        if(returnValue == null){
+            results.add(successStatus.equals(STATUS_PLANNED) ? STATUS_PLANNED : STATUS_FAILED, candidate.getType(), candidate.getName(), successStatus.equals(STATUS_PLANNED) ? "" : "Error while importing, see log");
+        }else if(returnValue.equals("true")){
+            results.add(successStatus, candidate.getType(), candidate.getName(), "");
+        }else if(returnValue.equals("false")){
+            results.add(STATUS_SKIPPED, candidate.getType(), candidate.getName(), "Already exists");
+        }else{
+            results.add(STATUS_FAILED, candidate.getType(), candidate.getName(), returnValue);
+        }
+        for(String reference : candidate.getUnresolvedReferences()){
+            results.add(STATUS_WARNING, candidate.getType(), candidate.getName(), "Unresolved reference " + reference);
+        }
+    }
+
+    private static void exportAll(ModEngine engine, Results results) throws IOException {
+        for(String type : ImportPipeline.TYPES){
+            for(String name : engine.getCustomEntries(type)){
+                try{
+                    if(engine.export(type, name)){
+                        results.add(STATUS_OK, type, name, "");
+                    }else{
+                        results.add(STATUS_SKIPPED, type, name, "Already exported");
+                    }
+                }catch(IOException | RuntimeException e){
+                    e.printStackTrace();
+                    results.add(STATUS_FAILED, type, name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void backup(ModEngine engine, Results results, String backupType) throws IOException {
+        results.add(STATUS_OK, "backup", backupType, engine.backup(backupType) + " unchanged file(s) skipped");
+    }
+
+    private static void restore(ModEngine engine, Results results, String backupName) throws IOException {
+        List<String> restoredFiles = engine.restore(backupName.equals("initial"));
+        for(File file : Backup.getGameFiles()){
+            if(restoredFiles.contains(file.getName())){
+                results.add(STATUS_OK, "file", file.getName(), "Restored from backup " + backupName);
+            }else{
+                results.add(STATUS_SKIPPED, "file", file.getName(), "Unchanged");
+            }
+        }
+    }
+
+    private static void remove(ModEngine engine, Results results, String type, List<String> names) throws IOException {
+        //The game files are written once when all entries have been removed
+        engine.commit(() -> {
+            for(String name : names){
+                try{
+                    if(engine.remove(type, name)){
+                        results.add(STATUS_OK, type, name, "Removed");
+                    }else{
+                        results.add(STATUS_FAILED, type, name, "Could not be removed");
+                    }
+                }catch(IOException | RuntimeException e){
+                    e.printStackTrace();
+                    results.add(STATUS_FAILED, type, name, e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Checks that each game file can be read and that the content of each backup can be restored.
+     */
+    private static void verify(ModEngine engine, Results results){
+        for(String type : ImportPipeline.TYPES){
+            try{
+                results.add(STATUS_OK, type, "-", engine.getEntries(type).size() + " entries");
+            }catch(IOException | RuntimeException e){
+                results.add(STATUS_FAILED, type, "-", e.getMessage());
+            }
+        }
+        try{
+            for(Map.Entry<String, String> backupFile : engine.verifyBackups().entrySet()){
+                results.add(backupFile.getValue().isEmpty() ? STATUS_OK : STATUS_FAILED, "backup", backupFile.getKey(), backupFile.getValue());
+            }
+        }catch(IOException e){
+            results.add(STATUS_FAILED, "backup", "-", e.getMessage());
+        }
+    }
+
+    private static int usage(PrintStream out, String message){
+        out.println(STATUS_FAILED + "\tusage\t-\t" + message);
+        out.println(USAGE);
+        return EXIT_USAGE;
+    }
+
+    /**
+     * Writes the results and counts them by their status.
+     */
+    private static class Results {
+        private final PrintStream out;
+        private int ok = 0;
+        private int skipped = 0;
+        private int failed = 0;
+
+        private Results(PrintStream out){
+            this.out = out;
+        }
+
+        private void add(String status, String type, String name, String message){
+            if(status.equals(STATUS_FAILED)){
+                failed++;
+            }else if(status.equals(STATUS_SKIPPED)){
+                skipped++;
+            }else if(status.equals(STATUS_OK) || status.equals(STATUS_PLANNED)){
+                ok++;
+            }
+            StringBuilder line = new StringBuilder().append(status).append('\t').append(type).append('\t').append(clean(name));
+            if(message != null && !message.isEmpty()){
+                line.append('\t').append(clean(message));
+            }
+            out.println(line);
+        }
+
+        private void printSummary(){
+            out.println("summary\t" + MadGamesTycoon2ModTool.VERSION + "\tok=" + ok + "\tskipped=" + skipped + "\tfailed=" + failed);
+        }
+
+        /**
+         * Tabs and line breaks would break the columns.
+         */
+        private static String clean(String string){
+            return String.valueOf(string).replaceAll("[\t\r\n]+", " ").trim();
+        }
+    }
+}
@@ -161,11 +161,13 @@ public class GenreManager {
             }
             if(continueAnyway | imageFileAccessedSuccess){
                 try {
-                    EditGenreFile.addGenre(map, genreTranslations);
-                    EditThemeFiles.editGenreAllocation(Integer.parseInt(map.get("ID")), true, compatibleThemeIds);
-                    EditGameplayFeaturesFile.addGenreId(gameplayFeaturesGoodIds, Integer.parseInt(map.get("ID")), true);
-                    AnalyzeExistingGameplayFeatures.analyzeGameplayFeatures();
-                    EditGameplayFeaturesFile.addGenreId(gameplayFeaturesBadIds, Integer.parseInt(map.get("ID")), false);
+                    GameDataRepository.INSTANCE.runInTransaction(() -> {
+                        EditGenreFile.addGenre(map, genreTranslations);
+                        EditThemeFiles.editGenreAllocation(Integer.parseInt(map.get("ID")), true, compatibleThemeIds);
+                        EditGameplayFeaturesFile.addGenreId(gameplayFeaturesGoodIds, Integer.parseInt(map.get("ID")), true);
+                        AnalyzeExistingGameplayFeatures.analyzeGameplayFeatures();
+                        EditGameplayFeaturesFile.addGenreId(gameplayFeaturesBadIds, Integer.parseInt(map.get("ID")), false);
+                    });
                     GenreManager.genreAdded(map, showSummaryFromImport, genreIcon, showMessages);
                 } catch (IOException e) {
                     e.printStackTrace();
@@ -0,0 +1,89 @@
+package com.github.lmh01.mgt2mt.util;
+
+import com.github.lmh01.mgt2mt.data_stream.DataStreamHelper;
+import com.github.lmh01.mgt2mt.data_stream.ModPackage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A mod that has been found by the {@link ImportPipeline}. Contains the parsed data file and the result of the import.
+ */
+public class ImportCandidate {
+    private final File file;
+    private final String type;
+    private final Map<String, String> data;
+    private final List<String> unresolvedReferences = new ArrayList<>();
+    private String returnValue;
+
+    private ImportCandidate(File file, String type, Map<String, String> data){
+        this.file = file;
+        this.type = type;
+        this.data = data;
+    }
+
+    /**
+     * Reads the data file of the mod.
+     * @param file The data file (eg. genre.txt) or the mod package
+     */
+    public static ImportCandidate read(File file) throws IOException {
+        if(ModPackage.isPackage(file)){
+            ModPackage modPackage = ModPackage.open(file);
+            return new ImportCandidate(file, modPackage.getType(), modPackage.readData());
+        }
+        String type = file.getName().substring(0, file.getName().length() - ".txt".length());
+        return new ImportCandidate(file, type, DataStreamHelper.parseDataFile(file).get(0));
+    }
+
+    public File getFile(){
+        return file;
+    }
+
+    /**
+     * @return Returns the file that is passed to the import function: the mod package or the folder that contains the data file.
+     */
+    public File getImportFile(){
+        return ModPackage.isPackage(file) ? file : file.getParentFile();
+    }
+
+    /**
+     * @return Returns the type of the mod. Eg. {@link ModPackage#TYPE_GENRE}
+     */
+    public String getType(){
+        return type;
+    }
+
+    public Map<String, String> getData(){
+        return data;
+    }
+
+    public String getName(){
+        return data.get("NAME EN");
+    }
+
+    /**
+     * @return Returns the references to other mods that are neither installed nor imported with this mod. Eg. genre: Racing. See {@link ImportDependencies}.
+     */
+    public List<String> getUnresolvedReferences(){
+        return unresolvedReferences;
+    }
+
+    public void addUnresolvedReference(String reference){
+        if(!unresolvedReferences.contains(reference)){
+            unresolvedReferences.add(reference);
+        }
+    }
+
+    /**
+     * @return Returns the return value of the import function: "true" when the mod has been imported, "false" when the mod already exists or a message why the mod can not be imported. Returns null when the mod has not been imported.
+     */
+    public String getReturnValue(){
+        return returnValue;
+    }
+
+    public void setReturnValue(String returnValue){
+        this.returnValue = returnValue;
+    }
+}
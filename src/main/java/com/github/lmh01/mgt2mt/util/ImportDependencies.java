@@ -0,0 +1,192 @@
+package com.github.lmh01.mgt2mt.util;
+
+import com.github.lmh01.mgt2mt.data_stream.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Resolves the references between the mods of a batch import. Eg. a publisher references its genre, a genre references themes and gameplay features by their names.
+ * The mods are imported after the mods they reference, so that the references can be resolved against the mods that have already been imported in the same batch.
+ * References are written as keys: the type of the mod, a colon and the name. Eg. genre:Racing
+ */
+public class ImportDependencies {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportDependencies.class);
+
+    /**
+     * Orders the mods so that every mod comes after the mods it references. Mods that do not reference each other stay in the order of {@link ImportPipeline#TYPES}.
+     * When mods reference each other (eg. a genre and a theme) the mod that comes first in that order is imported first. The relation is still created because both mods contain it.
+     * References that are neither installed nor part of the batch are added to {@link ImportCandidate#getUnresolvedReferences()}.
+     * @param candidates The mods that should be imported
+     * @return Returns the mods in the order in which they should be imported.
+     */
+    public static List<ImportCandidate> sort(List<ImportCandidate> candidates) throws IOException {
+        List<ImportCandidate> orderedCandidates = new ArrayList<>();
+        for(String type : ImportPipeline.TYPES){
+            for(ImportCandidate candidate : candidates){
+                if(candidate.getType().equals(type)){
+                    orderedCandidates.add(candidate);
+                }
+            }
+        }
+        Set<String> installedKeys = getInstalledKeys();
+        Map<String, Integer> candidatesByKey = new HashMap<>();
+        for(int i=0; i<orderedCandidates.size(); i++){
+            candidatesByKey.putIfAbsent(getKey(orderedCandidates.get(i)), i);
+        }
+        List<Set<Integer>> dependencies = new ArrayList<>();
+        List<List<Integer>> dependents = new ArrayList<>();
+        for(int i=0; i<orderedCandidates.size(); i++){
+            dependencies.add(new HashSet<>());
+            dependents.add(new ArrayList<>());
+        }
+        for(int i=0; i<orderedCandidates.size(); i++){
+            for(String reference : getReferences(orderedCandidates.get(i))){
+                Integer dependency = candidatesByKey.get(reference);
+                if(dependency != null){
+                    if(dependency != i && dependencies.get(i).add(dependency)){
+                        dependents.get(dependency).add(i);
+                    }
+                }else if(!installedKeys.contains(reference)){
+                    LOGGER.info(orderedCandidates.get(i).getName() + " references " + reference + ", which is neither installed nor imported");
+                    orderedCandidates.get(i).addUnresolvedReference(reference.replaceFirst(":", ": "));
+                }
+            }
+        }
+        List<ImportCandidate> sortedCandidates = new ArrayList<>();
+        TreeSet<Integer> remainingCandidates = new TreeSet<>();
+        for(int i=0; i<orderedCandidates.size(); i++){
+            remainingCandidates.add(i);
+        }
+        while(!remainingCandidates.isEmpty()){
+            Integer next = null;
+            for(Integer candidate : remainingCandidates){
+                if(dependencies.get(candidate).isEmpty()){
+                    next = candidate;
+                    break;
+                }
+            }
+            if(next == null){
+                next = remainingCandidates.first();
+                LOGGER.info(orderedCandidates.get(next).getName() + " is imported before the mods it references, because they reference each other");
+            }
+            remainingCandidates.remove(next);
+            sortedCandidates.add(orderedCandidates.get(next));
+            for(int dependent : dependents.get(next)){
+                dependencies.get(dependent).remove(next);
+            }
+        }
+        return sortedCandidates;
+    }
+
+    /**
+     * Replaces the line numbers in the THEME COMB entries of the genre with the line numbers of the installed themes that have the same german name.
+     * The line numbers of the exported genre refer to the themes of the installation it has been exported from, themes that have been imported in the same batch are found by their name.
+     * Entries whose theme is not installed are not changed.
+     * @param genreData The content of the genre.txt file
+     */
+    public static void resolveThemeReferences(Map<String, String> genreData) throws IOException {
+        String themeComb = genreData.get("THEME COMB");
+        if(themeComb == null || themeComb.isEmpty()){
+            return;
+        }
+        AnalyzeExistingThemes.analyzeThemeFiles();
+        Map<String, Integer> themeIdsByKey = new HashMap<>();
+        for(Map.Entry<Integer, String> theme : AnalyzeExistingThemes.MAP_ACTIVE_THEMES_GE.entrySet()){
+            themeIdsByKey.putIfAbsent(getThemeKey(theme.getValue()), theme.getKey());
+        }
+        StringBuilder resolvedThemeComb = new StringBuilder();
+        for(String entry : Utils.getEntriesFromString(themeComb)){
+            Integer themeId = entry.contains("-") ? themeIdsByKey.get(getThemeKey(entry.substring(0, entry.lastIndexOf('-')))) : null;
+            if(themeId == null){
+                resolvedThemeComb.append("<").append(entry).append(">");
+            }else{
+                resolvedThemeComb.append("<").append(entry, 0, entry.lastIndexOf('-')).append("-").append(AnalyzeExistingThemes.getLineNumberOfThemeGe(themeId)).append(">");
+            }
+        }
+        genreData.put("THEME COMB", resolvedThemeComb.toString());
+    }
+
+    /**
+     * @return Returns the key under which the mod can be referenced.
+     */
+    public static String getKey(ImportCandidate candidate){
+        if(candidate.getType().equals(ModPackage.TYPE_THEME)){
+            return ModPackage.TYPE_THEME + ":" + getThemeKey(candidate.getData().getOrDefault("NAME GE", ""));
+        }
+        return candidate.getType() + ":" + candidate.getName();
+    }
+
+    /**
+     * @return Returns the keys of the mods that are referenced by the mod.
+     */
+    public static Set<String> getReferences(ImportCandidate candidate){
+        Set<String> references = new LinkedHashSet<>();
+        Map<String, String> data = candidate.getData();
+        switch(candidate.getType()){
+            case ModPackage.TYPE_PUBLISHER:
+                if(data.get("GENRE") != null){
+                    references.add(ModPackage.TYPE_GENRE + ":" + data.get("GENRE"));
+                }
+                break;
+            case ModPackage.TYPE_GENRE:
+                addReferences(references, ModPackage.TYPE_GENRE, data.get("GENRE COMB"));
+                addReferences(references, ModPackage.TYPE_GAMEPLAY_FEATURE, data.get("GAMEPLAYFEATURE GOOD"));
+                addReferences(references, ModPackage.TYPE_GAMEPLAY_FEATURE, data.get("GAMEPLAYFEATURE BAD"));
+                if(data.get("THEME COMB") != null){
+                    for(String entry : Utils.getEntriesFromString(data.get("THEME COMB"))){
+                        if(entry.contains("-")){
+                            references.add(ModPackage.TYPE_THEME + ":" + getThemeKey(entry.substring(0, entry.lastIndexOf('-'))));
+                        }
+                    }
+                }
+                break;
+            case ModPackage.TYPE_THEME:
+                addReferences(references, ModPackage.TYPE_GENRE, data.get("GENRE COMB"));
+                break;
+            case ModPackage.TYPE_GAMEPLAY_FEATURE:
+                addReferences(references, ModPackage.TYPE_GENRE, data.get("GOOD"));
+                addReferences(references, ModPackage.TYPE_GENRE, data.get("BAD"));
+                break;
+        }
+        return references;
+    }
+
+    /**
+     * @return Returns the keys of the installed genres, gameplay features and themes.
+     */
+    private static Set<String> getInstalledKeys() throws IOException {
+        Set<String> installedKeys = new HashSet<>();
+        AnalyzeExistingGenres.analyzeGenreFile();
+        for(Map<String, String> genre : AnalyzeExistingGenres.genreList){
+            installedKeys.add(ModPackage.TYPE_GENRE + ":" + genre.get("NAME EN"));
+        }
+        AnalyzeExistingGameplayFeatures.analyzeGameplayFeatures();
+        for(Map<String, String> gameplayFeature : AnalyzeExistingGameplayFeatures.gameplayFeatures){
+            installedKeys.add(ModPackage.TYPE_GAMEPLAY_FEATURE + ":" + gameplayFeature.get("NAME EN"));
+        }
+        AnalyzeExistingThemes.analyzeThemeFiles();
+        for(String theme : AnalyzeExistingThemes.MAP_ACTIVE_THEMES_GE.values()){
+            installedKeys.add(ModPackage.TYPE_THEME + ":" + getThemeKey(theme));
+        }
+        return installedKeys;
+    }
+
+    private static void addReferences(Set<String> references, String type, String names){
+        if(names == null || names.isEmpty()){
+            return;
+        }
+        for(String name : Utils.getEntriesFromString(names)){
+            references.add(type + ":" + name);
+        }
+    }
+
+    /**
+     * Themes are referenced by their german name as it is written in the THEME COMB entries of exported genres: spaces are replaced with underscores, digits and the genre ids are removed.
+     * @return Returns the german name without genre ids, digits and underscores.
+     */
+    static String getThemeKey(String themeNameGe){
+        return themeNameGe.replaceAll("<[^>]*>", "").replace("_", " ").replaceAll("[0-9<>]", "").trim();
+    }
+}
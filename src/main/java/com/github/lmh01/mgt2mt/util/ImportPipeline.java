@@ -0,0 +1,255 @@
+package com.github.lmh01.mgt2mt.util;
+
+import com.github.lmh01.mgt2mt.data_stream.*;
+import com.github.lmh01.mgt2mt.util.interfaces.ImportProgress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Imports many mods at once in stages: the mods are searched and parsed in parallel, conflicts are resolved before anything is imported and every game file is written once when all mods have been imported.
+ */
+public class ImportPipeline {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportPipeline.class);
+    public static final String STAGE_DISCOVER = "Searching mods";
+    public static final String STAGE_PARSE = "Reading mods";
+    public static final String STAGE_RESOLVE = "Checking for conflicts";
+    public static final String STAGE_IMPORT = "Importing mods";
+    public static final String STAGE_COMPLETE = "Import complete";
+    /**
+     * The mod types in the order in which they are imported when the mods do not reference each other. See {@link ImportDependencies}.
+     */
+    public static final String[] TYPES = {ModPackage.TYPE_ENGINE_FEATURE, ModPackage.TYPE_GAMEPLAY_FEATURE, ModPackage.TYPE_GENRE, ModPackage.TYPE_PUBLISHER, ModPackage.TYPE_THEME};
+    public static final ImportProgress LOG_PROGRESS = (stage, current, total) -> LOGGER.info(stage + ": " + current + "/" + total);
+
+    /**
+     * Searches the directories and their subdirectories for data files (eg. genre.txt) and mod packages. The directories are searched in parallel.
+     * @param directories The directories that should be searched
+     * @param progress Receives the number of directories that have been searched
+     * @return Returns the found files sorted by their path.
+     */
+    public static List<File> discover(List<File> directories, ImportProgress progress) throws IOException {
+        Set<String> dataFileNames = new HashSet<>();
+        for(String type : TYPES){
+            dataFileNames.add(ModPackage.getDataFileName(type));
+        }
+        AtomicInteger searchedDirectories = new AtomicInteger();
+        progress.progress(STAGE_DISCOVER, 0, directories.size());
+        List<Callable<List<File>>> tasks = new ArrayList<>();
+        for(File directory : directories){
+            tasks.add(() -> {
+                try(Stream<Path> stream = Files.walk(Paths.get(directory.getPath()), Integer.MAX_VALUE)){
+                    List<File> files = stream
+                            .filter(Files::isRegularFile)
+                            .map(Path::toFile)
+                            .filter(file -> dataFileNames.contains(file.getName()) || ModPackage.isPackage(file))
+                            .collect(Collectors.toList());
+                    progress.progress(STAGE_DISCOVER, searchedDirectories.incrementAndGet(), directories.size());
+                    return files;
+                }
+            });
+        }
+        List<File> files = new ArrayList<>();
+        for(List<File> result : ParallelExecutor.runAll("searching mods", tasks)){
+            files.addAll(result);
+        }
+        files.sort(Comparator.comparing(File::getPath));
+        LOGGER.info(files.size() + " mod(s) have been found");
+        return files;
+    }
+
+    /**
+     * Reads the data files of the mods in parallel. Files that can not be read are skipped. When the progress is cancelled the remaining files are skipped.
+     * @param files The data files and mod packages
+     * @param progress Receives the number of files that have been read. Is called from multiple threads.
+     * @param failedFiles The files that could not be read are added to this list
+     * @return Returns the mods in the order of the files.
+     */
+    public static List<ImportCandidate> parse(List<File> files, ImportProgress progress, List<File> failedFiles){
+        AtomicInteger parsedFiles = new AtomicInteger();
+        progress.progress(STAGE_PARSE, 0, files.size());
+        List<Callable<ImportCandidate>> tasks = new ArrayList<>();
+        for(File file : files){
+            tasks.add(() -> {
+                if(progress.isCancelled()){
+                    return null;
+                }
+                try{
+                    return ImportCandidate.read(file);
+                }catch(IOException | RuntimeException e){
+                    LOGGER.info("Mod could not be read: " + file.getPath() + "; " + e.getMessage());
+                    return null;
+                }finally{
+                    progress.progress(STAGE_PARSE, parsedFiles.incrementAndGet(), files.size());
+                }
+            });
+        }
+        List<ImportCandidate> candidates = new ArrayList<>();
+        List<ImportCandidate> results;
+        try{
+            results = ParallelExecutor.runAll("reading mods", tasks);
+        }catch(IOException e){
+            //The tasks catch their exceptions, this only happens when the thread has been interrupted
+            LOGGER.info("Reading mods has been interrupted: " + e.getMessage());
+            failedFiles.addAll(files);
+            return candidates;
+        }
+        for(int i=0; i<files.size(); i++){
+            if(results.get(i) == null || !Arrays.asList(TYPES).contains(results.get(i).getType())){
+                failedFiles.add(files.get(i));
+            }else{
+                candidates.add(results.get(i));
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Checks the mods before anything is imported. Sets the return value of mods that can not be imported:
+     * "false" when a mod with the name already exists or the mod has been found more than once, a message when the mod has been exported with an incompatible mod tool version.
+     * The existing mods are analyzed once for all mods.
+     */
+    public static void resolveConflicts(List<ImportCandidate> candidates, ImportProgress progress) throws IOException {
+        progress.progress(STAGE_RESOLVE, 0, candidates.size());
+        Map<String, Set<String>> takenNames = new HashMap<>();
+        for(String type : TYPES){
+            takenNames.put(type, getExistingNames(type));
+        }
+        int checkedCandidates = 0;
+        for(ImportCandidate candidate : candidates){
+            String importName = getImportName(candidate.getType());
+            String version = candidate.getData().get("MGT2MT VERSION");
+            if(!Arrays.asList(getCompatibleModToolVersions(candidate.getType())).contains(version) && !Settings.disableSafetyFeatures){
+                candidate.setReturnValue(importName + " [" + candidate.getName() + "] could not be imported:\n" + importName + " is not with the current mod tool version compatible\n" + importName + " was exported in version: " + version);
+            }else if(candidate.getName() == null || !takenNames.get(candidate.getType()).add(candidate.getName())){
+                LOGGER.info(importName + " already exists - " + importName + " name is already taken: " + candidate.getName());
+                candidate.setReturnValue("false");
+            }
+            progress.progress(STAGE_RESOLVE, ++checkedCandidates, candidates.size());
+        }
+    }
+
+    /**
+     * Imports the mods that have no return value yet. Every mod is imported after the mods of the batch it references, see {@link ImportDependencies#sort(List)}. Every game file is written once when all mods have been imported.
+     * A mod that fails to import does not stop the import of the other mods, its return value stays null.
+     * When the progress is cancelled the remaining mods are not imported and their return value stays null. The mods that have already been imported are written.
+     * @param candidates The mods that should be imported
+     * @param showMessages True when message about adding the mods should be shown. False if not.
+     * @return Returns the number of mods that could not be imported because of an error. Mods that have not been imported because the import has been cancelled are not counted.
+     */
+    public static int commit(List<ImportCandidate> candidates, boolean showMessages, ImportProgress progress) throws IOException {
+        List<ImportCandidate> candidatesToImport = new ArrayList<>();
+        for(ImportCandidate candidate : candidates){
+            if(candidate.getReturnValue() == null){
+                candidatesToImport.add(candidate);
+            }
+        }
+        AtomicInteger failedCandidates = new AtomicInteger();
+        progress.progress(STAGE_IMPORT, 0, candidatesToImport.size());
+        GameDataRepository.INSTANCE.runInTransaction(() -> {
+            int importedCandidates = 0;
+            for(ImportCandidate candidate : ImportDependencies.sort(candidatesToImport)){
+                if(progress.isCancelled()){
+                    LOGGER.info("The import has been cancelled: " + importedCandidates + " of " + candidatesToImport.size() + " mod(s) have been processed");
+                    break;
+                }
+                try{
+                    if(candidate.getType().equals(ModPackage.TYPE_GENRE)){
+                        ImportDependencies.resolveThemeReferences(candidate.getData());
+                    }
+                    candidate.setReturnValue(SharingHandler.importData(candidate.getType(), candidate.getImportFile(), candidate.getData(), showMessages));
+                }catch(IOException | RuntimeException e){
+                    e.printStackTrace();
+                    LOGGER.info("Error occurred while importing " + getImportName(candidate.getType()) + " " + candidate.getName() + ": " + e.getMessage());
+                    failedCandidates.incrementAndGet();
+                }
+                progress.progress(STAGE_IMPORT, ++importedCandidates, candidatesToImport.size());
+            }
+        });
+        progress.progress(STAGE_COMPLETE, candidatesToImport.size() - failedCandidates.get(), candidatesToImport.size());
+        return failedCandidates.get();
+    }
+
+    /**
+     * @return Returns the mods by their type. Every type of {@link #TYPES} is contained.
+     */
+    public static Map<String, List<ImportCandidate>> getCandidatesByType(List<ImportCandidate> candidates){
+        Map<String, List<ImportCandidate>> candidatesByType = new LinkedHashMap<>();
+        for(String type : TYPES){
+            candidatesByType.put(type, new ArrayList<>());
+        }
+        for(ImportCandidate candidate : candidates){
+            candidatesByType.get(candidate.getType()).add(candidate);
+        }
+        return candidatesByType;
+    }
+
+    /**
+     * @return Returns the name that is written in some JOptionPanes. Eg. genre, publisher, theme
+     */
+    public static String getImportName(String type){
+        switch(type){
+            case ModPackage.TYPE_ENGINE_FEATURE: return "Engine feature";
+            case ModPackage.TYPE_GAMEPLAY_FEATURE: return "Gameplay feature";
+            case ModPackage.TYPE_GENRE: return "Genre";
+            case ModPackage.TYPE_PUBLISHER: return "Publisher";
+            default: return "Theme";
+        }
+    }
+
+    /**
+     * @return Returns the mod tool versions with which the type can be imported.
+     */
+    public static String[] getCompatibleModToolVersions(String type){
+        switch(type){
+            case ModPackage.TYPE_ENGINE_FEATURE: return SharingManager.ENGINE_FEATURE_IMPORT_COMPATIBLE_MOD_TOOL_VERSIONS;
+            case ModPackage.TYPE_GAMEPLAY_FEATURE: return SharingManager.GAMEPLAY_FEATURE_IMPORT_COMPATIBLE_MOD_TOOL_VERSIONS;
+            case ModPackage.TYPE_GENRE: return SharingManager.GENRE_IMPORT_COMPATIBLE_MOD_TOOL_VERSIONS;
+            case ModPackage.TYPE_PUBLISHER: return SharingManager.PUBLISHER_IMPORT_COMPATIBLE_MOD_TOOL_VERSIONS;
+            default: return SharingManager.THEME_IMPORT_COMPATIBLE_MOD_TOOL_VERSIONS;
+        }
+    }
+
+    /**
+     * @return Returns the values of the existing entries of the type. A mod can not be imported when its name is one of these values, the import functions check the names the same way.
+     */
+    private static Set<String> getExistingNames(String type) throws IOException {
+        Set<String> existingNames = new HashSet<>();
+        List<Map<String, String>> existingEntries;
+        switch(type){
+            case ModPackage.TYPE_ENGINE_FEATURE:
+                AnalyzeExistingEngineFeatures.analyzeEngineFeatures();
+                existingEntries = AnalyzeExistingEngineFeatures.engineFeatures;
+                break;
+            case ModPackage.TYPE_GAMEPLAY_FEATURE:
+                AnalyzeExistingGameplayFeatures.analyzeGameplayFeatures();
+                existingEntries = AnalyzeExistingGameplayFeatures.gameplayFeatures;
+                break;
+            case ModPackage.TYPE_GENRE:
+                AnalyzeExistingGenres.analyzeGenreFile();
+                existingEntries = AnalyzeExistingGenres.genreList;
+                break;
+            case ModPackage.TYPE_PUBLISHER:
+                AnalyzeExistingPublishers.analyzePublisherFile();
+                existingEntries = AnalyzeExistingPublishers.getListMap();
+                break;
+            default:
+                AnalyzeExistingThemes.analyzeThemeFiles();
+                existingNames.addAll(AnalyzeExistingThemes.MAP_ACTIVE_THEMES_EN.values());
+                return existingNames;
+        }
+        for(Map<String, String> existingEntry : existingEntries){
+            existingNames.addAll(existingEntry.values());
+        }
+        return existingNames;
+    }
+}
@@ -0,0 +1,260 @@
+package com.github.lmh01.mgt2mt.util;
+
+import com.github.lmh01.mgt2mt.data_stream.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Describes what an import of the {@link ImportPipeline} would change: the records that are added to the game files and their new ids, the theme lines that are changed, the images that are copied and the mods that can not be imported.
+ * The plan is computed from the analyzed game files. No game file is written, no image is copied and no backup is created.
+ */
+public class ImportPlan {
+    private final Map<String, List<String>> addedRecords = new LinkedHashMap<>();
+    private final Map<String, List<String>> changedRecords = new LinkedHashMap<>();
+    private final List<String> themeLineChanges = new ArrayList<>();
+    private final List<String> copiedImages = new ArrayList<>();
+    private final List<String> conflicts = new ArrayList<>();
+    private int numberOfImportedMods = 0;
+
+    private ImportPlan(){
+
+    }
+
+    /**
+     * Computes the changes that {@link ImportPipeline#commit(List, boolean, com.github.lmh01.mgt2mt.util.interfaces.ImportProgress)} would make. The mods are planned in the order in which they would be imported, so that the ids match the ids the mods would get.
+     * @param candidates The mods that should be imported. Mods that have a return value are listed as conflicts.
+     */
+    public static ImportPlan create(List<ImportCandidate> candidates) throws IOException {
+        ImportPlan plan = new ImportPlan();
+        List<ImportCandidate> candidatesToImport = new ArrayList<>();
+        for(ImportCandidate candidate : candidates){
+            if(candidate.getReturnValue() == null){
+                candidatesToImport.add(candidate);
+            }else if(candidate.getReturnValue().equals("false")){
+                plan.conflicts.add(ImportPipeline.getImportName(candidate.getType()) + " [" + candidate.getName() + "] already exists and is skipped");
+            }else{
+                plan.conflicts.add(candidate.getReturnValue().replace("\n", " "));
+            }
+        }
+        List<ImportCandidate> sortedCandidates = ImportDependencies.sort(candidatesToImport);
+        AnalyzeExistingGenres.analyzeGenreFile();
+        AnalyzeExistingPublishers.analyzePublisherFile();
+        AnalyzeExistingThemes.analyzeThemeFiles();
+        AnalyzeExistingEngineFeatures.analyzeEngineFeatures();
+        AnalyzeExistingGameplayFeatures.analyzeGameplayFeatures();
+        int nextGenreId = AnalyzeExistingGenres.getFreeGenreID();
+        int nextPublisherId = AnalyzeExistingPublishers.getFreePublisherId();
+        int nextEngineFeatureId = AnalyzeExistingEngineFeatures.getFreeEngineFeatureId();
+        int nextGameplayFeatureId = AnalyzeExistingGameplayFeatures.getFreeGameplayFeatureId();
+        int nextLogoNumber = AnalyzeCompanyLogos.getLogoNumber();
+        int nextThemeId = AnalyzeExistingThemes.MAP_ACTIVE_THEMES_GE.size();
+        Map<String, Integer> genreIds = getIdsByName(AnalyzeExistingGenres.genreList);
+        Map<String, Integer> gameplayFeatureIds = getIdsByName(AnalyzeExistingGameplayFeatures.gameplayFeatures);
+        Map<String, Integer> themeIds = new HashMap<>();
+        for(Map.Entry<Integer, String> theme : AnalyzeExistingThemes.MAP_ACTIVE_THEMES_GE.entrySet()){
+            themeIds.putIfAbsent(ImportDependencies.getThemeKey(theme.getValue()), theme.getKey());
+        }
+        for(ImportCandidate candidate : sortedCandidates){
+            String importName = ImportPipeline.getImportName(candidate.getType());
+            for(String reference : candidate.getUnresolvedReferences()){
+                plan.conflicts.add(importName + " [" + candidate.getName() + "] references " + reference + ", which is neither installed nor imported");
+            }
+            Map<String, String> data = candidate.getData();
+            switch(candidate.getType()){
+                case ModPackage.TYPE_ENGINE_FEATURE:
+                    plan.addRecord(plan.addedRecords, Utils.getEngineFeaturesFile(), candidate.getName() + " (ID " + nextEngineFeatureId++ + ")");
+                    break;
+                case ModPackage.TYPE_GAMEPLAY_FEATURE:
+                    gameplayFeatureIds.putIfAbsent(candidate.getName(), nextGameplayFeatureId);
+                    plan.addRecord(plan.addedRecords, Utils.getGameplayFeaturesFile(), candidate.getName() + " (ID " + nextGameplayFeatureId++ + ")" + getIds(" good genres: ", data.get("GOOD"), genreIds) + getIds(" bad genres: ", data.get("BAD"), genreIds));
+                    break;
+                case ModPackage.TYPE_GENRE:
+                    int genreId = nextGenreId++;
+                    genreIds.putIfAbsent(candidate.getName(), genreId);
+                    plan.addRecord(plan.addedRecords, Utils.getGenreFile(), candidate.getName() + " (ID " + genreId + ")" + getIds(" genre combinations: ", data.get("GENRE COMB"), genreIds));
+                    for(String entry : getEntries(data.get("THEME COMB"))){
+                        Integer themeId = entry.contains("-") ? themeIds.get(ImportDependencies.getThemeKey(entry.substring(0, entry.lastIndexOf('-')))) : null;
+                        if(themeId != null){
+                            String themeName = AnalyzeExistingThemes.MAP_ACTIVE_THEMES_EN.get(themeId);
+                            if(themeName != null){
+                                plan.themeLineChanges.add(Utils.getThemesGeFile().getName() + " line " + AnalyzeExistingThemes.getLineNumberOfThemeGe(themeId) + " (" + themeName + "): genre " + genreId + " is added");
+                            }
+                        }
+                    }
+                    for(String feature : getEntries(data.get("GAMEPLAYFEATURE GOOD"))){
+                        if(gameplayFeatureIds.containsKey(feature)){
+                            plan.addRecord(plan.changedRecords, Utils.getGameplayFeaturesFile(), feature + ": genre " + genreId + " is added to the good genres");
+                        }
+                    }
+                    for(String feature : getEntries(data.get("GAMEPLAYFEATURE BAD"))){
+                        if(gameplayFeatureIds.containsKey(feature)){
+                            plan.addRecord(plan.changedRecords, Utils.getGameplayFeaturesFile(), feature + ": genre " + genreId + " is added to the bad genres");
+                        }
+                    }
+                    plan.copiedImages.add(getImageSource(candidate, ModPackage.ASSET_ICON) + " -> " + Utils.getMGT2GenreIconsPath() + GenreManager.getImageFileName(candidate.getName()) + ".png");
+                    List<String> screenshots = getScreenshots(candidate);
+                    if(screenshots.isEmpty()){
+                        plan.copiedImages.add("Default screenshots -> " + Utils.getMGT2ScreenshotsPath() + genreId + "\\");
+                    }
+                    for(int i=0; i<screenshots.size(); i++){
+                        plan.copiedImages.add(screenshots.get(i) + " -> " + Utils.getMGT2ScreenshotsPath() + genreId + "\\" + i + ".png");
+                    }
+                    break;
+                case ModPackage.TYPE_PUBLISHER:
+                    int logoNumber = nextLogoNumber++;
+                    Integer publisherGenreId = genreIds.get(data.get("GENRE"));
+                    plan.addRecord(plan.addedRecords, Utils.getPublisherFile(), candidate.getName() + " (ID " + nextPublisherId++ + ", logo " + logoNumber + ", genre " + (publisherGenreId == null ? "missing" : publisherGenreId) + ")");
+                    plan.copiedImages.add(getImageSource(candidate, ModPackage.ASSET_ICON) + " -> " + Utils.getCompanyLogosPath() + logoNumber + ".png");
+                    break;
+                case ModPackage.TYPE_THEME:
+                    int themeId = nextThemeId++;
+                    themeIds.putIfAbsent(ImportDependencies.getThemeKey(data.getOrDefault("NAME GE", "")), themeId);
+                    plan.themeLineChanges.add("Theme files: theme " + candidate.getName() + " is added as theme " + themeId + getIds(" with genres: ", data.get("GENRE COMB"), genreIds));
+                    break;
+            }
+            plan.numberOfImportedMods++;
+        }
+        return plan;
+    }
+
+    /**
+     * @return Returns the descriptions of the records that are added by the file name. Eg. Genres.txt
+     */
+    public Map<String, List<String>> getAddedRecords(){
+        return Collections.unmodifiableMap(addedRecords);
+    }
+
+    /**
+     * @return Returns the descriptions of the existing records that are changed by the file name.
+     */
+    public Map<String, List<String>> getChangedRecords(){
+        return Collections.unmodifiableMap(changedRecords);
+    }
+
+    public List<String> getThemeLineChanges(){
+        return Collections.unmodifiableList(themeLineChanges);
+    }
+
+    /**
+     * @return Returns the images that are copied. Eg. source -> target
+     */
+    public List<String> getCopiedImages(){
+        return Collections.unmodifiableList(copiedImages);
+    }
+
+    /**
+     * @return Returns the mods that are skipped because they already exist or are not compatible and the references that can not be resolved.
+     */
+    public List<String> getConflicts(){
+        return Collections.unmodifiableList(conflicts);
+    }
+
+    public int getNumberOfImportedMods(){
+        return numberOfImportedMods;
+    }
+
+    /**
+     * @return Returns the complete plan as text, so that it can be reviewed at once.
+     */
+    public String getReport(){
+        StringBuilder report = new StringBuilder();
+        report.append(numberOfImportedMods).append(" mod(s) will be imported").append(System.getProperty("line.separator"));
+        appendSection(report, "Added records:", addedRecords);
+        appendSection(report, "Changed records:", changedRecords);
+        appendSection(report, "Changed theme lines:", Collections.singletonMap(null, themeLineChanges));
+        appendSection(report, "Copied images:", Collections.singletonMap(null, copiedImages));
+        appendSection(report, "Conflicts:", Collections.singletonMap(null, conflicts));
+        return report.toString();
+    }
+
+    private static void appendSection(StringBuilder report, String title, Map<String, List<String>> entries){
+        boolean titleAppended = false;
+        for(Map.Entry<String, List<String>> entry : entries.entrySet()){
+            if(entry.getValue().isEmpty()){
+                continue;
+            }
+            if(!titleAppended){
+                report.append(System.getProperty("line.separator")).append(title).append(System.getProperty("line.separator"));
+                titleAppended = true;
+            }
+            String indentation = "  ";
+            if(entry.getKey() != null){
+                report.append("  ").append(entry.getKey()).append(" (").append(entry.getValue().size()).append("):").append(System.getProperty("line.separator"));
+                indentation = "    ";
+            }
+            for(String line : entry.getValue()){
+                report.append(indentation).append(line).append(System.getProperty("line.separator"));
+            }
+        }
+    }
+
+    private void addRecord(Map<String, List<String>> records, File file, String description){
+        records.computeIfAbsent(file.getName(), key -> new ArrayList<>()).add(description);
+    }
+
+    /**
+     * @return Returns the ids of the existing entries by their english names.
+     */
+    private static Map<String, Integer> getIdsByName(List<Map<String, String>> list){
+        Map<String, Integer> ids = new HashMap<>();
+        for(Map<String, String> map : list){
+            try{
+                ids.putIfAbsent(map.get("NAME EN"), Integer.parseInt(map.get("ID")));
+            }catch(NumberFormatException ignored){
+
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @return Returns the ids of the names with the prefix. Names that can not be resolved are left out. Returns an empty string when no name can be resolved.
+     */
+    private static String getIds(String prefix, String names, Map<String, Integer> ids){
+        StringJoiner resolvedIds = new StringJoiner(", ", prefix, "");
+        resolvedIds.setEmptyValue("");
+        for(String name : getEntries(names)){
+            if(ids.containsKey(name)){
+                resolvedIds.add(Integer.toString(ids.get(name)));
+            }
+        }
+        return resolvedIds.toString();
+    }
+
+    private static List<String> getEntries(String entries){
+        if(entries == null || entries.isEmpty()){
+            return Collections.emptyList();
+        }
+        return Utils.getEntriesFromString(entries);
+    }
+
+    /**
+     * @return Returns the asset of the mod package or the file of the mod folder.
+     */
+    private static String getImageSource(ImportCandidate candidate, String assetName){
+        if(ModPackage.isPackage(candidate.getFile())){
+            return candidate.getFile().getName() + ":" + assetName;
+        }
+        return new File(candidate.getImportFile(), assetName).getPath();
+    }
+
+    /**
+     * @return Returns the screenshots of the genre in the order in which they are copied.
+     */
+    private static List<String> getScreenshots(ImportCandidate candidate) throws IOException {
+        List<String> screenshots = new ArrayList<>();
+        if(ModPackage.isPackage(candidate.getFile())){
+            for(String assetName : ModPackage.open(candidate.getFile()).getAssetNames(ModPackage.ASSET_SCREENSHOTS_FOLDER)){
+                if(!assetName.contains(".meta")){
+                    screenshots.add(getImageSource(candidate, assetName));
+                }
+            }
+        }else{
+            for(File screenshot : DataStreamHelper.getFilesInFolderBlackList(candidate.getImportFile().getPath() + "//DATA//screenshots//", ".meta")){
+                screenshots.add(screenshot.getPath());
+            }
+        }
+        return screenshots;
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.lmh01.mgt2mt.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs independent tasks on a bounded thread pool.
+ */
+public class ParallelExecutor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelExecutor.class);
+    public static final int MAX_THREADS = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+
+    /**
+     * Runs the tasks in parallel and waits until all of them have finished. A failing task does not stop the other tasks.
+     * @param name The name of the operation. Is used in the thread names and in the error message.
+     * @param tasks The tasks that should be run
+     * @return Returns a list containing the results of the tasks in the same order as the tasks.
+     * @throws IOException Is thrown when at least one task has failed. The message lists every error, the exceptions are added as suppressed exceptions.
+     */
+    public static <T> List<T> runAll(String name, List<Callable<T>> tasks) throws IOException {
+        List<T> results = new ArrayList<>();
+        if(tasks.isEmpty()){
+            return results;
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(MAX_THREADS, tasks.size()), runnable -> {
+            Thread thread = new Thread(runnable, "mgt2mt-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Throwable> errors = new ArrayList<>();
+        try{
+            List<Future<T>> futures = new ArrayList<>();
+            for(Callable<T> task : tasks){
+                futures.add(executorService.submit(task));
+            }
+            for(Future<T> future : futures){
+                try{
+                    results.add(future.get());
+                }catch(ExecutionException e){
+                    errors.add(e.getCause());
+                    results.add(null);
+                }
+            }
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            errors.add(e);
+        }finally{
+            executorService.shutdownNow();
+        }
+        if(!errors.isEmpty()){
+            StringBuilder message = new StringBuilder();
+            message.append(errors.size()).append(" of ").append(tasks.size()).append(" task(s) failed while ").append(name).append(":");
+            for(Throwable error : errors){
+                message.append(System.getProperty("line.separator")).append(error.getClass().getSimpleName()).append(": ").append(error.getMessage());
+            }
+            LOGGER.info(message.toString());
+            IOException exception = new IOException(message.toString());
+            for(Throwable error : errors){
+                exception.addSuppressed(error);
+            }
+            throw exception;
+        }
+        return results;
+    }
+}
@@ -3,6 +3,7 @@ package com.github.lmh01.mgt2mt.util;
 import com.github.lmh01.mgt2mt.data_stream.AnalyzeExistingPublishers;
 import com.github.lmh01.mgt2mt.data_stream.DataStreamHelper;
 import com.github.lmh01.mgt2mt.data_stream.EditPublishersFile;
+import com.github.lmh01.mgt2mt.data_stream.GameDataRepository;
 import com.github.lmh01.mgt2mt.data_stream.SharingHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,17 +38,21 @@ public class PublisherHelper {
                     DataStreamHelper.unzip(publisherZip.getPath(), publisherUnzipped);
                 }
                 LOGGER.info("Real publisher files are ready.");
-                LOGGER.info("Removing existing publishers...");
-                for(String string : AnalyzeExistingPublishers.ORIGINAL_PUBLISHERS){
-                    EditPublishersFile.removePublisher(string);
-                }
-                LOGGER.info("Original publishers have been removed!");
-                LOGGER.info("Adding new publishers...");
-                ArrayList<File> filesToImport = DataStreamHelper.getFiles(publisherUnzipped, "publisher.txt");
-                SharingManager.importAllFiles(filesToImport, new ArrayList<>(), false, "publisher", (string) -> SharingHandler.importPublisher(string, false), SharingManager.PUBLISHER_IMPORT_COMPATIBLE_MOD_TOOL_VERSIONS, false);
-                if(AnalyzeExistingPublishers.getActivePublisherIds().contains(-1)){
-                    EditPublishersFile.removePublisher("Dummy");
-                }
+                //The publisher file is written once when all publishers have been replaced
+                GameDataRepository.INSTANCE.runInTransaction(() -> {
+                    LOGGER.info("Removing existing publishers...");
+                    for(String string : AnalyzeExistingPublishers.ORIGINAL_PUBLISHERS){
+                        EditPublishersFile.removePublisher(string);
+                    }
+                    LOGGER.info("Original publishers have been removed!");
+                    LOGGER.info("Adding new publishers...");
+                    ArrayList<File> filesToImport = DataStreamHelper.getFiles(publisherUnzipped, "publisher.txt");
+                    SharingManager.importAllFiles(filesToImport, new ArrayList<>(), false, "publisher", (string) -> SharingHandler.importPublisher(string, false), SharingManager.PUBLISHER_IMPORT_COMPATIBLE_MOD_TOOL_VERSIONS, false);
+                    AnalyzeExistingPublishers.analyzePublisherFile();
+                    if(AnalyzeExistingPublishers.getActivePublisherIds().contains(-1)){
+                        EditPublishersFile.removePublisher("Dummy");
+                    }
+                });
                 JOptionPane.showMessageDialog(null, "All existing publishers have been replaced\nwith the real live equivalent.");
             }catch (IOException e){
                 e.printStackTrace();
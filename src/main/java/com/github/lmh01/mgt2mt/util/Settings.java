@@ -23,9 +23,18 @@ public class Settings {
     public static boolean enableAddGenreWarning = true;
     public static boolean enableGenreNameTranslationInfo = true;
     public static boolean enableGenreDescriptionTranslationInfo = true;
+    public static boolean enableBackupArchives = false;
+    public static int backupRetentionCount = 30;
+    public static boolean backupRetentionKeepDaily = true;
     public static void resetSettings(){
-        setMgt2Folder(false);
-        setSettings(false, false, false, false, "", true, true, true);
+        try {
+            if(!detectMgt2Folder()){
+                LOGGER.info("The Mad Games Tycoon 2 folder could not be detected.");
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        setSettings(false, false, false, false, "", true, true, true, false, 30, true);
         LOGGER.info("Settings have been reset.");
     }
 
@@ -35,14 +44,20 @@ public class Settings {
      * @param disableSafetyFeatures True when the safety features are disabled.
      * @param customFolderPath The custom folder path
      * @param enableCustomFolder True when the custom folder is enabled.
+     * @param enableBackupArchives True when backups should be stored in compressed archives.
+     * @param backupRetentionCount The number of latest backups that are kept when old backups are pruned.
+     * @param backupRetentionKeepDaily True when the latest backup of each day is kept when old backups are pruned.
      */
-    public static void setSettings(boolean showSuccessDialog, boolean enableDebugLogging, boolean disableSafetyFeatures, boolean enableCustomFolder, String customFolderPath, boolean showAddGenreWarning, boolean enableGenreNameTranslationInfo, boolean enableGenreDescriptionTranslationInfo){
+    public static void setSettings(boolean showSuccessDialog, boolean enableDebugLogging, boolean disableSafetyFeatures, boolean enableCustomFolder, String customFolderPath, boolean showAddGenreWarning, boolean enableGenreNameTranslationInfo, boolean enableGenreDescriptionTranslationInfo, boolean enableBackupArchives, int backupRetentionCount, boolean backupRetentionKeepDaily){
         Settings.enableDebugLogging = enableDebugLogging;
         Settings.disableSafetyFeatures = disableSafetyFeatures;
         Settings.enableCustomFolder = enableCustomFolder;
         Settings.enableAddGenreWarning = showAddGenreWarning;
         Settings.enableGenreNameTranslationInfo = enableGenreNameTranslationInfo;
         Settings.enableGenreDescriptionTranslationInfo = enableGenreDescriptionTranslationInfo;
+        Settings.enableBackupArchives = enableBackupArchives;
+        Settings.backupRetentionCount = backupRetentionCount;
+        Settings.backupRetentionKeepDaily = backupRetentionKeepDaily;
         if(!customFolderPath.isEmpty()){
             Settings.mgt2FilePath = customFolderPath;
         }
@@ -57,35 +72,34 @@ public class Settings {
      * @return Returns true if settings have been imported successfully.
      */
     public static boolean importSettings(){
-        return ImportSettings.Import(MGT2_MOD_MANAGER_PATH + "//settings.txt");
+        return ImportSettings.Import(MGT2_MOD_MANAGER_PATH + "//settings.txt", true);
     }
 
     /**
-     * Sets the folder where Mad Games Tycoon 2 is located.
-     * @param showMessages True when a message should be displayed if the folder has been found.
+     * Imports the settings from file. When the file does not exist the default settings are kept, no window is shown and no file is written.
+     * @return Returns true if settings have been imported successfully.
      */
-    public static void setMgt2Folder(boolean showMessages){
-        try {
-            ArrayList<String> arrayListSteamLibraries = AnalyzeSteamLibraries.getSteamLibraries();
-            madGamesTycoonFolderIsCorrect = false;
-            for (String arrayListSteamLibrary : arrayListSteamLibraries) {
-                LOGGER.info("Current Path: " + arrayListSteamLibrary + "\\steamapps\\common\\Mad Games Tycoon 2\\");
-                if (DataStreamHelper.doesFolderContainFile(arrayListSteamLibrary + "\\steamapps\\common\\Mad Games Tycoon 2\\", "Mad Games Tycoon 2.exe") && !madGamesTycoonFolderIsCorrect) {
-                    LOGGER.info("Found MGT2 folder: " + arrayListSteamLibrary + "\\steamapps\\common\\Mad Games Tycoon 2\\");
-                    steamLibraryFolder = arrayListSteamLibrary;
-                    mgt2FilePath = arrayListSteamLibrary + "\\steamapps\\common\\Mad Games Tycoon 2\\";
-                    madGamesTycoonFolderIsCorrect = true;
-                    enableCustomFolder = false;
-                    if (showMessages) {
-                        JOptionPane.showMessageDialog(new Frame(), "Mad Games Tycoon 2 Folder has been set automatically.\n\nLocation:\n" + mgt2FilePath, "Folder detected automatically", JOptionPane.INFORMATION_MESSAGE);
-                    }
-                }
-            }
-            if(!madGamesTycoonFolderIsCorrect){
-                JOptionPane.showMessageDialog(null, "The Mad Games Tycoon folder could not be detected.\n\nPlease go into the settings, select \"Manual\" as file folder and choose the path to the \"Mad Games Tycoon 2.exe\" file.");
+    public static boolean importSettingsWithoutReset(){
+        return ImportSettings.Import(MGT2_MOD_MANAGER_PATH + "//settings.txt", false);
+    }
+
+    /**
+     * Searches the steam libraries for the folder where Mad Games Tycoon 2 is located and sets it. Does not show any window.
+     * @return Returns true when the folder has been found.
+     */
+    public static boolean detectMgt2Folder() throws IOException {
+        ArrayList<String> arrayListSteamLibraries = AnalyzeSteamLibraries.getSteamLibraries();
+        madGamesTycoonFolderIsCorrect = false;
+        for (String arrayListSteamLibrary : arrayListSteamLibraries) {
+            LOGGER.info("Current Path: " + arrayListSteamLibrary + "\\steamapps\\common\\Mad Games Tycoon 2\\");
+            if (DataStreamHelper.doesFolderContainFile(arrayListSteamLibrary + "\\steamapps\\common\\Mad Games Tycoon 2\\", "Mad Games Tycoon 2.exe") && !madGamesTycoonFolderIsCorrect) {
+                LOGGER.info("Found MGT2 folder: " + arrayListSteamLibrary + "\\steamapps\\common\\Mad Games Tycoon 2\\");
+                steamLibraryFolder = arrayListSteamLibrary;
+                mgt2FilePath = arrayListSteamLibrary + "\\steamapps\\common\\Mad Games Tycoon 2\\";
+                madGamesTycoonFolderIsCorrect = true;
+                enableCustomFolder = false;
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
+        return madGamesTycoonFolderIsCorrect;
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.github.lmh01.mgt2mt.util;
 import com.github.lmh01.mgt2mt.data_stream.*;
 import com.github.lmh01.mgt2mt.util.interfaces.*;
 import com.github.lmh01.mgt2mt.windows.WindowMain;
+import com.github.lmh01.mgt2mt.windows.WindowProgress;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import javax.swing.*;
@@ -11,16 +12,12 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class SharingManager {
     //This class contains functions with which it is easy to export/import things
@@ -77,10 +74,9 @@ public class SharingManager {
     }
 
     /**
-     * Loads the contents of import file into a map and imports feature with this map
-     * @param importFile This is the file the tool will search for in the folder. Eg. genre.txt or publisher.txt
+     * Imports the feature from the content of the import file
+     * @param map The content of the import file. Eg. engineFeature.txt
      * @param importName The name that is written is some JOptionPanes. Eg. Engine feature, Gameplay feature
-     * @param importFolderPath The folder where the importFile is located.
      * @param existingFeatureList The list where the existing features are listed. Eg. {@link AnalyzeExistingGameplayFeatures#gameplayFeatures}
      * @param compatibleModToolVersions A array containing the compatible mod tool versions for the import file
      * @param importFunction The function that edits the file
@@ -90,9 +86,7 @@ public class SharingManager {
      * @param showMessages True when the messages should be shown. False if not.
      * @return Returns true when the import was successful. Returns false if not. Returns a string containing version numbers when import file is not compatible with current mgt2mt version.
      */
-    public static String importGeneral(String importFile, String importName, String importFolderPath, List<Map<String, String>> existingFeatureList, String[] compatibleModToolVersions, Importer importFunction, FreeId freeId, int changelogId, Summary summary, boolean showMessages) throws IOException{
-        File fileToImport = new File(importFolderPath + "\\" + importFile);
-        Map<String, String> map = DataStreamHelper.parseDataFile(fileToImport).get(0);
+    public static String importGeneral(Map<String, String> map, String importName, List<Map<String, String>> existingFeatureList, String[] compatibleModToolVersions, Importer importFunction, FreeId freeId, int changelogId, Summary summary, boolean showMessages) throws IOException{
         map.put("ID", Integer.toString(freeId.getFreeId()));
         boolean CanBeImported = false;
         for(String string : compatibleModToolVersions){
@@ -235,140 +229,156 @@ public class SharingManager {
 
     /**
      * Opens a gui where the user can select folders where import files are located. When all folders and subfolders are scanned a summary is shown of what can be imported.
-     * It is then possible to import everything at once.
+     * It is then possible to import everything at once. See {@link ImportPipeline}.
      */
     public static void importAll() {
         ArrayList<File> directories = getFoldersAsFile();
-        ArrayList<File> engineFeatures = new ArrayList<>();
-        ArrayList<File> gameplayFeatures = new ArrayList<>();
-        ArrayList<File> genres = new ArrayList<>();
-        ArrayList<File> publishers = new ArrayList<>();
-        ArrayList<File> themes = new ArrayList<>();
-        if(directories != null){
-            try {
-                for(File file : directories){
-                    Path start = Paths.get(file.getPath());
-                    try (Stream<Path> stream = Files.walk(start, Integer.MAX_VALUE)) {
-                        List<String> collect = stream
-                                .map(String::valueOf)
-                                .sorted()
-                                .collect(Collectors.toList());
+        if(directories == null){
+            WindowMain.checkActionAvailability();
+            return;
+        }
+        List<File> failedFiles = new ArrayList<>();
+        WindowProgress.run("Searching mods", true, progress -> {
+            List<ImportCandidate> candidates = ImportPipeline.parse(ImportPipeline.discover(directories, progress), progress, failedFiles);
+            progress.checkCancelled();
+            ImportPipeline.resolveConflicts(candidates, progress);
+            return candidates;
+        }, candidates -> showImportSummary(candidates, failedFiles));
+    }
 
-                        collect.forEach((string) -> {
-                            if(string.contains("engineFeature.txt")){
-                                LOGGER.info("engineFeature: " + string);
-                                engineFeatures.add(new File(string));
-                            }else if(string.contains("gameplayFeature.txt")){
-                                LOGGER.info("gameplayFeature: " + string);
-                                gameplayFeatures.add(new File(string));
-                            }else if(string.contains("genre.txt")){
-                                genres.add(new File(string));
-                            }else if(string.contains("publisher.txt")){
-                                publishers.add(new File(string));
-                            }else if(string.contains("theme.txt")){
-                                themes.add(new File(string));
-                            }
-                            if(Settings.enableDebugLogging){
-                                LOGGER.info("current file: " + string);
+    /**
+     * Shows what can be imported and lets the user select the mods that should be imported. May only be called by {@link SharingManager#importAll()}
+     * @param candidates The mods that have been found
+     * @param failedFiles The files that could not be read
+     */
+    private static void showImportSummary(List<ImportCandidate> candidates, List<File> failedFiles){
+        Map<String, List<ImportCandidate>> candidatesByType = ImportPipeline.getCandidatesByType(candidates);
+        Map<String, AtomicReference<ArrayList<Integer>>> selectedEntries = new HashMap<>();
+        Map<String, AtomicBoolean> disableImport = new HashMap<>();
+        List<Object> params = new ArrayList<>();
+        params.add(new JLabel("The following objects can be imported:"));
+        for(Map.Entry<String, List<ImportCandidate>> entry : candidatesByType.entrySet()){
+            JPanel panel = new JPanel();
+            selectedEntries.put(entry.getKey(), new AtomicReference<>(new ArrayList<>()));
+            disableImport.put(entry.getKey(), new AtomicBoolean(true));
+            if(!entry.getValue().isEmpty()){
+                setFeatureAvailableGuiComponents(ImportPipeline.getImportName(entry.getKey()) + "s:", entry.getValue(), panel, selectedEntries.get(entry.getKey()), disableImport.get(entry.getKey()));
+            }
+            params.add(panel);
+        }
+        if(!candidates.isEmpty()) {
+            JLabel labelEnd = new JLabel("<html>The numbers indicate how many entries,<br>out of the available entries will be imported.<br><br>Tip:<br>If you wish not to import everything,<br>click the button(s) to select what entries should be imported.<br><br>Do you want to start the import process?");
+            JCheckBox checkBoxDisableImportPopups = new JCheckBox("Disable popups");
+            checkBoxDisableImportPopups.setToolTipText("<html>Check to disable confirm messages that something can be imported");
+            JCheckBox checkBoxDisableAlreadyExistPopups = new JCheckBox("Disable already exists popups");
+            checkBoxDisableAlreadyExistPopups.setToolTipText("<html>Check to disable popups that something already exists");
+            checkBoxDisableAlreadyExistPopups.setSelected(true);
+            JCheckBox checkBoxPreviewChanges = new JCheckBox("Preview changes");
+            checkBoxPreviewChanges.setToolTipText("<html>Check to review all changes of the import before anything is changed");
+            checkBoxPreviewChanges.setSelected(true);
+            params.add(labelEnd);
+            params.add(checkBoxDisableImportPopups);
+            params.add(checkBoxDisableAlreadyExistPopups);
+            params.add(checkBoxPreviewChanges);
+
+            if(JOptionPane.showConfirmDialog(null, params.toArray(), "Import ready", JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION){
+                boolean showMessageDialogs = !checkBoxDisableImportPopups.isSelected();
+                boolean showAlreadyExistPopups = checkBoxDisableAlreadyExistPopups.isSelected();
+                List<ImportCandidate> selectedCandidates = new ArrayList<>();
+                for(Map.Entry<String, List<ImportCandidate>> entry : candidatesByType.entrySet()){
+                    if(!disableImport.get(entry.getKey()).get()){
+                        ArrayList<Integer> selectedEntryNumbers = selectedEntries.get(entry.getKey()).get();
+                        for(int i=0; i<entry.getValue().size(); i++){
+                            if(selectedEntryNumbers.isEmpty() || selectedEntryNumbers.contains(i)){
+                                selectedCandidates.add(entry.getValue().get(i));
                             }
-                        });
+                        }
                     }
                 }
-            } catch (IOException e)  {
-                e.printStackTrace();
-            }catch (NullPointerException ignored){
+                if(checkBoxPreviewChanges.isSelected()){
+                    WindowProgress.run("Preparing preview", false, progress -> ImportPlan.create(selectedCandidates), importPlan -> {
+                        if(showImportPreview(importPlan)){
+                            importCandidates(selectedCandidates, failedFiles, showMessageDialogs, showAlreadyExistPopups);
+                        }
+                    });
+                }else{
+                    importCandidates(selectedCandidates, failedFiles, showMessageDialogs, showAlreadyExistPopups);
+                }
+            }
+        }else{
+            JOptionPane.showMessageDialog(null, "The folder(s) and it's subfolders do not contain things that could be imported.", "Unable to import", JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
 
+    /**
+     * Imports the selected mods. May only be called by {@link SharingManager#importAll()}
+     * @param showMessageDialogs True when the import functions should ask before each mod is imported. These imports run on the event dispatch thread, because the popups wait for the user anyway.
+     */
+    private static void importCandidates(List<ImportCandidate> selectedCandidates, List<File> failedFiles, boolean showMessageDialogs, boolean showAlreadyExistPopups){
+        if(showMessageDialogs){
+            int failedCandidates;
+            try{
+                failedCandidates = ImportPipeline.commit(selectedCandidates, true, ImportPipeline.LOG_PROGRESS);
+            }catch(IOException e){
+                e.printStackTrace();
+                failedCandidates = -1;
             }
-            JPanel panelEngineFeatures = new JPanel();
-            JPanel panelGameplayFeatures = new JPanel();
-            JPanel panelGenres = new JPanel();
-            JPanel panelPublishers = new JPanel();
-            JPanel panelThemes = new JPanel();
-            AtomicReference<ArrayList<Integer>> selectedEntriesEngineFeatures = new AtomicReference<>(new ArrayList<>());
-            AtomicReference<ArrayList<Integer>> selectedEntriesGameplayFeatures = new AtomicReference<>(new ArrayList<>());
-            AtomicReference<ArrayList<Integer>> selectedEntriesGenres = new AtomicReference<>(new ArrayList<>());
-            AtomicReference<ArrayList<Integer>> selectedEntriesPublishers = new AtomicReference<>(new ArrayList<>());
-            AtomicReference<ArrayList<Integer>> selectedEntriesThemes = new AtomicReference<>(new ArrayList<>());
-            AtomicBoolean disableEngineFeatureImport = new AtomicBoolean(true);
-            AtomicBoolean disableGameplayFeatureImport = new AtomicBoolean(true);
-            AtomicBoolean disableGenreImport = new AtomicBoolean(true);
-            AtomicBoolean disablePublisherImport = new AtomicBoolean(true);
-            AtomicBoolean disableThemeImport = new AtomicBoolean(true);
-            if(!engineFeatures.isEmpty() || !gameplayFeatures.isEmpty() || !genres.isEmpty() || !publishers.isEmpty() || !themes.isEmpty()) {
-                if(!engineFeatures.isEmpty()){
-                    setFeatureAvailableGuiComponents("Engine features:",engineFeatures, panelEngineFeatures, selectedEntriesEngineFeatures, disableEngineFeatureImport);
-                }
-                if(!gameplayFeatures.isEmpty()){
-                    setFeatureAvailableGuiComponents("Gameplay features:",gameplayFeatures, panelGameplayFeatures, selectedEntriesGameplayFeatures, disableGameplayFeatureImport);
-                }
-                if(!genres.isEmpty()){
-                    setFeatureAvailableGuiComponents("Genres:", genres, panelGenres, selectedEntriesGenres, disableGenreImport);
-                }
-                if(!publishers.isEmpty()){
-                    setFeatureAvailableGuiComponents("Publishers:", publishers, panelPublishers, selectedEntriesPublishers, disablePublisherImport);
-                }
-                if(!themes.isEmpty()){
-                    setFeatureAvailableGuiComponents("Themes:", themes, panelThemes, selectedEntriesThemes, disableThemeImport);
-                }
-                JLabel labelStart = new JLabel("The following objects can be imported:");
-                JLabel labelEnd = new JLabel("<html>The numbers indicate how many entries,<br>out of the available entries will be imported.<br><br>Tip:<br>If you wish not to import everything,<br>click the button(s) to select what entries should be imported.<br><br>Do you want to start the import process?");
-                JCheckBox checkBoxDisableImportPopups = new JCheckBox("Disable popups");
-                checkBoxDisableImportPopups.setToolTipText("<html>Check to disable confirm messages that something can be imported");
-                JCheckBox checkBoxDisableAlreadyExistPopups = new JCheckBox("Disable already exists popups");
-                checkBoxDisableAlreadyExistPopups.setToolTipText("<html>Check to disable popups that something already exists");
-                checkBoxDisableAlreadyExistPopups.setSelected(true);
-                Object[] params = {labelStart, panelEngineFeatures, panelGameplayFeatures, panelGenres, panelPublishers, panelThemes, labelEnd, checkBoxDisableImportPopups, checkBoxDisableAlreadyExistPopups};
+            showImportResult(selectedCandidates, failedFiles, failedCandidates, showAlreadyExistPopups);
+            WindowMain.checkActionAvailability();
+        }else{
+            WindowProgress.run("Importing mods", true, progress -> ImportPipeline.commit(selectedCandidates, false, progress), failedCandidates -> showImportResult(selectedCandidates, failedFiles, failedCandidates, showAlreadyExistPopups));
+        }
+    }
 
-                if(JOptionPane.showConfirmDialog(null, params, "Import ready", JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION){
-                    boolean showMessageDialogs = checkBoxDisableImportPopups.isSelected();
-                    boolean showAlreadyExistPopups = checkBoxDisableAlreadyExistPopups.isSelected();
-                    boolean errorOccurred = false;
-                    if(!importAllFiles(engineFeatures, selectedEntriesEngineFeatures.get(), disableEngineFeatureImport.get(), "engine feature", (string) -> SharingHandler.importEngineFeature(string, !showMessageDialogs), SharingManager.ENGINE_FEATURE_IMPORT_COMPATIBLE_MOD_TOOL_VERSIONS, !showAlreadyExistPopups)){
-                        LOGGER.info("Error occurred wile importing engine features");
-                        errorOccurred = true;
-                    }
-                    if(!importAllFiles(gameplayFeatures, selectedEntriesGameplayFeatures.get(), disableGameplayFeatureImport.get(), "gameplay feature", (string) -> SharingHandler.importGameplayFeature(string, !showMessageDialogs), SharingManager.GAMEPLAY_FEATURE_IMPORT_COMPATIBLE_MOD_TOOL_VERSIONS, !showAlreadyExistPopups)){
-                        LOGGER.info("Error occurred wile importing gameplay features");
-                        errorOccurred = true;
-                    }
-                    if(!importAllFiles(genres, selectedEntriesGenres.get(), disableGenreImport.get(), "genre", (string) -> SharingHandler.importGenre(string, !showMessageDialogs), SharingManager.GENRE_IMPORT_COMPATIBLE_MOD_TOOL_VERSIONS, !showAlreadyExistPopups)){
-                        LOGGER.info("Error occurred wile importing genres");
-                        errorOccurred = true;
-                    }
-                    if(!importAllFiles(publishers, selectedEntriesPublishers.get(), disablePublisherImport.get(), "publisher", (string) -> SharingHandler.importPublisher(string, !showMessageDialogs), SharingManager.PUBLISHER_IMPORT_COMPATIBLE_MOD_TOOL_VERSIONS, !showAlreadyExistPopups)){
-                        LOGGER.info("Error occurred wile importing publishers");
-                        errorOccurred = true;
-                    }
-                    if(!importAllFiles(themes, selectedEntriesThemes.get(), disableThemeImport.get(), "theme", (string) -> SharingHandler.importTheme(string, !showMessageDialogs), SharingManager.THEME_IMPORT_COMPATIBLE_MOD_TOOL_VERSIONS, !showAlreadyExistPopups)){
-                        LOGGER.info("Error occurred wile importing themes");
-                        errorOccurred = true;
-                    }
-                    if(errorOccurred){
-                        JOptionPane.showMessageDialog(null, "Error while importing:\nSome features might not be properly imported.\nSee console for further information!", "Error while importing", JOptionPane.ERROR_MESSAGE);
-                    }else{
-                        JOptionPane.showMessageDialog(null, "Import complete:\nAll features (that did not already exist) have been imported.", "Import complete", JOptionPane.INFORMATION_MESSAGE);
-                    }
-                }
+    /**
+     * Shows the messages of the mods that have not been imported and whether the import has been successful.
+     * @param failedCandidates The number of mods that could not be imported because of an error. -1 when nothing has been imported because of an error.
+     */
+    private static void showImportResult(List<ImportCandidate> selectedCandidates, List<File> failedFiles, int failedCandidates, boolean showAlreadyExistPopups){
+        boolean errorOccurred = !failedFiles.isEmpty() || failedCandidates != 0;
+        int notImportedCandidates = 0;
+        for(ImportCandidate candidate : selectedCandidates){
+            if(candidate.getReturnValue() != null){
+                analyzeReturnValue(ImportPipeline.getImportName(candidate.getType()).toLowerCase(), candidate.getReturnValue(), ImportPipeline.getCompatibleModToolVersions(candidate.getType()), !showAlreadyExistPopups);
             }else{
-                JOptionPane.showMessageDialog(null, "The folder(s) and it's subfolders do not contain things that could be imported.", "Unable to import", JOptionPane.INFORMATION_MESSAGE);
+                notImportedCandidates++;
             }
         }
-        WindowMain.checkActionAvailability();
+        if(failedCandidates >= 0 && notImportedCandidates > failedCandidates){
+            JOptionPane.showMessageDialog(null, "Import cancelled:\n" + (notImportedCandidates - failedCandidates) + " feature(s) have not been imported." + (errorOccurred ? "\nSome features might not be properly imported.\nSee console for further information!" : ""), "Import cancelled", JOptionPane.INFORMATION_MESSAGE);
+        }else if(errorOccurred){
+            JOptionPane.showMessageDialog(null, "Error while importing:\nSome features might not be properly imported.\nSee console for further information!", "Error while importing", JOptionPane.ERROR_MESSAGE);
+        }else{
+            JOptionPane.showMessageDialog(null, "Import complete:\nAll features (that did not already exist) have been imported.", "Import complete", JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
+    /**
+     * Shows what the import of the mods would change. Nothing is changed.
+     * @return Returns true when the user wants to import the mods.
+     */
+    private static boolean showImportPreview(ImportPlan importPlan){
+        JTextArea textArea = new JTextArea(importPlan.getReport());
+        textArea.setEditable(false);
+        JScrollPane scrollPane = new JScrollPane(textArea);
+        scrollPane.setPreferredSize(new Dimension(700, 400));
+        Object[] params = {scrollPane, new JLabel("Do you want to apply these changes?")};
+        return JOptionPane.showConfirmDialog(null, params, "Import preview", JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION;
     }
 
     /**
      * Adds gui components to be displayed in the summary. May only be called by {@link SharingManager#importAll()}
      * @param labelText The label text
-     * @param files The array list containing the feature specific files
+     * @param candidates The mods of one type
      * @param panel The panel where the components should be added
      * @param selectedEntries A atomic reference where the return values should be saved
      */
-    private static void setFeatureAvailableGuiComponents(String labelText, ArrayList<File> files, JPanel panel, AtomicReference<ArrayList<Integer>> selectedEntries, AtomicBoolean disableImport){
+    private static void setFeatureAvailableGuiComponents(String labelText, List<ImportCandidate> candidates, JPanel panel, AtomicReference<ArrayList<Integer>> selectedEntries, AtomicBoolean disableImport){
         JLabel label = new JLabel(labelText);
-        JButton button = new JButton(files.size() + "/" + files.size());
+        JButton button = new JButton(candidates.size() + "/" + candidates.size());
         disableImport.set(false);
         button.addActionListener(actionEvent -> {
-            ArrayList<Integer> arrayList = getSelectedEntries(files);
+            ArrayList<Integer> arrayList = getSelectedEntries(candidates);
             selectedEntries.set(arrayList);
             if(arrayList.isEmpty()){
                 LOGGER.info("Import disabled for: " + labelText.replaceAll(":", ""));
@@ -377,7 +387,7 @@ public class SharingManager {
                 LOGGER.info("Import enabled for: " + labelText.replaceAll(":", ""));
                 disableImport.set(false);
             }
-            button.setText(selectedEntries.get().size() + "/" + files.size());
+            button.setText(selectedEntries.get().size() + "/" + candidates.size());
         });
         panel.add(label);
         panel.add(button);
@@ -385,24 +395,20 @@ public class SharingManager {
 
     /**
      * Opens a gui where the user can select entries.
-     * @param files The files that should be scanned for the name that is displayed in the guis
+     * @param candidates The mods whose names are displayed in the guis
      * @return Returns a array list containing numbers of selected entries
      */
-    private static ArrayList<Integer> getSelectedEntries(ArrayList<File> files){
-        ArrayList<String> engineFeatureNames = new ArrayList<>();
-        for(File file : files){
-            try {
-                engineFeatureNames.add(DataStreamHelper.getNameFromFile(file, "UTF_8BOM"));
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+    private static ArrayList<Integer> getSelectedEntries(List<ImportCandidate> candidates){
+        ArrayList<String> names = new ArrayList<>();
+        for(ImportCandidate candidate : candidates){
+            names.add(candidate.getName());
         }
-        return Utils.getSelectedEntries("Select what should be imported:", "Import", Utils.convertArrayListToArray(engineFeatureNames), Utils.convertArrayListToArray(engineFeatureNames),false);
+        return Utils.getSelectedEntries("Select what should be imported:", "Import", Utils.convertArrayListToArray(names), Utils.convertArrayListToArray(names),false);
     }
 
     /**
      * Imports all files that are listed in the files array
-     * @param files The array containing the import files
+     * @param files The array containing the import files. Mod packages are passed to the import function directly, for other files the folder of the file is passed.
      * @param selectedEntryNumbers If not empty only the files numbers listed in this array are imported
      * @param importNothing If true nothing will be imported.
      * @param importName The name that is written in some JOptionPanes. Eg. genre, publisher, theme
@@ -416,13 +422,14 @@ public class SharingManager {
         if(!importNothing){
             boolean failed = false;
             for(File file : files){
+                File importFile = ModPackage.isPackage(file) ? file : file.getParentFile();
                 if(selectedEntryNumbers.size() == 0){
-                    if(!importThings(importName, importFunction, compatibleModToolVersions, file.getParentFile(), showAlreadyExistPopups)){
+                    if(!importThings(importName, importFunction, compatibleModToolVersions, importFile, showAlreadyExistPopups)){
                         failed = true;
                     }
                 }else{
                     if(selectedEntryNumbers.contains(currentFile)){
-                        if(!importThings(importName, importFunction, compatibleModToolVersions, file.getParentFile(), showAlreadyExistPopups)){
+                        if(!importThings(importName, importFunction, compatibleModToolVersions, importFile, showAlreadyExistPopups)){
                             failed = true;
                         }
                     }
@@ -451,27 +458,25 @@ public class SharingManager {
         exportList.append(getExportListPart(customPublishers, "Publishers"));
         exportList.append(getExportListPart(customThemes, "Themes"));
         if(JOptionPane.showConfirmDialog(null, "The following entries will be exported:\n\n" + exportList.toString(), "Export", JOptionPane.YES_NO_OPTION) == JOptionPane.OK_OPTION){
-            StringBuilder failedExports = new StringBuilder();
-            try{
-                failedExports.append(getExportFailed(SharingHandler::exportEngineFeature, customEngineFeatures, "Engine features"));
-                failedExports.append(getExportFailed(SharingHandler::exportGameplayFeature, customGameplayFeatures, "Gameplay features"));
-                failedExports.append(getExportFailed(SharingHandler::exportGenre, customGenres, "Genres"));
-                failedExports.append(getExportFailed(SharingHandler::exportPublisher, customPublishers, "Publishers"));
-                failedExports.append(getExportFailed(SharingHandler::exportTheme, customThemes, "Themes"));
-
-                if(failedExports.toString().isEmpty()){
+            WindowProgress.run("Exporting", true, progress -> {
+                StringBuilder failedExports = new StringBuilder();
+                failedExports.append(getExportFailed(SharingHandler::exportEngineFeature, customEngineFeatures, "Engine features", progress));
+                failedExports.append(getExportFailed(SharingHandler::exportGameplayFeature, customGameplayFeatures, "Gameplay features", progress));
+                failedExports.append(getExportFailed(SharingHandler::exportGenre, customGenres, "Genres", progress));
+                failedExports.append(getExportFailed(SharingHandler::exportPublisher, customPublishers, "Publishers", progress));
+                failedExports.append(getExportFailed(SharingHandler::exportTheme, customThemes, "Themes", progress));
+                return failedExports.toString();
+            }, failedExports -> {
+                if(failedExports.isEmpty()){
                     if(JOptionPane.showConfirmDialog(null, "All entries have been exported successfully!\n\nDo you want to open the folder where they have been saved?", "Genre exported", JOptionPane.YES_NO_OPTION) == JOptionPane.OK_OPTION){
-                        Desktop.getDesktop().open(new File(Settings.MGT2_MOD_MANAGER_PATH + "//Export//"));
+                        Utils.open(Settings.MGT2_MOD_MANAGER_PATH + "//Export//");
                     }
                 }else{
-                    if(JOptionPane.showConfirmDialog(null, "The following entries have not been exported because they where already exported:\n\n" + failedExports.toString() + "\n\nDo you want to open the export folder?", "Genre exported", JOptionPane.YES_NO_OPTION) == JOptionPane.OK_OPTION){
-                        Desktop.getDesktop().open(new File(Settings.MGT2_MOD_MANAGER_PATH + "//Export//"));
+                    if(JOptionPane.showConfirmDialog(null, "The following entries have not been exported because they where already exported:\n\n" + failedExports + "\n\nDo you want to open the export folder?", "Genre exported", JOptionPane.YES_NO_OPTION) == JOptionPane.OK_OPTION){
+                        Utils.open(Settings.MGT2_MOD_MANAGER_PATH + "//Export//");
                     }
                 }
-            }catch(IOException e){
-                JOptionPane.showMessageDialog(null, "Error while exporting:" + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                e.printStackTrace();
-            }
+            });
         }
     }
 
@@ -508,13 +513,17 @@ public class SharingManager {
      * @param exporter The export function that should be used
      * @param strings The array containing the entries
      * @param exportName The name that should be written when a error occurs. Eg. Genre, Theme
+     * @param progress Receives the number of exported entries. The export stops between two entries when it is cancelled.
      * @return Returns a string of errors if something failed to export
      */
-    private static String getExportFailed(Exporter exporter, String[] strings, String exportName) throws IOException {
+    private static String getExportFailed(Exporter exporter, String[] strings, String exportName, TaskProgress progress) throws IOException {
         StringBuilder stringBuilder = new StringBuilder();
         boolean firstExportFailed = true;
         boolean exportFailed = false;
-        for(String string : strings){
+        for(int i=0; i<strings.length; i++){
+            String string = strings[i];
+            progress.checkCancelled();
+            progress.progress("Exporting " + exportName.toLowerCase(), i, strings.length);
             if(!exporter.export(string)){
                 if(firstExportFailed){
                     stringBuilder.append(exportName).append(": ");
@@ -526,6 +535,7 @@ public class SharingManager {
                 exportFailed = true;
             }
         }
+        progress.progress("Exporting " + exportName.toLowerCase(), strings.length, strings.length);
         if(exportFailed){
             stringBuilder.append(System.getProperty("line.separator"));
         }
@@ -0,0 +1,51 @@
+package com.github.lmh01.mgt2mt.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+/**
+ * Measures how long the phases of the startup take. The durations are logged, so that slow phases can be found.
+ */
+public class StartupTimer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartupTimer.class);
+    private static long startTime = System.nanoTime();
+
+    /**
+     * Sets the time from which {@link #logElapsed(String)} measures.
+     */
+    public static void start(){
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Runs the task and logs how long it took.
+     * @param phase The name of the phase. Eg. Reading the game files
+     * @return Returns the result of the task.
+     */
+    public static <T> T time(String phase, Callable<T> task) throws IOException {
+        long phaseStartTime = System.nanoTime();
+        try{
+            return task.call();
+        }catch(IOException | RuntimeException e){
+            throw e;
+        }catch(Exception e){
+            throw new IOException(e);
+        }finally{
+            LOGGER.info(phase + " took " + getMillis(phaseStartTime) + " ms");
+        }
+    }
+
+    /**
+     * Logs how much time has passed since {@link #start()}.
+     * @param milestone Eg. Startup complete
+     */
+    public static void logElapsed(String milestone){
+        LOGGER.info(milestone + " after " + getMillis(startTime) + " ms");
+    }
+
+    private static long getMillis(long since){
+        return (System.nanoTime() - since)/1000000;
+    }
+}
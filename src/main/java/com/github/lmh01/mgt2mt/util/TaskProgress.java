@@ -0,0 +1,110 @@
+package com.github.lmh01.mgt2mt.util;
+
+import com.github.lmh01.mgt2mt.util.interfaces.ImportProgress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The progress of an operation that runs on a background thread: the current stage, the number of finished steps and the number of bytes that have been written.
+ * Is updated by the background thread and read by the progress window. The operation checks {@link #isCancelled()} where it can stop safely.
+ */
+public class TaskProgress implements ImportProgress {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskProgress.class);
+    private static final AtomicLong BYTES_WRITTEN = new AtomicLong();
+    private final long initialBytesWritten = BYTES_WRITTEN.get();
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private volatile String stage = "";
+    private volatile int current = 0;
+    private volatile int total = 0;
+    private final Map<String, String> finishedSteps = new LinkedHashMap<>();
+
+    /**
+     * Is called when a game file or a backup has been written. The bytes are counted for the operation that is currently running.
+     */
+    public static void addBytesWritten(long bytes){
+        BYTES_WRITTEN.addAndGet(bytes);
+    }
+
+    @Override
+    public void progress(String stage, int current, int total){
+        if(!stage.equals(this.stage)){
+            LOGGER.info(stage);
+        }
+        this.stage = stage;
+        this.current = current;
+        this.total = total;
+        if(total > 0){
+            synchronized(finishedSteps){
+                finishedSteps.put(stage, current + " of " + total);
+            }
+        }
+    }
+
+    public void setStage(String stage){
+        progress(stage, 0, 0);
+    }
+
+    /**
+     * Requests the operation to stop. The operation stops at the next point where no game file is left half changed.
+     */
+    public void cancel(){
+        if(!cancelled.getAndSet(true)){
+            LOGGER.info("Cancel requested: " + stage);
+        }
+    }
+
+    @Override
+    public boolean isCancelled(){
+        return cancelled.get();
+    }
+
+    /**
+     * Should be called where the operation can stop safely. The steps that have been finished until then are returned by {@link #getFinishedSteps()}.
+     * @throws CancellationException Is thrown when the operation has been cancelled
+     */
+    public void checkCancelled(){
+        if(isCancelled()){
+            throw new CancellationException(stage + " has been cancelled");
+        }
+    }
+
+    public String getStage(){
+        return stage;
+    }
+
+    public int getCurrent(){
+        return current;
+    }
+
+    /**
+     * @return Returns the number of steps of the current stage. Returns 0 when the number is not known.
+     */
+    public int getTotal(){
+        return total;
+    }
+
+    /**
+     * @return Returns the number of finished steps of each stage that has reported its steps, one stage per line. Eg. Exporting genre: 3 of 5. Returns an empty string when no stage has reported its steps.
+     */
+    public String getFinishedSteps(){
+        StringBuilder stringBuilder = new StringBuilder();
+        synchronized(finishedSteps){
+            for(Map.Entry<String, String> entry : finishedSteps.entrySet()){
+                stringBuilder.append(entry.getKey()).append(": ").append(entry.getValue()).append(System.getProperty("line.separator"));
+            }
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * @return Returns the number of bytes that have been written since the operation has been started.
+     */
+    public long getBytesWritten(){
+        return BYTES_WRITTEN.get() - initialBytesWritten;
+    }
+}
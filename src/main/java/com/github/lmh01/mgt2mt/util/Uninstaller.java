@@ -72,7 +72,14 @@ public class Uninstaller {
                             uninstallFailed = true;
                         }
                     }
-                    Backup.restoreBackup(true, false);//This is used to restore the Themes files to its original condition
+                    try {
+                        Backup.restoreBackup(true, false);//This is used to restore the Themes files to its original condition
+                    } catch (IOException e) {
+                        LOGGER.info("The initial backup could not be restored: " + e.getMessage());
+                        uninstallFailedExplanation.append("The initial backup could not be restored: ").append(e.getMessage()).append(System.getProperty("line.separator"));
+                        e.printStackTrace();
+                        uninstallFailed = true;
+                    }
                 }
                 if(checkboxDeleteBackups.isSelected() && checkboxDeleteConfigFiles.isSelected() && checkboxDeleteExports.isSelected()){
                     File modManagerPath = new File(Settings.MGT2_MOD_MANAGER_PATH);
@@ -81,6 +88,7 @@ public class Uninstaller {
                 if(checkboxDeleteBackups.isSelected()){
                     File backupFolder = new File(Backup.BACKUP_FOLDER_PATH);
                     DataStreamHelper.deleteDirectory(backupFolder);
+                    BackupStore.clearCache();
                     LOGGER.info("Backups have been deleted.");
                 }
                 if(checkboxDeleteConfigFiles.isSelected()){
@@ -2,6 +2,8 @@ package com.github.lmh01.mgt2mt.util;
 
 import com.github.lmh01.mgt2mt.data_stream.AnalyzeExistingGameplayFeatures;
 import com.github.lmh01.mgt2mt.data_stream.AnalyzeExistingGenres;
+import com.github.lmh01.mgt2mt.data_stream.AnalyzeExistingThemes;
+import com.github.lmh01.mgt2mt.data_stream.GameDataRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import javax.swing.*;
@@ -9,6 +11,7 @@ import javax.swing.filechooser.FileFilter;
 import java.awt.*;
 import java.io.*;
 import java.net.URL;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -18,6 +21,7 @@ public class Utils {
     //These are the files inside the mgt2 file structure that are used inside this tool.
     public static final String GITHUB_URL = "https://github.com/LMH01/MGT2_Mod_Tool";
     private static final Logger LOGGER = LoggerFactory.getLogger(Utils.class);
+    private static final Map<String, Charset> THEME_FILE_CHARSETS = getThemeFileCharsets();
 
     /**
      * @return returns the current date time in format: YYYY-MM-DD-HH-MM
@@ -191,6 +195,25 @@ public class Utils {
         return new File(Utils.getMGT2TextFolderPath() + "//" + languageKey + "//Themes_" + languageKey + ".txt");
     }
 
+    /**
+     * @param languageKey They key for the language to use.
+     * @return Returns the charset of the themes file for the specified language. Returns null when the language key is unknown.
+     */
+    public static Charset getThemeFileCharset(String languageKey){
+        return THEME_FILE_CHARSETS.get(languageKey);
+    }
+
+    private static Map<String, Charset> getThemeFileCharsets(){
+        Map<String, Charset> map = new HashMap<>();
+        for(String languageKey : TranslationManager.LANGUAGE_KEYS_UTF_16_LE){
+            map.put(languageKey, StandardCharsets.UTF_16LE);
+        }
+        for(String languageKey : TranslationManager.LANGUAGE_KEYS_UTF_8_BOM){
+            map.put(languageKey, StandardCharsets.UTF_8);
+        }
+        return map;
+    }
+
 
 
     /**
@@ -310,26 +333,16 @@ public class Utils {
      * @return Returns a String containing theme ids
      */
     public static String getCompatibleThemeIdsForGenre(int genreId) throws IOException {
-        BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(Utils.getThemesGeFile()), StandardCharsets.UTF_16LE));
-        boolean firstLine = true;
-        int lineNumber = 1;
+        AnalyzeExistingThemes.analyzeThemeFiles();
         StringBuilder compatibleThemes = new StringBuilder();
-        String currentLine;
-        while((currentLine = br.readLine()) != null){
-            if(firstLine){
-                currentLine = Utils.removeUTF8BOM(currentLine);
-                firstLine = false;
-            }
-            if(currentLine.contains(Integer.toString(genreId))){
-                compatibleThemes.append("<");
-                compatibleThemes.append(currentLine.replace(" ", "_").replace("<", "").replace(">", "").replaceAll("[0-9]", ""));
-                compatibleThemes.append("-");
-                compatibleThemes.append(lineNumber);
-                compatibleThemes.append(">");
-            }
-            lineNumber++;
+        BitSet themeIds = AnalyzeExistingThemes.getThemeIdsForGenre(genreId);
+        for(int themeId = themeIds.nextSetBit(0); themeId >= 0; themeId = themeIds.nextSetBit(themeId+1)){
+            compatibleThemes.append("<");
+            compatibleThemes.append(AnalyzeExistingThemes.MAP_ACTIVE_THEMES_GE.get(themeId).replace(" ", "_").replace("<", "").replace(">", "").replaceAll("[0-9]", ""));
+            compatibleThemes.append("-");
+            compatibleThemes.append(AnalyzeExistingThemes.getLineNumberOfThemeGe(themeId));
+            compatibleThemes.append(">");
         }
-        br.close();
         return compatibleThemes.toString();
     }
 
@@ -340,18 +353,14 @@ public class Utils {
      */
     public static String getCompatibleGameplayFeatureIdsForGenre(int genreId, boolean goodFeature) throws IOException {
         StringBuilder gameplayFeaturesIds = new StringBuilder();
+        BitSet gameplayFeaturePositions;
         if(goodFeature){
-            for(Map<String, String> map : AnalyzeExistingGameplayFeatures.gameplayFeatures){
-                if(map.get("GOOD").contains("<" + genreId + ">")){
-                    gameplayFeaturesIds.append("<").append(map.get("NAME EN")).append(">");
-                }
-            }
+            gameplayFeaturePositions = AnalyzeExistingGameplayFeatures.goodGenres.getRows(genreId);
         }else{
-            for(Map<String, String> map : AnalyzeExistingGameplayFeatures.gameplayFeatures){
-                if(map.get("BAD").contains("<" + genreId + ">")){
-                    gameplayFeaturesIds.append("<").append(map.get("NAME EN")).append(">");
-                }
-            }
+            gameplayFeaturePositions = AnalyzeExistingGameplayFeatures.badGenres.getRows(genreId);
+        }
+        for(int i = gameplayFeaturePositions.nextSetBit(0); i >= 0; i = gameplayFeaturePositions.nextSetBit(i+1)){
+            gameplayFeaturesIds.append("<").append(AnalyzeExistingGameplayFeatures.gameplayFeatures.get(i).get("NAME EN")).append(">");
         }
         return gameplayFeaturesIds.toString();
     }
@@ -0,0 +1,9 @@
+package com.github.lmh01.mgt2mt.util.interfaces;
+
+import com.github.lmh01.mgt2mt.util.TaskProgress;
+import java.io.IOException;
+
+@FunctionalInterface
+public interface BackgroundTask<T> {
+    T run(TaskProgress progress) throws IOException;
+}
@@ -0,0 +1,9 @@
+package com.github.lmh01.mgt2mt.util.interfaces;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+
+@FunctionalInterface
+public interface ContentWriter {
+    void write(BufferedWriter bw) throws IOException;
+}
@@ -0,0 +1,14 @@
+package com.github.lmh01.mgt2mt.util.interfaces;
+
+/**
+ * Receives the progress of the operations of a {@link com.github.lmh01.mgt2mt.core.ModEngine} and decides whether changes should be applied.
+ * Is called on the thread that runs the operation.
+ */
+public interface EngineListener extends ImportProgress {
+    /**
+     * @param title The title of the question. Eg. Import preview
+     * @param message Describes the changes
+     * @return Returns true when the changes should be applied.
+     */
+    boolean confirm(String title, String message);
+}
@@ -0,0 +1,13 @@
+package com.github.lmh01.mgt2mt.util.interfaces;
+
+@FunctionalInterface
+public interface ImportProgress {
+    void progress(String stage, int current, int total);
+
+    /**
+     * @return Returns true when the operation should stop at the next point where it can stop without leaving the game files half changed.
+     */
+    default boolean isCancelled(){
+        return false;
+    }
+}
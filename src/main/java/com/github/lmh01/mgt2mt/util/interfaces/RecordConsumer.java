@@ -0,0 +1,9 @@
+package com.github.lmh01.mgt2mt.util.interfaces;
+
+import java.io.IOException;
+import java.util.Map;
+
+@FunctionalInterface
+public interface RecordConsumer {
+    void accept(Map<String, String> record) throws IOException;
+}
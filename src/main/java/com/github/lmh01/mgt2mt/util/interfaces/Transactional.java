@@ -0,0 +1,8 @@
+package com.github.lmh01.mgt2mt.util.interfaces;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface Transactional {
+    void run() throws IOException;
+}
@@ -0,0 +1,136 @@
+package com.github.lmh01.mgt2mt.windows;
+
+import com.github.lmh01.mgt2mt.data_stream.ChangeLog;
+import com.github.lmh01.mgt2mt.util.Backup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import javax.swing.*;
+import java.awt.*;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The windows of the backup menu. The backups are created and restored by {@link Backup}, which does not show any window.
+ */
+public class WindowBackup {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WindowBackup.class);
+
+    /**
+     * Creates a specified backup on a background thread and shows a message when it has been created.
+     * @param type The backup type
+     */
+    public static void createBackup(String type){
+        WindowProgress.run("Creating backup", false, progress -> {
+            progress.setStage("Creating " + type.replace("_", " ") + " backup");
+            return Backup.createBackup(type);
+        }, skippedFiles -> {
+            switch (type) {
+                case "full": JOptionPane.showMessageDialog(new Frame(), "The full backup has been created successfully." + getSkippedFilesMessage(skippedFiles), "Backup created.", JOptionPane.INFORMATION_MESSAGE); break;
+                case "genre": JOptionPane.showMessageDialog(new Frame(), "Backup of genre files has been created successfully." + getSkippedFilesMessage(skippedFiles), "Backup created.", JOptionPane.INFORMATION_MESSAGE); break;
+                case "theme": JOptionPane.showMessageDialog(new Frame(), "Backup of theme files has been created successfully." + getSkippedFilesMessage(skippedFiles), "Backup created.", JOptionPane.INFORMATION_MESSAGE); break;
+                default: JOptionPane.showMessageDialog(new Frame(), "Backup of save games has been created successfully." + getSkippedFilesMessage(skippedFiles), "Backup created.", JOptionPane.INFORMATION_MESSAGE);
+            }
+        });
+    }
+
+    /**
+     * Restores either a complete initial backup or a complete latest backup and shows the result. See {@link Backup#restoreBackup(boolean, boolean)}.
+     * @param initialBackup If true the initial backup will be restored. If false the latest backup will be restored.
+     * @param afterFullBackup True when a full backup of the current files has just been created
+     */
+    public static void restoreBackup(boolean initialBackup, boolean afterFullBackup){
+        try {
+            List<String> restoredFiles = Backup.restoreBackup(initialBackup, afterFullBackup);
+            int numberOfFiles = Backup.getGameFiles().size();
+            if(initialBackup){
+                JOptionPane.showMessageDialog(null, "The initial backup has been restored." + getRestoredFilesMessage(restoredFiles, numberOfFiles), "Backup restored", JOptionPane.INFORMATION_MESSAGE);
+            }else{
+                JOptionPane.showMessageDialog(null, "The latest backup has been restored." + getRestoredFilesMessage(restoredFiles, numberOfFiles), "Backup restored", JOptionPane.INFORMATION_MESSAGE);
+            }
+        } catch (IOException exception) {
+            exception.printStackTrace();
+            if(initialBackup){
+                JOptionPane.showMessageDialog(null, "The initial backup could not be restored.\nThe initial backup file(s) are missing.\n\nException:\n" + exception.getMessage(), "Restoring failed", JOptionPane.ERROR_MESSAGE);
+            }else{
+                JOptionPane.showMessageDialog(null, "The latest backup could not be restored.\nThe latest backup file(s) are missing.\n\nException:\n" + exception.getMessage(), "Restoring failed", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * Opens a gui where the user can select which save game backup should be restored
+     */
+    public static void restoreSaveGameBackup(){
+        try {
+            JLabel label = new JLabel("<html>Select the save game slot where the save game is saved,<br>for which the backup should be restored:<br>0 = Auto save");
+            String[] array = Backup.getSaveGameSlots().toArray(new String[0]);
+            JList<String> listAvailableThemes = new JList<>(array);
+            listAvailableThemes.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            listAvailableThemes.setLayoutOrientation(JList.VERTICAL);
+            listAvailableThemes.setVisibleRowCount(-1);
+            JScrollPane scrollPaneAvailableSaveGames = new JScrollPane(listAvailableThemes);
+            scrollPaneAvailableSaveGames.setPreferredSize(new Dimension(30,60));
+
+            Object[] params = {label, scrollPaneAvailableSaveGames};
+            if(JOptionPane.showConfirmDialog(null, params, "Restore save game", JOptionPane.YES_NO_OPTION) == JOptionPane.OK_OPTION){
+                int saveGameSlotToRestore = Integer.parseInt(listAvailableThemes.getSelectedValue());
+                if(JOptionPane.showConfirmDialog(null, "Are you sure that you would like to restore the backup for save game " + saveGameSlotToRestore + " ?\n\nThis can not be undone!\nI will not take any responsibility if your save game is getting corrupted!\n\nRestore save game backup?", "Restore save game", JOptionPane.YES_NO_OPTION) == JOptionPane.OK_OPTION){
+                    if(Backup.restoreSaveGameBackup(saveGameSlotToRestore)){
+                        JOptionPane.showMessageDialog(null, "Save game backup has been restored", "Backup restored", JOptionPane.INFORMATION_MESSAGE);
+                    }else{
+                        JOptionPane.showMessageDialog(null, "The save game already matches its latest backup and has not been changed.", "Backup restored", JOptionPane.INFORMATION_MESSAGE);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Deletes all backups after confirmed by the user
+     */
+    public static void deleteAllBackups(){
+        if(JOptionPane.showConfirmDialog(null, "Are you sure that you wan't to delete all backups?", "Delete backup?", JOptionPane.YES_NO_OPTION) == 0){
+            try {
+                Backup.deleteAllBackups();
+                if(JOptionPane.showConfirmDialog(null, "All backups have been deleted.\nDo you wan't to create a new initial backup?", "Backups deleted", JOptionPane.YES_NO_OPTION) == 0){
+                    String returnValue = Backup.createInitialBackup();
+                    if(returnValue.equals("")) {
+                        JOptionPane.showMessageDialog(null, "The initial backup has been created successfully.", "Initial backup", JOptionPane.INFORMATION_MESSAGE);
+                    }else {
+                        JOptionPane.showMessageDialog(null, "The initial backup was not created:\nFile not found: Please check if your mgt2 folder is set correctly.\n\nException:\n" + returnValue, "Unable to backup file", JOptionPane.ERROR_MESSAGE);
+                        ChangeLog.addLogEntry(7, returnValue);
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+                LOGGER.info("Unable to delete all backups: " + e.getMessage());
+                JOptionPane.showMessageDialog(null, "Unable to delete all backups. \n\nException:\n" + e.getMessage(), "Unable to delete backups", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * @return Returns the message that is appended to the success message when files have been skipped.
+     */
+    private static String getSkippedFilesMessage(int skippedFiles){
+        if(skippedFiles == 0){
+            return "";
+        }
+        return "\n" + skippedFiles + " file(s) have not been changed since the latest backup and have been skipped.";
+    }
+
+    /**
+     * @return Returns a message listing the files that have been changed by restoring the backup.
+     */
+    private static String getRestoredFilesMessage(List<String> restoredFiles, int numberOfFiles){
+        if(restoredFiles.size() == numberOfFiles){
+            return "\n\nAll " + numberOfFiles + " files have been changed.";
+        }
+        if(restoredFiles.isEmpty()){
+            return "\n\nAll files already matched the backup, no file has been changed.";
+        }
+        return "\n\nChanged files:\n" + String.join("\n", restoredFiles) + "\n\n" + (numberOfFiles - restoredFiles.size()) + " file(s) already matched the backup and have not been changed.";
+    }
+}
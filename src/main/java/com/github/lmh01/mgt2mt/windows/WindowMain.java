@@ -1,6 +1,7 @@
 package com.github.lmh01.mgt2mt.windows;
 
 import com.github.lmh01.mgt2mt.MadGamesTycoon2ModTool;
+import com.github.lmh01.mgt2mt.core.ModEngine;
 import com.github.lmh01.mgt2mt.data_stream.*;
 import com.github.lmh01.mgt2mt.util.*;
 import org.slf4j.Logger;
@@ -13,12 +14,14 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class WindowMain {
     private static final Logger LOGGER = LoggerFactory.getLogger(WindowMain.class);
-    private static final JFrame frame = new JFrame("MGT2 Mod Tool");
+    //No frame can be created when the tool runs from the command line
+    static final JFrame frame = GraphicsEnvironment.isHeadless() ? null : new JFrame("MGT2 Mod Tool");
     private static final JMenuItem M221ADD_GENRE = new JMenuItem("Add Genre");
     private static final JMenuItem M222REMOVE_GENRE = new JMenuItem("Remove Genre");
     private static final JMenuItem M311EXPORT_GENRE = new JMenuItem("Genre");
@@ -32,7 +35,17 @@ public class WindowMain {
     private static final JMenuItem M262REMOVE_GAMEPLAY_FEATURE = new JMenuItem("Remove Gameplay Feature");
     private static final JMenuItem M252REMOVE_ENGINE_FEATURE = new JMenuItem("Remove Engine Feature");
     private static final JMenuItem M316EXPORT_ALL = new JMenuItem("Export All");
+    //The menus that change the game files are disabled until the game files have been loaded
+    private static final JMenuItem M13UNINSTALL = new JMenuItem("Uninstall");
+    private static final JMenu M2MODS = new JMenu("Mods");
+    private static final JMenu M4BACKUP = new JMenu("Backup");
     public static void createFrame(){
+        GameDataRepository.INSTANCE.addChangeListener(() -> {
+            //Changes that are made by a background task are shown when the task has finished, see WindowProgress
+            if(SwingUtilities.isEventDispatchThread()){
+                checkActionAvailability();
+            }
+        });
         //Creating the Frame
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setSize(300, 150);
@@ -46,14 +59,12 @@ public class WindowMain {
         m11.addActionListener(actionEvent -> WindowSettings.createFrame());
         JMenuItem m12 = new JMenuItem("Check For Updates");
         m12.addActionListener(actionEvent -> UpdateChecker.checkForUpdates(true));
-        JMenuItem m13 = new JMenuItem("Uninstall");
-        m13.setToolTipText("<html>Includes options with which all mod manager files<br> can be removed and all changes to the game files can be reverted.");
-        m13.addActionListener(actionEvent -> Uninstaller.uninstall());
+        M13UNINSTALL.setToolTipText("<html>Includes options with which all mod manager files<br> can be removed and all changes to the game files can be reverted.");
+        M13UNINSTALL.addActionListener(actionEvent -> Uninstaller.uninstall());
         mb.add(m1);
         m1.add(m11);
         m1.add(m12);
-        m1.add(m13);
-        JMenu m2Mods = new JMenu("Mods");
+        m1.add(M13UNINSTALL);
         JMenu m22Genres = new JMenu("Genres");
         JMenu m23Themes = new JMenu("Themes");
         JMenu m24Publisher = new JMenu("Publisher");
@@ -92,15 +103,15 @@ public class WindowMain {
         M252REMOVE_ENGINE_FEATURE.addActionListener(actionEvent -> OperationHelper.process(EditEngineFeaturesFile::removeEngineFeature, AnalyzeExistingEngineFeatures.getCustomEngineFeaturesString(), AnalyzeExistingEngineFeatures.getEngineFeaturesByAlphabet(), "engine feature", "removed", "Remove", false));
         JMenuItem m28AddCompanyIcon = new JMenuItem("Add Company Icon");
         m28AddCompanyIcon.addActionListener(actionEvent -> addCompanyIcon());
-        mb.add(m2Mods);
-        m2Mods.add(m21Import);
-        m2Mods.add(m22Genres);
-        m2Mods.add(m23Themes);
-        m2Mods.add(m24Publisher);
-        m2Mods.add(m25EngineFeatures);
-        m2Mods.add(m26GameplayFeatures);
-        m2Mods.add(M27NPC_GAMES_LIST);
-        m2Mods.add(m28AddCompanyIcon);
+        mb.add(M2MODS);
+        M2MODS.add(m21Import);
+        M2MODS.add(m22Genres);
+        M2MODS.add(m23Themes);
+        M2MODS.add(m24Publisher);
+        M2MODS.add(m25EngineFeatures);
+        M2MODS.add(m26GameplayFeatures);
+        M2MODS.add(M27NPC_GAMES_LIST);
+        M2MODS.add(m28AddCompanyIcon);
         JMenu m3Share = new JMenu(I18n.INSTANCE.get("share"));
         JMenu m31Export = new JMenu(I18n.INSTANCE.get("export"));
         m31Export.add(M311EXPORT_GENRE);
@@ -125,18 +136,17 @@ public class WindowMain {
         m3Share.add(m35);
         m3Share.add(m36);
         mb.add(m3Share);
-        JMenu m4 = new JMenu("Backup");
         JMenu m41 = new JMenu("Create Backup");
         JMenu m42 = new JMenu("Restore Backup");
         JMenuItem m411CreateFullBackup = new JMenuItem("Create Full Backup");
         m411CreateFullBackup.setToolTipText("Click to create a backup from the files that could be modified with this tool.");
-        m411CreateFullBackup.addActionListener(actionEvent -> Backup.createBackup("full"));
+        m411CreateFullBackup.addActionListener(actionEvent -> WindowBackup.createBackup("full"));
         JMenuItem m412BackupGenresFile = new JMenuItem("Backup Genres File");
-        m412BackupGenresFile.addActionListener(actionEvent -> Backup.createBackup("genre"));
+        m412BackupGenresFile.addActionListener(actionEvent -> WindowBackup.createBackup("genre"));
         JMenuItem m413BackupThemesFiles = new JMenuItem("Backup Theme Files");
-        m413BackupThemesFiles.addActionListener(actionEvent -> Backup.createBackup("theme"));
+        m413BackupThemesFiles.addActionListener(actionEvent -> WindowBackup.createBackup("theme"));
         JMenuItem m414BackupSavegames = new JMenuItem("Backup Save Games");
-        m414BackupSavegames.addActionListener(actionEvent -> Backup.createBackup("save_game"));
+        m414BackupSavegames.addActionListener(actionEvent -> WindowBackup.createBackup("save_game"));
         m41.add(m411CreateFullBackup);
         m41.add(m412BackupGenresFile);
         m41.add(m413BackupThemesFiles);
@@ -149,21 +159,21 @@ public class WindowMain {
         m422RestoreLatestBackup.addActionListener(actionEvent -> restoreLatestBackup());
         JMenuItem m423RestoreSaveGameBackup = new JMenuItem("Restore Save Game Backup");
         m423RestoreSaveGameBackup.setToolTipText("Click to select a save game for which the backup should be restored.");
-        m423RestoreSaveGameBackup.addActionListener(actionEvent -> Backup.restoreSaveGameBackup());
+        m423RestoreSaveGameBackup.addActionListener(actionEvent -> WindowBackup.restoreSaveGameBackup());
         m42.add(m421RestoreInitialBackup);
         m42.add(m422RestoreLatestBackup);
         m42.add(m423RestoreSaveGameBackup);
         JMenuItem m44 = new JMenuItem("Delete All Backups");
         m44.setToolTipText("Click to delete all backups that have been created.");
-        m44.addActionListener(actionEvent -> Backup.deleteAllBackups());
+        m44.addActionListener(actionEvent -> WindowBackup.deleteAllBackups());
         JMenuItem m45 = new JMenuItem("Open Backup Folder");
         m45.setToolTipText("<html>Click to open the backup folder.<br>All backups that have been created are located here.<br>Use this if you do want to restore a backup manually.");
         m45.addActionListener(actionEvent -> Utils.open(Settings.MGT2_MOD_MANAGER_PATH + "//Export//"));
-        mb.add(m4);
-        m4.add(m41);
-        m4.add(m42);
-        m4.add(m44);
-        m4.add(m45);
+        mb.add(M4BACKUP);
+        M4BACKUP.add(m41);
+        M4BACKUP.add(m42);
+        M4BACKUP.add(m44);
+        M4BACKUP.add(m45);
         JMenu m5 = new JMenu("Utilities");
         JMenu m51ExperimentalFeatures = new JMenu("Experimental Features");
         m51ExperimentalFeatures.setToolTipText("Contains features that are experimental and might cause problems or bugs");
@@ -221,104 +231,201 @@ public class WindowMain {
         frame.dispose();
         System.exit(0);
     }
+    /**
+     * Recovers interrupted changes, creates the initial backup and reads the game files on a background thread, so that the window can be used immediately.
+     * The initial backup and the game files are handled in parallel. The menus that change the game files are enabled when every phase has finished.
+     * The initial backup is created even when the interrupted changes could not be recovered. When a phase fails the menus stay disabled and the error is shown.
+     */
+    public static void loadGameFiles(){
+        setGameFilesLoaded(false, "Available when the game files have been loaded");
+        Thread thread = new Thread(() -> {
+            StringBuilder errors = new StringBuilder();
+            //Operations that are started from the gui wait until the game files have been loaded, see WindowProgress
+            ModEngine.LOCK.lock();
+            try{
+                try{
+                    List<File> recoveredFiles = StartupTimer.time("Recovering interrupted changes", Journal::recover);//Completes or discards changes that have been interrupted the last time the tool was running
+                    if(!recoveredFiles.isEmpty()){
+                        StringBuilder recoveredFileNames = new StringBuilder();
+                        for(File file : recoveredFiles){
+                            recoveredFileNames.append(file.getName()).append("\n");
+                        }
+                        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, "The last changes to the following game files have been interrupted.\nThe files have been recovered:\n\n" + recoveredFileNames, "Game files recovered", JOptionPane.INFORMATION_MESSAGE));
+                    }
+                }catch(IOException e){
+                    LOGGER.info("Unable to recover the interrupted changes: " + e.getMessage());
+                    e.printStackTrace();
+                    errors.append("Unable to recover the interrupted changes: ").append(e.getMessage()).append("\n");
+                }
+                List<Callable<Void>> tasks = new ArrayList<>();
+                tasks.add(() -> StartupTimer.time("Creating the initial backup", () -> {
+                    String initialBackupError = Backup.createInitialBackup();//Files that already have an initial backup are skipped
+                    if(!initialBackupError.isEmpty()){
+                        throw new IOException("The initial backup could not be created: " + initialBackupError);
+                    }
+                    return null;
+                }));
+                tasks.add(() -> {
+                    ActionAvailability actionAvailability = StartupTimer.time("Reading the game files", WindowMain::getActionAvailability);
+                    SwingUtilities.invokeLater(() -> setActionAvailability(actionAvailability));
+                    return null;
+                });
+                ParallelExecutor.runAll("startup", tasks);
+            }catch(IOException e){
+                LOGGER.info("Unable to load the game files: " + e.getMessage());
+                e.printStackTrace();
+                errors.append(e.getMessage()).append("\n");
+            }finally{
+                ModEngine.LOCK.unlock();
+            }
+            StartupTimer.logElapsed("Startup complete");
+            if(errors.length() == 0){
+                SwingUtilities.invokeLater(() -> setGameFilesLoaded(true, null));
+            }else{
+                SwingUtilities.invokeLater(() -> {
+                    setGameFilesLoaded(false, "Not available, the game files could not be loaded");
+                    JOptionPane.showMessageDialog(null, "The game files could not be loaded:\n\n" + errors + "\nThe mods, backup and uninstall menus have been disabled, so that no game file is changed without an initial backup.\nPlease check if your mgt2 folder is set correctly and restart the tool.", "Unable to load the game files", JOptionPane.ERROR_MESSAGE);
+                });
+            }
+        }, "mgt2mt-startup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @param toolTip The tool tip of the menus. Should be null when the menus are enabled.
+     */
+    private static void setGameFilesLoaded(boolean loaded, String toolTip){
+        if(frame == null){
+            return;
+        }
+        M2MODS.setEnabled(loaded);
+        M2MODS.setToolTipText(toolTip);
+        M4BACKUP.setEnabled(loaded);
+        M4BACKUP.setToolTipText(toolTip);
+        M13UNINSTALL.setEnabled(loaded);
+    }
+
     /**
      * Checks if specific actions are available. If they are the buttons will be enabled
      */
     public static void checkActionAvailability(){
+        if(frame == null){
+            return;
+        }
         try{
-            AnalyzeExistingGenres.analyzeGenreFile();
-            AnalyzeExistingThemes.analyzeThemeFiles();
-            AnalyzeExistingPublishers.analyzePublisherFile();
-            AnalyzeExistingGameplayFeatures.analyzeGameplayFeatures();
-            AnalyzeExistingEngineFeatures.analyzeEngineFeatures();
-            boolean noCustomGenreAvailable = true;
-            boolean noCustomThemesAvailable = true;
-            boolean noCustomPublishersAvailable = true;
-            boolean noCustomGameplayFeaturesAvailable = true;
-            boolean noCustomEngineFeaturesAvailable = true;
-            if(Settings.disableSafetyFeatures){
+            setActionAvailability(getActionAvailability());
+        }catch (IOException e){
+            LOGGER.info("Error" + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Reads the game files and checks which custom entries exist. Does not change the gui, so that it can be called by the thread that has changed the game files, see {@link WindowProgress}.
+     */
+    static ActionAvailability getActionAvailability() throws IOException {
+        ModEngine.loadGameFiles();
+        boolean noCustomGenreAvailable = true;
+        boolean noCustomThemesAvailable = true;
+        boolean noCustomPublishersAvailable = true;
+        boolean noCustomGameplayFeaturesAvailable = true;
+        boolean noCustomEngineFeaturesAvailable = true;
+        if(Settings.disableSafetyFeatures){
+            noCustomGenreAvailable = false;
+            noCustomThemesAvailable = false;
+            noCustomPublishersAvailable = false;
+            noCustomGameplayFeaturesAvailable = false;
+            noCustomEngineFeaturesAvailable = false;
+        }else{
+            String[] stringCustomGenres = AnalyzeExistingGenres.getCustomGenresByAlphabetWithoutId();
+            if(stringCustomGenres.length != 0){
                 noCustomGenreAvailable = false;
-                noCustomThemesAvailable = false;
-                noCustomPublishersAvailable = false;
-                noCustomGameplayFeaturesAvailable = false;
-                noCustomEngineFeaturesAvailable = false;
-            }else{
-                String[] stringCustomGenres = AnalyzeExistingGenres.getCustomGenresByAlphabetWithoutId();
-                if(stringCustomGenres.length != 0){
-                    noCustomGenreAvailable = false;
-                }
-                if(AnalyzeExistingThemes.MAP_ACTIVE_THEMES_GE.size() > AnalyzeExistingThemes.DEFAULT_THEMES.length){
-                    noCustomThemesAvailable = false;
-                }
-                List<Map<String, String>> list = AnalyzeExistingPublishers.getListMap();
-                if(list.size() > 71){
-                    noCustomPublishersAvailable = false;
-                }
-                List<Map<String, String>> currentGameplayFeatures = AnalyzeExistingGameplayFeatures.gameplayFeatures;
-                if(currentGameplayFeatures.size() > 58){
-                    noCustomGameplayFeaturesAvailable = false;
-                }
-                List<Map<String, String>> currentEngineFeatures = AnalyzeExistingEngineFeatures.engineFeatures;
-                if(currentEngineFeatures.size() > 58){
-                    noCustomEngineFeaturesAvailable = false;
-                }
-            }
-            M222REMOVE_GENRE.setEnabled(!noCustomGenreAvailable);
-            M232REMOVE_THEME.setEnabled(!noCustomThemesAvailable);
-            M27NPC_GAMES_LIST.setEnabled(!noCustomGenreAvailable);
-            M242REMOVE_PUBLISHER.setEnabled(!noCustomPublishersAvailable);
-            M311EXPORT_GENRE.setEnabled(!noCustomGenreAvailable);
-            M312EXPORT_PUBLISHER.setEnabled(!noCustomPublishersAvailable);
-            M313EXPORT_THEME.setEnabled(!noCustomThemesAvailable);
-            M252REMOVE_ENGINE_FEATURE.setEnabled(!noCustomEngineFeaturesAvailable);
-            M314EXPORT_ENGINE_FEATURE.setEnabled(!noCustomEngineFeaturesAvailable);
-            M262REMOVE_GAMEPLAY_FEATURE.setEnabled(!noCustomGameplayFeaturesAvailable);
-            M315EXPORT_GAMEPLAY_FEATURE.setEnabled(!noCustomGameplayFeaturesAvailable);
-            M316EXPORT_ALL.setEnabled(!noCustomEngineFeaturesAvailable || !noCustomGameplayFeaturesAvailable || !noCustomGenreAvailable || !noCustomPublishersAvailable || !noCustomThemesAvailable);
-            if(noCustomGenreAvailable){
-                M222REMOVE_GENRE.setToolTipText("Disabled -> No genre to remove available");
-                M27NPC_GAMES_LIST.setToolTipText("Disabled -> Add a genre first");
-                M311EXPORT_GENRE.setToolTipText("Disabled -> No genre to export available");
-            }else if(noCustomGenreAvailable && noCustomPublishersAvailable && noCustomThemesAvailable){
-                M316EXPORT_ALL.setToolTipText("Disabled -> Mo genre, theme or publisher to export available");
-            }else{
-                M222REMOVE_GENRE.setToolTipText("");
-                M27NPC_GAMES_LIST.setToolTipText("");
-                M311EXPORT_GENRE.setToolTipText("");
-                M316EXPORT_ALL.setToolTipText("Click to export all publishers and genres that have been added");
             }
-            if(noCustomThemesAvailable){
-                M232REMOVE_THEME.setToolTipText("Disabled -> No theme to remove available");
-                M313EXPORT_THEME.setToolTipText("Disabled -> No theme to export available");
-            }else{
-                M232REMOVE_THEME.setToolTipText("");
+            if(AnalyzeExistingThemes.MAP_ACTIVE_THEMES_GE.size() > AnalyzeExistingThemes.DEFAULT_THEMES.length){
+                noCustomThemesAvailable = false;
             }
-            if(noCustomPublishersAvailable){
-                M242REMOVE_PUBLISHER.setToolTipText("Disabled -> Add publisher first");
-                M312EXPORT_PUBLISHER.setToolTipText("Disabled -> No publisher to export available");
-            }else{
-                M242REMOVE_PUBLISHER.setToolTipText("");
-                M312EXPORT_PUBLISHER.setToolTipText("");
+            List<Map<String, String>> list = AnalyzeExistingPublishers.getListMap();
+            if(list.size() > 71){
+                noCustomPublishersAvailable = false;
             }
-            if(noCustomEngineFeaturesAvailable){
-                M252REMOVE_ENGINE_FEATURE.setToolTipText("Disabled -> Add engine feature first");
-                M314EXPORT_ENGINE_FEATURE.setToolTipText("Disabled -> Add engine feature first");
-            }else{
-                M252REMOVE_ENGINE_FEATURE.setToolTipText("");
-                M314EXPORT_ENGINE_FEATURE.setToolTipText("");
+            List<Map<String, String>> currentGameplayFeatures = AnalyzeExistingGameplayFeatures.gameplayFeatures;
+            if(currentGameplayFeatures.size() > 58){
+                noCustomGameplayFeaturesAvailable = false;
             }
-            if(noCustomGameplayFeaturesAvailable){
-                M262REMOVE_GAMEPLAY_FEATURE.setToolTipText("Disabled -> Add gameplay feature first");
-                M315EXPORT_GAMEPLAY_FEATURE.setToolTipText("Disabled -> Add gameplay feature first");
-            }else{
-                M262REMOVE_GAMEPLAY_FEATURE.setToolTipText("");
-                M315EXPORT_GAMEPLAY_FEATURE.setToolTipText("");
+            List<Map<String, String>> currentEngineFeatures = AnalyzeExistingEngineFeatures.engineFeatures;
+            if(currentEngineFeatures.size() > 58){
+                noCustomEngineFeaturesAvailable = false;
             }
-        }catch (IOException e){
-            LOGGER.info("Error" + e.getMessage());
-            e.printStackTrace();
         }
+        return new ActionAvailability(!noCustomGenreAvailable, !noCustomThemesAvailable, !noCustomPublishersAvailable, !noCustomGameplayFeaturesAvailable, !noCustomEngineFeaturesAvailable);
     }
+
+    /**
+     * Enables the actions for which custom entries exist. The game files are not read.
+     */
+    static void setActionAvailability(ActionAvailability actionAvailability){
+        if(frame == null){
+            return;
+        }
+        boolean noCustomGenreAvailable = !actionAvailability.customGenres;
+        boolean noCustomThemesAvailable = !actionAvailability.customThemes;
+        boolean noCustomPublishersAvailable = !actionAvailability.customPublishers;
+        boolean noCustomGameplayFeaturesAvailable = !actionAvailability.customGameplayFeatures;
+        boolean noCustomEngineFeaturesAvailable = !actionAvailability.customEngineFeatures;
+        M222REMOVE_GENRE.setEnabled(!noCustomGenreAvailable);
+        M232REMOVE_THEME.setEnabled(!noCustomThemesAvailable);
+        M27NPC_GAMES_LIST.setEnabled(!noCustomGenreAvailable);
+        M242REMOVE_PUBLISHER.setEnabled(!noCustomPublishersAvailable);
+        M311EXPORT_GENRE.setEnabled(!noCustomGenreAvailable);
+        M312EXPORT_PUBLISHER.setEnabled(!noCustomPublishersAvailable);
+        M313EXPORT_THEME.setEnabled(!noCustomThemesAvailable);
+        M252REMOVE_ENGINE_FEATURE.setEnabled(!noCustomEngineFeaturesAvailable);
+        M314EXPORT_ENGINE_FEATURE.setEnabled(!noCustomEngineFeaturesAvailable);
+        M262REMOVE_GAMEPLAY_FEATURE.setEnabled(!noCustomGameplayFeaturesAvailable);
+        M315EXPORT_GAMEPLAY_FEATURE.setEnabled(!noCustomGameplayFeaturesAvailable);
+        M316EXPORT_ALL.setEnabled(!noCustomEngineFeaturesAvailable || !noCustomGameplayFeaturesAvailable || !noCustomGenreAvailable || !noCustomPublishersAvailable || !noCustomThemesAvailable);
+        if(noCustomGenreAvailable){
+            M222REMOVE_GENRE.setToolTipText("Disabled -> No genre to remove available");
+            M27NPC_GAMES_LIST.setToolTipText("Disabled -> Add a genre first");
+            M311EXPORT_GENRE.setToolTipText("Disabled -> No genre to export available");
+        }else if(noCustomGenreAvailable && noCustomPublishersAvailable && noCustomThemesAvailable){
+            M316EXPORT_ALL.setToolTipText("Disabled -> Mo genre, theme or publisher to export available");
+        }else{
+            M222REMOVE_GENRE.setToolTipText("");
+            M27NPC_GAMES_LIST.setToolTipText("");
+            M311EXPORT_GENRE.setToolTipText("");
+            M316EXPORT_ALL.setToolTipText("Click to export all publishers and genres that have been added");
+        }
+        if(noCustomThemesAvailable){
+            M232REMOVE_THEME.setToolTipText("Disabled -> No theme to remove available");
+            M313EXPORT_THEME.setToolTipText("Disabled -> No theme to export available");
+        }else{
+            M232REMOVE_THEME.setToolTipText("");
+        }
+        if(noCustomPublishersAvailable){
+            M242REMOVE_PUBLISHER.setToolTipText("Disabled -> Add publisher first");
+            M312EXPORT_PUBLISHER.setToolTipText("Disabled -> No publisher to export available");
+        }else{
+            M242REMOVE_PUBLISHER.setToolTipText("");
+            M312EXPORT_PUBLISHER.setToolTipText("");
+        }
+        if(noCustomEngineFeaturesAvailable){
+            M252REMOVE_ENGINE_FEATURE.setToolTipText("Disabled -> Add engine feature first");
+            M314EXPORT_ENGINE_FEATURE.setToolTipText("Disabled -> Add engine feature first");
+        }else{
+            M252REMOVE_ENGINE_FEATURE.setToolTipText("");
+            M314EXPORT_ENGINE_FEATURE.setToolTipText("");
+        }
+        if(noCustomGameplayFeaturesAvailable){
+            M262REMOVE_GAMEPLAY_FEATURE.setToolTipText("Disabled -> Add gameplay feature first");
+            M315EXPORT_GAMEPLAY_FEATURE.setToolTipText("Disabled -> Add gameplay feature first");
+        }else{
+            M262REMOVE_GAMEPLAY_FEATURE.setToolTipText("");
+            M315EXPORT_GAMEPLAY_FEATURE.setToolTipText("");
+        }
+    }
+
     private static void addGenre(){
         try {
             //AnalyzeExistingGenres.analyzeGenreFileDeprecated();
@@ -620,7 +727,7 @@ public class WindowMain {
         if(JOptionPane.showConfirmDialog(null, "Are you sure that you wan't to restore the initial backup?\nAll changes that you have applied to the game files will be lost.\nThe savegame backups will not be restored.\nA backup of the current files will be created.", "Restore backup?", JOptionPane.YES_NO_OPTION) == 0){
             try {
                 LOGGER.info("Creating backup beforehand.");
-                Backup.createFullBackup();
+                Backup.createFullBackup("restore initial backup");
                 String[] customGenres = AnalyzeExistingGenres.getCustomGenresByAlphabetWithoutId();
                 for (String customGenre : customGenres) {
                     try {
@@ -642,11 +749,11 @@ public class WindowMain {
                         e.printStackTrace();
                     }
                 }
-                Backup.restoreBackup(true, true);
+                WindowBackup.restoreBackup(true, false);
             } catch (IOException e) {
                 e.printStackTrace();
                 if(Utils.showConfirmDialog(1, e)){
-                    Backup.restoreBackup(true, true);
+                    WindowBackup.restoreBackup(true, false);
                 }else{
                     JOptionPane.showMessageDialog(null, "The initial backup was not restored.", "Restoring failed", JOptionPane.ERROR_MESSAGE);
                 }
@@ -658,14 +765,12 @@ public class WindowMain {
         if(JOptionPane.showConfirmDialog(null, "Are you sure that you wan't to restore the latest backup?\nThe savegame backups will not be restored.\nA backup of the current files will be created.", "Restore backup?", JOptionPane.YES_NO_OPTION) == 0){
             try {
                 LOGGER.info("Creating backup beforehand.");
-                Backup.createFullBackup();
-                Backup.restoreBackup(false, true);
-                ChangeLog.addLogEntry(9);
+                Backup.createFullBackup("restore latest backup");
+                WindowBackup.restoreBackup(false, true);
             } catch (IOException e) {
                 e.printStackTrace();
                 if(Utils.showConfirmDialog(1, e)){
-                    Backup.restoreBackup(false, true);
-                    ChangeLog.addLogEntry(9);
+                    WindowBackup.restoreBackup(false, false);
                 }else{
                     JOptionPane.showMessageDialog(null, "The latest backup was not restored.", "Restoring failed", JOptionPane.ERROR_MESSAGE);
                 }
@@ -714,4 +819,23 @@ public class WindowMain {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Which types have custom entries that can be exported or removed.
+     */
+    static class ActionAvailability {
+        private final boolean customGenres;
+        private final boolean customThemes;
+        private final boolean customPublishers;
+        private final boolean customGameplayFeatures;
+        private final boolean customEngineFeatures;
+
+        private ActionAvailability(boolean customGenres, boolean customThemes, boolean customPublishers, boolean customGameplayFeatures, boolean customEngineFeatures){
+            this.customGenres = customGenres;
+            this.customThemes = customThemes;
+            this.customPublishers = customPublishers;
+            this.customGameplayFeatures = customGameplayFeatures;
+            this.customEngineFeatures = customEngineFeatures;
+        }
+    }
 }
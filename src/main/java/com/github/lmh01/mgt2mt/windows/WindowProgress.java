@@ -0,0 +1,185 @@
+package com.github.lmh01.mgt2mt.windows;
+
+import com.github.lmh01.mgt2mt.core.ModEngine;
+import com.github.lmh01.mgt2mt.util.TaskProgress;
+import com.github.lmh01.mgt2mt.util.interfaces.BackgroundTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import javax.swing.*;
+import java.awt.*;
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Runs operations that read or write the game files on a background thread, so that the gui does not freeze.
+ * A window shows the current stage, the finished steps and the written bytes. The main window is disabled until the operation has finished.
+ */
+public class WindowProgress {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WindowProgress.class);
+
+    /**
+     * Runs the task on a background thread while {@link ModEngine#LOCK} is held. Has to be called on the event dispatch thread.
+     * When the task has finished the available actions are updated from the state the task has left, the game files are not read again on the event dispatch thread.
+     * @param title The title of the progress window. Eg. Importing mods
+     * @param cancellable True when the task checks {@link TaskProgress#isCancelled()}. The cancel button is disabled otherwise.
+     * @param task The operation. Must not show any window.
+     * @param onSuccess Is called on the event dispatch thread with the result of the task. Is not called when the task has failed or has been cancelled.
+     */
+    public static <T> void run(String title, boolean cancellable, BackgroundTask<T> task, Consumer<T> onSuccess){
+        TaskProgress progress = new TaskProgress();
+        JDialog dialog = new JDialog(WindowMain.frame, title, false);
+        JLabel labelStage = new JLabel("Starting...");
+        JProgressBar progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setStringPainted(true);
+        progressBar.setString("");
+        JLabel labelBytesWritten = new JLabel(" ");
+        JButton buttonCancel = new JButton("Cancel");
+        buttonCancel.setEnabled(cancellable);
+        buttonCancel.setToolTipText(cancellable ? "Stops the operation as soon as no game file is being changed" : "This operation can not be cancelled");
+        buttonCancel.addActionListener(actionEvent -> {
+            progress.cancel();
+            buttonCancel.setEnabled(false);
+            buttonCancel.setText("Cancelling...");
+        });
+        JPanel panel = new JPanel();
+        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        labelStage.setAlignmentX(Component.LEFT_ALIGNMENT);
+        progressBar.setAlignmentX(Component.LEFT_ALIGNMENT);
+        labelBytesWritten.setAlignmentX(Component.LEFT_ALIGNMENT);
+        buttonCancel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        panel.add(labelStage);
+        panel.add(Box.createVerticalStrut(5));
+        panel.add(progressBar);
+        panel.add(Box.createVerticalStrut(5));
+        panel.add(labelBytesWritten);
+        panel.add(Box.createVerticalStrut(5));
+        panel.add(buttonCancel);
+        dialog.setContentPane(panel);
+        dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+        dialog.setSize(350, 150);
+        dialog.setLocationRelativeTo(WindowMain.frame);
+        //The progress is polled, so that a task that reports many steps does not flood the event dispatch thread
+        Timer timer = new Timer(100, actionEvent -> {
+            if(!progress.getStage().isEmpty()){
+                labelStage.setText(progress.getStage());
+            }
+            if(progress.getTotal() > 0){
+                progressBar.setIndeterminate(false);
+                progressBar.setMaximum(progress.getTotal());
+                progressBar.setValue(progress.getCurrent());
+                progressBar.setString(progress.getCurrent() + "/" + progress.getTotal());
+            }else{
+                progressBar.setIndeterminate(true);
+                progressBar.setString("");
+            }
+            labelBytesWritten.setText(getBytesString(progress.getBytesWritten()) + " written");
+        });
+        SwingWorker<Result<T>, Void> worker = new SwingWorker<Result<T>, Void>() {
+            @Override
+            protected Result<T> doInBackground(){
+                ModEngine.LOCK.lock();
+                try{
+                    T value = null;
+                    Exception error = null;
+                    try{
+                        value = task.run(progress);
+                    }catch(Exception e){
+                        error = e;
+                    }
+                    //The available actions are updated even when the task has failed or has been cancelled, the game files are not read on the event dispatch thread
+                    WindowMain.ActionAvailability actionAvailability = null;
+                    try{
+                        actionAvailability = WindowMain.getActionAvailability();
+                    }catch(IOException e){
+                        if(error == null){
+                            error = e;
+                        }else{
+                            LOGGER.info("Unable to check the available actions: " + e.getMessage());
+                        }
+                    }
+                    return new Result<>(value, error, actionAvailability);
+                }finally{
+                    ModEngine.LOCK.unlock();
+                }
+            }
+
+            @Override
+            protected void done(){
+                timer.stop();
+                dialog.dispose();
+                if(WindowMain.frame != null){
+                    WindowMain.frame.setEnabled(true);
+                }
+                Throwable error;
+                try{
+                    Result<T> result = get();
+                    if(result.actionAvailability != null){
+                        WindowMain.setActionAvailability(result.actionAvailability);
+                    }
+                    if(result.error == null){
+                        onSuccess.accept(result.value);
+                        return;
+                    }
+                    error = result.error;
+                }catch(InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    return;
+                }catch(ExecutionException e){
+                    error = e.getCause();
+                }
+                if(error instanceof CancellationException){
+                    LOGGER.info(title + " has been cancelled");
+                    String finishedSteps = progress.getFinishedSteps();
+                    if(finishedSteps.isEmpty()){
+                        JOptionPane.showMessageDialog(null, title + " has been cancelled before any step has been finished.", "Cancelled", JOptionPane.INFORMATION_MESSAGE);
+                    }else{
+                        JOptionPane.showMessageDialog(null, title + " has been cancelled.\nThe following steps had been finished before:\n\n" + finishedSteps, "Cancelled", JOptionPane.INFORMATION_MESSAGE);
+                    }
+                }else{
+                    error.printStackTrace();
+                    JOptionPane.showMessageDialog(null, "Error while " + title.toLowerCase() + ":\n\n" + error.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        if(WindowMain.frame != null){
+            WindowMain.frame.setEnabled(false);
+        }
+        timer.start();
+        worker.execute();
+        dialog.setVisible(true);
+    }
+
+    /**
+     * @return Returns the number of bytes in a readable form. Eg. 1.5 MB
+     */
+    private static String getBytesString(long bytes){
+        if(bytes < 1024){
+            return bytes + " B";
+        }else if(bytes < 1024*1024){
+            return String.format("%.1f KB", bytes/1024.0);
+        }
+        return String.format("%.1f MB", bytes/(1024.0*1024.0));
+    }
+
+    private static class Result<T> {
+        private final T value;
+        /**
+         * Null when the task has finished successfully.
+         */
+        private final Exception error;
+        /**
+         * Null when the available actions could not be checked.
+         */
+        private final WindowMain.ActionAvailability actionAvailability;
+
+        private Result(T value, Exception error, WindowMain.ActionAvailability actionAvailability){
+            this.value = value;
+            this.error = error;
+            this.actionAvailability = actionAvailability;
+        }
+    }
+}
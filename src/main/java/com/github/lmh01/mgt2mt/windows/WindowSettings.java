@@ -8,6 +8,7 @@ import org.slf4j.LoggerFactory;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.io.IOException;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -21,6 +22,7 @@ public class WindowSettings extends JFrame {
     JComboBox comboBoxMGT2FolderOperation = new JComboBox();
     JCheckBox checkBoxDisableSafety = new JCheckBox("Disable safety features");
     JCheckBox checkBoxDebugMode = new JCheckBox("Enable debug logging");
+    JCheckBox checkBoxBackupArchives = new JCheckBox("Compress backups");
 
     public static void createFrame(){
         EventQueue.invokeLater(() -> {
@@ -36,7 +38,7 @@ public class WindowSettings extends JFrame {
 
     public WindowSettings(){
         this.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
-        this.setBounds(100, 100, 343, 200);
+        this.setBounds(100, 100, 343, 230);
 
         JPanel contentPane = new JPanel();
         contentPane.setBorder(new EmptyBorder(5, 5, 5, 5));
@@ -67,13 +69,21 @@ public class WindowSettings extends JFrame {
         });
         contentPane.add(checkBoxDisableSafety);
 
+        checkBoxBackupArchives.setBounds(20, 100, 200, 23);
+        checkBoxBackupArchives.setToolTipText("<html>Check this box to store each backup in a compressed archive.<br>The files are compressed in parallel.");
+        checkBoxBackupArchives.addActionListener(e -> {
+            LOGGER.info("checkBoxBackupArchives action: " + e.getActionCommand());
+            unsavedChanges = checkBoxBackupArchives.isSelected() != Settings.enableBackupArchives;
+        });
+        contentPane.add(checkBoxBackupArchives);
+
         JLabel lblMinecraftLocation = new JLabel("MGT2 Folder:");
-        lblMinecraftLocation.setBounds(20, 103, 127, 14);
+        lblMinecraftLocation.setBounds(20, 133, 127, 14);
         contentPane.add(lblMinecraftLocation);
 
         AtomicBoolean automaticWasLastSelectedOption = new AtomicBoolean(!Settings.enableCustomFolder);
         AtomicBoolean manualWasLastSelectedOption = new AtomicBoolean(Settings.enableCustomFolder);
-        comboBoxMGT2FolderOperation.setBounds(117, 100, 100, 23);
+        comboBoxMGT2FolderOperation.setBounds(117, 130, 100, 23);
         comboBoxMGT2FolderOperation.setToolTipText("<html>[Automatic]: The folder will be selected automatically<br>[Manual]: Use a custom path.");
         comboBoxMGT2FolderOperation.addActionListener(e -> {
             LOGGER.info("comboBoxMGT2FolderOperation action: " + e.getActionCommand());
@@ -115,7 +125,7 @@ public class WindowSettings extends JFrame {
                     classNotFoundException.printStackTrace();
                 }
             }else if (comboBoxMGT2FolderOperation.getSelectedItem().equals("Automatic")){
-                Settings.setMgt2Folder(true);
+                setMgt2Folder(true);
                 automaticWasLastSelectedOption.set(true);
                 manualWasLastSelectedOption.set(false);
                 unsavedChanges = true;
@@ -124,7 +134,7 @@ public class WindowSettings extends JFrame {
         contentPane.add(comboBoxMGT2FolderOperation);
 
         JButton buttonResetCustomFolder = new JButton("Reset");
-        buttonResetCustomFolder.setBounds(230, 99, 89, 23);
+        buttonResetCustomFolder.setBounds(230, 129, 89, 23);
         buttonResetCustomFolder.setToolTipText("<html>Click to reset the custom folder.<br>This will restore the default folder.");
         buttonResetCustomFolder.addActionListener(actionEvent -> {
             customFolderSetAndValid = false;
@@ -133,13 +143,13 @@ public class WindowSettings extends JFrame {
         contentPane.add(buttonResetCustomFolder);
 
         JButton btnBack = new JButton("Back");
-        btnBack.setBounds(10, 132, 69, 23);
+        btnBack.setBounds(10, 162, 69, 23);
         btnBack.setToolTipText("Click to get to the main page.");
         btnBack.addActionListener(actionEvent -> {
             if(unsavedChanges){
-                String unsavedChanges = getChangesInSettings(checkBoxDebugMode, checkBoxDisableSafety);
+                String unsavedChanges = getChangesInSettings(checkBoxDebugMode, checkBoxDisableSafety, checkBoxBackupArchives);
                 if(JOptionPane.showConfirmDialog(null, "You have made changes that have not been saved:\n\n" + unsavedChanges + "\nDo you want to save them?", "Unsaved changes", JOptionPane.YES_NO_OPTION) == JOptionPane.OK_OPTION){
-                    setCurrentSettings(checkBoxDebugMode, checkBoxDisableSafety);WindowSettings.FRAME.dispose();
+                    setCurrentSettings(checkBoxDebugMode, checkBoxDisableSafety, checkBoxBackupArchives);WindowSettings.FRAME.dispose();
                     Backup.createInitialBackup();
                 }
             }
@@ -150,13 +160,14 @@ public class WindowSettings extends JFrame {
         contentPane.add(btnBack);
 
         JButton btnResetSettings = new JButton("Reset Settings");
-        btnResetSettings.setBounds(90, 132, 127, 23);
+        btnResetSettings.setBounds(90, 162, 127, 23);
         btnResetSettings.setToolTipText("Click to reset the settings to default values.");
         btnResetSettings.addActionListener(actionEvent -> {
             if (JOptionPane.showConfirmDialog(null, "Are you sure?", "Reset Settings", JOptionPane.YES_NO_OPTION) == 0) {
                 Settings.resetSettings();
                 checkBoxDebugMode.setSelected(false);
                 checkBoxDisableSafety.setSelected(false);
+                checkBoxBackupArchives.setSelected(false);
                 customFolderSetAndValid = false;
                 comboBoxMGT2FolderOperation.setSelectedItem("Automatic");
                 unsavedChanges = false;
@@ -167,19 +178,19 @@ public class WindowSettings extends JFrame {
         contentPane.add(btnResetSettings);
 
         JButton btnSave = new JButton("Save");
-        btnSave.setBounds(230, 132, 89, 23);
+        btnSave.setBounds(230, 162, 89, 23);
         btnSave.setToolTipText("Click to save the current settings.");
         btnSave.addActionListener(actionEvent -> {
             unsavedChanges = false;
             if(checkBoxDisableSafety.isSelected()){
-                String unsavedChanges = getChangesInSettings(checkBoxDebugMode, checkBoxDisableSafety);
+                String unsavedChanges = getChangesInSettings(checkBoxDebugMode, checkBoxDisableSafety, checkBoxBackupArchives);
                 if(JOptionPane.showConfirmDialog(null, "Save the following settings?\n\n" + unsavedChanges, "Unsaved changes", JOptionPane.YES_NO_OPTION) == JOptionPane.OK_OPTION){
-                    setCurrentSettings(checkBoxDebugMode, checkBoxDisableSafety);
+                    setCurrentSettings(checkBoxDebugMode, checkBoxDisableSafety, checkBoxBackupArchives);
                     WindowMain.checkActionAvailability();
                     Backup.createInitialBackup();
                 }
             }else{
-                setCurrentSettings(checkBoxDebugMode, checkBoxDisableSafety);
+                setCurrentSettings(checkBoxDebugMode, checkBoxDisableSafety, checkBoxBackupArchives);
                 Backup.createInitialBackup();
             }
         });
@@ -194,23 +205,26 @@ public class WindowSettings extends JFrame {
         }
         checkBoxDebugMode.setSelected(Settings.enableDebugLogging);
         checkBoxDisableSafety.setSelected(Settings.disableSafetyFeatures);
+        checkBoxBackupArchives.setSelected(Settings.enableBackupArchives);
     }
 
     /**
      * Applies the local changes in the settings to the global settings by calling Settings.setSettings(...)
      * @param checkBoxDebugMode The debug mode checkbox
      * @param checkBoxDisableSafety The disable safety features checkbox
+     * @param checkBoxBackupArchives The compress backups checkbox
      */
-    private static void setCurrentSettings(JCheckBox checkBoxDebugMode,JCheckBox checkBoxDisableSafety){
-        Settings.setSettings(true, checkBoxDebugMode.isSelected(),checkBoxDisableSafety.isSelected(), customFolderSetAndValid, customFolderPath, Settings.enableAddGenreWarning, Settings.enableGenreNameTranslationInfo, Settings.enableGenreDescriptionTranslationInfo);
+    private static void setCurrentSettings(JCheckBox checkBoxDebugMode,JCheckBox checkBoxDisableSafety,JCheckBox checkBoxBackupArchives){
+        Settings.setSettings(true, checkBoxDebugMode.isSelected(),checkBoxDisableSafety.isSelected(), customFolderSetAndValid, customFolderPath, Settings.enableAddGenreWarning, Settings.enableGenreNameTranslationInfo, Settings.enableGenreDescriptionTranslationInfo, checkBoxBackupArchives.isSelected(), Settings.backupRetentionCount, Settings.backupRetentionKeepDaily);
     }
 
     /**
      * @param checkBoxDebugMode The debug mode checkbox
      * @param checkBoxDisableSafety The disable safety features checkbox
+     * @param checkBoxBackupArchives The compress backups checkbox
      * @return Returns the changes that have been made to the settings
      */
-    private static String getChangesInSettings(JCheckBox checkBoxDebugMode,JCheckBox checkBoxDisableSafety){
+    private static String getChangesInSettings(JCheckBox checkBoxDebugMode,JCheckBox checkBoxDisableSafety,JCheckBox checkBoxBackupArchives){
         String unsavedChanges = "";
         if(Settings.enableDebugLogging != checkBoxDebugMode.isSelected()){
             unsavedChanges = unsavedChanges + "Enable debug logging: " + Settings.enableDebugLogging + " -> " + checkBoxDebugMode.isSelected() + "\n";
@@ -218,9 +232,37 @@ public class WindowSettings extends JFrame {
         if(Settings.disableSafetyFeatures != checkBoxDisableSafety.isSelected()){
             unsavedChanges = unsavedChanges + "Disable safety features: " + Settings.disableSafetyFeatures + " -> " + checkBoxDisableSafety.isSelected() + "\n";
         }
+        if(Settings.enableBackupArchives != checkBoxBackupArchives.isSelected()){
+            unsavedChanges = unsavedChanges + "Compress backups: " + Settings.enableBackupArchives + " -> " + checkBoxBackupArchives.isSelected() + "\n";
+        }
         if(!Settings.mgt2FilePath.equals(customFolderPath) && !customFolderPath.isEmpty() && !Settings.mgt2FilePath.isEmpty()){
             unsavedChanges = unsavedChanges + "Mad Games Tycoon folder: " + Settings.mgt2FilePath + " -> " + customFolderPath + "\n";
         }
         return unsavedChanges;
     }
+
+    /**
+     * Sets the folder where Mad Games Tycoon 2 is located.
+     * @param showMessages True when a message should be displayed if the folder has been found.
+     */
+    public static void setMgt2Folder(boolean showMessages){
+        try {
+            if(Settings.detectMgt2Folder()){
+                if (showMessages) {
+                    JOptionPane.showMessageDialog(new Frame(), "Mad Games Tycoon 2 Folder has been set automatically.\n\nLocation:\n" + Settings.mgt2FilePath, "Folder detected automatically", JOptionPane.INFORMATION_MESSAGE);
+                }
+            }else{
+                showMgt2FolderNotDetectedMessage();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Tells the user how the folder where Mad Games Tycoon 2 is located can be set manually.
+     */
+    public static void showMgt2FolderNotDetectedMessage(){
+        JOptionPane.showMessageDialog(null, "The Mad Games Tycoon folder could not be detected.\n\nPlease go into the settings, select \"Manual\" as file folder and choose the path to the \"Mad Games Tycoon 2.exe\" file.");
+    }
 }